@@ -0,0 +1,73 @@
+package dev.fluffix.sentinel.commands;
+
+import dev.fluffix.sentinel.alts.AltGraph;
+import dev.fluffix.sentinel.message.MessageHandler;
+import dev.fluffix.sentinel.message.MessageKeys;
+import org.bukkit.Bukkit;
+import org.bukkit.command.*;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+
+/**
+ * /alts <player>: verknüpfte Accounts direkt aus dem Alt-Graphen im Speicher (keine Joins).
+ */
+public class AltsCommand implements CommandExecutor, TabCompleter {
+
+    private final AltGraph altGraph;
+    private final MessageHandler messages;
+
+    public AltsCommand(AltGraph altGraph, MessageHandler messages) {
+        this.altGraph = Objects.requireNonNull(altGraph, "altGraph");
+        this.messages = Objects.requireNonNull(messages, "messages");
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+
+        if (!sender.hasPermission("sentinel.alts")) {
+            messages.sendWithPrefix(sender, MessageKeys.NO_PERMISSION.key());
+            return true;
+        }
+
+        if (args.length < 1) {
+            messages.sendWithPrefix(sender, MessageKeys.ALTS_USAGE.key(), Map.of("label", label));
+            return true;
+        }
+
+        String targetName = args[0];
+        Player online = Bukkit.getPlayerExact(targetName);
+        UUID uuid = online != null ? online.getUniqueId() : altGraph.findByName(targetName);
+        if (uuid == null) {
+            messages.sendWithPrefix(sender, MessageKeys.ALTS_UNKNOWN.key(), Map.of("target", targetName));
+            return true;
+        }
+
+        List<AltGraph.Alt> alts = new ArrayList<>(altGraph.altsOf(uuid));
+        if (alts.isEmpty()) {
+            messages.sendWithPrefix(sender, MessageKeys.ALTS_EMPTY.key(), Map.of("target", targetName));
+            return true;
+        }
+
+        // gebannte Accounts zuerst
+        alts.sort(Comparator.comparing((AltGraph.Alt a) -> !a.banned())
+                .thenComparing(a -> Objects.toString(a.name(), ""), String.CASE_INSENSITIVE_ORDER));
+        messages.sendList(sender, MessageKeys.ALTS_HEADER.key(),
+                Map.of("target", targetName, "count", String.valueOf(alts.size())),
+                MessageKeys.ALTS_LINE.key(), alts, a -> Map.of(
+                        "alt", a.name() == null ? a.uuid().toString() : a.name(),
+                        "status", a.banned() ? "gebannt" : "-"));
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (args.length != 1) return Collections.emptyList();
+        String p = args[0].toLowerCase(Locale.ROOT);
+        List<String> out = new ArrayList<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (player.getName().toLowerCase(Locale.ROOT).startsWith(p)) out.add(player.getName());
+        }
+        return out;
+    }
+}
@@ -2,8 +2,12 @@ package dev.fluffix.sentinel.commands;
 
 import dev.fluffix.sentinel.ban.Ban;
 import dev.fluffix.sentinel.ban.BanManager;
+import dev.fluffix.sentinel.logger.PluginLogger;
 import dev.fluffix.sentinel.message.MessageHandler;
 import dev.fluffix.sentinel.message.MessageKeys;
+import dev.fluffix.sentinel.player.SentinelPlayer;
+import dev.fluffix.sentinel.player.SentinelPlayerManager;
+import dev.fluffix.sentinel.plugin.SentinelPaper;
 import dev.fluffix.sentinel.reasons.Reason;
 import dev.fluffix.sentinel.reasons.ReasonManager;
 import dev.fluffix.sentinel.reasons.ReasonType;
@@ -126,11 +130,11 @@ public class BanCommand implements CommandExecutor, TabCompleter {
             if (onlineTarget != null && onlineTarget.isOnline()) {
                 var kickMsg = messages.render(
                         MessageKeys.BAN_KICK.key(),
-                        Placeholder.unparsed("player", onlineTarget.getName()),
-                        Placeholder.unparsed("reasons", reasonsJoined),
-                        Placeholder.unparsed("duration", durationPretty),
-                        Placeholder.unparsed("operator", operator),
-                        Placeholder.unparsed("notice", notice == null ? "" : notice)
+                        Map.of("player", onlineTarget.getName(),
+                                "reasons", reasonsJoined,
+                                "duration", durationPretty,
+                                "operator", operator,
+                                "notice", notice == null ? "" : notice)
                 );
                 onlineTarget.kick(kickMsg);
             }
@@ -143,7 +147,7 @@ public class BanCommand implements CommandExecutor, TabCompleter {
             messages.sendWithPrefix(player,
                     MessageKeys.BAN_SQL_ERROR.key(),
                     Placeholder.unparsed("error", sql.getMessage() == null ? "SQL-Fehler" : sql.getMessage()));
-            sql.printStackTrace();
+            PluginLogger.printError("SENTINEL", "Ban fehlgeschlagen: " + sql.getMessage(), sql);
         }
 
         return true;
@@ -166,24 +170,13 @@ public class BanCommand implements CommandExecutor, TabCompleter {
                     return;
                 }
 
-                messages.sendWithPrefix(player, MessageKeys.BAN_LIST_HEADER.key(),
-                        Placeholder.unparsed("target", "ALL"));
-
-                for (Ban b : all) {
-                    String dur = prettyRemaining(now, b.getExpiresAt());
-                    boolean activeNow = isActiveNow(now, b.isActive(), b.getExpiresAt());
-                    messages.send(player, MessageKeys.BAN_LIST_LINE.key(),
-                            Placeholder.unparsed("id", String.valueOf(b.getId())),
-                            Placeholder.unparsed("player", b.getName() == null ? "-" : b.getName()),
-                            Placeholder.unparsed("operator", b.getOperator() == null ? "-" : b.getOperator()),
-                            Placeholder.unparsed("reasons", String.join(", ", b.getReasons())),
-                            Placeholder.unparsed("duration", dur),
-                            Placeholder.unparsed("active", String.valueOf(activeNow)));
-                }
+                messages.sendList(player, MessageKeys.BAN_LIST_HEADER.key(), Map.of("target", "ALL"),
+                        MessageKeys.BAN_LIST_LINE.key(), all, b -> listLine(now, b));
                 return;
             }
 
             UUID uuid = tryParseUuid(target);
+            if (uuid == null) uuid = resolveName(target);
             List<Ban> entries;
             if (uuid != null) {
                 entries = banManager.listFor(uuid);
@@ -199,29 +192,26 @@ public class BanCommand implements CommandExecutor, TabCompleter {
                 return;
             }
 
-            messages.sendWithPrefix(player, MessageKeys.BAN_LIST_HEADER.key(),
-                    Placeholder.unparsed("target", target));
-
-            for (Ban b : entries) {
-                String dur = prettyRemaining(now, b.getExpiresAt());
-                boolean activeNow = isActiveNow(now, b.isActive(), b.getExpiresAt());
-                messages.send(player, MessageKeys.BAN_LIST_LINE.key(),
-                        Placeholder.unparsed("id", String.valueOf(b.getId())),
-                        Placeholder.unparsed("player", b.getName() == null ? "-" : b.getName()),
-                        Placeholder.unparsed("operator", b.getOperator() == null ? "-" : b.getOperator()),
-                        Placeholder.unparsed("reasons", String.join(", ", b.getReasons())),
-                        Placeholder.unparsed("duration", dur),
-                        Placeholder.unparsed("active", String.valueOf(activeNow)));
-            }
+            messages.sendList(player, MessageKeys.BAN_LIST_HEADER.key(), Map.of("target", target),
+                    MessageKeys.BAN_LIST_LINE.key(), entries, b -> listLine(now, b));
 
         } catch (SQLException e) {
             messages.sendWithPrefix(player,
                     MessageKeys.BAN_SQL_ERROR.key(),
                     Placeholder.unparsed("error", e.getMessage()));
-            e.printStackTrace();
+            PluginLogger.printError("SENTINEL", "Ban-Abfrage fehlgeschlagen: " + e.getMessage(), e);
         }
     }
 
+    private static Map<String, String> listLine(Instant now, Ban b) {
+        return Map.of("id", String.valueOf(b.getId()),
+                "player", b.getName() == null ? "-" : b.getName(),
+                "operator", b.getOperator() == null ? "-" : b.getOperator(),
+                "reasons", String.join(", ", b.getReasons()),
+                "duration", prettyRemaining(now, b.getExpiresAt()),
+                "active", String.valueOf(isActiveNow(now, b.isActive(), b.getExpiresAt())));
+    }
+
     private static String prettyRemaining(Instant now, Instant expiresAt) {
         if (expiresAt == null) return "permanent";
         long sec = Math.max(0, Duration.between(now, expiresAt).getSeconds());
@@ -244,6 +234,15 @@ public class BanCommand implements CommandExecutor, TabCompleter {
         try { return UUID.fromString(s); } catch (Exception ignored) { return null; }
     }
 
+    /** Name -> UUID (online, sonst sentinel_players), damit /ban list <name> über listFor und dessen Cache läuft. */
+    private static UUID resolveName(String name) throws SQLException {
+        Player online = Bukkit.getPlayerExact(name);
+        if (online != null) return online.getUniqueId();
+        SentinelPlayerManager players = SentinelPaper.getInstance().getSentinelPlayerManager();
+        SentinelPlayer known = players == null ? null : players.loadByName(name);
+        return known == null ? null : known.getUniqueId();
+    }
+
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (!(sender instanceof Player) || !sender.hasPermission("sentinel.ban")) {
@@ -291,7 +290,7 @@ public class BanCommand implements CommandExecutor, TabCompleter {
 
             return Collections.emptyList();
         } catch (SQLException e) {
-            e.printStackTrace();
+            PluginLogger.printError("SENTINEL", "Tab-Vervollständigung für /ban fehlgeschlagen: " + e.getMessage(), e);
             return Collections.emptyList();
         }
     }
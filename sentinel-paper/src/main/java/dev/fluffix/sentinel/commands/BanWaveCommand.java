@@ -0,0 +1,159 @@
+package dev.fluffix.sentinel.commands;
+
+import dev.fluffix.sentinel.ban.BulkResult;
+import dev.fluffix.sentinel.ban.wave.BanWaveManager;
+import dev.fluffix.sentinel.ban.wave.PendingBan;
+import dev.fluffix.sentinel.message.MessageHandler;
+import dev.fluffix.sentinel.message.MessageKeys;
+import dev.fluffix.sentinel.plugin.SentinelPaper;
+import org.bukkit.Bukkit;
+import org.bukkit.command.*;
+import org.bukkit.entity.Player;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * /banwave add <player> <reason1,reason2,...> [Notiz] | remove <player> | list | run
+ * Vormerkungen werden zur nächsten Welle gemeinsam gebannt (siehe BanWaveManager).
+ */
+public class BanWaveCommand implements CommandExecutor, TabCompleter {
+
+    private final BanWaveManager waves;
+    private final MessageHandler messages;
+
+    public BanWaveCommand(BanWaveManager waves, MessageHandler messages) {
+        this.waves = Objects.requireNonNull(waves, "waves");
+        this.messages = Objects.requireNonNull(messages, "messages");
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+
+        if (!sender.hasPermission("sentinel.banwave")) {
+            messages.sendWithPrefix(sender, MessageKeys.NO_PERMISSION.key());
+            return true;
+        }
+
+        if (args.length == 0) {
+            messages.sendWithPrefix(sender, MessageKeys.BANWAVE_USAGE.key(), Map.of("label", label));
+            return true;
+        }
+
+        String sub = args[0].toLowerCase(Locale.ROOT);
+        switch (sub) {
+            case "add" -> {
+                if (args.length < 3) {
+                    messages.sendWithPrefix(sender, MessageKeys.BANWAVE_USAGE.key(), Map.of("label", label));
+                    return true;
+                }
+                handleAdd(sender, args);
+            }
+            case "remove" -> {
+                if (args.length < 2) {
+                    messages.sendWithPrefix(sender, MessageKeys.BANWAVE_USAGE.key(), Map.of("label", label));
+                    return true;
+                }
+                async(sender, () -> messages.sendWithPrefix(sender, waves.remove(args[1])
+                        ? MessageKeys.BANWAVE_REMOVED.key() : MessageKeys.BANWAVE_NOT_FOUND.key(), Map.of("target", args[1])));
+            }
+            case "list" -> async(sender, () -> handleList(sender));
+            case "run" -> async(sender, () -> {
+                int moved = waves.scheduleNow();
+                messages.sendWithPrefix(sender, MessageKeys.BANWAVE_RUN.key(), Map.of("count", String.valueOf(moved)));
+                SentinelPaper.getInstance().runBanWave();
+            });
+            default -> messages.sendWithPrefix(sender, MessageKeys.BANWAVE_USAGE.key(), Map.of("label", label));
+        }
+        return true;
+    }
+
+    private void handleAdd(CommandSender sender, String[] args) {
+        String target = args[1];
+        List<String> reasonsList = Arrays.stream(args[2].split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+        String notice = args.length > 3 ? String.join(" ", Arrays.copyOfRange(args, 3, args.length)) : "";
+        String operator = sender instanceof Player p ? p.getName() : "Console";
+
+        async(sender, () -> {
+            try {
+                PendingBan pending = waves.enqueue(target, operator, reasonsList, notice);
+                messages.sendWithPrefix(sender, MessageKeys.BANWAVE_ADDED.key(), Map.of(
+                        "target", pending.name(),
+                        "reasons", String.join(", ", pending.reasons()),
+                        "in", formatIn(pending.executeAfter())));
+            } catch (IllegalStateException | IllegalArgumentException ex) {
+                messages.sendWithPrefix(sender, MessageKeys.BAN_ERROR.key(),
+                        Map.of("error", ex.getMessage() == null ? "Unbekannter Fehler" : ex.getMessage()));
+            }
+        });
+    }
+
+    private void handleList(CommandSender sender) throws SQLException {
+        List<PendingBan> pending = waves.listPending();
+        if (pending.isEmpty()) {
+            messages.sendWithPrefix(sender, MessageKeys.BANWAVE_EMPTY.key());
+            return;
+        }
+        Instant next = pending.stream().map(PendingBan::executeAfter).min(Comparator.naturalOrder()).orElse(Instant.now());
+        messages.sendList(sender, MessageKeys.BANWAVE_LIST_HEADER.key(),
+                Map.of("count", String.valueOf(pending.size()), "in", formatIn(next)),
+                MessageKeys.BANWAVE_LIST_LINE.key(), pending, p -> Map.of(
+                        "target", p.name(),
+                        "reasons", String.join(", ", p.reasons()),
+                        "operator", p.operator() == null ? "-" : p.operator()));
+    }
+
+    /** Zusammenfassung einer ausgeführten Welle für Staff. */
+    public static Map<String, String> summary(List<BulkResult> results) {
+        long banned = results.stream().filter(r -> r.status() == BulkResult.Status.BANNED).count();
+        long already = results.stream().filter(r -> r.status() == BulkResult.Status.ALREADY_BANNED).count();
+        long missing = results.stream().filter(r -> r.status() == BulkResult.Status.NOT_FOUND).count();
+        return Map.of("banned", String.valueOf(banned), "already", String.valueOf(already), "missing", String.valueOf(missing));
+    }
+
+    private static String formatIn(Instant at) {
+        long secs = Math.max(0, Duration.between(Instant.now(), at).getSeconds());
+        if (secs < 60) return secs + "s";
+        long minutes = secs / 60;
+        return minutes < 60 ? minutes + "m" : (minutes / 60) + "h " + (minutes % 60) + "m";
+    }
+
+    private interface SqlTask {
+        void run() throws SQLException;
+    }
+
+    /** DB-Arbeit nicht auf dem Main-Thread. */
+    private void async(CommandSender sender, SqlTask task) {
+        Bukkit.getScheduler().runTaskAsynchronously(SentinelPaper.getInstance(), () -> {
+            try {
+                task.run();
+            } catch (SQLException sql) {
+                messages.sendWithPrefix(sender, MessageKeys.BAN_SQL_ERROR.key(),
+                        Map.of("error", sql.getMessage() == null ? "SQL-Fehler" : sql.getMessage()));
+            }
+        });
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (args.length == 1) {
+            String p = args[0].toLowerCase(Locale.ROOT);
+            return List.of("add", "remove", "list", "run").stream().filter(s -> s.startsWith(p)).toList();
+        }
+        if (args.length == 2 && (args[0].equalsIgnoreCase("add") || args[0].equalsIgnoreCase("remove"))) {
+            String p = args[1].toLowerCase(Locale.ROOT);
+            List<String> out = new ArrayList<>();
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                if (player.getName().toLowerCase(Locale.ROOT).startsWith(p)) out.add(player.getName());
+            }
+            return out;
+        }
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,143 @@
+package dev.fluffix.sentinel.commands;
+
+import dev.fluffix.sentinel.escalation.EscalationEngine;
+import dev.fluffix.sentinel.logger.PluginLogger;
+import dev.fluffix.sentinel.message.MessageHandler;
+import dev.fluffix.sentinel.message.MessageKeys;
+import dev.fluffix.sentinel.mute.Mute;
+import dev.fluffix.sentinel.mute.MuteManager;
+import dev.fluffix.sentinel.reasons.Reason;
+import dev.fluffix.sentinel.reasons.ReasonManager;
+import dev.fluffix.sentinel.reasons.ReasonType;
+import org.bukkit.Bukkit;
+import org.bukkit.command.*;
+import org.bukkit.entity.Player;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class MuteCommand implements CommandExecutor, TabCompleter {
+
+    private final MuteManager muteManager;
+    private final ReasonManager reasonManager;
+    private final MessageHandler messages;
+    private final EscalationEngine escalation;
+
+    public MuteCommand(MuteManager muteManager, ReasonManager reasonManager, MessageHandler messages,
+                       EscalationEngine escalation) {
+        this.muteManager = Objects.requireNonNull(muteManager, "muteManager");
+        this.reasonManager = Objects.requireNonNull(reasonManager, "reasonManager");
+        this.messages = Objects.requireNonNull(messages, "messages");
+        this.escalation = Objects.requireNonNull(escalation, "escalation");
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage("[Sentinel] Dieser Befehl ist nur für Spieler.");
+            return true;
+        }
+
+        if (!player.hasPermission("sentinel.mute")) {
+            messages.sendWithPrefix(player, MessageKeys.NO_PERMISSION.key());
+            return true;
+        }
+
+        if (args.length < 2) {
+            messages.sendWithPrefix(player, MessageKeys.MUTE_USAGE.key(), Map.of("label", label));
+            return true;
+        }
+
+        final String target = args[0];
+
+        if (target.equalsIgnoreCase(player.getName())) {
+            messages.sendWithPrefix(player, MessageKeys.MUTE_ERROR.key(),
+                    Map.of("error", "Du kannst dich nicht selbst muten."));
+            return true;
+        }
+
+        Player targetPlayer = Bukkit.getPlayerExact(target);
+        if (targetPlayer != null && targetPlayer.hasPermission("sentinel.bypass")) {
+            messages.sendWithPrefix(player, MessageKeys.MUTE_ERROR.key(),
+                    Map.of("error", "Dieser Spieler kann nicht gemutet werden."));
+            return true;
+        }
+
+        final List<String> reasonsList = Arrays.stream(args[1].split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toList());
+
+        final String notice = (args.length > 2)
+                ? String.join(" ", Arrays.copyOfRange(args, 2, args.length))
+                : "";
+
+        final String operator = player.getName();
+
+        try {
+            Mute mute = muteManager.muteOfflineAuto(target, operator, reasonsList, notice);
+            try {
+                escalation.record(mute.getUniqueId(), mute.getName(), reasonsList);
+            } catch (SQLException ignored) {
+                // Punkte sind Zusatz – der Mute ist bereits gespeichert
+            }
+
+            String reasonsJoined = String.join(", ", reasonsList);
+            String durationPretty = (mute.getRemainingSeconds() == 0)
+                    ? "permanent"
+                    : (mute.getRemainingSeconds() + "s");
+
+            messages.sendWithPrefix(player, MessageKeys.MUTE_SUCCESS.key(), Map.of(
+                    "target", mute.getName(),
+                    "operator", operator,
+                    "reasons", reasonsJoined,
+                    "duration", durationPretty));
+
+            Player onlineTarget = Bukkit.getPlayer(mute.getUniqueId());
+            if (onlineTarget != null && onlineTarget.isOnline()) {
+                messages.sendWithPrefix(onlineTarget, MessageKeys.MUTE_NOTIFY.key(), Map.of(
+                        "reasons", reasonsJoined,
+                        "duration", durationPretty));
+            }
+
+        } catch (IllegalStateException | IllegalArgumentException ex) {
+            messages.sendWithPrefix(player, MessageKeys.MUTE_ERROR.key(),
+                    Map.of("error", ex.getMessage() == null ? "Unbekannter Fehler" : ex.getMessage()));
+        } catch (SQLException sql) {
+            messages.sendWithPrefix(player, MessageKeys.BAN_SQL_ERROR.key(),
+                    Map.of("error", sql.getMessage() == null ? "SQL-Fehler" : sql.getMessage()));
+            PluginLogger.printError("SENTINEL", "Mute fehlgeschlagen: " + sql.getMessage(), sql);
+        }
+
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (!sender.hasPermission("sentinel.mute")) return Collections.emptyList();
+
+        if (args.length == 1) {
+            return Bukkit.getOnlinePlayers().stream()
+                    .map(Player::getName)
+                    .filter(s -> s.toLowerCase(Locale.ROOT).startsWith(args[0].toLowerCase(Locale.ROOT)))
+                    .sorted(String.CASE_INSENSITIVE_ORDER)
+                    .toList();
+        }
+
+        if (args.length == 2) {
+            try {
+                return reasonManager.loadAll(ReasonType.MUTE).stream()
+                        .map(Reason::getName)
+                        .filter(r -> r.toLowerCase(Locale.ROOT).startsWith(args[1].toLowerCase(Locale.ROOT)))
+                        .sorted(String.CASE_INSENSITIVE_ORDER)
+                        .toList();
+            } catch (SQLException e) {
+                PluginLogger.printError("SENTINEL", "Tab-Vervollständigung für /mute fehlgeschlagen: " + e.getMessage(), e);
+            }
+        }
+
+        return Collections.emptyList();
+    }
+}
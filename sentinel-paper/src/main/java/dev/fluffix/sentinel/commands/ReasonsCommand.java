@@ -1,5 +1,6 @@
 package dev.fluffix.sentinel.commands;
 
+import dev.fluffix.sentinel.audit.AuditTrail;
 import dev.fluffix.sentinel.logger.PluginLogger;
 import dev.fluffix.sentinel.plugin.SentinelPaper;
 import dev.fluffix.sentinel.reasons.Reason;
@@ -17,6 +18,7 @@ import org.bukkit.entity.Player;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 public class ReasonsCommand implements CommandExecutor {
 
@@ -43,7 +45,7 @@ public class ReasonsCommand implements CommandExecutor {
         }
 
         String sub = args[0].toLowerCase(Locale.ROOT);
-        try {
+        try (AuditTrail.ActorScope ignored = AuditTrail.actingAs(player.getName())) {
             switch (sub) {
                 case "add" -> handleAdd(player, args);
                 case "remove" -> handleRemove(player, args);
@@ -56,7 +58,7 @@ public class ReasonsCommand implements CommandExecutor {
             player.sendMessage(messages.prefix().append(
                     mm.deserialize("<red>MySQL-Fehler:</red> <gray>(" + e.getMessage() + ")</gray>")
             ));
-            e.printStackTrace();
+            PluginLogger.printError("SENTINEL", "Gründe konnten nicht bearbeitet werden: " + e.getMessage(), e);
         }
         return true;
     }
@@ -162,21 +164,15 @@ public class ReasonsCommand implements CommandExecutor {
             return;
         }
 
-        messages.sendWithPrefix(
+        messages.sendList(
                 player,
                 MessageKeys.REASONS_HEADER.key(),
-                Placeholder.unparsed("type", filter == null ? "ALLE" : filter.name())
+                Map.of("type", filter == null ? "ALLE" : filter.name()),
+                MessageKeys.REASONS_LINE.key(),
+                reasons,
+                r -> Map.of("name", r.getName(),
+                        "type", r.getType().name(),
+                        "duration", r.getDurationSeconds() == 0 ? "permanent" : r.getDurationSeconds() + "s")
         );
-
-        for (Reason r : reasons) {
-            String dur = r.getDurationSeconds() == 0 ? "permanent" : r.getDurationSeconds() + "s";
-            messages.send(
-                    player,
-                    MessageKeys.REASONS_LINE.key(),
-                    Placeholder.unparsed("name", r.getName()),
-                    Placeholder.unparsed("type", r.getType().name()),
-                    Placeholder.unparsed("duration", dur)
-            );
-        }
     }
 }
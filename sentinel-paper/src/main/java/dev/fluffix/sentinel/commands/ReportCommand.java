@@ -0,0 +1,157 @@
+package dev.fluffix.sentinel.commands;
+
+import dev.fluffix.sentinel.message.MessageHandler;
+import dev.fluffix.sentinel.message.MessageKeys;
+import dev.fluffix.sentinel.report.Report;
+import dev.fluffix.sentinel.report.ReportManager;
+import dev.fluffix.sentinel.report.ReportSummary;
+import org.bukkit.Bukkit;
+import org.bukkit.command.*;
+import org.bukkit.entity.Player;
+
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * /report <player> <reason> für alle, /report list|clear <player> für Staff.
+ * Die Annahme läuft komplett im Speicher; geschrieben wird gebündelt im Hintergrund.
+ */
+public class ReportCommand implements CommandExecutor, TabCompleter {
+
+    /** Bei diesen Zählerständen wird Staff benachrichtigt (danach alle 100). */
+    private static final Set<Integer> NOTIFY_AT = Set.of(1, 3, 5, 10, 25, 50);
+
+    private final ReportManager reportManager;
+    private final MessageHandler messages;
+
+    public ReportCommand(ReportManager reportManager, MessageHandler messages) {
+        this.reportManager = Objects.requireNonNull(reportManager, "reportManager");
+        this.messages = Objects.requireNonNull(messages, "messages");
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage("[Sentinel] Dieser Befehl ist nur für Spieler.");
+            return true;
+        }
+
+        if (args.length >= 1 && args[0].equalsIgnoreCase("list") && player.hasPermission("sentinel.report.manage")) {
+            handleList(player);
+            return true;
+        }
+
+        if (args.length >= 2 && args[0].equalsIgnoreCase("clear") && player.hasPermission("sentinel.report.manage")) {
+            handleClear(player, args[1]);
+            return true;
+        }
+
+        if (!player.hasPermission("sentinel.report")) {
+            messages.sendWithPrefix(player, MessageKeys.NO_PERMISSION.key());
+            return true;
+        }
+
+        if (args.length < 2) {
+            messages.sendWithPrefix(player, MessageKeys.REPORT_USAGE.key(), Map.of("label", label));
+            return true;
+        }
+
+        Player target = Bukkit.getPlayerExact(args[0]);
+        if (target == null) {
+            messages.sendWithPrefix(player, MessageKeys.REPORT_TARGET_OFFLINE.key(), Map.of("target", args[0]));
+            return true;
+        }
+
+        String reason = args[1];
+        ReportManager.Submission submission = reportManager.submit(new Report(
+                player.getUniqueId(), player.getName(),
+                target.getUniqueId(), target.getName(),
+                reason, System.currentTimeMillis()));
+
+        Map<String, String> values = Map.of("target", target.getName(), "reason", reason);
+        switch (submission.result()) {
+            case ACCEPTED -> {
+                messages.sendWithPrefix(player, MessageKeys.REPORT_SUCCESS.key(), values);
+                notifyStaff(player, target, reason, submission.recentForTarget());
+            }
+            case DUPLICATE -> messages.sendWithPrefix(player, MessageKeys.REPORT_DUPLICATE.key(), values);
+            case QUEUE_FULL -> messages.sendWithPrefix(player, MessageKeys.REPORT_QUEUE_FULL.key(), values);
+            case UNKNOWN_REASON -> messages.sendWithPrefix(player, MessageKeys.REPORT_UNKNOWN_REASON.key(), values);
+        }
+        return true;
+    }
+
+    /** Aggregiert: Staff sieht Zählerstände statt jeder einzelnen Meldung. */
+    private void notifyStaff(Player reporter, Player target, String reason, int count) {
+        if (!NOTIFY_AT.contains(count) && count % 100 != 0) return;
+
+        var msg = messages.renderWithPrefix(MessageKeys.REPORT_NOTIFY.key(), Map.of(
+                "target", target.getName(),
+                "count", String.valueOf(count),
+                "reason", reason,
+                "reporter", reporter.getName()));
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            if (p.hasPermission("sentinel.report.notify")) p.sendMessage(msg);
+        }
+    }
+
+    private void handleList(Player player) {
+        try {
+            List<ReportSummary> top = reportManager.topTargets(15);
+            if (top.isEmpty()) {
+                messages.sendWithPrefix(player, MessageKeys.REPORT_LIST_EMPTY.key());
+                return;
+            }
+            messages.sendList(player, MessageKeys.REPORT_LIST_HEADER.key(), Map.of(),
+                    MessageKeys.REPORT_LIST_LINE.key(), top, s -> Map.of(
+                            "target", s.targetName(),
+                            "open", String.valueOf(s.openReports()),
+                            "total", String.valueOf(s.totalReports()),
+                            "reason", s.lastReason()));
+        } catch (SQLException e) {
+            messages.sendWithPrefix(player, MessageKeys.BAN_SQL_ERROR.key(),
+                    Map.of("error", e.getMessage() == null ? "SQL-Fehler" : e.getMessage()));
+        }
+    }
+
+    private void handleClear(Player player, String targetName) {
+        try {
+            Player online = Bukkit.getPlayerExact(targetName);
+            UUID uuid = online != null ? online.getUniqueId() : reportManager.findTarget(targetName);
+            if (uuid == null || !reportManager.clear(uuid)) {
+                messages.sendWithPrefix(player, MessageKeys.REPORT_LIST_EMPTY.key());
+                return;
+            }
+            messages.sendWithPrefix(player, MessageKeys.REPORT_CLEARED.key(), Map.of("target", targetName));
+        } catch (SQLException e) {
+            messages.sendWithPrefix(player, MessageKeys.BAN_SQL_ERROR.key(),
+                    Map.of("error", e.getMessage() == null ? "SQL-Fehler" : e.getMessage()));
+        }
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (args.length == 1) {
+            List<String> out = new ArrayList<>();
+            Bukkit.getOnlinePlayers().forEach(p -> out.add(p.getName()));
+            if (sender.hasPermission("sentinel.report.manage")) {
+                out.add("list");
+                out.add("clear");
+            }
+            return filter(out, args[0]);
+        }
+        if (args.length == 2 && !args[0].equalsIgnoreCase("list") && !args[0].equalsIgnoreCase("clear")) {
+            return filter(reportManager.reasonNames(), args[1]);
+        }
+        return Collections.emptyList();
+    }
+
+    private static List<String> filter(Collection<String> options, String prefix) {
+        String p = prefix.toLowerCase(Locale.ROOT);
+        return options.stream()
+                .filter(s -> s.toLowerCase(Locale.ROOT).startsWith(p))
+                .sorted(String.CASE_INSENSITIVE_ORDER)
+                .toList();
+    }
+}
@@ -0,0 +1,391 @@
+package dev.fluffix.sentinel.commands;
+
+import dev.fluffix.sentinel.audit.AuditAction;
+import dev.fluffix.sentinel.audit.AuditEntry;
+import dev.fluffix.sentinel.audit.AuditPage;
+import dev.fluffix.sentinel.audit.AuditTrail;
+import dev.fluffix.sentinel.ban.importer.BanImporter;
+import dev.fluffix.sentinel.ban.stats.BanStats;
+import dev.fluffix.sentinel.listener.PlayerListener;
+import dev.fluffix.sentinel.message.MessageHandler;
+import dev.fluffix.sentinel.message.MessageKeys;
+import dev.fluffix.sentinel.metrics.LatencyHistogram;
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+import dev.fluffix.sentinel.player.SentinelPlayer;
+import dev.fluffix.sentinel.plugin.SentinelPaper;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.bukkit.Bukkit;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabExecutor;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SentinelCommand implements TabExecutor {
+
+    private final MessageHandler messages = SentinelPaper.getInstance().getMessageHandler();
+    private final SentinelMetrics metrics = SentinelPaper.getInstance().getMetrics();
+    private final MiniMessage mm = MiniMessage.miniMessage();
+    private final AtomicBoolean importRunning = new AtomicBoolean();
+
+    private static final int AUDIT_PAGE_SIZE = 10;
+    private static final int AUDIT_VERIFY_LIMIT = 100_000;
+    private static final DateTimeFormatter AUDIT_TIME = DateTimeFormatter.ofPattern("dd.MM. HH:mm", Locale.GERMANY)
+            .withZone(ZoneId.systemDefault());
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 0) {
+            sender.sendMessage(messages.prefix().append(mm.deserialize("<red>Verwendung:</red> /" + label + " <white><stats|import|audit></white>")));
+            return true;
+        }
+
+        String sub = args[0].toLowerCase(Locale.ROOT);
+        switch (sub) {
+            case "stats" -> {
+                if (!sender.hasPermission("sentinel.stats")) {
+                    messages.sendWithPrefix(sender, MessageKeys.NO_PERMISSION.key());
+                    return true;
+                }
+                if (args.length >= 2) handleBanStats(sender, label, args); else handleStats(sender);
+            }
+            case "import" -> {
+                if (!sender.hasPermission("sentinel.import")) {
+                    messages.sendWithPrefix(sender, MessageKeys.NO_PERMISSION.key());
+                    return true;
+                }
+                handleImport(sender, label, args);
+            }
+            case "audit" -> {
+                if (!sender.hasPermission("sentinel.audit")) {
+                    messages.sendWithPrefix(sender, MessageKeys.NO_PERMISSION.key());
+                    return true;
+                }
+                handleAudit(sender, label, args);
+            }
+            default -> sender.sendMessage(messages.prefix().append(
+                    mm.deserialize("<red>Unbekanntes Subcommand:</red> <white>" + mm.escapeTags(sub) + "</white>")));
+        }
+        return true;
+    }
+
+    private void handleStats(CommandSender sender) {
+        line(sender, "<aqua>--- Sentinel Stats ---</aqua>");
+
+        line(sender, "<gray>Pool:</gray> <white>aktiv " + gauge("sentinel_db_pool_active")
+                + "</white><gray>,</gray> <white>idle " + gauge("sentinel_db_pool_idle")
+                + "</white><gray>,</gray> <white>gesamt " + gauge("sentinel_db_pool_total")
+                + "</white><gray>,</gray> <white>wartend " + gauge("sentinel_db_pool_waiting") + "</white>");
+        line(sender, "<gray>Permits belegt:</gray> <white>Admin+Wartung " + gauge("sentinel_db_permits_in_use", "workload", "shared")
+                + "</white><gray>,</gray> <white>Wartung " + gauge("sentinel_db_permits_in_use", "workload", "maintenance")
+                + "</white> <gray>(abgewiesen " + (metrics.counterValue("sentinel_db_permit_rejected_total", "workload", "interactive")
+                + metrics.counterValue("sentinel_db_permit_rejected_total", "workload", "maintenance")) + ")</gray>");
+
+        histogramLine(sender, "Connection-Wartezeit", metrics.histogram("sentinel_db_connection_wait_seconds"));
+        histogramLine(sender, "Transaktionen", metrics.histogram("sentinel_db_transaction_seconds"));
+        line(sender, "<gray>SQL-Fehler:</gray> <white>" + metrics.counterValue("sentinel_db_errors_total") + "</white>");
+
+        Map<SentinelMetrics.MetricKey, LatencyHistogram> onMain = metrics.histograms("sentinel_db_main_thread_seconds");
+        long mainCalls = onMain.values().stream().mapToLong(LatencyHistogram::count).sum();
+        line(sender, "<gray>DB auf dem Server-Thread:</gray> " + (mainCalls == 0 ? "<green>0</green>" : "<red>" + mainCalls + "</red>"));
+        onMain.forEach((key, h) -> histogramLine(sender, "Server-Thread " + key.label("tag"), h));
+
+        Number breakerOpen = metrics.gaugeValue("sentinel_login_breaker_open");
+        line(sender, "<gray>Login-Breaker:</gray> " + (breakerOpen != null && breakerOpen.intValue() == 1
+                ? "<red>OFFEN</red>" : "<green>geschlossen</green>"));
+        line(sender, "<gray>Admission:</gray> <white>Login " + gauge("sentinel_admission_in_flight", "path", "login")
+                + "/" + gauge("sentinel_admission_limit", "path", "login")
+                + "</white> <gray>(Überlauf " + metrics.counterValue("sentinel_login_overflow_total") + ")</gray><gray>,</gray> <white>Join "
+                + gauge("sentinel_admission_in_flight", "path", "join") + "/" + gauge("sentinel_admission_limit", "path", "join")
+                + "</white> <gray>(wartend " + gauge("sentinel_join_registrations_queued") + ")</gray>");
+        metrics.histograms("sentinel_login_check_seconds").forEach((key, h) ->
+                histogramLine(sender, "Login " + key.label("outcome"), h));
+
+        for (String cache : List.of("ban_snapshot", "ban_history", "messages")) {
+            long hits = metrics.counterValue("sentinel_cache_requests_total", "cache", cache, "result", "hit");
+            long misses = metrics.counterValue("sentinel_cache_requests_total", "cache", cache, "result", "miss");
+            long total = hits + misses;
+            String ratio = total == 0 ? "-" : String.format(Locale.ROOT, "%.1f%%", hits * 100.0 / total);
+            line(sender, "<gray>Cache " + cache + ":</gray> <white>" + ratio + "</white> <gray>(" + hits + "/" + total
+                    + ", Einträge " + gauge("sentinel_cache_entries", "cache", cache) + ")</gray>");
+        }
+
+        List<Map.Entry<SentinelMetrics.MetricKey, LatencyHistogram>> top =
+                new ArrayList<>(metrics.histograms("sentinel_db_statement_seconds").entrySet());
+        top.sort(Comparator.comparingDouble((Map.Entry<SentinelMetrics.MetricKey, LatencyHistogram> e) -> e.getValue().sumSeconds()).reversed());
+
+        line(sender, "<aqua>Top-Statements (Gesamtzeit)</aqua>");
+        for (int i = 0; i < Math.min(5, top.size()); i++) {
+            var e = top.get(i);
+            LatencyHistogram h = e.getValue();
+            line(sender, "<white>" + h.count() + "x</white> <gray>avg</gray> <white>" + fmt(h.meanMillis())
+                    + "ms</white> <gray>p99</gray> <white>" + fmt(h.percentileMillis(0.99)) + "ms</white> <dark_gray>"
+                    + mm.escapeTags(e.getKey().label("statement")) + "</dark_gray>");
+        }
+    }
+
+    /** /sentinel stats <reasons|operators|durations|daily> [tage] – Ban-Statistik aus sentinel_ban_stats, läuft asynchron. */
+    private void handleBanStats(CommandSender sender, String label, String[] args) {
+        String view = args[1].toLowerCase(Locale.ROOT);
+        int days;
+        try {
+            days = args.length >= 3 ? Math.max(1, Math.min(366, Integer.parseInt(args[2]))) : 7;
+        } catch (NumberFormatException e) {
+            days = -1;
+        }
+        if (days < 0 || !List.of("reasons", "operators", "durations", "daily").contains(view)) {
+            line(sender, "<red>Verwendung:</red> /" + label + " stats <white><reasons|operators|durations|daily> [tage]</white>");
+            return;
+        }
+        SentinelPaper plugin = SentinelPaper.getInstance();
+        if (plugin.getBanManager() == null) {
+            line(sender, "<red>Statistik nicht verfügbar: keine Datenbankverbindung.</red>");
+            return;
+        }
+
+        LocalDate to = BanStats.today();
+        LocalDate from = to.minusDays(days - 1L);
+        int range = days;
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            List<String> out = new ArrayList<>();
+            try {
+                BanStats stats = plugin.getBanManager().getStats();
+                out.add("<aqua>--- Ban-Statistik (" + range + " Tag(e), UTC) ---</aqua>");
+                switch (view) {
+                    case "reasons" -> {
+                        for (BanStats.Row r : stats.top(BanStats.Dimension.REASON, from, to, 10)) {
+                            out.add("<white>" + mm.escapeTags(r.name()) + "</white> <gray>" + r.bans() + " Ban(s)</gray>");
+                        }
+                    }
+                    case "operators" -> {
+                        for (BanStats.Row r : stats.top(BanStats.Dimension.OPERATOR, from, to, 10)) {
+                            out.add("<white>" + mm.escapeTags(r.name()) + "</white> <gray>" + r.bans() + " Ban(s)</gray>");
+                        }
+                    }
+                    case "durations" -> {
+                        BanStats.Row total = stats.totals(from, to);
+                        out.add("<gray>Gesamt:</gray> <white>" + total.tempBans() + "</white> <gray>Temp-Bans, Ø</gray> <white>"
+                                + PlayerListener.formatDuration(total.avgTempSeconds()) + "</white>");
+                        for (BanStats.Row r : stats.top(BanStats.Dimension.REASON, from, to, 10)) {
+                            if (r.tempBans() == 0) continue;
+                            out.add("<white>" + mm.escapeTags(r.name()) + "</white> <gray>Ø</gray> <white>"
+                                    + PlayerListener.formatDuration(r.avgTempSeconds()) + "</white> <gray>(" + r.tempBans() + "x)</gray>");
+                        }
+                    }
+                    default -> {
+                        for (BanStats.Row r : stats.daily(from, to)) {
+                            out.add("<white>" + r.name() + "</white> <gray>Bans</gray> <white>" + r.bans()
+                                    + "</white> <gray>Unbans</gray> <white>" + r.unbans()
+                                    + "</white> <gray>abgelaufen</gray> <white>" + r.expired() + "</white>");
+                        }
+                    }
+                }
+                if (out.size() == 1) out.add("<gray>Keine Daten im Zeitraum.</gray>");
+            } catch (SQLException e) {
+                out.add("<red>Statistik konnte nicht geladen werden:</red> <white>" + mm.escapeTags(String.valueOf(e.getMessage())) + "</white>");
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> out.forEach(l -> line(sender, l)));
+        });
+    }
+
+    /** /sentinel import <vanilla|csv> <datei> – Datei relativ zum Plugin-Ordner, läuft asynchron. */
+    private void handleImport(CommandSender sender, String label, String[] args) {
+        BanImporter.Format format = args.length >= 3 ? BanImporter.Format.parse(args[1]) : null;
+        if (format == null) {
+            line(sender, "<red>Verwendung:</red> /" + label + " import <white><vanilla|csv> <datei></white>");
+            return;
+        }
+        SentinelPaper plugin = SentinelPaper.getInstance();
+        if (plugin.getMySqlManager() == null) {
+            line(sender, "<red>Import nicht möglich: keine Datenbankverbindung.</red>");
+            return;
+        }
+        File file = new File(plugin.getDataFolder(), String.join(" ", Arrays.copyOfRange(args, 2, args.length)));
+        if (!insideDataFolder(plugin.getDataFolder(), file)) {
+            // kein Lesen beliebiger Server-Dateien über "../" oder Symlinks
+            line(sender, "<red>Die Datei muss im Plugin-Ordner liegen.</red>");
+            return;
+        }
+        if (!file.isFile()) {
+            line(sender, "<red>Datei nicht gefunden:</red> <white>" + mm.escapeTags(file.getPath()) + "</white>");
+            return;
+        }
+        if (!importRunning.compareAndSet(false, true)) {
+            line(sender, "<red>Es läuft bereits ein Import.</red>");
+            return;
+        }
+
+        line(sender, "<gray>Import gestartet:</gray> <white>" + mm.escapeTags(file.getName()) + "</white>");
+        long[] lastReport = {0};
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                BanImporter importer = new BanImporter(plugin.getMySqlManager(), plugin.getReasonManager(),
+                        plugin.getSentinelConfig().importBatchSize());
+                BanImporter.Progress result = importer.run(file, format, plugin.getSentinelConfig().importReason(), p -> {
+                    long now = System.currentTimeMillis();
+                    if (now - lastReport[0] < 5_000L) return; // höchstens alle 5 Sekunden melden
+                    lastReport[0] = now;
+                    report(sender, "<gray>Import läuft:</gray> ", p);
+                });
+                report(sender, "<green>Import fertig:</green> ", result);
+                if (plugin.getAuditTrail() != null) {
+                    plugin.getAuditTrail().record(AuditAction.BAN_IMPORT, sender.getName(), null, null, null,
+                            "file=" + file.getName() + " format=" + format + " imported=" + result.imported()
+                                    + " archived=" + result.archived());
+                }
+
+                // Bans kamen ohne Listener-Events – Snapshot und Alt-Graph einmal komplett abgleichen
+                plugin.getBanManager().getHistoryCache().clear();
+                plugin.getBanSnapshot().syncFrom(plugin.getBanManager());
+                if (plugin.getAltGraph() != null) plugin.getAltGraph().rebuild(plugin.getBanManager());
+            } catch (IOException | SQLException | RuntimeException e) {
+                String msg = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+                Bukkit.getScheduler().runTask(plugin, () -> line(sender, "<red>Import abgebrochen (fortsetzbar):</red> <white>"
+                        + mm.escapeTags(msg) + "</white>"));
+            } finally {
+                importRunning.set(false);
+            }
+        });
+    }
+
+    /** Kanonische Pfade vergleichen, damit weder "../" noch Symlinks aus dem Plugin-Ordner herausführen. */
+    private static boolean insideDataFolder(File dataFolder, File file) {
+        try {
+            String root = dataFolder.getCanonicalPath() + File.separator;
+            return file.getCanonicalPath().startsWith(root);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * /sentinel audit [spieler|*] [vor-id] – Audit-Log seitenweise, neueste zuerst.
+     * /sentinel audit verify [ab-id] – prüft die Hash-Kette. Beides läuft asynchron.
+     */
+    private void handleAudit(CommandSender sender, String label, String[] args) {
+        SentinelPaper plugin = SentinelPaper.getInstance();
+        AuditTrail audit = plugin.getAuditTrail();
+        if (audit == null) {
+            line(sender, "<red>Audit-Log nicht verfügbar: keine Datenbankverbindung.</red>");
+            return;
+        }
+        boolean verify = args.length >= 2 && args[1].equalsIgnoreCase("verify");
+        long cursor;
+        try {
+            cursor = args.length >= 3 ? Long.parseLong(args[2]) : 0L;
+        } catch (NumberFormatException e) {
+            line(sender, "<red>Verwendung:</red> /" + label + " audit <white>[spieler|*] [vor-id]</white> <gray>|</gray> <white>verify [ab-id]</white>");
+            return;
+        }
+        String who = args.length >= 2 && !verify ? args[1] : "*";
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            List<String> out = new ArrayList<>();
+            try {
+                audit.flush(); // noch wartende Einträge gehören zum angezeigten Stand
+                if (verify) {
+                    long from = Math.max(1, cursor);
+                    long broken = audit.verify(from, AUDIT_VERIFY_LIMIT);
+                    out.add(broken == 0
+                            ? "<green>Audit-Kette intakt</green> <gray>(ab #" + from + ", bis zu " + AUDIT_VERIFY_LIMIT + " Einträge)</gray>"
+                            : "<red>Audit-Kette gebrochen bei</red> <white>#" + broken + "</white>");
+                } else {
+                    UUID target = null;
+                    if (!who.equals("*")) {
+                        Player online = Bukkit.getPlayerExact(who);
+                        SentinelPlayer known = online == null ? plugin.getSentinelPlayerManager().loadByName(who) : null;
+                        target = online != null ? online.getUniqueId() : known != null ? known.getUniqueId() : null;
+                        if (target == null) {
+                            out.add("<red>Unbekannter Spieler:</red> <white>" + mm.escapeTags(who) + "</white>");
+                        }
+                    }
+                    if (out.isEmpty()) {
+                        AuditPage page = audit.page(target, cursor, AUDIT_PAGE_SIZE);
+                        out.add("<aqua>--- Audit-Log" + (target == null ? "" : " " + mm.escapeTags(who)) + " ---</aqua>");
+                        for (AuditEntry e : page.entries()) out.add(auditLine(e));
+                        if (page.entries().isEmpty()) out.add("<gray>Keine Einträge.</gray>");
+                        if (page.nextBefore() > 0) {
+                            out.add("<gray>Weiter:</gray> <white>/" + label + " audit " + mm.escapeTags(who) + " " + page.nextBefore() + "</white>");
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                out.add("<red>Audit-Log konnte nicht geladen werden:</red> <white>" + mm.escapeTags(String.valueOf(e.getMessage())) + "</white>");
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> out.forEach(l -> line(sender, l)));
+        });
+    }
+
+    private String auditLine(AuditEntry e) {
+        StringBuilder sb = new StringBuilder("<dark_gray>#" + e.id() + "</dark_gray> <gray>" + AUDIT_TIME.format(e.at())
+                + "</gray> <white>" + e.action() + "</white> <gray>von</gray> <white>" + mm.escapeTags(e.actor()) + "</white>");
+        if (e.target() != null) {
+            sb.append(" <gray>→</gray> <white>").append(mm.escapeTags(e.targetName() != null ? e.targetName() : e.target().toString())).append("</white>");
+        }
+        if (e.banId() != null) sb.append(" <gray>Ban #").append(e.banId()).append("</gray>");
+        if (e.details() != null) sb.append(" <dark_gray>").append(mm.escapeTags(e.details())).append("</dark_gray>");
+        return sb.toString();
+    }
+
+    private void report(CommandSender sender, String title, BanImporter.Progress p) {
+        String text = title + "<white>" + p.read() + "</white> <gray>gelesen,</gray> <white>" + p.imported()
+                + "</white> <gray>aktiv,</gray> <white>" + p.archived() + "</white> <gray>archiviert,</gray> <white>"
+                + p.skipped() + "</white> <gray>übersprungen,</gray> <white>" + p.invalid()
+                + "</white> <gray>ungültig (" + p.perSecond() + "/s)</gray>";
+        Bukkit.getScheduler().runTask(SentinelPaper.getInstance(), () -> line(sender, text));
+    }
+
+    private void histogramLine(CommandSender sender, String title, LatencyHistogram h) {
+        line(sender, "<gray>" + title + ":</gray> <white>n=" + h.count() + "</white> <gray>avg</gray> <white>" + fmt(h.meanMillis())
+                + "ms</white> <gray>p50</gray> <white>" + fmt(h.percentileMillis(0.5))
+                + "ms</white> <gray>p99</gray> <white>" + fmt(h.percentileMillis(0.99)) + "ms</white>");
+    }
+
+    private String gauge(String name, String... labels) {
+        Number n = metrics.gaugeValue(name, labels);
+        return n == null ? "-" : n.toString();
+    }
+
+    private void line(CommandSender sender, String miniMessage) {
+        sender.sendMessage(mm.deserialize(miniMessage));
+    }
+
+    private static String fmt(double ms) {
+        return String.format(Locale.ROOT, "%.2f", ms);
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (args.length == 1) {
+            return List.of("stats", "import", "audit").stream()
+                    .filter(s -> s.startsWith(args[0].toLowerCase(Locale.ROOT)))
+                    .toList();
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("stats")) {
+            return List.of("reasons", "operators", "durations", "daily").stream()
+                    .filter(s -> s.startsWith(args[1].toLowerCase(Locale.ROOT)))
+                    .toList();
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("audit")) {
+            List<String> options = new ArrayList<>(List.of("*", "verify"));
+            Bukkit.getOnlinePlayers().forEach(p -> options.add(p.getName()));
+            return options.stream()
+                    .filter(s -> s.toLowerCase(Locale.ROOT).startsWith(args[1].toLowerCase(Locale.ROOT)))
+                    .toList();
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("import")) {
+            return List.of("vanilla", "csv").stream()
+                    .filter(s -> s.startsWith(args[1].toLowerCase(Locale.ROOT)))
+                    .toList();
+        }
+        return Collections.emptyList();
+    }
+}
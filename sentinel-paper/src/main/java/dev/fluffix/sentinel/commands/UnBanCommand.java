@@ -12,6 +12,7 @@
 
 package dev.fluffix.sentinel.commands;
 
+import dev.fluffix.sentinel.audit.AuditTrail;
 import dev.fluffix.sentinel.ban.Ban;
 import dev.fluffix.sentinel.ban.BanManager;
 import dev.fluffix.sentinel.logger.PluginLogger;
@@ -58,7 +59,7 @@ public class UnBanCommand implements CommandExecutor {
 
         String target = args[0];
 
-        try {
+        try (AuditTrail.ActorScope ignored = AuditTrail.actingAs(player.getName())) {
             boolean success = false;
 
             if (isNumeric(target)) {
@@ -96,7 +97,7 @@ public class UnBanCommand implements CommandExecutor {
         } catch (SQLException e) {
             messages.sendWithPrefix(player, MessageKeys.BAN_SQL_ERROR.key(),
                     Placeholder.unparsed("error", e.getMessage()));
-            e.printStackTrace();
+            PluginLogger.printError("SENTINEL", "Unban fehlgeschlagen: " + e.getMessage(), e);
         }
 
         return true;
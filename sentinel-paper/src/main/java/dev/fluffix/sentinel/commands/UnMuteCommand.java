@@ -0,0 +1,92 @@
+package dev.fluffix.sentinel.commands;
+
+import dev.fluffix.sentinel.logger.PluginLogger;
+import dev.fluffix.sentinel.message.MessageHandler;
+import dev.fluffix.sentinel.message.MessageKeys;
+import dev.fluffix.sentinel.mute.MuteManager;
+import dev.fluffix.sentinel.player.SentinelPlayer;
+import dev.fluffix.sentinel.player.SentinelPlayerManager;
+import dev.fluffix.sentinel.plugin.SentinelPaper;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.UUID;
+
+public class UnMuteCommand implements CommandExecutor {
+
+    private final MessageHandler messages = SentinelPaper.getInstance().getMessageHandler();
+    private final MuteManager muteManager = SentinelPaper.getInstance().getMuteManager();
+    private final SentinelPlayerManager playerManager = SentinelPaper.getInstance().getSentinelPlayerManager();
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender,
+                             @NotNull Command command,
+                             @NotNull String label,
+                             @NotNull String[] args) {
+        if (!(sender instanceof Player player)) {
+            PluginLogger.printWithLabel("SENTINEL", "Der Command kann nur von einem Spieler ausgeführt werden", "RED");
+            return true;
+        }
+
+        if (!player.hasPermission("sentinel.unmute")) {
+            messages.sendWithPrefix(player, MessageKeys.NO_PERMISSION.key());
+            return true;
+        }
+
+        if (args.length < 1) {
+            messages.sendWithPrefix(player, MessageKeys.UNMUTE_USAGE.key(), Map.of("label", label));
+            return true;
+        }
+
+        String target = args[0];
+
+        try {
+            boolean success;
+
+            if (isNumeric(target)) {
+                success = muteManager.unmute(Long.parseLong(target));
+                if (success) target = "#" + target;
+            } else {
+                UUID uuid = tryParseUuid(target);
+                if (uuid == null) {
+                    SentinelPlayer sp = playerManager.loadByName(target);
+                    uuid = sp == null ? null : sp.getUniqueId();
+                }
+                success = uuid != null && muteManager.unmuteAll(uuid) > 0;
+            }
+
+            messages.sendWithPrefix(player,
+                    success ? MessageKeys.UNMUTE_SUCCESS.key() : MessageKeys.UNMUTE_NOT_FOUND.key(),
+                    Map.of("target", target));
+
+        } catch (SQLException e) {
+            messages.sendWithPrefix(player, MessageKeys.BAN_SQL_ERROR.key(),
+                    Map.of("error", e.getMessage() == null ? "SQL-Fehler" : e.getMessage()));
+            PluginLogger.printError("SENTINEL", "Unmute fehlgeschlagen: " + e.getMessage(), e);
+        }
+
+        return true;
+    }
+
+    private static boolean isNumeric(String s) {
+        try {
+            Long.parseLong(s);
+            return true;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    private static UUID tryParseUuid(String s) {
+        try {
+            return UUID.fromString(s);
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+}
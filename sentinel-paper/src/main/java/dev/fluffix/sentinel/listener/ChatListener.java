@@ -0,0 +1,84 @@
+package dev.fluffix.sentinel.listener;
+
+import dev.fluffix.sentinel.configuration.SentinelConfig;
+import dev.fluffix.sentinel.message.MessageHandler;
+import dev.fluffix.sentinel.message.MessageKeys;
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+import dev.fluffix.sentinel.mute.MuteIndex;
+import dev.fluffix.sentinel.mute.MuteManager;
+import dev.fluffix.sentinel.plugin.SentinelPaper;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Setzt Mutes im Chat und bei gesperrten Befehlen durch.
+ * Beide Pfade fragen nur den {@link MuteIndex} ab – kein DB-Zugriff pro Nachricht.
+ */
+public class ChatListener implements Listener {
+
+    private final MuteManager muteManager = SentinelPaper.getInstance().getMuteManager();
+    private final MessageHandler messages = SentinelPaper.getInstance().getMessageHandler();
+    private final Set<String> blockedCommands;
+    private final LongAdder blockedChat;
+    private final LongAdder blockedCommandsCounter;
+
+    public ChatListener() {
+        SentinelConfig config = SentinelPaper.getInstance().getSentinelConfig();
+        SentinelMetrics metrics = SentinelPaper.getInstance().getMetrics();
+        this.blockedCommands = config.muteBlockedCommands();
+        this.blockedChat = metrics.counter("sentinel_mute_blocked_total", "kind", "chat");
+        this.blockedCommandsCounter = metrics.counter("sentinel_mute_blocked_total", "kind", "command");
+        Bukkit.getPluginManager().registerEvents(this, SentinelPaper.getInstance());
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    public void onChat(AsyncChatEvent event) {
+        MuteIndex.Entry mute = muteManager.check(event.getPlayer().getUniqueId());
+        if (mute == null) return;
+
+        event.setCancelled(true);
+        blockedChat.increment();
+        notifyMuted(event.getPlayer(), mute);
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    public void onCommand(PlayerCommandPreprocessEvent event) {
+        if (blockedCommands.isEmpty()) return;
+
+        MuteIndex.Entry mute = muteManager.check(event.getPlayer().getUniqueId());
+        if (mute == null) return;
+        if (!blockedCommands.contains(label(event.getMessage()))) return;
+
+        event.setCancelled(true);
+        blockedCommandsCounter.increment();
+        notifyMuted(event.getPlayer(), mute);
+    }
+
+    private void notifyMuted(Player player, MuteIndex.Entry mute) {
+        long remaining = mute.remainingSeconds(System.currentTimeMillis());
+        messages.sendWithPrefix(player, MessageKeys.MUTE_CHAT_BLOCKED.key(), Map.of(
+                "reasons", mute.reasons(),
+                "duration", mute.isPermanent() ? "permanent" : PlayerListener.formatDuration(remaining)
+        ));
+    }
+
+    /** "/minecraft:msg Steve hi" -> "msg" */
+    private static String label(String message) {
+        int start = message.startsWith("/") ? 1 : 0;
+        int end = message.indexOf(' ', start);
+        String label = end < 0 ? message.substring(start) : message.substring(start, end);
+        int colon = label.indexOf(':');
+        if (colon >= 0) label = label.substring(colon + 1);
+        return label.toLowerCase(Locale.ROOT);
+    }
+}
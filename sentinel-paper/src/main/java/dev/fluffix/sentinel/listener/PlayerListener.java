@@ -1,16 +1,22 @@
 package dev.fluffix.sentinel.listener;
 
+import dev.fluffix.sentinel.alts.AltGraph;
+import dev.fluffix.sentinel.alts.AltPolicy;
 import dev.fluffix.sentinel.ban.Ban;
-import dev.fluffix.sentinel.ban.BanManager;
+import dev.fluffix.sentinel.ban.snapshot.SnapshotEntry;
+import dev.fluffix.sentinel.logger.PluginLogger;
+import dev.fluffix.sentinel.login.CircuitBreaker;
+import dev.fluffix.sentinel.login.LoginGuard;
+import dev.fluffix.sentinel.login.LoginVerdict;
 import dev.fluffix.sentinel.message.MessageHandler;
 import dev.fluffix.sentinel.message.MessageKeys;
-import dev.fluffix.sentinel.player.SentinelPlayerManager;
+import dev.fluffix.sentinel.mute.MuteManager;
+import dev.fluffix.sentinel.player.PlayerRegistrationQueue;
 import dev.fluffix.sentinel.plugin.SentinelPaper;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.minimessage.MiniMessage;
-import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -22,14 +28,18 @@ import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 
 public class PlayerListener implements Listener {
 
-    private final BanManager banManager = SentinelPaper.getInstance().getBanManager();
-    private final SentinelPlayerManager playerManager = SentinelPaper.getInstance().getSentinelPlayerManager();
+    private final LoginGuard loginGuard = SentinelPaper.getInstance().getLoginGuard();
+    private final PlayerRegistrationQueue registrations = SentinelPaper.getInstance().getRegistrationQueue();
     private final MessageHandler messages = SentinelPaper.getInstance().getMessageHandler();
+    private final MuteManager muteManager = SentinelPaper.getInstance().getMuteManager();
+    private final AltGraph altGraph = SentinelPaper.getInstance().getAltGraph();
+    private final AltPolicy altPolicy = AltPolicy.parse(SentinelPaper.getInstance().getSentinelConfig().altPolicy());
 
     public PlayerListener() {
        Bukkit.getPluginManager().registerEvents(this, SentinelPaper.getInstance());
@@ -37,16 +47,54 @@ public class PlayerListener implements Listener {
 
     @EventHandler
     public void onPreLogin(AsyncPlayerPreLoginEvent event) {
-        UUID uuid = event.getUniqueId();
-        Ban ban;
+        String ip = event.getAddress() == null ? null : event.getAddress().getHostAddress();
+        LoginVerdict verdict = loginGuard.check(event.getUniqueId(), ip);
+
+        switch (verdict.outcome()) {
+            case ALLOWED -> {
+                if (!denyLinkedBan(event, ip)) refreshMute(event);
+            }
+            case BANNED -> kickFromBan(event, verdict.ban());
+            case BANNED_CACHED -> kickFromSnapshot(event, verdict.cached());
+            case UNAVAILABLE -> event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER,
+                    messages.render(MessageKeys.LOGIN_UNAVAILABLE.key()));
+        }
+    }
+
+    /** Gebannter Alt-Account über gemeinsame IP – reine Speicherabfrage im Alt-Graphen. */
+    private boolean denyLinkedBan(AsyncPlayerPreLoginEvent event, String ip) {
+        if (altGraph == null || altPolicy == AltPolicy.OFF) return false;
+        UUID linked = altGraph.linkedBan(event.getUniqueId(), ip);
+        if (linked == null) return false;
+
+        String altName = Objects.requireNonNullElse(altGraph.nameOf(linked), linked.toString());
+        Map<String, String> values = Map.of("player", event.getName(), "alt", altName);
+        if (altPolicy == AltPolicy.DENY) {
+            event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_BANNED,
+                    messages.render(MessageKeys.ALTS_DENIED.key(), values));
+            return true;
+        }
+
+        var msg = messages.renderWithPrefix(MessageKeys.ALTS_NOTIFY.key(), values);
+        Bukkit.getScheduler().runTask(SentinelPaper.getInstance(), () -> {
+            for (Player p : Bukkit.getOnlinePlayers()) {
+                if (p.hasPermission("sentinel.alts.notify")) p.sendMessage(msg);
+            }
+        });
+        return false;
+    }
+
+    /** Mutes anderer Server in den Index holen, bevor der Spieler chatten kann. */
+    private void refreshMute(AsyncPlayerPreLoginEvent event) {
+        if (muteManager == null || loginGuard.getBreaker().getState() != CircuitBreaker.State.CLOSED) return;
         try {
-            ban = banManager.getActive(uuid);
+            muteManager.refresh(event.getUniqueId());
         } catch (SQLException e) {
-            Bukkit.getLogger().warning("[Sentinel] Konnte Ban-Status nicht prüfen: " + e.getMessage());
-            return;
+            PluginLogger.printError("SENTINEL", "Mute-Status konnte nicht geladen werden: " + e.getMessage(), e);
         }
-        if (ban == null) return;
+    }
 
+    private void kickFromBan(AsyncPlayerPreLoginEvent event, Ban ban) {
         long remaining = ban.getRemainingSeconds();
         Instant expiresAt = ban.getExpiresAt();
         if (expiresAt != null) {
@@ -58,17 +106,26 @@ public class PlayerListener implements Listener {
         List<String> reasonList = ban.getReasons();
         String reasonsJoined = (reasonList == null || reasonList.isEmpty()) ? "-" : String.join(", ", reasonList);
 
+        kick(event, reasonsJoined, remaining, ban.getOperator(), ban.getNotice());
+    }
+
+    private void kickFromSnapshot(AsyncPlayerPreLoginEvent event, SnapshotEntry entry) {
+        String reasons = entry.reasons() == null ? "-" : entry.reasons();
+        kick(event, reasons, entry.remainingSeconds(System.currentTimeMillis()), entry.operator(), entry.notice());
+    }
+
+    private void kick(AsyncPlayerPreLoginEvent event, String reasonsJoined, long remaining, String operatorOpt, String noticeOpt) {
         String durationPretty = remaining == 0 ? "permanent" : formatDuration(remaining);
-        String operator = ban.getOperator() == null ? "-" : ban.getOperator();
-        String notice = ban.getNotice() == null ? "" : ban.getNotice();
+        String operator = operatorOpt == null ? "-" : operatorOpt;
+        String notice = noticeOpt == null ? "" : noticeOpt;
 
-        var kickMsg = messages.render(MessageKeys.BAN_KICK.key(),
-                Placeholder.unparsed("player", event.getName()),
-                Placeholder.unparsed("reasons", reasonsJoined),
-                Placeholder.unparsed("duration", durationPretty),
-                Placeholder.unparsed("operator", operator),
-                Placeholder.unparsed("notice", notice)
-        );
+        var kickMsg = messages.render(MessageKeys.BAN_KICK.key(), Map.of(
+                "player", event.getName(),
+                "reasons", reasonsJoined,
+                "duration", durationPretty,
+                "operator", operator,
+                "notice", notice
+        ));
 
         event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_BANNED, kickMsg);
     }
@@ -77,10 +134,14 @@ public class PlayerListener implements Listener {
     public void handleJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
         String ip = player.getAddress() == null ? "unknown" : player.getAddress().getAddress().getHostAddress();
-        try {
-            playerManager.registerOrUpdate(player.getUniqueId(), player.getName(), ip);
-        } catch (SQLException e) {
-            Bukkit.getLogger().warning("[Sentinel] Konnte Spieler nicht registrieren/aktualisieren: " + e.getMessage());
+        if (registrations != null) {
+            // nur vormerken: geschrieben wird asynchron unter Admission-Kontrolle
+            if (registrations.submit(player.getUniqueId(), player.getName(), ip) == PlayerRegistrationQueue.Result.QUEUE_FULL) {
+                PluginLogger.printWithLabel("SENTINEL", "Registrierungs-Warteschlange voll: " + player.getName() + " wird beim nächsten Join registriert", "RED");
+            }
+            if (altGraph != null && !"unknown".equals(ip)) {
+                altGraph.link(player.getUniqueId(), player.getName(), ip);
+            }
         }
 
         if (SentinelPaper.getInstance().updateAvailable && (player.hasPermission("sentinel.setup") || player.hasPermission("*"))) {
@@ -104,7 +165,7 @@ public class PlayerListener implements Listener {
         }
     }
 
-    private static String formatDuration(long seconds) {
+    public static String formatDuration(long seconds) {
         long days = seconds / 86400; seconds %= 86400;
         long hours = seconds / 3600; seconds %= 3600;
         long minutes = seconds / 60;
@@ -1,33 +1,32 @@
 package dev.fluffix.sentinel.logger;
 
-import java.util.HashMap;
-import java.util.Map;
-
+/**
+ * Konsolen-Ausgabe des Plugins; schreibt über den AsyncLogger, blockiert also nie den Aufrufer.
+ */
 public class PluginLogger {
 
-    private static final String RESET = "\u001B[0m";
+    private static final AsyncLogger LOG = AsyncLogger.global();
 
-    private static final Map<String, String> COLORS = new HashMap<>();
+    public static void print(String message, String colorName) {
+        LOG.info("SENTINEL", message, colorName);
+    }
 
-    static {
-        COLORS.put("BLACK", "\u001B[30m");
-        COLORS.put("RED", "\u001B[31m");
-        COLORS.put("GREEN", "\u001B[32m");
-        COLORS.put("YELLOW", "\u001B[33m");
-        COLORS.put("BLUE", "\u001B[34m");
-        COLORS.put("PURPLE", "\u001B[35m");
-        COLORS.put("CYAN", "\u001B[36m");
-        COLORS.put("WHITE", "\u001B[37m");
-        COLORS.put("GRAY", "\u001B[90m");
+    public static void printWithLabel(String label, String message, String colorName) {
+        if ("RED".equalsIgnoreCase(colorName)) {
+            // Fehlermeldungen laufen über die Drosselung (z. B. wiederholte DB-Fehler während eines Ausfalls)
+            LOG.log(AsyncLogger.Level.ERROR, label, message, colorName, null);
+        } else {
+            LOG.info(label, message, colorName);
+        }
     }
 
-    public static void print(String message, String colorName) {
-        String colorCode = COLORS.getOrDefault(colorName.toUpperCase(), RESET);
-        System.out.println(colorCode + message + RESET);
+    /** Fehler mit Stacktrace; der Stacktrace wird erst auf dem Log-Thread formatiert. */
+    public static void printError(String label, String message, Throwable error) {
+        LOG.error(label, message, error);
     }
 
-    public static void printWithLabel(String label, String message, String colorName) {
-        String colorCode = COLORS.getOrDefault(colorName.toUpperCase(), RESET);
-        System.out.println(colorCode + "[" + label.toUpperCase() + "] " + message + RESET);
+    /** Ausstehende Meldungen schreiben (Plugin-Stopp). */
+    public static void shutdown() {
+        LOG.shutdown(2000);
     }
 }
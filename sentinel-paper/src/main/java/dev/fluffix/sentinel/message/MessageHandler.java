@@ -1,19 +1,25 @@
 package dev.fluffix.sentinel.message;
 
 import dev.fluffix.sentinel.configuration.JsonFileBuilder;
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 
 public class MessageHandler {
@@ -22,6 +28,10 @@ public class MessageHandler {
     private final MiniMessage mm;
     private JsonFileBuilder json;
     private final Map<String, String> cache = new ConcurrentHashMap<>();
+    private final Map<String, MessageTemplate> templates = new ConcurrentHashMap<>();
+    private volatile Component prefix;
+    private LongAdder cacheHits = new LongAdder();
+    private LongAdder cacheMisses = new LongAdder();
 
     public MessageHandler(File dataFolder) throws IOException {
         Objects.requireNonNull(dataFolder, "dataFolder");
@@ -36,36 +46,72 @@ public class MessageHandler {
     }
 
 
+    public void bindMetrics(SentinelMetrics metrics) {
+        this.cacheHits = metrics.counter("sentinel_cache_requests_total", "cache", "messages", "result", "hit");
+        this.cacheMisses = metrics.counter("sentinel_cache_requests_total", "cache", "messages", "result", "miss");
+        metrics.gauge("sentinel_cache_entries", cache::size, "cache", "messages");
+        metrics.gauge("sentinel_cache_entries", templates::size, "cache", "message_templates");
+    }
+
     public synchronized void reload() throws IOException {
         load();
         cache.clear();
+        templates.clear();
+        prefix = null;
     }
 
     public String raw(String key) {
         String k = key.toLowerCase(Locale.ROOT);
+        String hit = cache.get(k);
+        if (hit != null) {
+            cacheHits.increment();
+            return hit;
+        }
+        cacheMisses.increment();
         return cache.computeIfAbsent(k, ignored -> json.getString(k));
     }
 
     public Component prefix() {
-        String p = raw(MessageKeys.PREFIX.key());
-        return p == null ? Component.empty() : mm.deserialize(p);
+        Component p = prefix;
+        if (p == null) {
+            String tpl = raw(MessageKeys.PREFIX.key());
+            p = tpl == null ? Component.empty() : mm.deserialize(tpl);
+            prefix = p;
+        }
+        return p;
     }
 
     public String prefixRaw() {
         return raw(MessageKeys.PREFIX.key());
     }
 
+    /**
+     * Rendert über beliebige Resolver – parst das Template bei jedem Aufruf.
+     * Für häufige Nachrichten mit reinen Text-Platzhaltern {@link #render(String, Map)} verwenden.
+     */
     public Component render(String key, TagResolver... resolvers) {
+        if (resolvers == null || resolvers.length == 0) {
+            return template(key, Set.of()).render(Map.of());
+        }
         String tpl = raw(key);
         if (tpl == null || tpl.isBlank()) return Component.empty();
         return mm.deserialize(tpl, resolversOrEmpty(resolvers));
     }
 
+    /**
+     * Rendert über das vorkompilierte Template; Werte werden wie {@code Placeholder.unparsed} eingesetzt.
+     */
+    public Component render(String key, Map<String, String> values) {
+        Map<String, String> v = values == null ? Map.of() : values;
+        return template(key, v.keySet()).render(v);
+    }
+
     public Component renderWithPrefix(String key, TagResolver... resolvers) {
-        Component pfx = prefix();
-        Component msg = render(key, resolvers);
-        if (pfx == Component.empty()) return msg;
-        return pfx.append(Component.text(" ")).append(msg);
+        return withPrefix(render(key, resolvers));
+    }
+
+    public Component renderWithPrefix(String key, Map<String, String> values) {
+        return withPrefix(render(key, values));
     }
 
     public void send(Audience audience, String key, TagResolver... resolvers) {
@@ -78,6 +124,47 @@ public class MessageHandler {
         audience.sendMessage(renderWithPrefix(key, resolvers));
     }
 
+    public void send(Audience audience, String key, Map<String, String> values) {
+        if (audience == null) return;
+        audience.sendMessage(render(key, values));
+    }
+
+    public void sendWithPrefix(Audience audience, String key, Map<String, String> values) {
+        if (audience == null) return;
+        audience.sendMessage(renderWithPrefix(key, values));
+    }
+
+    /* ---------------- Listen ---------------- */
+
+    /**
+     * Rendert Kopfzeile (mit Prefix) und eine Zeile pro Eintrag als eine einzige Component.
+     * Das Zeilen-Template wird nur einmal nachgeschlagen und für alle Einträge wiederverwendet.
+     */
+    public <T> Component renderList(String headerKey, Map<String, String> headerValues,
+                                    String lineKey, Collection<? extends T> items,
+                                    Function<? super T, Map<String, String>> lineValues) {
+        TextComponent.Builder out = Component.text();
+        out.append(renderWithPrefix(headerKey, headerValues));
+
+        MessageTemplate line = null;
+        for (T item : items) {
+            Map<String, String> v = lineValues.apply(item);
+            if (line == null || !line.hasSlots(v.keySet())) {
+                line = template(lineKey, v.keySet());
+            }
+            out.appendNewline().append(line.render(v));
+        }
+        return out.build();
+    }
+
+    /** Wie {@link #renderList}, aber als eine einzelne Chat-Nachricht verschickt. */
+    public <T> void sendList(Audience audience, String headerKey, Map<String, String> headerValues,
+                             String lineKey, Collection<? extends T> items,
+                             Function<? super T, Map<String, String>> lineValues) {
+        if (audience == null) return;
+        audience.sendMessage(renderList(headerKey, headerValues, lineKey, items, lineValues));
+    }
+
     public static TagResolver placeholders(Map<String, String> map) {
         if (map == null || map.isEmpty()) return TagResolver.empty();
         TagResolver.Builder b = TagResolver.builder();
@@ -86,6 +173,22 @@ public class MessageHandler {
     }
 
 
+    private Component withPrefix(Component msg) {
+        Component pfx = prefix();
+        if (pfx == Component.empty()) return msg;
+        return pfx.append(Component.text(" ")).append(msg);
+    }
+
+    /** Kompiliertes Template je Key; wird neu gebaut, wenn sich die Platzhalter-Namen ändern. */
+    private MessageTemplate template(String key, Set<String> slots) {
+        String k = key.toLowerCase(Locale.ROOT);
+        MessageTemplate t = templates.get(k);
+        if (t != null && t.hasSlots(slots)) return t;
+        t = MessageTemplate.compile(mm, raw(k), slots);
+        templates.put(k, t);
+        return t;
+    }
+
     private void load() throws IOException {
         json = new JsonFileBuilder();
         json.loadFromFile(file);
@@ -109,7 +212,7 @@ public class MessageHandler {
                 .add(MessageKeys.BAN_SQL_ERROR.key(), "<red>SQL-Fehler:</red> <white><error></white>")
 
                 .add(MessageKeys.BAN_KICK.key(), "<red>Du bist vom Server gebannt.</red><newline><gray>Gründe:</gray> <gold><reasons></gold><newline><gray>Verbleibend:</gray> <white><duration></white><newline><gray>Von:</gray> <white><operator></white><newline><gray><notice></gray>")
-
+                .add(MessageKeys.LOGIN_UNAVAILABLE.key(), "<red>Die Ban-Prüfung ist gerade nicht verfügbar.</red><newline><gray>Bitte versuche es in wenigen Minuten erneut.</gray>")
 
                 .add(MessageKeys.UNBAN_USAGE.key(), "<gray>Verwendung:</gray> <white>/unban <id|player></white>")
                 .add(MessageKeys.UNBAN_SUCCESS.key(), "<green>Der Spieler <yellow><target></yellow> wurde entbannt.</green>")
@@ -119,7 +222,46 @@ public class MessageHandler {
                 .add(MessageKeys.BAN_LIST_USAGE.key(), "<gray>Verwendung:</gray> <white>/<label> list <target|all></white>")
                 .add(MessageKeys.BAN_LIST_HEADER.key(), "<aqua>— Bans für <yellow><target></yellow> —</aqua>")
                 .add(MessageKeys.BAN_LIST_LINE.key(), "<yellow><player></yellow> <gray>(</gray><white><operator></white><gray>)</gray> <gray>[</gray><reasons><gray>]</gray> <white><duration></white> <gray>active=</gray><white><active></white>")
-                .add(MessageKeys.BAN_LIST_EMPTY.key(), "<gray>Keine Einträge gefunden für <white><target></white>.</gray>");
+                .add(MessageKeys.BAN_LIST_EMPTY.key(), "<gray>Keine Einträge gefunden für <white><target></white>.</gray>")
+
+                .add(MessageKeys.MUTE_USAGE.key(), "<gray>Verwendung:</gray> <white>/<label> <target> <reason1,reason2,...> [Notiz]</white>")
+                .add(MessageKeys.MUTE_SUCCESS.key(), "<green><operator></green> hat <yellow><target></yellow> gemutet. Gründe: <gold><reasons></gold> <gray>(</gray><duration><gray>)</gray>")
+                .add(MessageKeys.MUTE_ERROR.key(), "<red>Konnte Mute nicht ausführen:</red> <white><error></white>")
+                .add(MessageKeys.MUTE_NOTIFY.key(), "<red>Du wurdest gemutet.</red> <gray>Gründe:</gray> <gold><reasons></gold> <gray>(</gray><white><duration></white><gray>)</gray>")
+                .add(MessageKeys.MUTE_CHAT_BLOCKED.key(), "<red>Du bist gemutet.</red> <gray>Gründe:</gray> <gold><reasons></gold> <gray>Verbleibend:</gray> <white><duration></white>")
+                .add(MessageKeys.UNMUTE_USAGE.key(), "<gray>Verwendung:</gray> <white>/unmute <id|player></white>")
+                .add(MessageKeys.UNMUTE_SUCCESS.key(), "<green>Der Spieler <yellow><target></yellow> wurde entmutet.</green>")
+                .add(MessageKeys.UNMUTE_NOT_FOUND.key(), "<red>Es wurde kein aktiver Mute für <yellow><target></yellow> gefunden.</red>")
+
+                .add(MessageKeys.REPORT_USAGE.key(), "<gray>Verwendung:</gray> <white>/<label> <player> <reason></white>")
+                .add(MessageKeys.REPORT_SUCCESS.key(), "<green>Danke! Dein Report gegen <yellow><target></yellow> wurde übermittelt.</green>")
+                .add(MessageKeys.REPORT_DUPLICATE.key(), "<gray>Du hast <yellow><target></yellow> bereits wegen <white><reason></white> gemeldet.</gray>")
+                .add(MessageKeys.REPORT_QUEUE_FULL.key(), "<red>Reports werden gerade nicht angenommen, bitte versuche es gleich erneut.</red>")
+                .add(MessageKeys.REPORT_UNKNOWN_REASON.key(), "<red>Unbekannter Report-Grund:</red> <white><reason></white>")
+                .add(MessageKeys.REPORT_TARGET_OFFLINE.key(), "<red>Der Spieler <yellow><target></yellow> ist nicht online.</red>")
+                .add(MessageKeys.REPORT_NOTIFY.key(), "<gold>Report:</gold> <yellow><target></yellow> <gray>wurde</gray> <white><count>x</white> <gray>gemeldet (zuletzt</gray> <white><reason></white> <gray>von</gray> <white><reporter></white><gray>)</gray>")
+                .add(MessageKeys.REPORT_LIST_HEADER.key(), "<aqua>--- Offene Reports ---</aqua>")
+                .add(MessageKeys.REPORT_LIST_LINE.key(), "<yellow><target></yellow> <gray>offen</gray> <white><open></white> <gray>/ gesamt</gray> <white><total></white> <gray>zuletzt</gray> <white><reason></white>")
+                .add(MessageKeys.REPORT_LIST_EMPTY.key(), "<gray>Keine offenen Reports.</gray>")
+                .add(MessageKeys.REPORT_CLEARED.key(), "<green>Reports für <yellow><target></yellow> als bearbeitet markiert.</green>")
+
+                .add(MessageKeys.ALTS_USAGE.key(), "<gray>Verwendung:</gray> <white>/<label> <player></white>")
+                .add(MessageKeys.ALTS_UNKNOWN.key(), "<red>Der Spieler <yellow><target></yellow> ist unbekannt.</red>")
+                .add(MessageKeys.ALTS_HEADER.key(), "<aqua>--- Verknüpfte Accounts von <target> (<count>) ---</aqua>")
+                .add(MessageKeys.ALTS_LINE.key(), "<yellow><alt></yellow> <gray>-</gray> <white><status></white>")
+                .add(MessageKeys.ALTS_EMPTY.key(), "<gray>Keine verknüpften Accounts für <white><target></white>.</gray>")
+                .add(MessageKeys.ALTS_NOTIFY.key(), "<gold>Alt-Account:</gold> <yellow><player></yellow> <gray>ist über eine IP mit dem gebannten Account</gray> <red><alt></red> <gray>verknüpft.</gray>")
+                .add(MessageKeys.ALTS_DENIED.key(), "<red>Dieser Account ist mit einem gebannten Account verknüpft.</red>")
+
+                .add(MessageKeys.BANWAVE_USAGE.key(), "<gray>Verwendung:</gray> <white>/<label> add <player> <reason1,reason2,...> [Notiz] | remove <player> | list | run</white>")
+                .add(MessageKeys.BANWAVE_ADDED.key(), "<green><yellow><target></yellow> ist für die nächste Ban-Welle vorgemerkt</green> <gray>(</gray><gold><reasons></gold><gray>, in</gray> <white><in></white><gray>)</gray>")
+                .add(MessageKeys.BANWAVE_REMOVED.key(), "<green><yellow><target></yellow> wurde aus der Ban-Welle entfernt.</green>")
+                .add(MessageKeys.BANWAVE_NOT_FOUND.key(), "<red><yellow><target></yellow> ist nicht für eine Ban-Welle vorgemerkt.</red>")
+                .add(MessageKeys.BANWAVE_EMPTY.key(), "<gray>Keine Vormerkungen für eine Ban-Welle.</gray>")
+                .add(MessageKeys.BANWAVE_LIST_HEADER.key(), "<aqua>--- Ban-Welle: <count> Spieler, in <in> ---</aqua>")
+                .add(MessageKeys.BANWAVE_LIST_LINE.key(), "<yellow><target></yellow> <gray>-</gray> <gold><reasons></gold> <gray>von</gray> <white><operator></white>")
+                .add(MessageKeys.BANWAVE_RUN.key(), "<green>Ban-Welle mit <white><count></white> Spieler(n) wird jetzt ausgeführt.</green>")
+                .add(MessageKeys.BANWAVE_EXECUTED.key(), "<gold>Ban-Welle ausgeführt:</gold> <white><banned></white> <gray>gebannt,</gray> <white><already></white> <gray>bereits gebannt,</gray> <white><missing></white> <gray>unbekannt</gray>");
 
         if (!file.exists()) {
             defaults.build(file.getAbsolutePath());
@@ -10,6 +10,7 @@ public enum MessageKeys {
     RELOAD_DONE,
 
     BAN_KICK,
+    LOGIN_UNAVAILABLE,
     BAN_LIST_USAGE,
     BAN_LIST_HEADER,
     BAN_LIST_LINE,
@@ -21,7 +22,46 @@ public enum MessageKeys {
     BAN_USAGE,
     BAN_SUCCESS,
     BAN_ERROR,
-    BAN_SQL_ERROR;
+    BAN_SQL_ERROR,
+
+    MUTE_USAGE,
+    MUTE_SUCCESS,
+    MUTE_ERROR,
+    MUTE_NOTIFY,
+    MUTE_CHAT_BLOCKED,
+    UNMUTE_USAGE,
+    UNMUTE_SUCCESS,
+    UNMUTE_NOT_FOUND,
+
+    REPORT_USAGE,
+    REPORT_SUCCESS,
+    REPORT_DUPLICATE,
+    REPORT_QUEUE_FULL,
+    REPORT_UNKNOWN_REASON,
+    REPORT_TARGET_OFFLINE,
+    REPORT_NOTIFY,
+    REPORT_LIST_HEADER,
+    REPORT_LIST_LINE,
+    REPORT_LIST_EMPTY,
+    REPORT_CLEARED,
+
+    ALTS_USAGE,
+    ALTS_UNKNOWN,
+    ALTS_HEADER,
+    ALTS_LINE,
+    ALTS_EMPTY,
+    ALTS_NOTIFY,
+    ALTS_DENIED,
+
+    BANWAVE_USAGE,
+    BANWAVE_ADDED,
+    BANWAVE_REMOVED,
+    BANWAVE_NOT_FOUND,
+    BANWAVE_EMPTY,
+    BANWAVE_LIST_HEADER,
+    BANWAVE_LIST_LINE,
+    BANWAVE_RUN,
+    BANWAVE_EXECUTED;
 
     public String key() {
         return name().toLowerCase();
@@ -0,0 +1,190 @@
+package dev.fluffix.sentinel.message;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Einmal geparstes MiniMessage-Template mit Platzhalter-Slots.
+ *
+ * Beim Kompilieren wird jeder Platzhalter durch einen Marker aus dem Private-Use-Bereich ersetzt
+ * und der fertige Component-Baum gemerkt. Beim Rendern werden nur noch die Marker in den
+ * Text-Inhalten durch die Werte ersetzt – Teilbäume ohne Slot werden unverändert wiederverwendet.
+ * Das Ergebnis entspricht {@code mm.deserialize(tpl, Placeholder.unparsed(...))}.
+ */
+final class MessageTemplate {
+
+    private static final char MARK_OPEN = '\uE000';
+    private static final char MARK_CLOSE = '\uE001';
+
+    /** Knoten des vorkompilierten Baums; dynamic = enthält (im Teilbaum) mindestens einen Slot. */
+    private record Node(Component component, boolean textSlots, List<Node> children, boolean dynamic) {}
+
+    /** Ergebnis des Marker-Scans: welche Slots im Text gelandet sind, und ob ein Marker zerteilt wurde. */
+    private static final class Scan {
+        final boolean[] found;
+        boolean broken;
+
+        Scan(int slots) {
+            this.found = new boolean[slots];
+        }
+    }
+
+    private final String source;
+    private final List<String> slots;
+    private final Set<String> slotSet;
+    private final Node root;            // null = Fallback auf deserialize (Slot außerhalb von Text)
+    private final MiniMessage mm;
+
+    private MessageTemplate(MiniMessage mm, String source, List<String> slots, Node root) {
+        this.mm = mm;
+        this.source = source;
+        this.slots = slots;
+        this.slotSet = Set.copyOf(slots);
+        this.root = root;
+    }
+
+    static MessageTemplate compile(MiniMessage mm, String source, Set<String> slotNames) {
+        List<String> slots = new ArrayList<>(slotNames);
+        if (source == null || source.isBlank()) {
+            return new MessageTemplate(mm, source, slots, new Node(Component.empty(), false, List.of(), false));
+        }
+
+        TagResolver.Builder b = TagResolver.builder();
+        for (int i = 0; i < slots.size(); i++) {
+            b.resolver(Placeholder.component(slots.get(i), Component.text(marker(i))));
+        }
+        Component parsed = mm.deserialize(source, b.build());
+
+        Scan scan = new Scan(slots.size());
+        Node root = index(parsed, scan);
+
+        // Marker zerteilt (z. B. <gradient> um einen Platzhalter) -> Ergebnis hängt vom Wert ab
+        if (scan.broken) {
+            return new MessageTemplate(mm, source, slots, null);
+        }
+        // Slot steht z. B. in einem Hover/Click-Wert -> dort kann nicht ersetzt werden
+        for (int i = 0; i < slots.size(); i++) {
+            if (!scan.found[i] && usesTag(source, slots.get(i))) {
+                return new MessageTemplate(mm, source, slots, null);
+            }
+        }
+        return new MessageTemplate(mm, source, slots, root);
+    }
+
+    boolean hasSlots(Set<String> names) {
+        return slotSet.equals(names);
+    }
+
+    boolean isPrecompiled() {
+        return root != null;
+    }
+
+    Component render(Map<String, String> values) {
+        if (root == null) {
+            return mm.deserialize(source, MessageHandler.placeholders(values));
+        }
+        if (!root.dynamic()) return root.component();
+
+        String[] v = new String[slots.size()];
+        for (int i = 0; i < v.length; i++) {
+            String s = values.get(slots.get(i));
+            v[i] = s == null ? "" : s;
+        }
+        return fill(root, v);
+    }
+
+    /* ---------------- intern ---------------- */
+
+    private static Node index(Component c, Scan scan) {
+        boolean textSlots = false;
+        if (c instanceof TextComponent tc) {
+            textSlots = markSlots(tc.content(), scan);
+        }
+        List<Component> kids = c.children();
+        List<Node> children = new ArrayList<>(kids.size());
+        boolean dynamic = textSlots;
+        for (Component child : kids) {
+            Node n = index(child, scan);
+            dynamic |= n.dynamic();
+            children.add(n);
+        }
+        return new Node(c, textSlots, List.copyOf(children), dynamic);
+    }
+
+    private static Component fill(Node node, String[] values) {
+        if (!node.dynamic()) return node.component();
+
+        Component c = node.component();
+        if (node.textSlots()) {
+            c = ((TextComponent) c).content(substitute(((TextComponent) c).content(), values));
+        }
+        if (!node.children().isEmpty()) {
+            List<Component> kids = new ArrayList<>(node.children().size());
+            for (Node child : node.children()) kids.add(fill(child, values));
+            c = c.children(kids);
+        }
+        return c;
+    }
+
+    private static boolean markSlots(String content, Scan scan) {
+        boolean any = false;
+        int pos = 0;
+        int i = content.indexOf(MARK_OPEN);
+        while (i >= 0) {
+            int end = content.indexOf(MARK_CLOSE, i);
+            int index = end < 0 ? -1 : slotIndex(content, i + 1, end, scan.found.length);
+            if (index < 0 || content.lastIndexOf(MARK_CLOSE, i) >= pos) {
+                scan.broken = true;
+                return any;
+            }
+            scan.found[index] = true;
+            any = true;
+            pos = end + 1;
+            i = content.indexOf(MARK_OPEN, pos);
+        }
+        if (content.indexOf(MARK_CLOSE, pos) >= 0) scan.broken = true;
+        return any;
+    }
+
+    private static int slotIndex(String content, int from, int to, int slots) {
+        if (from >= to) return -1;
+        for (int k = from; k < to; k++) {
+            if (content.charAt(k) < '0' || content.charAt(k) > '9') return -1;
+        }
+        int index = Integer.parseInt(content, from, to, 10);
+        return index < slots ? index : -1;
+    }
+
+    private static String substitute(String content, String[] values) {
+        StringBuilder sb = new StringBuilder(content.length() + 32);
+        int pos = 0;
+        int i = content.indexOf(MARK_OPEN);
+        while (i >= 0) {
+            int end = content.indexOf(MARK_CLOSE, i);
+            if (end < 0) break;
+            sb.append(content, pos, i).append(values[Integer.parseInt(content, i + 1, end, 10)]);
+            pos = end + 1;
+            i = content.indexOf(MARK_OPEN, pos);
+        }
+        return sb.append(content, pos, content.length()).toString();
+    }
+
+    private static String marker(int index) {
+        return MARK_OPEN + Integer.toString(index) + MARK_CLOSE;
+    }
+
+    private static boolean usesTag(String source, String slot) {
+        String s = source.toLowerCase(Locale.ROOT);
+        String tag = "<" + slot.toLowerCase(Locale.ROOT);
+        return s.contains(tag + ">") || s.contains(tag + ":");
+    }
+}
@@ -0,0 +1,61 @@
+package dev.fluffix.sentinel.plugin;
+
+import dev.fluffix.sentinel.ban.Ban;
+import dev.fluffix.sentinel.message.MessageHandler;
+import dev.fluffix.sentinel.message.MessageKeys;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Kickt gebannte Spieler verteilt über mehrere Ticks (Ban-Wellen, Eskalation).
+ * Pro Tick höchstens budgetMillis Main-Thread-Zeit, mindestens aber ein Kick,
+ * damit eine Welle mit hunderten Zielen keinen Lag-Spike erzeugt.
+ * add() ist thread-safe; gekickt wird nur auf dem Main-Thread.
+ */
+public class KickQueue implements Runnable {
+
+    private final Queue<Ban> queue = new ConcurrentLinkedQueue<>();
+    private final MessageHandler messages;
+    private final long budgetNanos;
+
+    public KickQueue(MessageHandler messages, long budgetMillis) {
+        this.messages = messages;
+        this.budgetNanos = Math.max(1, budgetMillis) * 1_000_000L;
+    }
+
+    public void add(Ban ban) {
+        queue.add(ban);
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void run() {
+        if (queue.isEmpty()) return;
+        long deadline = System.nanoTime() + budgetNanos;
+        Ban ban;
+        do {
+            ban = queue.poll();
+            if (ban == null) return;
+            kick(ban);
+        } while (System.nanoTime() < deadline);
+    }
+
+    private void kick(Ban ban) {
+        Player target = Bukkit.getPlayer(ban.getUniqueId());
+        if (target == null || !target.isOnline()) return;
+        String reasons = ban.getReasons() == null || ban.getReasons().isEmpty() ? "-" : String.join(", ", ban.getReasons());
+        target.kick(messages.render(MessageKeys.BAN_KICK.key(), Map.of(
+                "player", target.getName(),
+                "reasons", reasons,
+                "duration", ban.getRemainingSeconds() == 0 ? "permanent" : ban.getRemainingSeconds() + "s",
+                "operator", ban.getOperator() == null ? "-" : ban.getOperator(),
+                "notice", ban.getNotice() == null ? "" : ban.getNotice())));
+    }
+}
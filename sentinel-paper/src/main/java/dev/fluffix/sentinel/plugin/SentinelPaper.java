@@ -1,22 +1,46 @@
 package dev.fluffix.sentinel.plugin;
 
+import dev.fluffix.sentinel.alts.AltGraph;
+import dev.fluffix.sentinel.audit.AuditTrail;
 import dev.fluffix.sentinel.ban.BanManager;
+import dev.fluffix.sentinel.ban.BulkResult;
+import dev.fluffix.sentinel.ban.wave.BanWaveManager;
+import dev.fluffix.sentinel.ban.snapshot.BanSnapshot;
+import dev.fluffix.sentinel.commands.AltsCommand;
 import dev.fluffix.sentinel.commands.BanCommand;
+import dev.fluffix.sentinel.commands.BanWaveCommand;
+import dev.fluffix.sentinel.commands.MuteCommand;
 import dev.fluffix.sentinel.commands.ReasonsCommand;
+import dev.fluffix.sentinel.commands.ReportCommand;
+import dev.fluffix.sentinel.commands.SentinelCommand;
 import dev.fluffix.sentinel.commands.UnBanCommand;
+import dev.fluffix.sentinel.commands.UnMuteCommand;
+import dev.fluffix.sentinel.configuration.SentinelConfig;
 import dev.fluffix.sentinel.database.mysql.MySqlManager;
+import dev.fluffix.sentinel.escalation.EscalationEngine;
 import dev.fluffix.sentinel.github.UpdateChecker;
+import dev.fluffix.sentinel.listener.ChatListener;
 import dev.fluffix.sentinel.listener.PlayerListener;
+import dev.fluffix.sentinel.login.CircuitBreaker;
+import dev.fluffix.sentinel.login.LoginGuard;
+import dev.fluffix.sentinel.logger.AsyncLogger;
 import dev.fluffix.sentinel.logger.PluginLogger;
 import dev.fluffix.sentinel.message.MessageHandler;
+import dev.fluffix.sentinel.message.MessageKeys;
+import dev.fluffix.sentinel.metrics.MetricsHttpServer;
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+import dev.fluffix.sentinel.mute.MuteManager;
+import dev.fluffix.sentinel.player.PlayerRegistrationQueue;
 import dev.fluffix.sentinel.player.SentinelPlayerManager;
 import dev.fluffix.sentinel.reasons.ReasonManager;
+import dev.fluffix.sentinel.report.ReportManager;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.bukkit.Bukkit;
 import org.bukkit.command.PluginCommand;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -27,6 +51,12 @@ import java.io.File;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class SentinelPaper extends JavaPlugin implements Listener {
 
@@ -37,6 +67,19 @@ public class SentinelPaper extends JavaPlugin implements Listener {
     private ReasonManager reasonManager;
     private MessageHandler messageHandler;
     private BanManager banManager;
+    private MuteManager muteManager;
+    private ReportManager reportManager;
+    private AuditTrail auditTrail;
+    private EscalationEngine escalationEngine;
+    private AltGraph altGraph;
+    private BanWaveManager banWaveManager;
+    private KickQueue kickQueue;
+    private BanSnapshot banSnapshot;
+    private SentinelConfig config;
+    private LoginGuard loginGuard;
+    private PlayerRegistrationQueue registrationQueue;
+    private final SentinelMetrics metrics = new SentinelMetrics();
+    private MetricsHttpServer metricsServer;
 
     private UpdateChecker updater;
     public volatile boolean updateAvailable = false;
@@ -54,8 +97,33 @@ public class SentinelPaper extends JavaPlugin implements Listener {
         }
         File configFile = new File(getDataFolder(), "mysql.json");
 
+        // Snapshot zuerst laden: Bans greifen sofort, auch bevor/ohne dass MySQL erreichbar ist
+        this.banSnapshot = new BanSnapshot(getDataFolder());
+        banSnapshot.bindMetrics(metrics);
+        metrics.describe("sentinel_log_dropped", "Verworfene Log-Meldungen (Ringpuffer voll)");
+        metrics.gauge("sentinel_log_dropped", AsyncLogger.global()::dropped);
+        long snapshotStart = System.nanoTime();
         try {
-            mySqlManager = MySqlManager.fromConfig(configFile);
+            int loaded = banSnapshot.load();
+            long ms = (System.nanoTime() - snapshotStart) / 1_000_000L;
+            PluginLogger.printWithLabel("SENTINEL", "Ban-Snapshot geladen: " + loaded + " aktive Ban(s) in " + ms + " ms", "GREEN");
+        } catch (IOException e) {
+            PluginLogger.printWithLabel("SENTINEL", "Ban-Snapshot konnte nicht gelesen werden: " + e.getMessage(), "YELLOW");
+        }
+
+        try {
+            this.config = SentinelConfig.load(new File(getDataFolder(), "sentinel.json"));
+            this.messageHandler = new MessageHandler(getDataFolder());
+            messageHandler.bindMetrics(metrics);
+        } catch (IOException e) {
+            PluginLogger.printWithLabel("SENTINEL", "Fehler beim Laden der Konfiguration: " + e.getMessage(), "RED");
+            Bukkit.getPluginManager().disablePlugin(this);
+            return;
+        }
+
+        try {
+            // mit loginUseDaemon braucht der Pool keine Login-Last zu tragen (daemonPoolSize statt poolSize)
+            mySqlManager = MySqlManager.fromConfig(configFile, metrics, config.loginUseDaemon());
 
             try (Connection con = mySqlManager.getConnection()) {
                 if (!con.isValid(2)) {
@@ -66,26 +134,85 @@ public class SentinelPaper extends JavaPlugin implements Listener {
 
         } catch (IOException io) {
             PluginLogger.printWithLabel("SENTINEL", "Fehler beim Erstellen der Konfiguration: " + io.getMessage(), "RED");
-            Bukkit.getPluginManager().disablePlugin(this);
+            enableSnapshotOnly();
             return;
         } catch (Exception ex) {
             PluginLogger.printWithLabel("SENTINEL", "Verbindung zum MySQL-Server fehlgeschlagen!", "RED");
-            Bukkit.getPluginManager().disablePlugin(this);
+            enableSnapshotOnly();
             return;
         }
 
+        // Manager parallel starten: Schema-Prüfung ist eine Abfrage (sentinel_schema), danach nur Cache-Aufwärmen
+        ExecutorService startup = Executors.newFixedThreadPool(4, r -> {
+            Thread t = new Thread(r, "Sentinel-Startup");
+            t.setDaemon(true);
+            return t;
+        });
+        long startupStart = System.nanoTime();
         try {
-            this.sentinelPlayerManager = new SentinelPlayerManager(mySqlManager);
-            this.reasonManager = new ReasonManager(mySqlManager);
-            this.messageHandler = new MessageHandler(getDataFolder());
-            this.banManager = new BanManager(mySqlManager, sentinelPlayerManager, reasonManager);
-        } catch (SQLException | IOException e) {
-            PluginLogger.printWithLabel("SENTINEL","Das Plugin koonnte nicht gestartet werden " + e.getMessage(), "RED");
-            e.printStackTrace();
+            CompletableFuture<SentinelPlayerManager> players = startAsync(startup, () -> new SentinelPlayerManager(mySqlManager));
+            CompletableFuture<ReasonManager> reasons = startAsync(startup, () -> new ReasonManager(mySqlManager));
+            this.sentinelPlayerManager = await(players);
+            this.reasonManager = await(reasons);
+
+            CompletableFuture<BanManager> bans = startAsync(startup, () -> new BanManager(mySqlManager, sentinelPlayerManager, reasonManager));
+            CompletableFuture<MuteManager> mutes = startAsync(startup, () -> {
+                MuteManager m = new MuteManager(mySqlManager, sentinelPlayerManager, reasonManager);
+                m.getIndex().bindMetrics(metrics);
+                int n = m.syncIndex();
+                PluginLogger.printWithLabel("SENTINEL", "Mute-Index geladen: " + n + " aktive Mute(s)", "GREEN");
+                return m;
+            });
+            CompletableFuture<ReportManager> reports = startAsync(startup, () -> new ReportManager(mySqlManager, reasonManager, config));
+            CompletableFuture<AuditTrail> audit = startAsync(startup, () -> new AuditTrail(mySqlManager, config));
+            this.banManager = await(bans);
+            banManager.getHistoryCache().bindMetrics(metrics);
+
+            CompletableFuture<BanWaveManager> waves = startAsync(startup,
+                    () -> new BanWaveManager(mySqlManager, banManager, sentinelPlayerManager, reasonManager, config));
+            CompletableFuture<AltGraph> alts = startAsync(startup, () -> {
+                AltGraph g = new AltGraph(mySqlManager, config);
+                g.bindMetrics(metrics);
+                long altStart = System.nanoTime();
+                int altPlayers = g.rebuild(banManager);
+                PluginLogger.printWithLabel("SENTINEL", "Alt-Graph aufgebaut: " + altPlayers + " Spieler in "
+                        + (System.nanoTime() - altStart) / 1_000_000L + " ms", "GREEN");
+                return g;
+            });
+            this.muteManager = await(mutes);
+            this.reportManager = await(reports);
+            this.auditTrail = await(audit);
+            this.banWaveManager = await(waves);
+            this.altGraph = await(alts);
+            PluginLogger.printWithLabel("SENTINEL", "Datenbank bereit in "
+                    + (System.nanoTime() - startupStart) / 1_000_000L + " ms", "GREEN");
+        } catch (SQLException e) {
+            PluginLogger.printError("SENTINEL", "Das Plugin konnte nicht gestartet werden: " + e.getMessage(), e);
             Bukkit.getPluginManager().disablePlugin(this);
             return;
+        } finally {
+            startup.shutdown();
         }
 
+        banSnapshot.setPlayerManager(sentinelPlayerManager);
+        banManager.addListener(banSnapshot);
+        banManager.addListener(auditTrail);
+        reasonManager.addListener(auditTrail);
+        this.kickQueue = new KickQueue(messageHandler, config.banWaveKickBudgetMillis());
+        Bukkit.getScheduler().runTaskTimer(this, kickQueue, 1L, 1L);
+        this.escalationEngine = new EscalationEngine(mySqlManager, banManager, config);
+        banManager.addListener(escalationEngine);
+        sentinelPlayerManager.onPointsChanged(escalationEngine::invalidate);
+        banManager.addListener(altGraph);
+        escalationEngine.onEscalation(ban -> {
+            PluginLogger.printWithLabel("SENTINEL", "Eskalation: " + ban.getName() + " automatisch gebannt ("
+                    + String.join(", ", ban.getReasons()) + ")", "YELLOW");
+            kickQueue.add(ban);
+        });
+        this.loginGuard = createLoginGuard();
+        this.registrationQueue = new PlayerRegistrationQueue(sentinelPlayerManager, config, metrics);
+        startMetricsServer();
+
         String currentVersion = getDescription().getVersion();
         this.updater = new UpdateChecker(this, currentVersion);
 
@@ -110,6 +237,58 @@ public class SentinelPaper extends JavaPlugin implements Listener {
             PluginLogger.printWithLabel("SENTINEL","Fehler beim 'BAN' Command", "RED");
         }
 
+        PluginCommand sentinelCmd = getCommand("sentinel");
+        if (sentinelCmd != null) {
+            SentinelCommand sentinelCommand = new SentinelCommand();
+            sentinelCmd.setExecutor(sentinelCommand);
+            sentinelCmd.setTabCompleter(sentinelCommand);
+        } else {
+            PluginLogger.printWithLabel("SENTINEL","Fehler beim 'SENTINEL' Command", "RED");
+        }
+
+        PluginCommand muteCmd = getCommand("mute");
+        if (muteCmd != null) {
+            MuteCommand muteCommand = new MuteCommand(muteManager, reasonManager, messageHandler, escalationEngine);
+            muteCmd.setExecutor(muteCommand);
+            muteCmd.setTabCompleter(muteCommand);
+        } else {
+            PluginLogger.printWithLabel("SENTINEL","Fehler beim 'MUTE' Command", "RED");
+        }
+
+        PluginCommand unMuteCmd = getCommand("unmute");
+        if (unMuteCmd != null) {
+            unMuteCmd.setExecutor(new UnMuteCommand());
+        } else {
+            PluginLogger.printWithLabel("SENTINEL","Fehler beim 'UNMUTE' Command", "RED");
+        }
+
+        PluginCommand reportCmd = getCommand("report");
+        if (reportCmd != null) {
+            ReportCommand reportCommand = new ReportCommand(reportManager, messageHandler);
+            reportCmd.setExecutor(reportCommand);
+            reportCmd.setTabCompleter(reportCommand);
+        } else {
+            PluginLogger.printWithLabel("SENTINEL","Fehler beim 'REPORT' Command", "RED");
+        }
+
+        PluginCommand altsCmd = getCommand("alts");
+        if (altsCmd != null) {
+            AltsCommand altsCommand = new AltsCommand(altGraph, messageHandler);
+            altsCmd.setExecutor(altsCommand);
+            altsCmd.setTabCompleter(altsCommand);
+        } else {
+            PluginLogger.printWithLabel("SENTINEL","Fehler beim 'ALTS' Command", "RED");
+        }
+
+        PluginCommand banWaveCmd = getCommand("banwave");
+        if (banWaveCmd != null) {
+            BanWaveCommand banWaveCommand = new BanWaveCommand(banWaveManager, messageHandler);
+            banWaveCmd.setExecutor(banWaveCommand);
+            banWaveCmd.setTabCompleter(banWaveCommand);
+        } else {
+            PluginLogger.printWithLabel("SENTINEL","Fehler beim 'BANWAVE' Command", "RED");
+        }
+
         PluginCommand unBanCmd = getCommand("unban");
         if (unBanCmd != null) {
             unBanCmd.setExecutor(new UnBanCommand());
@@ -126,11 +305,22 @@ public class SentinelPaper extends JavaPlugin implements Listener {
                     PluginLogger.printWithLabel("SENTINEL", "Expire: " + moved + " Ban(s) verschoben/archiviert.", "GREEN");
                 }
             } catch (SQLException e) {
-                PluginLogger.printWithLabel("SENTINEL", "Fehler beim Archivieren abgelaufener Bans: " + e.getMessage(), "RED");
-                e.printStackTrace();
+                PluginLogger.printError("SENTINEL", "Fehler beim Archivieren abgelaufener Bans: " + e.getMessage(), e);
+            }
+            try {
+                muteManager.expireDueMutes();
+                // Mutes/Unmutes anderer Server übernehmen
+                muteManager.syncIndex();
+            } catch (SQLException e) {
+                PluginLogger.printWithLabel("SENTINEL", "Fehler beim Abgleich der Mutes: " + e.getMessage(), "RED");
             }
         }, initialDelay, period);
+        Bukkit.getScheduler().runTaskTimerAsynchronously(this, this::runBanWave, initialDelay, period);
 
+        long snapshotPeriod = 20L * 60L * 5L; // alle 5 Minuten kompletter Abgleich
+        Bukkit.getScheduler().runTaskTimerAsynchronously(this, this::syncBanSnapshot, 20L, snapshotPeriod);
+        // IP-Verknüpfungen anderer Server übernehmen
+        Bukkit.getScheduler().runTaskTimerAsynchronously(this, this::rebuildAltGraph, snapshotPeriod, snapshotPeriod);
 
         PluginLogger.print("SENTINEL wurde erfolgreich geladen", "BLUE");
         PluginLogger.print("Version » " + getInstance().getDescription().getVersion(), "BLUE");
@@ -138,10 +328,167 @@ public class SentinelPaper extends JavaPlugin implements Listener {
         PluginLogger.print("GitHub » https://github.com/FluffixYT", "BLUE");
 
         new PlayerListener();
+        new ChatListener();
+
+        // ab hier DB-Zugriffe auf dem Server-Thread melden; der Start oben blockiert bewusst
+        mySqlManager.getMainThreadGuard().setReporter(msg -> PluginLogger.printWithLabel("SENTINEL", msg, "YELLOW"));
+        mySqlManager.getMainThreadGuard().setPrimaryThread(Bukkit::isPrimaryThread);
+    }
+
+    /* ---------------- Start ---------------- */
+
+    @FunctionalInterface
+    private interface StartupTask<T> {
+        T run() throws SQLException;
+    }
+
+    private static <T> CompletableFuture<T> startAsync(ExecutorService executor, StartupTask<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.run();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /** Wartet auf einen Start-Schritt und reicht dessen SQLException unverpackt weiter. */
+    private static <T> T await(CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException sql) throw sql;
+            throw e;
+        }
+    }
+
+    /** MySQL nicht erreichbar: Logins werden nur über den lokalen Snapshot geprüft. */
+    private void enableSnapshotOnly() {
+        if (mySqlManager != null) {
+            mySqlManager.close();
+            mySqlManager = null;
+        }
+        PluginLogger.printWithLabel("SENTINEL", "Snapshot-Modus: " + banSnapshot.size()
+                + " Ban(s) werden lokal durchgesetzt, Befehle sind bis zum Neustart deaktiviert.", "YELLOW");
+        this.loginGuard = createLoginGuard();
+        startMetricsServer();
+        new PlayerListener();
+    }
+
+    private void startMetricsServer() {
+        int port = config.metricsPort();
+        if (port <= 0) return;
+        try {
+            metricsServer = new MetricsHttpServer(metrics, config.metricsBind(), port);
+            PluginLogger.printWithLabel("SENTINEL", "Metriken unter http://" + config.metricsBind() + ":" + port + "/metrics", "GREEN");
+        } catch (IOException e) {
+            PluginLogger.printWithLabel("SENTINEL", "Metrik-Endpunkt konnte nicht gestartet werden: " + e.getMessage(), "RED");
+        }
+    }
+
+    private LoginGuard createLoginGuard() {
+        boolean forwarding = config.loginTrustProxy() && velocityForwardingEnabled();
+        if (config.loginTrustProxy() && !forwarding) {
+            PluginLogger.printWithLabel("SENTINEL", "loginTrustProxy ignoriert: Velocity-Forwarding ist in "
+                    + "config/paper-global.yml nicht aktiv (proxies.velocity.enabled + secret). "
+                    + "Logins werden gegen die Datenbank geprüft.", "RED");
+        }
+        LoginGuard guard = new LoginGuard(banManager, mySqlManager, banSnapshot, config, metrics, forwarding);
+        guard.getBreaker().onTransition((from, to) -> {
+            if (to == CircuitBreaker.State.OPEN) {
+                PluginLogger.printWithLabel("SENTINEL", "Login-Prüfung: Circuit Breaker offen ("
+                        + guard.getLastError() + "), Entscheidungen aus Snapshot/" + guard.getPolicy(), "RED");
+            } else if (to == CircuitBreaker.State.CLOSED) {
+                PluginLogger.printWithLabel("SENTINEL", "Login-Prüfung: Datenbank wieder erreichbar, Breaker geschlossen", "GREEN");
+            }
+        });
+        return guard;
+    }
+
+    /**
+     * Ohne Velocity-Modern-Forwarding ist der Server direkt erreichbar und der Proxy hätte nichts entschieden.
+     * Paper 1.21 hält das in config/paper-global.yml (relativ zum Server-Verzeichnis).
+     */
+    private static boolean velocityForwardingEnabled() {
+        File file = new File("config", "paper-global.yml");
+        if (!file.isFile()) return false;
+        YamlConfiguration paper = YamlConfiguration.loadConfiguration(file);
+        String secret = paper.getString("proxies.velocity.secret", "");
+        return paper.getBoolean("proxies.velocity.enabled", false) && secret != null && !secret.isBlank();
+    }
+
+    private void rebuildAltGraph() {
+        try {
+            altGraph.rebuild(banManager);
+        } catch (SQLException e) {
+            PluginLogger.printWithLabel("SENTINEL", "Alt-Graph konnte nicht abgeglichen werden: " + e.getMessage(), "YELLOW");
+        }
+    }
+
+    /** Fällige Ban-Welle ausführen (async); Kicks laufen verteilt über die KickQueue. */
+    public synchronized void runBanWave() {
+        if (banWaveManager == null) return;
+        List<BulkResult> results;
+        try {
+            results = banWaveManager.runDue();
+        } catch (SQLException | RuntimeException e) {
+            PluginLogger.printWithLabel("SENTINEL", "Ban-Welle fehlgeschlagen (Vormerkungen bleiben erhalten): " + e.getMessage(), "RED");
+            return;
+        }
+        if (results.isEmpty()) return;
+
+        for (BulkResult r : results) {
+            if (r.status() == BulkResult.Status.BANNED) kickQueue.add(r.ban());
+        }
+        Map<String, String> summary = BanWaveCommand.summary(results);
+        PluginLogger.printWithLabel("SENTINEL", "Ban-Welle: " + summary.get("banned") + " gebannt, "
+                + summary.get("already") + " bereits gebannt, " + summary.get("missing") + " unbekannt", "YELLOW");
+        Bukkit.getScheduler().runTask(this, () -> {
+            var msg = messageHandler.renderWithPrefix(MessageKeys.BANWAVE_EXECUTED.key(), summary);
+            for (Player p : Bukkit.getOnlinePlayers()) {
+                if (p.hasPermission("sentinel.banwave")) p.sendMessage(msg);
+            }
+        });
+    }
+
+    private void syncBanSnapshot() {
+        try {
+            banSnapshot.syncFrom(banManager);
+        } catch (SQLException | IOException e) {
+            PluginLogger.printWithLabel("SENTINEL", "Ban-Snapshot konnte nicht abgeglichen werden: " + e.getMessage(), "YELLOW");
+        }
     }
 
     @Override
     public void onDisable() {
+        if (loginGuard != null) {
+            loginGuard.close();
+            loginGuard = null;
+        }
+        if (registrationQueue != null) {
+            // vorgemerkte Registrierungen noch schreiben, bevor der Pool schließt
+            registrationQueue.close();
+            registrationQueue = null;
+        }
+        if (metricsServer != null) {
+            metricsServer.close();
+            metricsServer = null;
+        }
+        if (escalationEngine != null) {
+            // gesammelte Punkte noch schreiben, bevor der Pool schließt
+            escalationEngine.close();
+            escalationEngine = null;
+        }
+        if (reportManager != null) {
+            // wartende Reports noch schreiben, bevor der Pool schließt
+            reportManager.close();
+            reportManager = null;
+        }
+        if (auditTrail != null) {
+            // wartende Audit-Einträge noch schreiben, bevor der Pool schließt
+            auditTrail.close();
+            auditTrail = null;
+        }
         if (mySqlManager != null) {
             try {
                 mySqlManager.close();
@@ -152,6 +499,14 @@ public class SentinelPaper extends JavaPlugin implements Listener {
                 mySqlManager = null;
             }
         }
+        if (banSnapshot != null) {
+            try {
+                banSnapshot.close();
+            } catch (IOException e) {
+                PluginLogger.printWithLabel("SENTINEL", "Ban-Snapshot konnte nicht geschlossen werden: " + e.getMessage(), "RED");
+            }
+        }
+        PluginLogger.shutdown();
         instance = null;
     }
 
@@ -198,6 +553,54 @@ public class SentinelPaper extends JavaPlugin implements Listener {
         return banManager;
     }
 
+    public MuteManager getMuteManager() {
+        return muteManager;
+    }
+
+    public ReportManager getReportManager() {
+        return reportManager;
+    }
+
+    public AuditTrail getAuditTrail() {
+        return auditTrail;
+    }
+
+    public EscalationEngine getEscalationEngine() {
+        return escalationEngine;
+    }
+
+    public BanWaveManager getBanWaveManager() {
+        return banWaveManager;
+    }
+
+    public KickQueue getKickQueue() {
+        return kickQueue;
+    }
+
+    public AltGraph getAltGraph() {
+        return altGraph;
+    }
+
+    public BanSnapshot getBanSnapshot() {
+        return banSnapshot;
+    }
+
+    public SentinelConfig getSentinelConfig() {
+        return config;
+    }
+
+    public LoginGuard getLoginGuard() {
+        return loginGuard;
+    }
+
+    public PlayerRegistrationQueue getRegistrationQueue() {
+        return registrationQueue;
+    }
+
+    public SentinelMetrics getMetrics() {
+        return metrics;
+    }
+
     public boolean isUpdateAvailable() {
         return updateAvailable;
     }
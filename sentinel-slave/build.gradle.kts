@@ -12,8 +12,8 @@ repositories {
 }
 
 dependencies {
-    implementation("com.zaxxer:HikariCP:2.3.2")
-    implementation("mysql:mysql-connector-java:5.1.13")
+    implementation("com.zaxxer:HikariCP:5.1.0")
+    implementation("com.mysql:mysql-connector-j:8.4.0")
     implementation("com.fasterxml.jackson.core:jackson-databind:2.15.2")
 
 }
@@ -22,6 +22,13 @@ java {
     toolchain.languageVersion.set(JavaLanguageVersion.of(21))
 }
 
+// Standalone-Daemon: java -jar sentinel-slave-all.jar [Datenordner]
+tasks.withType<Jar> {
+    manifest {
+        attributes["Main-Class"] = "dev.fluffix.sentinel.daemon.SentinelDaemon"
+    }
+}
+
 buildscript {
     repositories {
         mavenCentral()
@@ -0,0 +1,314 @@
+package dev.fluffix.sentinel.alts;
+
+import dev.fluffix.sentinel.ban.Ban;
+import dev.fluffix.sentinel.ban.BanListener;
+import dev.fluffix.sentinel.ban.BanManager;
+import dev.fluffix.sentinel.configuration.SentinelConfig;
+import dev.fluffix.sentinel.database.mysql.MySqlManager;
+import dev.fluffix.sentinel.database.mysql.QueryTag;
+import dev.fluffix.sentinel.database.mysql.QueryTag.Workload;
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Alt-Account-Graph im Speicher: Union-Find über Spieler und IPs (Kante = Eintrag in sentinel_player_ips).
+ * - Spieler mit gemeinsamer IP landen – auch über mehrere Hops – in derselben Komponente.
+ * - Je Wurzel werden Mitglieder und Anzahl aktiv gebannter Mitglieder mitgeführt,
+ *   damit der Login-Check und /alts ohne Joins auskommen.
+ * - IPs mit mehr als altMaxAccountsPerIp Accounts (NAT, VPN, Hosting) verknüpfen ab dann nicht mehr.
+ *   Bereits vorher gezogene Verbindungen bleiben bis zum nächsten rebuild() bestehen.
+ *
+ * Aufbau per rebuild() aus der Datenbank, danach inkrementell über link() (Join-Pfad)
+ * und die BanListener-Events. Alle Zugriffe sind synchronisiert.
+ */
+public class AltGraph implements BanListener {
+
+    /** Verknüpfter Account für /alts. */
+    public record Alt(UUID uuid, String name, boolean banned) {}
+
+    private static final QueryTag TAG_LOAD = QueryTag.replicaRead("alts.load", Workload.MAINTENANCE);
+
+    private final MySqlManager db;
+    private final int maxAccountsPerIp;
+    private final Set<UUID> banned = new HashSet<>();
+
+    private Forest forest;
+    /** Ban-Änderungen während eines laufenden rebuild(); null = kein Rebuild aktiv. */
+    private Map<UUID, Boolean> pendingBans;
+
+    public AltGraph(MySqlManager db, SentinelConfig config) {
+        this.db = Objects.requireNonNull(db, "db");
+        this.maxAccountsPerIp = config.altMaxAccountsPerIp();
+        this.forest = new Forest(maxAccountsPerIp);
+    }
+
+    public void bindMetrics(SentinelMetrics metrics) {
+        metrics.gauge("sentinel_cache_entries", this::size, "cache", "alt_graph");
+    }
+
+    /* ---------------- Aufbau ---------------- */
+
+    /** Baut den Graphen komplett neu auf (Start und periodischer Abgleich mit anderen Servern). */
+    public int rebuild(BanManager bans) throws SQLException {
+        synchronized (this) {
+            pendingBans = new HashMap<>();
+        }
+        try {
+            Set<UUID> active = new HashSet<>();
+            for (Ban b : bans.listActiveFromPrimary()) active.add(b.getUniqueId());
+
+            List<Map<String, Object>> rows = db.query(TAG_LOAD, """
+                SELECT i.uuid, i.ip, p.name
+                  FROM sentinel_player_ips i
+                  JOIN sentinel_players p ON p.uuid = i.uuid
+                 ORDER BY i.first_seen
+            """);
+
+            Forest fresh = new Forest(maxAccountsPerIp);
+            for (Map<String, Object> r : rows) {
+                fresh.link(UUID.fromString(Objects.toString(r.get("uuid"))),
+                        Objects.toString(r.get("name"), null),
+                        Objects.toString(r.get("ip"), null));
+            }
+
+            synchronized (this) {
+                // lokale Links seit Start des Rebuilds übernehmen (Join-Pfad schreibt vorher in die DB)
+                forest.replayLinksInto(fresh);
+                pendingBans.forEach((uuid, isBanned) -> {
+                    if (isBanned) active.add(uuid); else active.remove(uuid);
+                });
+                banned.clear();
+                banned.addAll(active);
+                for (UUID uuid : banned) fresh.setBanned(uuid, true);
+                forest = fresh;
+                return fresh.players();
+            }
+        } finally {
+            synchronized (this) {
+                pendingBans = null;
+            }
+        }
+    }
+
+    /** Inkrementell vom Join-Pfad, nachdem die IP gespeichert wurde. */
+    public synchronized void link(UUID uuid, String name, String ip) {
+        forest.link(uuid, name, ip);
+        forest.journal(uuid, name, ip);
+    }
+
+    /* ---------------- Abfragen ---------------- */
+
+    /**
+     * Aktiv gebannter Account, der über gemeinsame IPs mit uuid oder der aktuellen Login-IP verknüpft ist
+     * (der Spieler selbst zählt nicht); null, wenn keiner.
+     */
+    public synchronized UUID linkedBan(UUID uuid, String ip) {
+        UUID hit = forest.bannedIn(forest.rootOfPlayer(uuid), uuid);
+        if (hit == null) hit = forest.bannedIn(forest.rootOfIp(ip), uuid);
+        return hit;
+    }
+
+    /** Alle verknüpften Accounts außer dem Spieler selbst. */
+    public synchronized List<Alt> altsOf(UUID uuid) {
+        int root = forest.rootOfPlayer(uuid);
+        if (root < 0) return List.of();
+        List<Alt> out = new ArrayList<>();
+        for (UUID member : forest.members(root)) {
+            if (member.equals(uuid)) continue;
+            out.add(new Alt(member, forest.name(member), banned.contains(member)));
+        }
+        return out;
+    }
+
+    /** UUID zum zuletzt gesehenen Namen (ohne DB); null, wenn unbekannt. */
+    public synchronized UUID findByName(String name) {
+        return forest.byName(name);
+    }
+
+    public synchronized String nameOf(UUID uuid) {
+        return forest.name(uuid);
+    }
+
+    public synchronized int size() {
+        return forest.players();
+    }
+
+    /* ---------------- BanListener ---------------- */
+
+    @Override
+    public synchronized void onBanCreated(Ban ban) {
+        setBanned(ban.getUniqueId(), true);
+    }
+
+    @Override
+    public synchronized void onBanRemoved(long banId, UUID uuid) {
+        setBanned(uuid, false);
+    }
+
+    private void setBanned(UUID uuid, boolean isBanned) {
+        if (uuid == null) return;
+        if (pendingBans != null) pendingBans.put(uuid, isBanned);
+        boolean changed = isBanned ? banned.add(uuid) : banned.remove(uuid);
+        if (changed) forest.setBanned(uuid, isBanned);
+    }
+
+    /* ---------------- Union-Find ---------------- */
+
+    /** Knoten 0..n-1: Spieler und IPs gemischt; Union by Size, Pfadhalbierung. */
+    private static final class Forest {
+
+        private final int maxAccountsPerIp;
+        private final Map<UUID, Integer> playerIds = new HashMap<>();
+        private final Map<String, Integer> ipIds = new HashMap<>();
+        private final Map<String, UUID> byName = new HashMap<>();
+        private final Map<UUID, String> names = new HashMap<>();
+        private final Set<Long> edges = new HashSet<>();
+        private final List<List<UUID>> members = new ArrayList<>();  // nur an Wurzeln gültig
+        private final List<Object[]> journal = new ArrayList<>();    // inkrementelle Links (für rebuild)
+
+        private int[] parent = new int[1024];
+        private int[] weight = new int[1024];
+        private int[] bannedCount = new int[1024];
+        private int[] ipAccounts = new int[1024];
+        private boolean[] bannedNode = new boolean[1024];
+        private int size;
+
+        Forest(int maxAccountsPerIp) {
+            this.maxAccountsPerIp = maxAccountsPerIp;
+        }
+
+        void link(UUID uuid, String name, String ip) {
+            int p = playerNode(uuid, name);
+            if (ip == null || ip.isBlank()) return;
+            int i = ipNode(ip.trim());
+            if (!edges.add(((long) p << 32) | i)) return;
+            if (++ipAccounts[i] > maxAccountsPerIp) return; // Hub-IP
+            union(p, i);
+        }
+
+        void journal(UUID uuid, String name, String ip) {
+            journal.add(new Object[]{uuid, name, ip});
+        }
+
+        /** Links aus dem Journal in einen neu geladenen Wald übernehmen; doppelte Kanten sind idempotent. */
+        void replayLinksInto(Forest target) {
+            for (Object[] j : journal) target.link((UUID) j[0], (String) j[1], (String) j[2]);
+        }
+
+        void setBanned(UUID uuid, boolean isBanned) {
+            int node = playerNode(uuid, null);
+            if (bannedNode[node] == isBanned) return;
+            bannedNode[node] = isBanned;
+            bannedCount[find(node)] += isBanned ? 1 : -1;
+        }
+
+        int rootOfPlayer(UUID uuid) {
+            Integer p = uuid == null ? null : playerIds.get(uuid);
+            return p == null ? -1 : find(p);
+        }
+
+        int rootOfIp(String ip) {
+            Integer i = ip == null ? null : ipIds.get(ip.trim());
+            if (i == null || ipAccounts[i] > maxAccountsPerIp) return -1;
+            return find(i);
+        }
+
+        /** Gebanntes Mitglied der Komponente außer self; nur bei Treffer wird die Komponente durchsucht. */
+        UUID bannedIn(int root, UUID self) {
+            if (root < 0 || bannedCount[root] == 0) return null;
+            Integer selfNode = self == null ? null : playerIds.get(self);
+            boolean selfInside = selfNode != null && find(selfNode) == root;
+            if (bannedCount[root] == 1 && selfInside && bannedNode[selfNode]) return null;
+            for (UUID member : members.get(root)) {
+                if (!member.equals(self) && bannedNode[playerIds.get(member)]) return member;
+            }
+            return null;
+        }
+
+        List<UUID> members(int root) {
+            return members.get(root);
+        }
+
+        String name(UUID uuid) {
+            return names.get(uuid);
+        }
+
+        UUID byName(String name) {
+            return name == null ? null : byName.get(name.toLowerCase(Locale.ROOT));
+        }
+
+        int players() {
+            return playerIds.size();
+        }
+
+        private int playerNode(UUID uuid, String name) {
+            if (name != null) {
+                String old = names.put(uuid, name);
+                if (old != null && !old.equalsIgnoreCase(name)) byName.remove(old.toLowerCase(Locale.ROOT), uuid);
+                byName.put(name.toLowerCase(Locale.ROOT), uuid);
+            }
+            Integer id = playerIds.get(uuid);
+            if (id != null) return id;
+            int node = newNode(uuid);
+            playerIds.put(uuid, node);
+            members.get(node).add(uuid);
+            return node;
+        }
+
+        private int ipNode(String ip) {
+            Integer id = ipIds.get(ip);
+            if (id != null) return id;
+            int node = newNode(null);
+            ipIds.put(ip, node);
+            return node;
+        }
+
+        private int newNode(UUID uuid) {
+            if (size == parent.length) {
+                int cap = parent.length * 2;
+                parent = Arrays.copyOf(parent, cap);
+                weight = Arrays.copyOf(weight, cap);
+                bannedCount = Arrays.copyOf(bannedCount, cap);
+                ipAccounts = Arrays.copyOf(ipAccounts, cap);
+                bannedNode = Arrays.copyOf(bannedNode, cap);
+            }
+            int node = size++;
+            parent[node] = node;
+            weight[node] = 1;
+            members.add(uuid == null ? new ArrayList<>(0) : new ArrayList<>(1));
+            return node;
+        }
+
+        private int find(int x) {
+            while (parent[x] != x) {
+                parent[x] = parent[parent[x]];
+                x = parent[x];
+            }
+            return x;
+        }
+
+        private void union(int a, int b) {
+            int ra = find(a);
+            int rb = find(b);
+            if (ra == rb) return;
+            if (weight[ra] < weight[rb]) {
+                int t = ra; ra = rb; rb = t;
+            }
+            parent[rb] = ra;
+            weight[ra] += weight[rb];
+            bannedCount[ra] += bannedCount[rb];
+            bannedCount[rb] = 0;
+            // kleinere Mitgliederliste in die größere
+            List<UUID> big = members.get(ra);
+            List<UUID> small = members.get(rb);
+            if (big.size() < small.size()) {
+                List<UUID> t = big; big = small; small = t;
+                members.set(ra, big);
+            }
+            big.addAll(small);
+            members.set(rb, new ArrayList<>(0));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package dev.fluffix.sentinel.alts;
+
+import java.util.Locale;
+
+/** Verhalten beim Login, wenn ein verknüpfter Account aktiv gebannt ist. */
+public enum AltPolicy {
+    /** Nicht prüfen. */
+    OFF,
+    /** Login erlauben, Staff benachrichtigen (Standard). */
+    NOTIFY,
+    /** Login ablehnen. */
+    DENY;
+
+    public static AltPolicy parse(String s) {
+        if (s == null) return NOTIFY;
+        try {
+            return valueOf(s.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return NOTIFY;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package dev.fluffix.sentinel.audit;
+
+/**
+ * Art eines Audit-Eintrags (wird als Name in sentinel_audit.action gespeichert).
+ */
+public enum AuditAction {
+    BAN,
+    BAN_UPDATE,
+    UNBAN,
+    BAN_EXPIRE,
+    /** Sammeleintrag eines Ban-Imports (importierte Bans erzeugen keine Einzel-Events). */
+    BAN_IMPORT,
+    REASON_SAVE,
+    REASON_DELETE
+}
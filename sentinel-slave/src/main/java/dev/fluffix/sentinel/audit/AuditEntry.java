@@ -0,0 +1,11 @@
+package dev.fluffix.sentinel.audit;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Ein Eintrag aus sentinel_audit. hash = SHA-256 über prevHash und alle übrigen Felder.
+ */
+public record AuditEntry(long id, Instant at, AuditAction action, String actor, UUID target, String targetName,
+                         Long banId, String details, String prevHash, String hash) {
+}
@@ -0,0 +1,9 @@
+package dev.fluffix.sentinel.audit;
+
+import java.util.List;
+
+/**
+ * Eine Seite des Audit-Logs, neueste zuerst. nextBefore ist der Cursor für die nächste Seite (0 = Ende).
+ */
+public record AuditPage(List<AuditEntry> entries, long nextBefore) {
+}
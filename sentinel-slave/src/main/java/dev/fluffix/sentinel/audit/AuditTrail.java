@@ -0,0 +1,428 @@
+package dev.fluffix.sentinel.audit;
+
+import dev.fluffix.sentinel.ban.Ban;
+import dev.fluffix.sentinel.ban.BanListener;
+import dev.fluffix.sentinel.configuration.SentinelConfig;
+import dev.fluffix.sentinel.database.mysql.MySqlManager;
+import dev.fluffix.sentinel.database.mysql.QueryTag;
+import dev.fluffix.sentinel.database.mysql.QueryTag.Workload;
+import dev.fluffix.sentinel.logger.AsyncLogger;
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+import dev.fluffix.sentinel.reasons.ReasonListener;
+import dev.fluffix.sentinel.reasons.ReasonType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Manipulationssicheres Audit-Log aller Moderationsaktionen in sentinel_audit.
+ * - Ereignisse kommen über BanListener/ReasonListener (nach dem Commit) und landen nur in einer begrenzten Queue.
+ * - Ein Hintergrund-Thread schreibt sie als JDBC-Batch; jede Zeile trägt den Hash der vorherigen (Hash-Kette).
+ * - Die Kettenspitze liegt in sentinel_audit_head und wird beim Schreiben mit FOR UPDATE gesperrt,
+ *   damit mehrere Server dieselbe Kette fortsetzen. Ids werden lückenlos aus der Spitze vergeben.
+ * - Die Tabelle wird nur angehängt; verify() erkennt geänderte, gelöschte oder eingeschobene Zeilen.
+ * - Wer gehandelt hat, setzt der Aufrufer mit actingAs() für die Dauer des Manager-Aufrufs.
+ * - Ein Batch, der MAX_FLUSH_ATTEMPTS-mal scheitert, wird aufgegeben und Eintrag für Eintrag ins Log geschrieben
+ *   (Dead-Letter), damit ein einzelner kaputter Batch die Queue nicht dauerhaft blockiert.
+ */
+public class AuditTrail implements BanListener, ReasonListener, AutoCloseable {
+
+    /** Setzt den Handelnden für Ereignisse dieses Threads; close() stellt den vorherigen wieder her. */
+    public interface ActorScope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private record Pending(long atMillis, AuditAction action, String actor, UUID target, String targetName,
+                           Long banId, String details) {}
+
+    public static final String SYSTEM = "system";
+
+    private static final String ZERO_HASH = "0".repeat(64);
+    private static final int DETAILS_MAX = 512;
+    private static final int NAME_MAX = 64;
+    private static final int MAX_FLUSH_ATTEMPTS = 10;
+    private static final int PAGE_MAX = 500;
+
+    private static final QueryTag TAG_SCHEMA = QueryTag.of("audit.schema");
+    private static final QueryTag TAG_FLUSH = QueryTag.of("audit.flush", Workload.MAINTENANCE);
+    private static final QueryTag TAG_PAGE = QueryTag.replicaRead("audit.page");
+    private static final QueryTag TAG_VERIFY = QueryTag.of("audit.verify", Workload.MAINTENANCE);
+
+    private static final ThreadLocal<String> ACTOR = new ThreadLocal<>();
+
+    private final MySqlManager db;
+    private final BlockingQueue<Pending> queue;
+    private final List<Pending> retry = new ArrayList<>(); // fehlgeschlagener Batch, wird zuerst geschrieben
+    private int retryAttempts;                              // guarded by this
+    private final ScheduledExecutorService flusher;
+    private final int batchSize;
+
+    private final LongAdder queued;
+    private final LongAdder dropped;
+    private final LongAdder written;
+    private final LongAdder deadLettered;
+
+    public AuditTrail(MySqlManager db, SentinelConfig config) throws SQLException {
+        this.db = Objects.requireNonNull(db, "db");
+        this.queue = new ArrayBlockingQueue<>(config.auditQueueCapacity());
+        this.batchSize = config.auditBatchSize();
+
+        SentinelMetrics metrics = db.getMetrics();
+        metrics.describe("sentinel_audit_events_total", "Audit-Ereignisse nach Ergebnis");
+        this.queued = metrics.counter("sentinel_audit_events_total", "result", "queued");
+        this.dropped = metrics.counter("sentinel_audit_events_total", "result", "dropped");
+        this.written = metrics.counter("sentinel_audit_events_total", "result", "written");
+        this.deadLettered = metrics.counter("sentinel_audit_events_total", "result", "dead_letter");
+        metrics.gauge("sentinel_audit_queued", queue::size);
+
+        ensureSchema();
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Sentinel-Audit");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = config.auditFlushMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /* ---------------- Schema ---------------- */
+
+    private void ensureSchema() throws SQLException {
+        db.schema().ensure("audit", List.of(this::migrateV1));
+    }
+
+    /** Version 1: Audit-Tabelle und Kettenspitze (idempotent). */
+    private void migrateV1() throws SQLException {
+        db.update(TAG_SCHEMA, """
+            CREATE TABLE IF NOT EXISTS sentinel_audit (
+              id           BIGINT        NOT NULL,
+              created_ms   BIGINT        NOT NULL,
+              action       VARCHAR(32)   NOT NULL,
+              actor        VARCHAR(64)   NOT NULL,
+              target_uuid  CHAR(36)      NULL,
+              target_name  VARCHAR(64)   NULL,
+              ban_id       BIGINT        NULL,
+              details      VARCHAR(512)  NULL,
+              prev_hash    CHAR(64)      NOT NULL,
+              hash         CHAR(64)      NOT NULL,
+              PRIMARY KEY (id),
+              INDEX idx_target_id (target_uuid, id)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+        """);
+        db.update(TAG_SCHEMA, """
+            CREATE TABLE IF NOT EXISTS sentinel_audit_head (
+              id         TINYINT   NOT NULL,
+              last_id    BIGINT    NOT NULL,
+              last_hash  CHAR(64)  NOT NULL,
+              PRIMARY KEY (id)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+        """);
+        db.update(TAG_SCHEMA, "INSERT IGNORE INTO sentinel_audit_head (id, last_id, last_hash) VALUES (1, 0, ?)", ZERO_HASH);
+    }
+
+    /* ---------------- Annahme ---------------- */
+
+    public static ActorScope actingAs(String actor) {
+        String previous = ACTOR.get();
+        ACTOR.set(actor);
+        return () -> {
+            if (previous == null) ACTOR.remove(); else ACTOR.set(previous);
+        };
+    }
+
+    /** Legt ein Ereignis in die Queue, ohne die Datenbank zu berühren; bei voller Queue wird gezählt und verworfen. */
+    public void record(AuditAction action, String actor, UUID target, String targetName, Long banId, String details) {
+        String who = actor == null || actor.isBlank() ? SYSTEM : clip(actor, NAME_MAX);
+        if (queue.offer(new Pending(System.currentTimeMillis(), action, who, target, clip(targetName, NAME_MAX),
+                banId, clip(details, DETAILS_MAX)))) {
+            queued.increment();
+        } else {
+            dropped.increment();
+            AsyncLogger.global().warn("AUDIT", "Audit-Queue voll, Ereignis verworfen",
+                    "action", action, "actor", who, "target", target, "ban", banId);
+        }
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    @Override
+    public void onBanCreated(Ban ban) {
+        record(AuditAction.BAN, ban.getOperator(), ban.getUniqueId(), ban.getName(), ban.getId(),
+                "type=" + ban.getType() + " reasons=" + String.join(",", ban.getReasons())
+                        + " remaining=" + ban.getRemainingSeconds());
+    }
+
+    @Override
+    public void onBanUpdated(Ban ban) {
+        record(AuditAction.BAN_UPDATE, ACTOR.get(), ban.getUniqueId(), ban.getName(), ban.getId(),
+                "remaining=" + ban.getRemainingSeconds());
+    }
+
+    @Override
+    public void onBanRemoved(long banId, UUID uuid, RemovalCause cause) {
+        switch (cause) {
+            case UNBAN -> record(AuditAction.UNBAN, ACTOR.get(), uuid, null, banId, null);
+            case REMAINING_ZERO -> record(AuditAction.BAN_UPDATE, ACTOR.get(), uuid, null, banId, "remaining=0");
+            case EXPIRED -> record(AuditAction.BAN_EXPIRE, SYSTEM, uuid, null, banId, null);
+        }
+    }
+
+    @Override
+    public void onReasonSaved(String name, ReasonType type, long durationSeconds) {
+        record(AuditAction.REASON_SAVE, ACTOR.get(), null, null, null,
+                "name=" + name + " type=" + type + " duration=" + durationSeconds);
+    }
+
+    @Override
+    public void onReasonDeleted(String name, ReasonType type, boolean deleted) {
+        if (!deleted) return;
+        record(AuditAction.REASON_DELETE, ACTOR.get(), null, null, null, "name=" + name + " type=" + type);
+    }
+
+    /* ---------------- Persistenz ---------------- */
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            // Batch bleibt in retry (bis MAX_FLUSH_ATTEMPTS); nächster Versuch im nächsten Intervall
+            AsyncLogger.global().warn("AUDIT", "Audit-Flush fehlgeschlagen: " + e.getMessage(),
+                    "batch", pendingRetry(), "queued", queue.size());
+        }
+    }
+
+    private synchronized int pendingRetry() {
+        return retry.size();
+    }
+
+    /**
+     * Schreibt alle wartenden Ereignisse in Batches von auditBatchSize (Reihenfolge bleibt erhalten).
+     * Scheitert derselbe Batch MAX_FLUSH_ATTEMPTS-mal, wird er ins Log geschrieben und verworfen.
+     */
+    public synchronized int flush() throws SQLException {
+        int count = 0;
+        while (true) {
+            if (retry.isEmpty() && queue.drainTo(retry, batchSize) == 0) break;
+            try {
+                write(retry);
+            } catch (SQLException | RuntimeException e) {
+                if (++retryAttempts >= MAX_FLUSH_ATTEMPTS) {
+                    deadLetter(retry, "Audit-Batch nach " + MAX_FLUSH_ATTEMPTS + " Versuchen aufgegeben", e);
+                    retry.clear();
+                    retryAttempts = 0;
+                }
+                throw e;
+            }
+            retryAttempts = 0;
+            count += retry.size();
+            written.add(retry.size());
+            retry.clear();
+        }
+        return count;
+    }
+
+    /** Aufgegebener Batch: jeder Eintrag als eigene Log-Zeile (ungedrosselt), damit nichts spurlos verschwindet. */
+    private void deadLetter(List<Pending> batch, String why, Exception cause) {
+        if (batch.isEmpty()) return;
+        AsyncLogger log = AsyncLogger.global();
+        log.error("AUDIT", why + " (" + batch.size() + " Einträge, folgen als AUDIT-DLQ)", cause);
+        for (Pending p : batch) {
+            log.info("AUDIT-DLQ", p.action().name(), "YELLOW",
+                    "at", p.atMillis(), "actor", p.actor(), "target", p.target(), "name", p.targetName(),
+                    "ban", p.banId(), "details", p.details());
+        }
+        deadLettered.add(batch.size());
+    }
+
+    private void write(List<Pending> chunk) throws SQLException {
+        db.inTransaction(TAG_FLUSH, con -> {
+            try {
+                Map<String, Object> head = db.query(con,
+                        "SELECT last_id, last_hash FROM sentinel_audit_head WHERE id = 1 FOR UPDATE").get(0);
+                long id = ((Number) head.get("last_id")).longValue();
+                String prev = Objects.toString(head.get("last_hash"));
+
+                List<Object[]> rows = new ArrayList<>(chunk.size());
+                for (Pending p : chunk) {
+                    id++;
+                    String hash = hash(prev, id, p.atMillis(), p.action(), p.actor(), p.target(), p.targetName(),
+                            p.banId(), p.details());
+                    rows.add(new Object[]{id, p.atMillis(), p.action().name(), p.actor(),
+                            p.target() == null ? null : p.target().toString(), p.targetName(), p.banId(), p.details(),
+                            prev, hash});
+                    prev = hash;
+                }
+                db.batch(con, """
+                    INSERT INTO sentinel_audit
+                      (id, created_ms, action, actor, target_uuid, target_name, ban_id, details, prev_hash, hash)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, rows);
+                db.update(con, "UPDATE sentinel_audit_head SET last_id = ?, last_hash = ? WHERE id = 1", id, prev);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+            return null;
+        });
+    }
+
+    /* ---------------- Abfrage ---------------- */
+
+    /**
+     * Keyset-Pagination, neueste zuerst.
+     * @param target      nur Einträge zu diesem Spieler (null = alle)
+     * @param beforeId    Cursor aus AuditPage.nextBefore (0 = neueste Seite)
+     * @param limit       Einträge je Seite (max. 500)
+     */
+    public AuditPage page(UUID target, long beforeId, int limit) throws SQLException {
+        int size = Math.max(1, Math.min(PAGE_MAX, limit));
+        long before = beforeId <= 0 ? Long.MAX_VALUE : beforeId;
+        List<Map<String, Object>> rows = target == null
+                ? db.query(TAG_PAGE, """
+                    SELECT id, created_ms, action, actor, target_uuid, target_name, ban_id, details, prev_hash, hash
+                      FROM sentinel_audit
+                     WHERE id < ?
+                     ORDER BY id DESC
+                     LIMIT ?
+                """, before, size + 1)
+                : db.query(TAG_PAGE, """
+                    SELECT id, created_ms, action, actor, target_uuid, target_name, ban_id, details, prev_hash, hash
+                      FROM sentinel_audit
+                     WHERE target_uuid = ? AND id < ?
+                     ORDER BY id DESC
+                     LIMIT ?
+                """, target.toString(), before, size + 1);
+
+        boolean more = rows.size() > size;
+        List<AuditEntry> entries = new ArrayList<>(Math.min(rows.size(), size));
+        for (int i = 0; i < Math.min(rows.size(), size); i++) entries.add(mapRow(rows.get(i)));
+        long next = more ? entries.get(entries.size() - 1).id() : 0L;
+        return new AuditPage(List.copyOf(entries), next);
+    }
+
+    /**
+     * Prüft die Kette ab fromId über höchstens limit Einträge (liest vom Primary).
+     * Erreicht die Prüfung das Ende, muss der letzte Eintrag genau der Kettenspitze in sentinel_audit_head
+     * entsprechen – sonst wären am Ende gelöschte oder angehängte Zeilen unsichtbar.
+     * Alles läuft in einer Transaktion (REPEATABLE READ), damit Spitze und Zeilen aus demselben Snapshot
+     * stammen und ein paralleler Flush keinen Fehlalarm auslöst.
+     * @return Id des ersten fehlerhaften Eintrags, 0 = Abschnitt ist intakt
+     */
+    public long verify(long fromId, int limit) throws SQLException {
+        return db.inTransaction(TAG_VERIFY, con -> {
+            try {
+                return verify(con, Math.max(1, fromId), Math.max(1, limit));
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private long verify(Connection con, long start, int limit) throws SQLException {
+        Map<String, Object> head = db.query(con, "SELECT last_id, last_hash FROM sentinel_audit_head WHERE id = 1").get(0);
+        long headId = ((Number) head.get("last_id")).longValue();
+        String headHash = Objects.toString(head.get("last_hash"));
+
+        String prev = ZERO_HASH;
+        if (start > 1) {
+            List<Map<String, Object>> before = db.query(con, "SELECT hash FROM sentinel_audit WHERE id = ?", start - 1);
+            if (before.isEmpty()) return start - 1;
+            prev = Objects.toString(before.get(0).get("hash"));
+        }
+
+        List<Map<String, Object>> rows = db.query(con, """
+            SELECT id, created_ms, action, actor, target_uuid, target_name, ban_id, details, prev_hash, hash
+              FROM sentinel_audit
+             WHERE id >= ?
+             ORDER BY id
+             LIMIT ?
+        """, start, limit);
+        long expected = start;
+        for (Map<String, Object> r : rows) {
+            AuditEntry e = mapRow(r);
+            if (e.id() != expected || !e.prevHash().equals(prev)) return expected;
+            String recomputed = hash(prev, e.id(), e.at().toEpochMilli(), e.action(), e.actor(), e.target(),
+                    e.targetName(), e.banId(), e.details());
+            if (!recomputed.equals(e.hash())) return e.id();
+            prev = e.hash();
+            expected++;
+        }
+        if (rows.size() >= limit) return 0L; // Ende nicht erreicht; der Rest wird in einem weiteren Lauf geprüft
+
+        long lastId = expected - 1;
+        if (lastId < headId) return expected;   // Zeilen am Ende gelöscht
+        if (lastId > headId) return headId + 1; // Zeilen hinter der Spitze angehängt
+        if (!prev.equals(headHash)) return lastId;
+        return 0L;
+    }
+
+    /* ---------------- Helpers ---------------- */
+
+    /** Kürzt auf max Codepoints (nicht UTF-16-Einheiten), damit kein Surrogatpaar zerschnitten wird. */
+    private static String clip(String s, int max) {
+        if (s == null || s.length() <= max) return s;
+        if (s.codePointCount(0, s.length()) <= max) return s;
+        return s.substring(0, s.offsetByCodePoints(0, max));
+    }
+
+    private static AuditEntry mapRow(Map<String, Object> r) {
+        Object target = r.get("target_uuid");
+        Object banId = r.get("ban_id");
+        return new AuditEntry(
+                ((Number) r.get("id")).longValue(),
+                Instant.ofEpochMilli(((Number) r.get("created_ms")).longValue()),
+                AuditAction.valueOf(Objects.toString(r.get("action"))),
+                Objects.toString(r.get("actor")),
+                target == null ? null : UUID.fromString(target.toString()),
+                (String) r.get("target_name"),
+                banId == null ? null : ((Number) banId).longValue(),
+                (String) r.get("details"),
+                Objects.toString(r.get("prev_hash")),
+                Objects.toString(r.get("hash")));
+    }
+
+    /** SHA-256 (hex) über den Vorgänger-Hash und alle Felder, jeweils mit Länge vorangestellt (eindeutig trennbar). */
+    static String hash(String prev, long id, long atMillis, AuditAction action, String actor, UUID target,
+                       String targetName, Long banId, String details) {
+        StringBuilder sb = new StringBuilder(256);
+        for (Object f : new Object[]{prev, id, atMillis, action.name(), actor, target, targetName, banId, details}) {
+            String s = f == null ? "" : f.toString();
+            sb.append(f == null ? -1 : s.length()).append(':').append(s).append('|');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (SQLException | RuntimeException e) {
+            List<Pending> rest;
+            synchronized (this) {
+                rest = new ArrayList<>(retry);
+                retry.clear();
+            }
+            queue.drainTo(rest);
+            deadLetter(rest, "Audit-Einträge beim Stopp nicht geschrieben", e);
+        }
+    }
+}
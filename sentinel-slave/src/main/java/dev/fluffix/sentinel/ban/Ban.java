@@ -75,4 +75,21 @@ public class Ban {
 
     public boolean isActive() { return active; }
     public Ban setActive(boolean active) { this.active = active; return this; }
+
+    /** Unabhängige Kopie (z. B. für Caches, die dieselbe Instanz nicht an mehrere Aufrufer geben dürfen). */
+    public Ban copy() {
+        Ban b = new Ban();
+        b.id = id;
+        b.uniqueId = uniqueId;
+        b.name = name;
+        b.operator = operator;
+        b.type = type;
+        b.reasons = new ArrayList<>(reasons);
+        b.remainingSeconds = remainingSeconds;
+        b.notice = notice;
+        b.createdAt = createdAt;
+        b.expiresAt = expiresAt;
+        b.active = active;
+        return b;
+    }
 }
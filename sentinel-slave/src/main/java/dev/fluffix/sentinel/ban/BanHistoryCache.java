@@ -0,0 +1,140 @@
+package dev.fluffix.sentinel.ban;
+
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ban-Historie je UUID (Ergebnis von BanManager.listFor) im Speicher.
+ * - LRU mit Budget über die Gesamtzahl gecachter Bans, nicht über die Zahl der Spieler.
+ * - Lokale Änderungen (Ban, Unban, Ablauf, Restzeit) invalidieren genau die betroffene UUID per Listener;
+ *   ein gleichzeitig laufendes Laden wird nur für diese UUID verworfen.
+ * - Änderungen anderer Server sieht der Cache erst nach Ablauf der TTL.
+ * - Ban ist veränderlich: gespeichert und herausgegeben werden Kopien, kein Aufrufer sieht die
+ *   Instanzen eines anderen.
+ */
+public class BanHistoryCache implements BanListener {
+
+    public static final int DEFAULT_MAX_ROWS = 20_000;
+    public static final long DEFAULT_TTL_MILLIS = 60_000L;
+    private static final int MAX_TRACKED_INVALIDATIONS = 4096;
+
+    private record Entry(List<Ban> bans, long loadedAt) {}
+
+    private final int maxRows;
+    private final long ttlMillis;
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private int rows;
+    // zählt jede Invalidierung; ein Laden wird verworfen, wenn seine UUID seit Ladebeginn invalidiert wurde
+    private long generation;
+    private final LinkedHashMap<UUID, Long> invalidatedAt = new LinkedHashMap<>(); // älteste zuerst
+    private long forgottenUpTo; // höchster Stand, der aus invalidatedAt verdrängt wurde
+
+    private volatile LongAdder hits = new LongAdder();
+    private volatile LongAdder misses = new LongAdder();
+
+    public BanHistoryCache(int maxRows, long ttlMillis) {
+        this.maxRows = Math.max(1, maxRows);
+        this.ttlMillis = Math.max(0, ttlMillis);
+    }
+
+    public void bindMetrics(SentinelMetrics metrics) {
+        this.hits = metrics.counter("sentinel_cache_requests_total", "cache", "ban_history", "result", "hit");
+        this.misses = metrics.counter("sentinel_cache_requests_total", "cache", "ban_history", "result", "miss");
+        metrics.gauge("sentinel_cache_entries", this::size, "cache", "ban_history");
+    }
+
+    /* ---------------- Zugriff ---------------- */
+
+    /** Gecachte Historie oder null (fehlt bzw. TTL abgelaufen). */
+    public synchronized List<Ban> get(UUID uuid) {
+        Entry e = entries.get(uuid);
+        if (e != null && System.currentTimeMillis() - e.loadedAt() > ttlMillis) {
+            drop(uuid);
+            e = null;
+        }
+        (e != null ? hits : misses).increment();
+        return e == null ? null : copyOf(e.bans());
+    }
+
+    /** Stand vor dem Laden; an {@link #put} zurückgeben. */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /** Übernimmt ein Ladeergebnis (als Kopie), sofern uuid seit loadedGeneration nicht invalidiert wurde. */
+    public synchronized void put(UUID uuid, List<Ban> bans, long loadedGeneration) {
+        // verdrängte Invalidierungen sind nicht mehr zuzuordnen: dann vorsichtshalber verwerfen
+        if (loadedGeneration < forgottenUpTo) return;
+        Long invalidated = invalidatedAt.get(uuid);
+        if (invalidated != null && invalidated > loadedGeneration) return;
+        if (bans.size() > maxRows) return; // einzelner Spieler sprengt das Budget
+        drop(uuid);
+        entries.put(uuid, new Entry(copyOf(bans), System.currentTimeMillis()));
+        rows += bans.size();
+
+        Iterator<Map.Entry<UUID, Entry>> it = entries.entrySet().iterator();
+        while (rows > maxRows && it.hasNext()) {
+            rows -= it.next().getValue().bans().size();
+            it.remove();
+        }
+    }
+
+    public synchronized void invalidate(UUID uuid) {
+        generation++;
+        invalidatedAt.remove(uuid);
+        invalidatedAt.put(uuid, generation);
+        if (invalidatedAt.size() > MAX_TRACKED_INVALIDATIONS) {
+            Iterator<Long> eldest = invalidatedAt.values().iterator();
+            forgottenUpTo = Math.max(forgottenUpTo, eldest.next());
+            eldest.remove();
+        }
+        drop(uuid);
+    }
+
+    public synchronized void clear() {
+        generation++;
+        forgottenUpTo = generation;
+        invalidatedAt.clear();
+        entries.clear();
+        rows = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static List<Ban> copyOf(List<Ban> bans) {
+        List<Ban> out = new ArrayList<>(bans.size());
+        for (Ban b : bans) out.add(b.copy());
+        return List.copyOf(out);
+    }
+
+    private void drop(UUID uuid) {
+        Entry old = entries.remove(uuid);
+        if (old != null) rows -= old.bans().size();
+    }
+
+    /* ---------------- Listener ---------------- */
+
+    @Override
+    public void onBanCreated(Ban ban) {
+        if (ban.getUniqueId() != null) invalidate(ban.getUniqueId());
+    }
+
+    @Override
+    public void onBanUpdated(Ban ban) {
+        if (ban.getUniqueId() != null) invalidate(ban.getUniqueId());
+    }
+
+    @Override
+    public void onBanRemoved(long banId, UUID uuid) {
+        if (uuid != null) invalidate(uuid);
+    }
+}
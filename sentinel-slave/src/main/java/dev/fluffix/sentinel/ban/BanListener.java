@@ -0,0 +1,27 @@
+package dev.fluffix.sentinel.ban;
+
+import java.util.UUID;
+
+/**
+ * Wird vom BanManager nach erfolgreichem Commit informiert.
+ * Implementierungen dürfen nicht blockieren und keine Exceptions werfen.
+ */
+public interface BanListener {
+
+    /** Neuer aktiver Ban wurde angelegt. */
+    default void onBanCreated(Ban ban) {}
+
+    /** Restzeit/Ablauf eines aktiven Bans wurde geändert. */
+    default void onBanUpdated(Ban ban) {}
+
+    /** Warum ein Ban aus der Live-Tabelle verschwunden ist. */
+    enum RemovalCause { UNBAN, EXPIRED, REMAINING_ZERO }
+
+    /** Ban wurde entfernt (Unban, Ablauf oder Restzeit 0) und liegt jetzt im Archiv. */
+    default void onBanRemoved(long banId, UUID uuid) {}
+
+    /** Wie onBanRemoved(banId, uuid), mit Ursache; Standard leitet dorthin weiter. */
+    default void onBanRemoved(long banId, UUID uuid, RemovalCause cause) {
+        onBanRemoved(banId, uuid);
+    }
+}
@@ -2,7 +2,10 @@ package dev.fluffix.sentinel.ban;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.fluffix.sentinel.ban.stats.BanStats;
 import dev.fluffix.sentinel.database.mysql.MySqlManager;
+import dev.fluffix.sentinel.database.mysql.QueryTag;
+import dev.fluffix.sentinel.database.mysql.QueryTag.Workload;
 import dev.fluffix.sentinel.player.SentinelPlayer;
 import dev.fluffix.sentinel.player.SentinelPlayerManager;
 import dev.fluffix.sentinel.reasons.Reason;
@@ -12,33 +15,66 @@ import dev.fluffix.sentinel.reasons.ReasonType;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Persistenter Ban-Manager.
  * - Nur Reasons erlaubt, die im ReasonManager mit Typ BAN existieren.
  * - Auto-Dauer aus Reasons (max Dauer; 0 => permanent).
  * - Inaktive/abgelaufene Bans werden in die Archiv-Tabelle verschoben.
+ * - Anlegen, Aufheben und Archivieren pflegen sentinel_ban_stats in derselben Transaktion.
+ * - listFor(UUID) wird je Spieler gecacht und bei jeder lokalen Änderung dieser UUID invalidiert.
  */
 public class BanManager {
 
     private final MySqlManager db;
     private final SentinelPlayerManager players; // optional, für Offline-Bans
     private final ReasonManager reasons;         // Pflicht: Validierung + Auto-Dauer
+    private final BanStats stats;
+    private final BanHistoryCache history = new BanHistoryCache(BanHistoryCache.DEFAULT_MAX_ROWS, BanHistoryCache.DEFAULT_TTL_MILLIS);
+    private final List<BanListener> listeners = new CopyOnWriteArrayList<>();
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
+    private static final QueryTag TAG_SCHEMA = QueryTag.of("ban.schema");
+    private static final QueryTag TAG_EXISTS_ACTIVE = QueryTag.of("ban.existsActive");
+    private static final QueryTag TAG_CREATE = QueryTag.of("ban.create");
+    private static final QueryTag TAG_GET_ACTIVE = QueryTag.of("ban.getActive", Workload.LOGIN);
+    private static final QueryTag TAG_ARCHIVE_EXPIRED = QueryTag.of("ban.getActive.archive", Workload.LOGIN);
+    private static final QueryTag TAG_LIST_ALL = QueryTag.replicaRead("ban.listAll");
+    private static final QueryTag TAG_LIST_ACTIVE_PRIMARY = QueryTag.of("ban.listActive.primary", Workload.MAINTENANCE);
+    private static final QueryTag TAG_LIST_ACTIVE_SINCE = QueryTag.of("ban.listActiveSince", Workload.MAINTENANCE);
+    private static final QueryTag TAG_LIST_FOR = QueryTag.of("ban.listFor");
+    private static final QueryTag TAG_GET_BY_ID = QueryTag.of("ban.getById");
+    private static final QueryTag TAG_SET_REMAINING = QueryTag.of("ban.setRemaining");
+    private static final QueryTag TAG_UNBAN = QueryTag.of("ban.unban");
+    private static final QueryTag TAG_UNBAN_ALL = QueryTag.of("ban.unbanAll");
+    private static final QueryTag TAG_EXPIRE = QueryTag.of("ban.expireDue", Workload.MAINTENANCE);
+    private static final QueryTag TAG_BAN_MANY = QueryTag.of("ban.banMany");
+    private static final QueryTag TAG_UNBAN_MANY = QueryTag.of("ban.unbanMany");
+
+    private static final int IN_CHUNK = 1000;
+
     public BanManager(MySqlManager db, SentinelPlayerManager players, ReasonManager reasons) throws SQLException {
         this.db = Objects.requireNonNull(db, "db");
         this.players = players;
         this.reasons = Objects.requireNonNull(reasons, "reasons");
+        this.stats = new BanStats(db);
+        this.listeners.add(history);
         ensureSchema();
     }
 
     /* ---------------- Schema ---------------- */
 
     private void ensureSchema() throws SQLException {
+        db.schema().ensure("bans", List.of(this::migrateV1));
+        stats.ensureSchema();
+    }
+
+    /** Version 1: Ausgangsschema (idempotent, damit Bestandsinstallationen ohne Versionszeile sauber übernommen werden). */
+    private void migrateV1() throws SQLException {
         // Live-Tabelle
-        db.update("""
+        db.update(TAG_SCHEMA, """
             CREATE TABLE IF NOT EXISTS sentinel_bans (
               id                BIGINT        NOT NULL AUTO_INCREMENT,
               uuid              CHAR(36)      NOT NULL,
@@ -51,14 +87,17 @@ public class BanManager {
               created_at        TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
               expires_at        TIMESTAMP     NULL,
               active            TINYINT(1)    NOT NULL DEFAULT 1,
+              active_uuid       CHAR(36)      GENERATED ALWAYS AS (IF(active = 1, uuid, NULL)) STORED,
               PRIMARY KEY (id),
+              UNIQUE KEY uq_active_uuid (active_uuid),
               INDEX idx_uuid_active (uuid, active),
               INDEX idx_expires_at (expires_at)
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
         """);
+        ensureActiveUnique();
 
         // Archiv-Tabelle (gleiche Spalten + archived_at)
-        db.update("""
+        db.update(TAG_SCHEMA, """
             CREATE TABLE IF NOT EXISTS sentinel_bans_archive (
               id                BIGINT        NOT NULL,
               uuid              CHAR(36)      NOT NULL,
@@ -79,6 +118,86 @@ public class BanManager {
         """);
     }
 
+    /**
+     * Bestandstabellen: höchstens ein aktiver Ban pro UUID per Unique-Index erzwingen.
+     * Vorhandene Mehrfach-Bans werden vorher bis auf den neuesten archiviert, sonst scheitert der Index.
+     */
+    private void ensureActiveUnique() throws SQLException {
+        List<Map<String, Object>> cols = db.query(TAG_SCHEMA, """
+            SELECT 1 FROM information_schema.COLUMNS
+             WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'sentinel_bans' AND COLUMN_NAME = 'active_uuid'
+        """);
+        if (!cols.isEmpty()) return;
+
+        db.inTransaction(TAG_SCHEMA, con -> {
+            try {
+                List<Object> ids = new ArrayList<>();
+                for (Map<String, Object> r : db.query(con, """
+                    SELECT b.id
+                      FROM sentinel_bans b
+                      JOIN (SELECT uuid, MAX(id) AS keep_id
+                              FROM sentinel_bans
+                             WHERE active = 1
+                             GROUP BY uuid
+                            HAVING COUNT(*) > 1) d ON d.uuid = b.uuid
+                     WHERE b.active = 1 AND b.id <> d.keep_id
+                       FOR UPDATE
+                """)) {
+                    ids.add(((Number) r.get("id")).longValue());
+                }
+                if (ids.isEmpty()) return null;
+
+                String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+                db.update(con, """
+                    INSERT INTO sentinel_bans_archive
+                      (id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active, archived_at)
+                    SELECT id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active, CURRENT_TIMESTAMP
+                      FROM sentinel_bans
+                     WHERE id IN (""" + in + ")", ids.toArray());
+                db.update(con, "DELETE FROM sentinel_bans WHERE id IN (" + in + ")", ids.toArray());
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+            return null;
+        });
+
+        db.update(TAG_SCHEMA, """
+            ALTER TABLE sentinel_bans
+              ADD COLUMN active_uuid CHAR(36) GENERATED ALWAYS AS (IF(active = 1, uuid, NULL)) STORED,
+              ADD UNIQUE KEY uq_active_uuid (active_uuid)
+        """);
+    }
+
+    /* ---------------- Listener ---------------- */
+
+    public BanStats getStats() {
+        return stats;
+    }
+
+    public BanHistoryCache getHistoryCache() {
+        return history;
+    }
+
+    public void addListener(BanListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    public void removeListener(BanListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireCreated(Ban ban) {
+        for (BanListener l : listeners) l.onBanCreated(ban);
+    }
+
+    private void fireUpdated(Ban ban) {
+        for (BanListener l : listeners) l.onBanUpdated(ban);
+    }
+
+    private void fireRemoved(long banId, UUID uuid, BanListener.RemovalCause cause) {
+        for (BanListener l : listeners) l.onBanRemoved(banId, uuid, cause);
+    }
+
     /* ---------------- Helpers ---------------- */
 
     private static String reasonsToJson(List<String> reasons) {
@@ -168,7 +287,7 @@ public class BanManager {
     /* ---------------- Exists/Status ---------------- */
 
     public boolean existsActive(UUID uuid) throws SQLException {
-        List<Map<String, Object>> rows = db.query(
+        List<Map<String, Object>> rows = db.query(TAG_EXISTS_ACTIVE,
                 "SELECT 1 FROM sentinel_bans WHERE uuid = ? AND active = 1 LIMIT 1",
                 uuid.toString()
         );
@@ -178,6 +297,13 @@ public class BanManager {
     /* ---------------- Create (manuell) ---------------- */
 
     public Ban create(Ban ban) throws SQLException {
+        // Scope hält auch die Reason-Prüfung auf dem Primary (frisch angelegte Gründe)
+        try (MySqlManager.Scope ignored = db.scope(TAG_CREATE)) {
+            return insert(ban);
+        }
+    }
+
+    private Ban insert(Ban ban) throws SQLException {
         Objects.requireNonNull(ban, "ban");
         Objects.requireNonNull(ban.getUniqueId(), "ban.uniqueId");
         Objects.requireNonNull(ban.getName(), "ban.name");
@@ -199,11 +325,12 @@ public class BanManager {
         Instant expiresAt = calcExpiresAt(ban.getType(), remaining);
         String reasonsJson = reasonsToJson(ban.getReasons());
 
-        final long remainingFinal = remaining;
-
-        db.inTransaction(con -> {
+        // uq_active_uuid lehnt einen zweiten aktiven Ban atomar ab, die ID kommt im selben Round-Trip;
+        // die Statistik zählt in derselben Transaktion mit
+        long finalRemaining = remaining;
+        long id = db.inTransaction(TAG_CREATE, con -> {
             try {
-                db.update(con, """
+                long newId = db.insert(con, """
                     INSERT INTO sentinel_bans
                       (uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active)
                     VALUES
@@ -214,30 +341,29 @@ public class BanManager {
                         ban.getOperator(),
                         ban.getType().name(),
                         reasonsJson,
-                        remainingFinal,
+                        finalRemaining,
                         ban.getNotice(),
                         (expiresAt == null ? null : java.sql.Timestamp.from(expiresAt))
                 );
+                stats.apply(con, new BanStats.Delta().ban(BanStats.today(), ban.getOperator(),
+                        ban.getReasons(), ban.getType(), finalRemaining));
+                return newId;
             } catch (SQLException e) {
+                if (MySqlManager.isDuplicateKey(e)) return -1L;
                 throw new RuntimeException(e);
             }
-
-            List<Map<String, Object>> idRow = null;
-            try {
-                idRow = db.query(con, "SELECT LAST_INSERT_ID() AS id");
-            } catch (SQLException e) {
-                throw new RuntimeException(e);
-            }
-            Long id = ((Number) idRow.get(0).get("id")).longValue();
-
-            ban.setId(id)
-                    .setCreatedAt(Instant.now())
-                    .setExpiresAt(expiresAt)
-                    .setRemainingSeconds(remainingFinal)
-                    .setActive(true);
-            return null;
         });
+        if (id < 0) {
+            throw new IllegalStateException("Spieler ist bereits aktiv gebannt: " + ban.getName());
+        }
+
+        ban.setId(id)
+                .setCreatedAt(Instant.now())
+                .setExpiresAt(expiresAt)
+                .setRemainingSeconds(remaining)
+                .setActive(true);
 
+        fireCreated(ban);
         return ban;
     }
 
@@ -251,9 +377,11 @@ public class BanManager {
     /** Auto-Dauer: berechnet aus Reasons (max; 0 ⇒ PERMANENT). */
     public Ban createAuto(UUID uuid, String name, String operator,
                           List<String> reasonsList, String notice) throws SQLException {
-        long auto = computeDurationFromReasonsSeconds(reasonsList);
-        BanType type = (auto == 0) ? BanType.PERMANENT : BanType.TEMP;
-        return create(new Ban(uuid, name, operator, type, reasonsList, auto, notice));
+        try (MySqlManager.Scope ignored = db.scope(TAG_CREATE)) {
+            long auto = computeDurationFromReasonsSeconds(reasonsList);
+            BanType type = (auto == 0) ? BanType.PERMANENT : BanType.TEMP;
+            return create(new Ban(uuid, name, operator, type, reasonsList, auto, notice));
+        }
     }
 
     /* ---------------- OFFLINE-BAN (manuell) ---------------- */
@@ -268,7 +396,6 @@ public class BanManager {
         validateBanReasons(reasonsList);
 
         SentinelPlayer sp = resolvePlayer(nameOrUuid);
-        if (existsActive(sp.getUniqueId())) throw new IllegalStateException("Spieler ist bereits aktiv gebannt: " + sp.getName());
 
         return create(sp.getUniqueId(), sp.getName(), operator, type, reasonsList, remainingSeconds, notice);
     }
@@ -284,7 +411,6 @@ public class BanManager {
 
         SentinelPlayer sp = players.loadByUuid(uuid);
         if (sp == null) throw new IllegalStateException("Spieler nicht in der Datenbank gefunden: " + uuid);
-        if (existsActive(uuid)) throw new IllegalStateException("Spieler ist bereits aktiv gebannt: " + sp.getName());
 
         return create(uuid, sp.getName(), operator, type, reasonsList, remainingSeconds, notice);
     }
@@ -300,7 +426,6 @@ public class BanManager {
 
         SentinelPlayer sp = players.loadByName(name);
         if (sp == null) throw new IllegalStateException("Spieler nicht in der Datenbank gefunden: " + name);
-        if (existsActive(sp.getUniqueId())) throw new IllegalStateException("Spieler ist bereits aktiv gebannt: " + sp.getName());
 
         return create(sp.getUniqueId(), sp.getName(), operator, type, reasonsList, remainingSeconds, notice);
     }
@@ -315,7 +440,6 @@ public class BanManager {
         if (players == null) throw new IllegalStateException("Offline-Ban nicht möglich: SentinelPlayerManager wurde nicht gesetzt.");
 
         SentinelPlayer sp = resolvePlayer(nameOrUuid);
-        if (existsActive(sp.getUniqueId())) throw new IllegalStateException("Spieler ist bereits aktiv gebannt: " + sp.getName());
 
         return createAuto(sp.getUniqueId(), sp.getName(), operator, reasonsList, notice);
     }
@@ -328,7 +452,6 @@ public class BanManager {
 
         SentinelPlayer sp = players.loadByUuid(uuid);
         if (sp == null) throw new IllegalStateException("Spieler nicht in der Datenbank gefunden: " + uuid);
-        if (existsActive(uuid)) throw new IllegalStateException("Spieler ist bereits aktiv gebannt: " + sp.getName());
 
         return createAuto(uuid, sp.getName(), operator, reasonsList, notice);
     }
@@ -341,11 +464,221 @@ public class BanManager {
 
         SentinelPlayer sp = players.loadByName(name);
         if (sp == null) throw new IllegalStateException("Spieler nicht in der Datenbank gefunden: " + name);
-        if (existsActive(sp.getUniqueId())) throw new IllegalStateException("Spieler ist bereits aktiv gebannt: " + sp.getName());
 
         return createAuto(sp.getUniqueId(), sp.getName(), operator, reasonsList, notice);
     }
 
+    /* ---------------- Bulk ---------------- */
+
+    /**
+     * Bannt viele Spieler auf einmal (Auto-Dauer aus Reasons).
+     * Gründe werden einmal geprüft, Spieler und bestehende Bans mengenbasiert geladen,
+     * alle neuen Bans in einer Transaktion als Batch eingefügt. Ergebnis in Eingabe-Reihenfolge.
+     */
+    public List<BulkResult> banMany(Collection<String> targets, String operator,
+                                    List<String> reasonsList, String notice) throws SQLException {
+        if (players == null) throw new IllegalStateException("Offline-Ban nicht möglich: SentinelPlayerManager wurde nicht gesetzt.");
+
+        List<Reason> valid;
+        try (MySqlManager.Scope ignored = db.scope(TAG_BAN_MANY)) {
+            valid = reasons.loadAll(ReasonType.BAN); // Primary: frisch angelegte Gründe
+        }
+        long auto = durationFromReasons(reasonsList, valid);
+        BanType type = (auto == 0) ? BanType.PERMANENT : BanType.TEMP;
+        Instant expiresAt = calcExpiresAt(type, auto);
+        String reasonsJson = reasonsToJson(reasonsList);
+
+        Map<String, SentinelPlayer> resolved = players.resolveAll(targets);
+        Map<UUID, SentinelPlayer> unique = new LinkedHashMap<>();
+        for (SentinelPlayer sp : resolved.values()) unique.putIfAbsent(sp.getUniqueId(), sp);
+
+        Map<UUID, Ban> created = new HashMap<>();
+        Set<UUID> alreadyBanned = new HashSet<>();
+        if (!unique.isEmpty()) {
+            db.inTransaction(TAG_BAN_MANY, con -> {
+                try {
+                    // bestehende aktive Bans sperren; die Lücken-Locks halten parallele Bans derselben UUIDs auf
+                    for (List<UUID> chunk : chunks(unique.keySet())) {
+                        for (Map<String, Object> r : db.query(con,
+                                "SELECT uuid FROM sentinel_bans WHERE active = 1 AND uuid IN (" + placeholders(chunk.size()) + ") FOR UPDATE",
+                                uuidParams(chunk))) {
+                            alreadyBanned.add(UUID.fromString(Objects.toString(r.get("uuid"))));
+                        }
+                    }
+
+                    List<UUID> toBan = new ArrayList<>();
+                    List<Object[]> rows = new ArrayList<>();
+                    java.sql.Timestamp expiresTs = expiresAt == null ? null : java.sql.Timestamp.from(expiresAt);
+                    for (SentinelPlayer sp : unique.values()) {
+                        if (alreadyBanned.contains(sp.getUniqueId())) continue;
+                        toBan.add(sp.getUniqueId());
+                        rows.add(new Object[]{sp.getUniqueId().toString(), sp.getName(), operator, type.name(),
+                                reasonsJson, auto, notice, expiresTs});
+                    }
+                    if (rows.isEmpty()) return null;
+
+                    db.batch(con, """
+                        INSERT INTO sentinel_bans
+                          (uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active)
+                        VALUES
+                          (?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, ?, 1)
+                    """, rows);
+                    BanStats.Delta delta = new BanStats.Delta();
+                    for (int i = 0; i < rows.size(); i++) delta.ban(BanStats.today(), operator, reasonsList, type, auto);
+                    stats.apply(con, delta);
+
+                    // IDs zurücklesen: für diese UUIDs gibt es jetzt genau unseren aktiven Ban
+                    Instant now = Instant.now();
+                    for (List<UUID> chunk : chunks(toBan)) {
+                        for (Map<String, Object> r : db.query(con,
+                                "SELECT id, uuid FROM sentinel_bans WHERE active = 1 AND uuid IN (" + placeholders(chunk.size()) + ")",
+                                uuidParams(chunk))) {
+                            UUID uuid = UUID.fromString(Objects.toString(r.get("uuid")));
+                            SentinelPlayer sp = unique.get(uuid);
+                            created.put(uuid, new Ban(uuid, sp.getName(), operator, type, reasonsList, auto, notice)
+                                    .setId(((Number) r.get("id")).longValue())
+                                    .setCreatedAt(now)
+                                    .setExpiresAt(expiresAt)
+                                    .setActive(true));
+                        }
+                    }
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+                return null;
+            });
+        }
+
+        for (Ban ban : created.values()) fireCreated(ban);
+
+        List<BulkResult> out = new ArrayList<>();
+        Set<UUID> reported = new HashSet<>();
+        for (String target : targets) {
+            SentinelPlayer sp = resolved.get(target);
+            if (sp == null) {
+                out.add(new BulkResult(target, null, null, BulkResult.Status.NOT_FOUND, null));
+                continue;
+            }
+            UUID uuid = sp.getUniqueId();
+            Ban ban = created.get(uuid);
+            // doppelt übergebene Ziele: nur der erste Eintrag bekommt den neuen Ban
+            if (ban != null && reported.add(uuid)) {
+                out.add(new BulkResult(target, uuid, sp.getName(), BulkResult.Status.BANNED, ban));
+            } else {
+                out.add(new BulkResult(target, uuid, sp.getName(), BulkResult.Status.ALREADY_BANNED, null));
+            }
+        }
+        return out;
+    }
+
+    /** Hebt alle aktiven Bans vieler Spieler in einer Transaktion auf (Archiv + Delete per ID-Liste). */
+    public List<BulkResult> unbanMany(Collection<String> targets) throws SQLException {
+        if (players == null) throw new IllegalStateException("Unban nicht möglich: SentinelPlayerManager wurde nicht gesetzt.");
+
+        Map<String, SentinelPlayer> resolved = players.resolveAll(targets);
+        Set<UUID> uuids = new LinkedHashSet<>();
+        for (SentinelPlayer sp : resolved.values()) uuids.add(sp.getUniqueId());
+
+        Map<Long, UUID> removed = new LinkedHashMap<>();
+        if (!uuids.isEmpty()) {
+            db.inTransaction(TAG_UNBAN_MANY, con -> {
+                try {
+                    for (List<UUID> chunk : chunks(uuids)) {
+                        Map<Long, UUID> locked = new LinkedHashMap<>();
+                        for (Map<String, Object> r : db.query(con,
+                                "SELECT id, uuid FROM sentinel_bans WHERE active = 1 AND uuid IN (" + placeholders(chunk.size()) + ") FOR UPDATE",
+                                uuidParams(chunk))) {
+                            locked.put(((Number) r.get("id")).longValue(), UUID.fromString(Objects.toString(r.get("uuid"))));
+                        }
+                        if (locked.isEmpty()) continue;
+
+                        String in = placeholders(locked.size());
+                        Object[] ids = locked.keySet().toArray();
+                        db.update(con, """
+                            INSERT INTO sentinel_bans_archive
+                              (id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active, archived_at)
+                            SELECT id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active, CURRENT_TIMESTAMP
+                              FROM sentinel_bans
+                             WHERE id IN (""" + in + ")", ids);
+                        db.update(con, "DELETE FROM sentinel_bans WHERE id IN (" + in + ")", ids);
+                        stats.apply(con, new BanStats.Delta().unbans(BanStats.today(), locked.size()));
+                        removed.putAll(locked);
+                    }
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+                return null;
+            });
+        }
+
+        removed.forEach((id, owner) -> fireRemoved(id, owner, BanListener.RemovalCause.UNBAN));
+
+        Set<UUID> unbanned = new HashSet<>(removed.values());
+        List<BulkResult> out = new ArrayList<>();
+        for (String target : targets) {
+            SentinelPlayer sp = resolved.get(target);
+            if (sp == null) {
+                out.add(new BulkResult(target, null, null, BulkResult.Status.NOT_FOUND, null));
+            } else if (unbanned.contains(sp.getUniqueId())) {
+                out.add(new BulkResult(target, sp.getUniqueId(), sp.getName(), BulkResult.Status.UNBANNED, null));
+            } else {
+                out.add(new BulkResult(target, sp.getUniqueId(), sp.getName(), BulkResult.Status.NOT_BANNED, null));
+            }
+        }
+        return out;
+    }
+
+    /** Validierung + Auto-Dauer aus einer bereits geladenen Reason-Liste (kein Query pro Grund). */
+    private static long durationFromReasons(List<String> provided, List<Reason> valid) {
+        if (provided == null || provided.isEmpty())
+            throw new IllegalArgumentException("Es muss mindestens ein gültiger BAN-Grund angegeben werden.");
+
+        Map<String, Reason> byName = new HashMap<>();
+        for (Reason r : valid) byName.put(r.getName().toLowerCase(Locale.ROOT), r);
+
+        List<String> unknown = new ArrayList<>();
+        long max = 0;
+        boolean permanent = false;
+        for (String p : provided) {
+            Reason r = (p == null || p.isBlank()) ? null : byName.get(p.toLowerCase(Locale.ROOT));
+            if (r == null) {
+                unknown.add(p == null ? "<null>" : p);
+                continue;
+            }
+            long d = r.getDurationSeconds();
+            if (d == 0) permanent = true;
+            if (d > max) max = d;
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Ungültige BAN-Gründe: " + String.join(", ", unknown));
+        }
+        return permanent ? 0 : max;
+    }
+
+    private static List<List<UUID>> chunks(Collection<UUID> values) {
+        List<List<UUID>> out = new ArrayList<>();
+        List<UUID> cur = new ArrayList<>();
+        for (UUID v : values) {
+            cur.add(v);
+            if (cur.size() == IN_CHUNK) {
+                out.add(cur);
+                cur = new ArrayList<>();
+            }
+        }
+        if (!cur.isEmpty()) out.add(cur);
+        return out;
+    }
+
+    private static Object[] uuidParams(List<UUID> uuids) {
+        Object[] out = new Object[uuids.size()];
+        for (int i = 0; i < out.length; i++) out[i] = uuids.get(i).toString();
+        return out;
+    }
+
+    private static String placeholders(int n) {
+        return String.join(",", Collections.nCopies(n, "?"));
+    }
+
     private SentinelPlayer resolvePlayer(String nameOrUuid) throws SQLException {
         UUID u = tryParseUuid(nameOrUuid);
         SentinelPlayer sp = (u != null) ? players.loadByUuid(u) : players.loadByName(nameOrUuid);
@@ -360,7 +693,7 @@ public class BanManager {
     /* ---------------- Read / Update / Unban / Expire ---------------- */
 
     public Ban getActive(UUID uuid) throws SQLException {
-        List<Map<String, Object>> rows = db.query("""
+        List<Map<String, Object>> rows = db.query(TAG_GET_ACTIVE, """
         SELECT id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active
         FROM sentinel_bans
         WHERE uuid = ? AND active = 1
@@ -378,7 +711,7 @@ public class BanManager {
             // Ban ist abgelaufen -> ins Archiv verschieben und aus Live löschen
             long id = ((Number) row.get("id")).longValue();
 
-            db.inTransaction(con -> {
+            db.inTransaction(TAG_ARCHIVE_EXPIRED, con -> {
                 // INSERT INTO archive SELECT ... FROM sentinel_bans WHERE id = ?
                 try {
                     db.update(con, """
@@ -394,13 +727,16 @@ public class BanManager {
 
                 // DELETE FROM sentinel_bans WHERE id = ?
                 try {
-                    db.update(con, "DELETE FROM sentinel_bans WHERE id = ?", id);
+                    if (db.update(con, "DELETE FROM sentinel_bans WHERE id = ?", id) > 0) {
+                        stats.apply(con, new BanStats.Delta().expired(BanStats.today(), 1));
+                    }
                 } catch (SQLException e) {
                     throw new RuntimeException(e);
                 }
                 return null;
             });
 
+            fireRemoved(id, uuid, BanListener.RemovalCause.EXPIRED);
             return null; // kein aktiver Ban mehr
         }
 
@@ -408,15 +744,43 @@ public class BanManager {
     }
 
 
-    /** listAll(true) -> nur aktive aus Live-Tabelle; listAll(false) -> Live + Archiv (UNION ALL) */
+    /**
+     * listAll(true) -> nur aktive aus Live-Tabelle; listAll(false) -> Live + Archiv (UNION ALL).
+     * Darf auf einem Replica laufen und kann daher kurz hinter dem Primary liegen.
+     */
     public List<Ban> listAll(boolean onlyActive) throws SQLException {
+        return listAll(TAG_LIST_ALL, onlyActive);
+    }
+
+    /** Alle aktiven Bans direkt vom Primary (z. B. für den Snapshot-Abgleich). */
+    public List<Ban> listActiveFromPrimary() throws SQLException {
+        return listAll(TAG_LIST_ACTIVE_PRIMARY, true);
+    }
+
+    /**
+     * Aktive Bans mit id > afterId, aufsteigend (Delta-Abgleich eines Index, z. B. auf dem Proxy).
+     * Läuft über den Primärschlüssel; Bans anderer Server sind damit nach einem Intervall bekannt.
+     */
+    public List<Ban> listActiveSince(long afterId) throws SQLException {
+        List<Map<String, Object>> rows = db.query(TAG_LIST_ACTIVE_SINCE, """
+            SELECT id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active
+              FROM sentinel_bans
+             WHERE id > ? AND active = 1
+             ORDER BY id
+        """, afterId);
+        List<Ban> out = new ArrayList<>(rows.size());
+        for (Map<String, Object> r : rows) out.add(mapRow(r));
+        return out;
+    }
+
+    private List<Ban> listAll(QueryTag tag, boolean onlyActive) throws SQLException {
         List<Map<String, Object>> rows = onlyActive
-                ? db.query("""
+                ? db.query(tag, """
                     SELECT id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active
                     FROM sentinel_bans WHERE active = 1
                     ORDER BY created_at DESC
                   """)
-                : db.query("""
+                : db.query(tag, """
                     SELECT id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active
                       FROM sentinel_bans
                     UNION ALL
@@ -429,9 +793,17 @@ public class BanManager {
         return out;
     }
 
-    /** listFor(UUID) -> Einträge (Live + Archiv) für Spieler */
+    /**
+     * listFor(UUID) -> Einträge (Live + Archiv) für Spieler, neueste zuerst.
+     * Aus dem Historie-Cache, sonst vom Primary geladen (ein Replica könnte einen gerade invalidierten Stand liefern).
+     * Die Liste ist unveränderlich; die Ban-Objekte gehören dem Aufrufer (der Cache gibt Kopien heraus).
+     */
     public List<Ban> listFor(UUID uuid) throws SQLException {
-        List<Map<String, Object>> rows = db.query("""
+        List<Ban> cached = history.get(uuid);
+        if (cached != null) return cached;
+
+        long generation = history.generation();
+        List<Map<String, Object>> rows = db.query(TAG_LIST_FOR, """
             SELECT id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active
               FROM sentinel_bans
              WHERE uuid = ?
@@ -443,7 +815,18 @@ public class BanManager {
         """, uuid.toString(), uuid.toString());
         List<Ban> out = new ArrayList<>(rows.size());
         for (Map<String, Object> r : rows) out.add(mapRow(r));
-        return out;
+        history.put(uuid, out, generation);
+        return List.copyOf(out);
+    }
+
+    /** Lädt einen Eintrag der Live-Tabelle anhand der ID (oder null). */
+    public Ban getById(long banId) throws SQLException {
+        List<Map<String, Object>> rows = db.query(TAG_GET_BY_ID, """
+            SELECT id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active
+              FROM sentinel_bans
+             WHERE id = ?
+        """, banId);
+        return rows.isEmpty() ? null : mapRow(rows.get(0));
     }
 
     /** Setzt Restzeit; wenn 0 -> archivieren. */
@@ -451,16 +834,30 @@ public class BanManager {
         long clamped = Math.max(0, newRemainingSeconds);
         if (clamped > 0) {
             Instant newExpires = Instant.now().plusSeconds(clamped);
-            db.update("""
+            int updated = db.update(TAG_SET_REMAINING, """
                 UPDATE sentinel_bans
                    SET remaining_seconds = ?, expires_at = ?, active = 1
                  WHERE id = ?
             """, clamped, java.sql.Timestamp.from(newExpires), banId);
+            if (updated > 0) {
+                Ban changed = getById(banId);
+                if (changed != null) fireUpdated(changed);
+            }
             return;
         }
 
         // clamped == 0 -> archivieren
-        db.inTransaction(con -> {
+        UUID uuid = db.inTransaction(TAG_SET_REMAINING, con -> {
+            UUID owner;
+            try {
+                List<Map<String, Object>> rows = db.query(con,
+                        "SELECT uuid FROM sentinel_bans WHERE id = ? FOR UPDATE", banId);
+                if (rows.isEmpty()) return null;
+                owner = UUID.fromString(Objects.toString(rows.get(0).get("uuid")));
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+
             try {
                 db.update(con, """
                     INSERT INTO sentinel_bans_archive
@@ -475,16 +872,29 @@ public class BanManager {
 
             try {
                 db.update(con, "DELETE FROM sentinel_bans WHERE id = ?", banId);
+                stats.apply(con, new BanStats.Delta().expired(BanStats.today(), 1));
             } catch (SQLException e) {
                 throw new RuntimeException(e);
             }
-            return null;
+            return owner;
         });
+
+        if (uuid != null) fireRemoved(banId, uuid, BanListener.RemovalCause.REMAINING_ZERO);
     }
 
     /** Unban: Eintrag ins Archiv verschieben und aus Live-Tabelle löschen. */
     public boolean unban(long banId) throws SQLException {
-        return db.inTransaction(con -> {
+        UUID uuid = db.inTransaction(TAG_UNBAN, con -> {
+            UUID owner;
+            try {
+                List<Map<String, Object>> rows = db.query(con,
+                        "SELECT uuid FROM sentinel_bans WHERE id = ? AND active = 1 FOR UPDATE", banId);
+                if (rows.isEmpty()) return null;
+                owner = UUID.fromString(Objects.toString(rows.get(0).get("uuid")));
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+
             int inserted = 0;
             try {
                 inserted = db.update(con, """
@@ -501,18 +911,30 @@ public class BanManager {
             int deleted = 0;
             try {
                 deleted = db.update(con, "DELETE FROM sentinel_bans WHERE id = ? AND active = 1", banId);
+                if (deleted > 0) stats.apply(con, new BanStats.Delta().unbans(BanStats.today(), deleted));
             } catch (SQLException e) {
                 throw new RuntimeException(e);
             }
-            return inserted > 0 && deleted > 0;
+            return (inserted > 0 && deleted > 0) ? owner : null;
         });
+
+        if (uuid == null) return false;
+        fireRemoved(banId, uuid, BanListener.RemovalCause.UNBAN);
+        return true;
     }
 
     /** Unban alle aktiven Bans eines Spielers → ins Archiv verschieben. */
     public int unbanAll(UUID uuid) throws SQLException {
-        return db.inTransaction(con -> {
+        List<Long> ids = db.inTransaction(TAG_UNBAN_ALL, con -> {
+            List<Long> locked = new ArrayList<>();
             try {
-                int inserted = db.update(con, """
+                for (Map<String, Object> r : db.query(con,
+                        "SELECT id FROM sentinel_bans WHERE uuid = ? AND active = 1 FOR UPDATE", uuid.toString())) {
+                    locked.add(((Number) r.get("id")).longValue());
+                }
+                if (locked.isEmpty()) return locked;
+
+                db.update(con, """
                     INSERT INTO sentinel_bans_archive
                       (id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active, archived_at)
                     SELECT id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active, CURRENT_TIMESTAMP
@@ -523,47 +945,64 @@ public class BanManager {
                 throw new RuntimeException(e);
             }
 
-            int deleted = 0;
             try {
-                deleted = db.update(con, "DELETE FROM sentinel_bans WHERE uuid = ? AND active = 1", uuid.toString());
+                db.update(con, "DELETE FROM sentinel_bans WHERE uuid = ? AND active = 1", uuid.toString());
+                stats.apply(con, new BanStats.Delta().unbans(BanStats.today(), locked.size()));
             } catch (SQLException e) {
                 throw new RuntimeException(e);
             }
-            // inserted und deleted sollten gleich sein; wir geben deleted zurück
-            return deleted;
+            return locked;
         });
+
+        for (Long id : ids) fireRemoved(id, uuid, BanListener.RemovalCause.UNBAN);
+        return ids.size();
     }
 
     /** Verschiebt abgelaufene aktive Bans ins Archiv und entfernt sie aus der Live-Tabelle. */
     public int expireDueBans() throws SQLException {
-        return db.inTransaction(con -> {
+        Map<Long, UUID> expired = db.inTransaction(TAG_EXPIRE, con -> {
+            // erst die betroffenen Zeilen sperren, damit Archiv/Delete exakt dieselbe Menge treffen
+            Map<Long, UUID> due = new LinkedHashMap<>();
             try {
-                int inserted = db.update(con, """
-                    INSERT INTO sentinel_bans_archive
-                      (id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active, archived_at)
-                    SELECT id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active, CURRENT_TIMESTAMP
+                for (Map<String, Object> r : db.query(con, """
+                    SELECT id, uuid
                       FROM sentinel_bans
                      WHERE active = 1
                        AND expires_at IS NOT NULL
                        AND expires_at <= CURRENT_TIMESTAMP
-                """);
+                       FOR UPDATE
+                """)) {
+                    due.put(((Number) r.get("id")).longValue(), UUID.fromString(Objects.toString(r.get("uuid"))));
+                }
             } catch (SQLException e) {
                 throw new RuntimeException(e);
             }
+            if (due.isEmpty()) return due;
 
-            int deleted = 0;
+            String in = String.join(",", Collections.nCopies(due.size(), "?"));
+            Object[] ids = due.keySet().toArray();
             try {
-                deleted = db.update(con, """
-                    DELETE FROM sentinel_bans
-                     WHERE active = 1
-                       AND expires_at IS NOT NULL
-                       AND expires_at <= CURRENT_TIMESTAMP
-                """);
+                db.update(con, """
+                    INSERT INTO sentinel_bans_archive
+                      (id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active, archived_at)
+                    SELECT id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active, CURRENT_TIMESTAMP
+                      FROM sentinel_bans
+                     WHERE id IN (""" + in + ")", ids);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+
+            try {
+                db.update(con, "DELETE FROM sentinel_bans WHERE id IN (" + in + ")", ids);
+                stats.apply(con, new BanStats.Delta().expired(BanStats.today(), due.size()));
             } catch (SQLException e) {
                 throw new RuntimeException(e);
             }
 
-            return deleted; // Anzahl verschobener/entfernter Einträge
+            return due; // verschobene/entfernte Einträge
         });
+
+        expired.forEach((id, owner) -> fireRemoved(id, owner, BanListener.RemovalCause.EXPIRED));
+        return expired.size();
     }
 }
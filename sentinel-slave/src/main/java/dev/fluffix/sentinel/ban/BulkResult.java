@@ -0,0 +1,23 @@
+package dev.fluffix.sentinel.ban;
+
+import java.util.UUID;
+
+/**
+ * Ergebnis je Ziel bei {@link BanManager#banMany} / {@link BanManager#unbanMany}.
+ * uuid ist null bei NOT_FOUND; ban ist nur bei BANNED gesetzt.
+ */
+public record BulkResult(String target, UUID uuid, String name, Status status, Ban ban) {
+
+    public enum Status {
+        /** Neuer Ban angelegt. */
+        BANNED,
+        /** Hatte bereits einen aktiven Ban – unverändert. */
+        ALREADY_BANNED,
+        /** Aktive Bans archiviert. */
+        UNBANNED,
+        /** Kein aktiver Ban vorhanden. */
+        NOT_BANNED,
+        /** Spieler nicht in der Datenbank. */
+        NOT_FOUND
+    }
+}
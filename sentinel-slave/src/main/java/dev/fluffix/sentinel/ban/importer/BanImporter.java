@@ -0,0 +1,363 @@
+package dev.fluffix.sentinel.ban.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.fluffix.sentinel.ban.BanType;
+import dev.fluffix.sentinel.ban.stats.BanStats;
+import dev.fluffix.sentinel.database.mysql.MySqlManager;
+import dev.fluffix.sentinel.database.mysql.QueryTag;
+import dev.fluffix.sentinel.database.mysql.QueryTag.Workload;
+import dev.fluffix.sentinel.reasons.ReasonManager;
+import dev.fluffix.sentinel.reasons.ReasonType;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Massen-Import von Bans aus Fremd-Dateien (banned-players.json, CSV-Exporte).
+ * - Datei wird gestreamt; je Batch: Spieler per Upsert anlegen, Bans als mehrzeiliger Insert,
+ *   abgelaufene Bans im selben Transaktions-Batch ins Archiv verschoben.
+ * - Alle Bans bekommen den Import-Grund (BAN, permanent); der Original-Grund landet in notice.
+ * - Fortschritt steht in sentinel_import_progress (Schlüssel = SHA-256 des kanonischen Dateipfads) und wird
+ *   in derselben Transaktion wie der Batch geschrieben; ein erneuter Lauf setzt exakt dort fort, ohne doppelte Bans.
+ * - Nicht lesbare Einträge (auch kaputte JSON-Objekte) werden übersprungen und als invalid gezählt.
+ * - Spieler mit bereits aktivem Ban bekommen keinen zweiten aktiven Ban (abgelaufene werden trotzdem archiviert).
+ *
+ * Listener (Snapshot, Alt-Graph, …) werden nicht pro Ban benachrichtigt; danach einmal komplett abgleichen.
+ */
+public class BanImporter {
+
+    public enum Format {
+        VANILLA, CSV;
+
+        public static Format parse(String s) {
+            if (s == null) return null;
+            return switch (s.trim().toLowerCase(Locale.ROOT)) {
+                case "vanilla", "json" -> VANILLA;
+                case "csv" -> CSV;
+                default -> null;
+            };
+        }
+    }
+
+    /** Zwischenstand; read = verarbeitete Einträge der Datei (inkl. früherer Läufe). */
+    public record Progress(long read, long imported, long archived, long skipped, long invalid,
+                           long elapsedMillis, boolean done) {
+
+        public long perSecond() {
+            return elapsedMillis <= 0 ? 0 : (imported + archived) * 1000L / elapsedMillis;
+        }
+    }
+
+    private static final QueryTag TAG_RESOLVE = QueryTag.of("import.resolve", Workload.MAINTENANCE);
+    private static final QueryTag TAG_WRITE = QueryTag.of("import.write", Workload.MAINTENANCE);
+    private static final QueryTag TAG_SCHEMA = QueryTag.of("import.schema");
+    private static final QueryTag TAG_PROGRESS = QueryTag.of("import.progress", Workload.MAINTENANCE);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int MAX_NAME = 64;
+
+    private final MySqlManager db;
+    private final ReasonManager reasons;
+    private final BanStats stats;
+    private final int batchSize;
+
+    private long imported;
+    private long archived;
+    private long skipped;
+    private long invalid;
+
+    public BanImporter(MySqlManager db, ReasonManager reasons, int batchSize) {
+        this.db = Objects.requireNonNull(db, "db");
+        this.reasons = Objects.requireNonNull(reasons, "reasons");
+        this.stats = new BanStats(db);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /** Importiert file; listener bekommt den Stand nach jedem Batch. Nicht thread-safe – ein Import pro Instanz. */
+    public Progress run(File file, Format format, String importReason, Consumer<Progress> listener)
+            throws IOException, SQLException {
+        Objects.requireNonNull(format, "format");
+        String reason = importReason == null || importReason.isBlank() ? "import" : importReason.trim();
+        if (!reasons.exists(reason, ReasonType.BAN)) {
+            reasons.save(reason, ReasonType.BAN, 0);
+        }
+        String reasonsJson = MAPPER.writeValueAsString(List.of(reason));
+
+        db.schema().ensure("import", List.of(this::migrateV1));
+        String path = file.getCanonicalPath();
+        String key = sourceKey(path);
+        long committed = 0;
+        imported = archived = skipped = invalid = 0;
+        List<Map<String, Object>> state = db.query(TAG_PROGRESS,
+                "SELECT read_pos, imported, archived, skipped, invalid, done FROM sentinel_import_progress WHERE source_key = ?", key);
+        if (!state.isEmpty()) {
+            Map<String, Object> r = state.get(0);
+            committed = ((Number) r.get("read_pos")).longValue();
+            imported = ((Number) r.get("imported")).longValue();
+            archived = ((Number) r.get("archived")).longValue();
+            skipped = ((Number) r.get("skipped")).longValue();
+            invalid = ((Number) r.get("invalid")).longValue();
+            if (((Number) r.get("done")).intValue() == 1) {
+                return progress(committed, 0, true);
+            }
+        }
+
+        long start = System.nanoTime();
+        try (ImportSource source = open(file, format)) {
+            // bereits committete Einträge überspringen (nur parsen, nichts schreiben)
+            long position = 0;
+            while (position < committed && readNext(source) != END) position++;
+
+            List<ImportRecord> batch = new ArrayList<>(batchSize);
+            boolean end = false;
+            while (!end) {
+                batch.clear();
+                int consumed = 0;
+                while (consumed < batchSize) {
+                    Object next = readNext(source);
+                    if (next == END) {
+                        end = true;
+                        break;
+                    }
+                    consumed++;
+                    if (next instanceof ImportRecord r) batch.add(r); else invalid++;
+                }
+                if (consumed == 0) break;
+
+                position += consumed;
+                write(batch, reason, reasonsJson, key, path, position);
+                listener.accept(progress(position, elapsed(start), false));
+            }
+
+            Progress done = progress(position, elapsed(start), true);
+            db.update(TAG_PROGRESS, "UPDATE sentinel_import_progress SET done = 1 WHERE source_key = ?", key);
+            return done;
+        }
+    }
+
+    /* ---------------- Lesen ---------------- */
+
+    private static final Object END = new Object();
+    private static final Object INVALID = new Object();
+
+    private static Object readNext(ImportSource source) throws IOException {
+        try {
+            ImportRecord r = source.next();
+            return r == null ? END : r;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return INVALID;
+        }
+    }
+
+    private static ImportSource open(File file, Format format) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), 1 << 16);
+        try {
+            return switch (format) {
+                case VANILLA -> new VanillaJsonSource(reader);
+                case CSV -> new CsvSource(reader);
+            };
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /* ---------------- Schreiben ---------------- */
+
+    /** Schreibt einen Batch samt Fortschritt (position = gelesene Einträge danach) in einer Transaktion. */
+    private void write(List<ImportRecord> batch, String reason, String reasonsJson,
+                       String key, String path, long position) throws SQLException {
+        Map<String, UUID> byName = resolveNames(batch);
+
+        Instant now = Instant.now();
+        Map<UUID, String> playerRows = new LinkedHashMap<>();
+        List<ImportRecord> rows = new ArrayList<>(batch.size());
+        List<UUID> uuids = new ArrayList<>(batch.size());
+        for (ImportRecord r : batch) {
+            UUID uuid = r.uuid() != null ? r.uuid()
+                    : r.name() == null ? null : byName.get(r.name().toLowerCase(Locale.ROOT));
+            if (uuid == null) {
+                skipped++; // ohne UUID und unbekannter Name: kein Mojang-Lookup beim Import
+                continue;
+            }
+            String name = clip(r.name() != null ? r.name() : uuid.toString());
+            playerRows.putIfAbsent(uuid, name);
+            rows.add(new ImportRecord(uuid, name, r.operator(), r.reason(),
+                    r.createdAt() == null ? now : r.createdAt(), r.expiresAt()));
+            uuids.add(uuid);
+        }
+
+        long[] counts = db.inTransaction(TAG_WRITE, con -> {
+            try {
+                if (rows.isEmpty()) {
+                    saveProgress(con, key, path, position, 0, 0, 0);
+                    return new long[]{0, 0, 0};
+                }
+                List<Object[]> players = new ArrayList<>(playerRows.size());
+                playerRows.forEach((uuid, name) -> players.add(new Object[]{uuid.toString(), name}));
+                db.batch(con, """
+                    INSERT INTO sentinel_players (uuid, name) VALUES (?, ?)
+                    ON DUPLICATE KEY UPDATE uuid = uuid
+                """, players);
+
+                Set<UUID> hasActive = new HashSet<>();
+                String in = String.join(",", Collections.nCopies(playerRows.size(), "?"));
+                for (Map<String, Object> r : db.query(con,
+                        "SELECT DISTINCT uuid FROM sentinel_bans WHERE active = 1 AND uuid IN (" + in + ")",
+                        playerRows.keySet().stream().map(UUID::toString).toArray())) {
+                    hasActive.add(UUID.fromString(Objects.toString(r.get("uuid"))));
+                }
+
+                List<Object[]> bans = new ArrayList<>(rows.size());
+                BanStats.Delta delta = new BanStats.Delta();
+                LocalDate today = BanStats.today();
+                long active = 0;
+                long expired = 0;
+                long dupes = 0;
+                for (ImportRecord r : rows) {
+                    boolean isActive = r.expiresAt() == null || r.expiresAt().isAfter(now);
+                    if (isActive && !hasActive.add(r.uuid())) {
+                        dupes++;
+                        continue;
+                    }
+                    BanType type = r.expiresAt() == null ? BanType.PERMANENT : BanType.TEMP;
+                    long remaining = isActive && r.expiresAt() != null
+                            ? Math.max(1, Duration.between(now, r.expiresAt()).getSeconds()) : 0;
+                    bans.add(new Object[]{
+                            r.uuid().toString(), r.name(), clip(r.operator()), type.name(), reasonsJson,
+                            remaining, r.reason(), Timestamp.from(r.createdAt()),
+                            r.expiresAt() == null ? null : Timestamp.from(r.expiresAt()),
+                            isActive ? 1 : 0});
+                    if (isActive) active++; else expired++;
+                    // Statistik: volle Ban-Länge, Tag der ursprünglichen Verhängung
+                    long length = r.expiresAt() == null ? 0
+                            : Math.max(1, Duration.between(r.createdAt(), r.expiresAt()).getSeconds());
+                    delta.ban(r.createdAt().atZone(ZoneOffset.UTC).toLocalDate(), r.operator(), List.of(reason), type, length);
+                    if (!isActive) delta.expired(today, 1);
+                }
+                if (bans.isEmpty()) {
+                    saveProgress(con, key, path, position, 0, 0, dupes);
+                    return new long[]{0, 0, dupes};
+                }
+
+                // abgelaufene über die Live-Tabelle einfügen: so vergibt AUTO_INCREMENT die IDs für beide Tabellen
+                long maxBefore = ((Number) db.query(con,
+                        "SELECT COALESCE(MAX(id), 0) AS id FROM sentinel_bans").get(0).get("id")).longValue();
+                db.batch(con, """
+                    INSERT INTO sentinel_bans
+                      (uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, bans);
+
+                if (expired > 0) {
+                    db.update(con, """
+                        INSERT INTO sentinel_bans_archive
+                          (id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active, archived_at)
+                        SELECT id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active, CURRENT_TIMESTAMP
+                          FROM sentinel_bans
+                         WHERE id > ? AND active = 0
+                    """, maxBefore);
+                    db.update(con, "DELETE FROM sentinel_bans WHERE id > ? AND active = 0", maxBefore);
+                }
+                stats.apply(con, delta);
+                saveProgress(con, key, path, position, active, expired, dupes);
+                return new long[]{active, expired, dupes};
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        imported += counts[0];
+        archived += counts[1];
+        skipped += counts[2];
+    }
+
+    /** Namen ohne UUID in einem Query auflösen (nur bereits bekannte Spieler). */
+    private Map<String, UUID> resolveNames(List<ImportRecord> batch) throws SQLException {
+        Set<String> names = new LinkedHashSet<>();
+        for (ImportRecord r : batch) {
+            if (r.uuid() == null && r.name() != null) names.add(r.name());
+        }
+        if (names.isEmpty()) return Map.of();
+
+        Map<String, UUID> out = new HashMap<>();
+        String in = String.join(",", Collections.nCopies(names.size(), "?"));
+        for (Map<String, Object> r : db.query(TAG_RESOLVE,
+                "SELECT uuid, name FROM sentinel_players WHERE name IN (" + in + ")", names.toArray())) {
+            out.put(Objects.toString(r.get("name")).toLowerCase(Locale.ROOT),
+                    UUID.fromString(Objects.toString(r.get("uuid"))));
+        }
+        return out;
+    }
+
+    /* ---------------- Fortschritt ---------------- */
+
+    private Progress progress(long read, long elapsedMillis, boolean done) {
+        return new Progress(read, imported, archived, skipped, invalid, elapsedMillis, done);
+    }
+
+    private static long elapsed(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+
+    /** Version 1: Fortschrittstabelle (ein Eintrag je importierter Datei). */
+    private void migrateV1() throws SQLException {
+        db.update(TAG_SCHEMA, """
+            CREATE TABLE IF NOT EXISTS sentinel_import_progress (
+              source_key  CHAR(64)      NOT NULL,
+              path        VARCHAR(512)  NOT NULL,
+              read_pos    BIGINT        NOT NULL DEFAULT 0,
+              imported    BIGINT        NOT NULL DEFAULT 0,
+              archived    BIGINT        NOT NULL DEFAULT 0,
+              skipped     BIGINT        NOT NULL DEFAULT 0,
+              invalid     BIGINT        NOT NULL DEFAULT 0,
+              done        TINYINT(1)    NOT NULL DEFAULT 0,
+              updated_at  TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+              PRIMARY KEY (source_key)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+        """);
+    }
+
+    /**
+     * Fortschritt in der Batch-Transaktion: Position und Zähler committen zusammen mit den Bans,
+     * ein Abbruch dazwischen kann also weder Einträge doppelt importieren noch überspringen.
+     * Die Deltas kommen zu den Feldern hinzu (skipped enthält die unauflösbaren Einträge dieses Batches schon).
+     */
+    private void saveProgress(Connection con, String key, String path, long position,
+                              long importedDelta, long archivedDelta, long dupes) throws SQLException {
+        db.update(con, """
+            INSERT INTO sentinel_import_progress (source_key, path, read_pos, imported, archived, skipped, invalid)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+              read_pos = VALUES(read_pos), imported = VALUES(imported), archived = VALUES(archived),
+              skipped = VALUES(skipped), invalid = VALUES(invalid), done = 0
+        """, key, path.length() <= 512 ? path : path.substring(path.length() - 512), position,
+                imported + importedDelta, archived + archivedDelta, skipped + dupes, invalid);
+    }
+
+    private static String sourceKey(String canonicalPath) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonicalPath.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+
+    private static String clip(String s) {
+        if (s == null) return null;
+        return s.length() <= MAX_NAME ? s : s.substring(0, MAX_NAME);
+    }
+}
@@ -0,0 +1,149 @@
+package dev.fluffix.sentinel.ban.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * CSV-Export anderer Plugins. Erste Zeile ist der Header; erkannte Spalten (Groß/Klein egal):
+ * uuid, name, operator|source|banned_by, reason, created|time|date, expires|until.
+ * Trenner ',' oder ';' (aus dem Header erkannt), Felder optional in "…" mit "" als Escape.
+ */
+final class CsvSource implements ImportSource {
+
+    private final Reader reader;
+    private final char separator;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private int pushback = -2;
+
+    CsvSource(Reader reader) throws IOException {
+        this.reader = reader;
+        String headerLine = readRawLine();
+        if (headerLine == null) throw new IOException("CSV: Header fehlt");
+        this.separator = headerLine.indexOf(';') >= 0 && headerLine.indexOf(',') < 0 ? ';' : ',';
+
+        List<String> header = split(headerLine);
+        for (int i = 0; i < header.size(); i++) {
+            String h = header.get(i).trim().toLowerCase(Locale.ROOT);
+            switch (h) {
+                case "uuid", "player_uuid" -> columns.putIfAbsent("uuid", i);
+                case "name", "player", "player_name" -> columns.putIfAbsent("name", i);
+                case "operator", "source", "banned_by", "banned_by_name" -> columns.putIfAbsent("operator", i);
+                case "reason" -> columns.putIfAbsent("reason", i);
+                case "created", "time", "date", "created_at" -> columns.putIfAbsent("created", i);
+                case "expires", "until", "expires_at" -> columns.putIfAbsent("expires", i);
+                default -> { }
+            }
+        }
+        if (!columns.containsKey("uuid") && !columns.containsKey("name")) {
+            throw new IOException("CSV: Spalte 'uuid' oder 'name' fehlt");
+        }
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        List<String> row;
+        do {
+            row = readRow();
+            if (row == null) return null;
+        } while (row.size() == 1 && row.get(0).isBlank());
+
+        return new ImportRecord(
+                ImportRecord.parseUuid(col(row, "uuid")),
+                col(row, "name"),
+                col(row, "operator"),
+                col(row, "reason"),
+                ImportRecord.parseTime(col(row, "created")),
+                ImportRecord.parseTime(col(row, "expires")));
+    }
+
+    private String col(List<String> row, String name) {
+        Integer idx = columns.get(name);
+        if (idx == null || idx >= row.size()) return null;
+        String v = row.get(idx).trim();
+        return v.isEmpty() ? null : v;
+    }
+
+    /** Eine Zeile inkl. Quotes mit Zeilenumbrüchen; null am Dateiende. */
+    private List<String> readRow() throws IOException {
+        List<String> out = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(n);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == separator) {
+                out.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    int n = read();
+                    if (n != '\n') unread(n);
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+        }
+        if (!any) return null;
+        out.add(field.toString());
+        return out;
+    }
+
+    private String readRawLine() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int c;
+        boolean any = false;
+        while ((c = read()) != -1) {
+            any = true;
+            if (c == '\n') break;
+            if (c == '\r') {
+                int n = read();
+                if (n != '\n') unread(n);
+                break;
+            }
+            if (sb.isEmpty() && c == '\uFEFF') continue; // BOM
+            sb.append((char) c);
+        }
+        return any ? sb.toString() : null;
+    }
+
+    private List<String> split(String line) {
+        List<String> out = new ArrayList<>();
+        for (String s : line.split(String.valueOf(separator), -1)) out.add(s.replace("\"", ""));
+        return out;
+    }
+
+    private int read() throws IOException {
+        if (pushback != -2) {
+            int c = pushback;
+            pushback = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushback = c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
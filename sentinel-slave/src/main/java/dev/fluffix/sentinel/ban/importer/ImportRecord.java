@@ -0,0 +1,62 @@
+package dev.fluffix.sentinel.ban.importer;
+
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Ein Ban aus einer Fremd-Quelle. uuid oder name muss gesetzt sein; expiresAt null = permanent.
+ */
+public record ImportRecord(UUID uuid, String name, String operator, String reason,
+                           Instant createdAt, Instant expiresAt) {
+
+    /** Format von banned-players.json (z. B. "2024-01-31 18:04:11 +0100"). */
+    private static final DateTimeFormatter VANILLA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss Z", Locale.ROOT);
+
+    /**
+     * Zeitangabe in einem der üblichen Export-Formate: Vanilla, ISO-8601 (mit/ohne Zone, ohne = UTC),
+     * Epoch-Millis oder -Sekunden. Leer/"forever"/"permanent"/"never" ergibt null.
+     */
+    public static Instant parseTime(String raw) {
+        if (raw == null) return null;
+        String s = raw.trim();
+        if (s.isEmpty()) return null;
+        String lower = s.toLowerCase(Locale.ROOT);
+        if (lower.equals("forever") || lower.equals("permanent") || lower.equals("never")
+                || lower.equals("-1") || lower.equals("0") || lower.equals("null")) return null;
+
+        if (s.chars().allMatch(Character::isDigit)) {
+            long v = Long.parseLong(s);
+            return v < 100_000_000_000L ? Instant.ofEpochSecond(v) : Instant.ofEpochMilli(v);
+        }
+        try {
+            return ZonedDateTime.parse(s, VANILLA).toInstant();
+        } catch (DateTimeParseException ignored) {
+            // nächstes Format
+        }
+        try {
+            return OffsetDateTime.parse(s).toInstant();
+        } catch (DateTimeParseException ignored) {
+            // nächstes Format
+        }
+        try {
+            return Instant.parse(s);
+        } catch (DateTimeParseException ignored) {
+            // nächstes Format
+        }
+        return LocalDateTime.parse(s.replace(' ', 'T')).toInstant(ZoneOffset.UTC);
+    }
+
+    static UUID parseUuid(String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        String s = raw.trim();
+        if (s.length() == 32) {
+            // Exporte ohne Bindestriche
+            s = s.substring(0, 8) + "-" + s.substring(8, 12) + "-" + s.substring(12, 16) + "-"
+                    + s.substring(16, 20) + "-" + s.substring(20);
+        }
+        return UUID.fromString(s);
+    }
+}
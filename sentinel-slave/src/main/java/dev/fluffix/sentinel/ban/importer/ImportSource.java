@@ -0,0 +1,15 @@
+package dev.fluffix.sentinel.ban.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/** Liest Bans einzeln aus einer Datei, ohne sie komplett in den Speicher zu laden. */
+interface ImportSource extends Closeable {
+
+    /**
+     * Nächster Eintrag oder null am Ende.
+     * Nicht interpretierbare Einträge werfen IllegalArgumentException (bzw. DateTimeParseException);
+     * die Quelle steht danach auf dem nächsten Eintrag.
+     */
+    ImportRecord next() throws IOException;
+}
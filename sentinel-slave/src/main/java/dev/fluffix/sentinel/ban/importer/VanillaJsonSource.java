@@ -0,0 +1,166 @@
+package dev.fluffix.sentinel.ban.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * banned-players.json (Vanilla/Paper): Array aus {uuid, name, created, source, expires, reason}.
+ * Streaming: die Objektgrenzen werden zeichenweise gesucht (Klammertiefe, Strings/Escapes beachtet)
+ * und nur das eine Objekt mit Jackson geparst. Ein kaputtes Objekt zählt so als ungültig, statt den
+ * Parser für den Rest der Datei unbrauchbar zu machen.
+ */
+final class VanillaJsonSource implements ImportSource {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int MAX_OBJECT_CHARS = 64 * 1024;
+
+    private final Reader reader;
+    private final StringBuilder object = new StringBuilder(256);
+    private boolean ended;
+
+    VanillaJsonSource(Reader reader) throws IOException {
+        this.reader = reader;
+        if (skipWhitespace() != '[') {
+            reader.close();
+            throw new IOException("banned-players.json: Array erwartet");
+        }
+    }
+
+    @Override
+    public ImportRecord next() throws IOException {
+        if (ended) return null;
+        int c = skipWhitespace();
+        while (c == ',') c = skipWhitespace();
+        if (c == ']' || c == -1) {
+            ended = true;
+            return null;
+        }
+        if (c != '{') {
+            skipValue(c);
+            throw new IllegalArgumentException("Objekt erwartet, gefunden: '" + (char) c + "'");
+        }
+        readObject();
+
+        JsonNode n;
+        try {
+            n = MAPPER.readTree(object.toString());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Ungültiges JSON-Objekt: " + e.getOriginalMessage());
+        }
+        return new ImportRecord(
+                ImportRecord.parseUuid(text(n, "uuid")),
+                text(n, "name"),
+                text(n, "source"),
+                text(n, "reason"),
+                ImportRecord.parseTime(text(n, "created")),
+                ImportRecord.parseTime(text(n, "expires")));
+    }
+
+    /** Liest ab der bereits gelesenen '{' bis zur passenden '}' in {@link #object}. */
+    private void readObject() throws IOException {
+        object.setLength(0);
+        object.append('{');
+        int depth = 1;
+        boolean inString = false;
+        boolean escaped = false;
+        while (depth > 0) {
+            int c = reader.read();
+            if (c == -1) {
+                ended = true;
+                throw new IllegalArgumentException("Datei endet mitten in einem Objekt");
+            }
+            if (object.length() >= MAX_OBJECT_CHARS) {
+                // kein Eintrag ist so groß; Rest des Objekts überspringen
+                skipRest(depth, inString, escaped);
+                throw new IllegalArgumentException("Objekt zu groß");
+            }
+            object.append((char) c);
+            if (inString) {
+                if (escaped) escaped = false;
+                else if (c == '\\') escaped = true;
+                else if (c == '"') inString = false;
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        }
+    }
+
+    private void skipRest(int depth, boolean inString, boolean escaped) throws IOException {
+        while (depth > 0) {
+            int c = reader.read();
+            if (c == -1) {
+                ended = true;
+                return;
+            }
+            if (inString) {
+                if (escaped) escaped = false;
+                else if (c == '\\') escaped = true;
+                else if (c == '"') inString = false;
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        }
+    }
+
+    /** Überspringt einen Nicht-Objekt-Eintrag bis zum nächsten ',' bzw. zum Array-Ende. */
+    private void skipValue(int first) throws IOException {
+        if (first == '[') {
+            skipRest(1, false, false);
+            return;
+        }
+        if (first == '"') {
+            skipString();
+            return;
+        }
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c == ',') return;
+            if (c == ']') {
+                ended = true;
+                return;
+            }
+        }
+        ended = true;
+    }
+
+    private void skipString() throws IOException {
+        boolean escaped = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (escaped) escaped = false;
+            else if (c == '\\') escaped = true;
+            else if (c == '"') return;
+        }
+        ended = true;
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        do {
+            c = reader.read();
+        } while (c != -1 && Character.isWhitespace(c));
+        return c;
+    }
+
+    private static String text(JsonNode n, String field) {
+        JsonNode v = n.get(field);
+        return v == null || v.isNull() ? null : v.asText();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
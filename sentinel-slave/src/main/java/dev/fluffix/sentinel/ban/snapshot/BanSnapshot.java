@@ -0,0 +1,537 @@
+package dev.fluffix.sentinel.ban.snapshot;
+
+import dev.fluffix.sentinel.ban.Ban;
+import dev.fluffix.sentinel.ban.BanListener;
+import dev.fluffix.sentinel.ban.BanManager;
+import dev.fluffix.sentinel.ban.BanType;
+import dev.fluffix.sentinel.logger.AsyncLogger;
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+import dev.fluffix.sentinel.player.SentinelPlayer;
+import dev.fluffix.sentinel.player.SentinelPlayerManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * Lokaler Snapshot aller aktiven Bans (inkl. IP-Bans) im Plugin-Ordner.
+ *
+ * - bans.snapshot: kompletter Stand, wird beim Start per Memory-Mapping gelesen.
+ * - bans.journal:  Append-only Änderungen seit dem letzten Snapshot (PUT/REMOVE),
+ *                  jeder Datensatz mit Länge + CRC32, damit abgerissene Writes erkannt werden.
+ *
+ * Lesezugriffe laufen lock-frei über unveränderliche Listen in ConcurrentHashMaps,
+ * Schreibzugriffe sind synchronisiert. Dient als Fallback, wenn MySQL nicht erreichbar ist.
+ * Listener-Aufrufe machen kein I/O auf die Datenbank: die IPs eines IP-Bans werden auf einem
+ * eigenen Thread nachgeladen und per put() ergänzt (bis dahin greift der Eintrag über die UUID).
+ * Scheitert ein Journal-Write (Platte voll, Mapping kaputt), wird nicht weiter angehängt – ein
+ * abgerissener Datensatz würde alle folgenden beim Nachspielen verdecken –, sondern der Snapshot
+ * als Ganzes neu geschrieben, sobald das wieder gelingt (höchstens alle REWRITE_RETRY_MILLIS).
+ */
+public class BanSnapshot implements BanListener, AutoCloseable {
+
+    private static final String SNAPSHOT_FILE = "bans.snapshot";
+    private static final String JOURNAL_FILE = "bans.journal";
+    private static final int COMPACT_AFTER_RECORDS = 10_000;
+    private static final long REWRITE_RETRY_MILLIS = 30_000L;
+
+    private final Path snapshotPath;
+    private final Path journalPath;
+
+    private final Map<Long, SnapshotEntry> byId = new ConcurrentHashMap<>();
+    private final Map<UUID, List<SnapshotEntry>> byUuid = new ConcurrentHashMap<>();
+    private final Map<String, List<SnapshotEntry>> byIp = new ConcurrentHashMap<>();
+
+    private volatile SentinelPlayerManager players; // optional: IPs für IP-Bans
+    private final ExecutorService ipResolver = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Sentinel-SnapshotIps");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile LongAdder hits = new LongAdder();
+    private volatile LongAdder misses = new LongAdder();
+    private volatile LongAdder journalFailures = new LongAdder();
+    private FileChannel journal;
+    private final Object syncLock = new Object();   // serialisiert syncFrom()
+    private List<Object> changesDuringSync;         // guarded by this; SnapshotEntry = put, Long = remove
+    private volatile int journalRecords;
+    private boolean rewriteNeeded;                  // guarded by this; Journal nicht mehr vertrauenswürdig
+    private long nextRewriteAttempt;                // guarded by this
+    private volatile long lastSyncMillis;
+
+    public BanSnapshot(File dataFolder) {
+        Objects.requireNonNull(dataFolder, "dataFolder");
+        this.snapshotPath = new File(dataFolder, SNAPSHOT_FILE).toPath();
+        this.journalPath = new File(dataFolder, JOURNAL_FILE).toPath();
+    }
+
+    public void setPlayerManager(SentinelPlayerManager players) {
+        this.players = players;
+    }
+
+    /** Trefferquote und Größe des Snapshots in die Metriken übernehmen. */
+    public void bindMetrics(SentinelMetrics metrics) {
+        this.hits = metrics.counter("sentinel_cache_requests_total", "cache", "ban_snapshot", "result", "hit");
+        this.misses = metrics.counter("sentinel_cache_requests_total", "cache", "ban_snapshot", "result", "miss");
+        metrics.gauge("sentinel_cache_entries", this::size, "cache", "ban_snapshot");
+        metrics.gauge("sentinel_ban_snapshot_journal_records", () -> journalRecords);
+        metrics.describe("sentinel_ban_snapshot_write_failures_total", "Fehlgeschlagene Journal-/Snapshot-Writes");
+        this.journalFailures = metrics.counter("sentinel_ban_snapshot_write_failures_total");
+    }
+
+    /* ---------------- Laden ---------------- */
+
+    /**
+     * Liest Snapshot (mmap) und spielt das Journal nach.
+     * Beschädigte Dateien werden verworfen bzw. am letzten gültigen Datensatz abgeschnitten.
+     * @return Anzahl geladener aktiver Einträge
+     */
+    public synchronized int load() throws IOException {
+        clearIndex();
+
+        IOException snapshotError = null;
+        if (Files.exists(snapshotPath)) {
+            try {
+                readSnapshot();
+            } catch (IOException e) {
+                clearIndex();
+                snapshotError = e;
+            }
+        }
+
+        long validJournalBytes = Files.exists(journalPath) ? replayJournal() : 0L;
+        openJournal(validJournalBytes);
+
+        if (snapshotError != null) throw snapshotError;
+        return byId.size();
+    }
+
+    private void readSnapshot() throws IOException {
+        try (FileChannel ch = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < SnapshotCodec.SNAPSHOT_HEADER_BYTES) {
+                throw new IOException("Snapshot ist zu kurz (" + size + " Bytes)");
+            }
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buf.getInt() != SnapshotCodec.SNAPSHOT_MAGIC) {
+                throw new IOException("Snapshot hat eine ungültige Signatur");
+            }
+            short version = buf.getShort();
+            if (version != SnapshotCodec.SNAPSHOT_VERSION) {
+                throw new IOException("Snapshot-Version " + version + " wird nicht unterstützt");
+            }
+            int count = buf.getInt();
+            lastSyncMillis = buf.getLong();
+
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < count; i++) {
+                SnapshotEntry e = SnapshotCodec.read(buf);
+                if (!e.isExpired(now)) index(e);
+            }
+        } catch (BufferUnderflowException | IllegalStateException e) {
+            throw new IOException("Snapshot ist beschädigt: " + e.getMessage(), e);
+        }
+    }
+
+    /** @return Byte-Offset hinter dem letzten gültigen Datensatz */
+    private long replayJournal() throws IOException {
+        try (FileChannel ch = FileChannel.open(journalPath, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size == 0) return 0L;
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 crc = new CRC32();
+            long valid = 0L;
+            int records = 0;
+
+            while (buf.remaining() >= 8) {
+                int len = buf.getInt();
+                int expectedCrc = buf.getInt();
+                if (len <= 0 || len > buf.remaining()) break;
+
+                ByteBuffer payload = buf.slice(buf.position(), len);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != expectedCrc) break;
+
+                try {
+                    applyRecord(payload);
+                } catch (BufferUnderflowException | IllegalStateException e) {
+                    break;
+                }
+                buf.position(buf.position() + len);
+                valid = buf.position();
+                records++;
+            }
+            journalRecords = records;
+            return valid;
+        }
+    }
+
+    private void applyRecord(ByteBuffer payload) {
+        byte op = payload.get();
+        if (op == SnapshotCodec.OP_PUT) {
+            SnapshotEntry e = SnapshotCodec.read(payload);
+            unindex(e.banId());
+            if (!e.isExpired(System.currentTimeMillis())) index(e);
+        } else if (op == SnapshotCodec.OP_REMOVE) {
+            unindex(payload.getLong());
+        } else {
+            throw new IllegalStateException("Unbekannte Journal-Operation: " + op);
+        }
+    }
+
+    private void openJournal(long validBytes) throws IOException {
+        journal = FileChannel.open(journalPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (journal.size() > validBytes) {
+            journal.truncate(validBytes); // abgerissenen Rest verwerfen
+        }
+        journal.position(validBytes);
+    }
+
+    /* ---------------- Abfragen ---------------- */
+
+    /**
+     * Sucht einen aktiven Ban für UUID oder (bei IP-Bans) für die IP.
+     * Kostet nur Hash-Lookups, kein I/O.
+     */
+    public SnapshotEntry lookup(UUID uuid, String ip) {
+        long now = System.currentTimeMillis();
+        SnapshotEntry hit = null;
+        if (uuid != null) {
+            hit = firstActive(byUuid.get(uuid), now);
+        }
+        if (hit == null && ip != null && !ip.isBlank()) {
+            hit = firstActive(byIp.get(ip.trim()), now);
+        }
+        (hit != null ? hits : misses).increment();
+        return hit;
+    }
+
+    private static SnapshotEntry firstActive(List<SnapshotEntry> entries, long now) {
+        if (entries == null) return null;
+        for (SnapshotEntry e : entries) {
+            if (!e.isExpired(now)) return e;
+        }
+        return null;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /** Höchste bekannte Ban-ID (Startpunkt für Delta-Abgleiche); 0, wenn leer. */
+    public long maxBanId() {
+        long max = 0;
+        for (Long id : byId.keySet()) max = Math.max(max, id);
+        return max;
+    }
+
+    public long getLastSyncMillis() {
+        return lastSyncMillis;
+    }
+
+    /* ---------------- Abgleich mit der Datenbank ---------------- */
+
+    /**
+     * Baut den Snapshot komplett aus der Datenbank neu auf (z. B. periodisch),
+     * schreibt ihn atomar und leert das Journal.
+     * put()/remove(), die während des Lesens eintreffen, werden mitgeschrieben und nach dem Neuaufbau
+     * in Reihenfolge erneut angewendet – sonst würde der ältere DB-Stand sie überschreiben.
+     */
+    public void syncFrom(BanManager bans) throws SQLException, IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                changesDuringSync = new ArrayList<>();
+            }
+            List<SnapshotEntry> fresh;
+            try {
+                List<Ban> active = bans.listActiveFromPrimary();
+                Map<UUID, Set<String>> ips = ipsFor(active);
+                fresh = new ArrayList<>(active.size());
+                for (Ban b : active) {
+                    Set<String> banIps = b.getType() == BanType.IP ? ips.get(b.getUniqueId()) : null;
+                    fresh.add(SnapshotEntry.of(b, banIps == null ? Set.of() : banIps));
+                }
+            } catch (SQLException | RuntimeException e) {
+                synchronized (this) {
+                    changesDuringSync = null;
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                List<Object> changes = changesDuringSync;
+                changesDuringSync = null;
+                clearIndex();
+                long now = System.currentTimeMillis();
+                for (SnapshotEntry e : fresh) {
+                    if (!e.isExpired(now)) index(e);
+                }
+                for (Object change : changes) {
+                    if (change instanceof SnapshotEntry e) {
+                        unindex(e.banId());
+                        if (!e.isExpired(now)) index(e);
+                    } else {
+                        unindex((Long) change);
+                    }
+                }
+                lastSyncMillis = now;
+                writeSnapshotAndResetJournal();
+            }
+        }
+    }
+
+    /** Schreibt den aktuellen Index als Snapshot und leert das Journal (ohne DB-Zugriff). */
+    public synchronized void compact() throws IOException {
+        writeSnapshotAndResetJournal();
+    }
+
+    private void writeSnapshotAndResetJournal() throws IOException {
+        try {
+            writeSnapshot();
+            rewriteNeeded = false;
+        } catch (IOException e) {
+            journalFailed(e);
+            throw e;
+        }
+    }
+
+    /** Nur unter synchronized(this): Journal gilt als unvollständig, bis der Snapshot neu geschrieben ist. */
+    private void journalFailed(IOException e) {
+        journalFailures.increment();
+        rewriteNeeded = true;
+        nextRewriteAttempt = System.currentTimeMillis() + REWRITE_RETRY_MILLIS;
+        AsyncLogger.global().error("SNAPSHOT", "Ban-Snapshot konnte nicht geschrieben werden, "
+                + "Änderungen bleiben bis zum nächsten vollständigen Schreiben nur im Speicher", e);
+    }
+
+    private void writeSnapshot() throws IOException {
+        Collection<SnapshotEntry> entries = byId.values();
+        List<SnapshotEntry> copy = new ArrayList<>(entries);
+
+        int size = SnapshotCodec.SNAPSHOT_HEADER_BYTES;
+        for (SnapshotEntry e : copy) size += SnapshotCodec.sizeOf(e);
+
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.putInt(SnapshotCodec.SNAPSHOT_MAGIC);
+        buf.putShort(SnapshotCodec.SNAPSHOT_VERSION);
+        buf.putInt(copy.size());
+        buf.putLong(lastSyncMillis);
+        for (SnapshotEntry e : copy) SnapshotCodec.write(buf, e);
+        buf.flip();
+
+        Path tmp = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        if (journal != null) {
+            journal.truncate(0);
+            journal.position(0);
+        }
+        journalRecords = 0;
+    }
+
+    /* ---------------- BanListener ---------------- */
+
+    @Override
+    public void onBanCreated(Ban ban) {
+        putAndResolveIps(ban);
+    }
+
+    @Override
+    public void onBanUpdated(Ban ban) {
+        putAndResolveIps(ban);
+    }
+
+    /**
+     * Übernimmt den Ban sofort (mit den bisher bekannten IPs) und lädt die IPs eines IP-Bans
+     * im Hintergrund nach; der Aufrufer (Listener nach dem Commit) wartet nie auf die Datenbank.
+     */
+    private void putAndResolveIps(Ban ban) {
+        long id = ban.getId() == null ? 0L : ban.getId();
+        SnapshotEntry known = byId.get(id);
+        put(SnapshotEntry.of(ban, known == null ? Set.of() : known.ips()));
+        if (ban.getType() != BanType.IP || players == null) return;
+        try {
+            ipResolver.execute(() -> resolveIps(id, ban));
+        } catch (RejectedExecutionException ignored) {
+            // close() läuft; der nächste syncFrom() lädt die IPs vollständig
+        }
+    }
+
+    private void resolveIps(long banId, Ban ban) {
+        Set<String> ips = ipsFor(ban);
+        synchronized (this) {
+            SnapshotEntry current = byId.get(banId);
+            // inzwischen entfernt oder bereits vollständig: nichts zu tun
+            if (current == null || current.ips().equals(ips)) return;
+            put(new SnapshotEntry(current.banId(), current.uuid(), current.type(), current.expiresAtMillis(),
+                    current.name(), current.operator(), current.reasons(), current.notice(), ips));
+        }
+    }
+
+    @Override
+    public void onBanRemoved(long banId, UUID uuid) {
+        remove(banId);
+    }
+
+    public synchronized void put(SnapshotEntry e) {
+        unindex(e.banId());
+        index(e);
+        if (changesDuringSync != null) changesDuringSync.add(e);
+
+        ByteBuffer payload = ByteBuffer.allocate(1 + SnapshotCodec.sizeOf(e));
+        payload.put(SnapshotCodec.OP_PUT);
+        SnapshotCodec.write(payload, e);
+        append(payload);
+    }
+
+    public synchronized void remove(long banId) {
+        // auch ohne lokalen Eintrag merken: der laufende syncFrom() kann den Ban noch mitbringen
+        if (changesDuringSync != null) changesDuringSync.add(banId);
+        if (unindex(banId) == null) return;
+
+        ByteBuffer payload = ByteBuffer.allocate(1 + 8);
+        payload.put(SnapshotCodec.OP_REMOVE);
+        payload.putLong(banId);
+        append(payload);
+    }
+
+    private void append(ByteBuffer payload) {
+        if (journal == null) return; // load() noch nicht gelaufen: nur In-Memory
+        if (rewriteNeeded) {
+            // der Index im Speicher enthält die Änderung bereits; alles auf einmal schreiben
+            if (System.currentTimeMillis() < nextRewriteAttempt) return;
+            try {
+                writeSnapshotAndResetJournal();
+            } catch (IOException ignored) {
+                // bereits gezählt und geloggt
+            }
+            return;
+        }
+        payload.flip();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+
+        ByteBuffer record = ByteBuffer.allocate(8 + payload.remaining());
+        record.putInt(payload.remaining());
+        record.putInt((int) crc.getValue());
+        record.put(payload);
+        record.flip();
+
+        try {
+            while (record.hasRemaining()) journal.write(record);
+        } catch (IOException e) {
+            // Index im Speicher bleibt korrekt; ab jetzt nur noch vollständige Snapshots
+            journalFailed(e);
+            return;
+        }
+        if (++journalRecords >= COMPACT_AFTER_RECORDS) {
+            try {
+                writeSnapshotAndResetJournal();
+            } catch (IOException ignored) {
+                // bereits gezählt und geloggt
+            }
+        }
+    }
+
+    /* ---------------- Index ---------------- */
+
+    /** IPs aller IP-Bans in einer Abfrage; nur auf Hintergrund-Threads aufrufen. */
+    private Map<UUID, Set<String>> ipsFor(List<Ban> active) throws SQLException {
+        SentinelPlayerManager pm = players;
+        if (pm == null) return Map.of();
+        Set<UUID> uuids = new HashSet<>();
+        for (Ban b : active) {
+            if (b.getType() == BanType.IP) uuids.add(b.getUniqueId());
+        }
+        return uuids.isEmpty() ? Map.of() : pm.ipsFor(uuids);
+    }
+
+    /** Lädt die IPs eines IP-Bans aus der Datenbank; nur auf Hintergrund-Threads aufrufen. */
+    private Set<String> ipsFor(Ban ban) {
+        SentinelPlayerManager pm = players;
+        if (ban.getType() != BanType.IP || pm == null) return Set.of();
+        try {
+            SentinelPlayer sp = pm.loadByUuid(ban.getUniqueId());
+            return sp == null ? Set.of() : sp.getIpAddresses();
+        } catch (SQLException e) {
+            return Set.of();
+        }
+    }
+
+    private void index(SnapshotEntry e) {
+        byId.put(e.banId(), e);
+        byUuid.merge(e.uuid(), List.of(e), BanSnapshot::concat);
+        for (String ip : e.ips()) {
+            byIp.merge(ip, List.of(e), BanSnapshot::concat);
+        }
+    }
+
+    private SnapshotEntry unindex(long banId) {
+        SnapshotEntry old = byId.remove(banId);
+        if (old == null) return null;
+        byUuid.computeIfPresent(old.uuid(), (k, list) -> without(list, banId));
+        for (String ip : old.ips()) {
+            byIp.computeIfPresent(ip, (k, list) -> without(list, banId));
+        }
+        return old;
+    }
+
+    private void clearIndex() {
+        byId.clear();
+        byUuid.clear();
+        byIp.clear();
+    }
+
+    private static List<SnapshotEntry> concat(List<SnapshotEntry> a, List<SnapshotEntry> b) {
+        List<SnapshotEntry> out = new ArrayList<>(a.size() + b.size());
+        out.addAll(a);
+        out.addAll(b);
+        return List.copyOf(out);
+    }
+
+    private static List<SnapshotEntry> without(List<SnapshotEntry> list, long banId) {
+        List<SnapshotEntry> out = new ArrayList<>(list.size());
+        for (SnapshotEntry e : list) {
+            if (e.banId() != banId) out.add(e);
+        }
+        return out.isEmpty() ? null : List.copyOf(out);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        ipResolver.shutdownNow();
+        if (journal == null) return;
+        try {
+            if (rewriteNeeded) {
+                // letzter Versuch, damit der nächste Start nicht einen veralteten Stand durchsetzt
+                writeSnapshotAndResetJournal();
+            }
+            journal.force(true);
+        } finally {
+            journal.close();
+            journal = null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package dev.fluffix.sentinel.ban.snapshot;
+
+import dev.fluffix.sentinel.ban.BanType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Binärformat für Snapshot und Journal.
+ *
+ * Eintrag:
+ *   banId long | uuid msb long | uuid lsb long | type byte | expiresAt long
+ *   name str | operator str | reasons str | notice str | ipCount short | ips str*
+ * str = short Länge (-1 = null) + UTF-8 Bytes
+ *
+ * Das Eintragsformat nutzt auch das Daemon-Protokoll.
+ */
+public final class SnapshotCodec {
+
+    static final int SNAPSHOT_MAGIC = 0x534E5442; // "SNTB"
+    static final short SNAPSHOT_VERSION = 1;
+    static final int SNAPSHOT_HEADER_BYTES = 4 + 2 + 4 + 8;
+
+    static final byte OP_PUT = 1;
+    static final byte OP_REMOVE = 2;
+
+    private static final BanType[] TYPES = BanType.values();
+
+    private SnapshotCodec() {
+    }
+
+    public static int sizeOf(SnapshotEntry e) {
+        int size = 8 + 8 + 8 + 1 + 8;
+        size += sizeOf(e.name()) + sizeOf(e.operator()) + sizeOf(e.reasons()) + sizeOf(e.notice());
+        size += 2;
+        for (String ip : e.ips()) size += sizeOf(ip);
+        return size;
+    }
+
+    public static void write(ByteBuffer buf, SnapshotEntry e) {
+        buf.putLong(e.banId());
+        buf.putLong(e.uuid().getMostSignificantBits());
+        buf.putLong(e.uuid().getLeastSignificantBits());
+        buf.put((byte) e.type().ordinal());
+        buf.putLong(e.expiresAtMillis());
+        writeString(buf, e.name());
+        writeString(buf, e.operator());
+        writeString(buf, e.reasons());
+        writeString(buf, e.notice());
+        buf.putShort((short) e.ips().size());
+        for (String ip : e.ips()) writeString(buf, ip);
+    }
+
+    public static SnapshotEntry read(ByteBuffer buf) {
+        long banId = buf.getLong();
+        UUID uuid = new UUID(buf.getLong(), buf.getLong());
+        int typeIdx = buf.get();
+        if (typeIdx < 0 || typeIdx >= TYPES.length) {
+            throw new IllegalStateException("Unbekannter BanType-Index im Snapshot: " + typeIdx);
+        }
+        long expiresAt = buf.getLong();
+        String name = readString(buf);
+        String operator = readString(buf);
+        String reasons = readString(buf);
+        String notice = readString(buf);
+        int ipCount = buf.getShort();
+        Set<String> ips = new HashSet<>(Math.max(4, ipCount * 2));
+        for (int i = 0; i < ipCount; i++) ips.add(readString(buf));
+        return new SnapshotEntry(banId, uuid, TYPES[typeIdx], expiresAt, name, operator, reasons, notice, ips);
+    }
+
+    public static int sizeOf(String s) {
+        return 2 + (s == null ? 0 : utf8(s).length);
+    }
+
+    public static void writeString(ByteBuffer buf, String s) {
+        if (s == null) {
+            buf.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = utf8(s);
+        buf.putShort((short) bytes.length);
+        buf.put(bytes);
+    }
+
+    public static String readString(ByteBuffer buf) {
+        int len = buf.getShort();
+        if (len < 0) return null;
+        byte[] bytes = new byte[len];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Strings werden gekürzt, damit die Byte-Länge sicher in ein short passt (max. 4 Bytes/char). */
+    private static byte[] utf8(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= Short.MAX_VALUE) return bytes;
+        return s.substring(0, Short.MAX_VALUE / 4).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,59 @@
+package dev.fluffix.sentinel.ban.snapshot;
+
+import dev.fluffix.sentinel.ban.Ban;
+import dev.fluffix.sentinel.ban.BanType;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Kompakter, unveränderlicher Eintrag im lokalen Ban-Snapshot.
+ * expiresAtMillis = 0 bedeutet permanent.
+ */
+public record SnapshotEntry(long banId,
+                            UUID uuid,
+                            BanType type,
+                            long expiresAtMillis,
+                            String name,
+                            String operator,
+                            String reasons,
+                            String notice,
+                            Set<String> ips) {
+
+    public SnapshotEntry {
+        ips = (ips == null) ? Set.of() : Set.copyOf(ips);
+    }
+
+    public static SnapshotEntry of(Ban ban, Collection<String> ips) {
+        List<String> reasons = ban.getReasons();
+        Instant expiresAt = ban.getExpiresAt();
+        return new SnapshotEntry(
+                ban.getId() == null ? 0L : ban.getId(),
+                ban.getUniqueId(),
+                ban.getType(),
+                expiresAt == null ? 0L : expiresAt.toEpochMilli(),
+                ban.getName(),
+                ban.getOperator(),
+                (reasons == null || reasons.isEmpty()) ? null : String.join(", ", reasons),
+                ban.getNotice(),
+                ban.getType() == BanType.IP && ips != null ? Set.copyOf(ips) : Set.of()
+        );
+    }
+
+    public boolean isPermanent() {
+        return expiresAtMillis == 0L;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis != 0L && expiresAtMillis <= nowMillis;
+    }
+
+    /** Restzeit in Sekunden; 0 bei permanent. */
+    public long remainingSeconds(long nowMillis) {
+        if (isPermanent()) return 0L;
+        return Math.max(0L, (expiresAtMillis - nowMillis) / 1000L);
+    }
+}
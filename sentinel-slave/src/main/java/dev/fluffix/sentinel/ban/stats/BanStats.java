@@ -0,0 +1,332 @@
+package dev.fluffix.sentinel.ban.stats;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.fluffix.sentinel.ban.BanType;
+import dev.fluffix.sentinel.database.mysql.MySqlManager;
+import dev.fluffix.sentinel.database.mysql.QueryTag;
+import dev.fluffix.sentinel.database.mysql.QueryTag.Workload;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Laufend gepflegte Ban-Statistik in sentinel_ban_stats: ein Zähler-Eintrag je Tag, Dimension und Name.
+ * - Schreiben: Aufrufer sammeln Änderungen in einem {@link Delta} und wenden es in ihrer
+ *   eigenen Transaktion an (ein Upsert-Statement), damit Statistik und Bans nie auseinanderlaufen.
+ * - Lesen: Auswertungen summieren nur Tages-Buckets, statt Live- und Archiv-Tabelle zu scannen.
+ * Tage sind UTC-Tage.
+ */
+public class BanStats {
+
+    /** Dimension eines Zählers; code ist der Wert in der Spalte dim. */
+    public enum Dimension {
+        TOTAL('T'), REASON('R'), OPERATOR('O');
+
+        private final char code;
+
+        Dimension(char code) {
+            this.code = code;
+        }
+
+        public String code() {
+            return String.valueOf(code);
+        }
+    }
+
+    /** Summierte Zähler eines Namens (bzw. eines Tages bei {@link #daily}). */
+    public record Row(String name, long bans, long tempBans, long tempSeconds, long unbans, long expired) {
+        /** Durchschnittliche Dauer temporärer Bans in Sekunden; 0, wenn keine. */
+        public long avgTempSeconds() {
+            return tempBans == 0 ? 0 : tempSeconds / tempBans;
+        }
+    }
+
+    private static final QueryTag TAG_SCHEMA = QueryTag.of("stats.schema");
+    private static final QueryTag TAG_BACKFILL = QueryTag.of("stats.backfill", Workload.MAINTENANCE);
+    private static final QueryTag TAG_READ = QueryTag.replicaRead("stats.read");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int NAME_MAX = 64;
+    private static final int UPSERT_ROWS = 500;
+    private static final int BACKFILL_PAGE = 5000;
+    private static final int BACKFILL_ARCHIVE = 1; // Phase 0 = Live-Tabelle
+    private static final int BACKFILL_DONE = 2;
+
+    private final MySqlManager db;
+
+    public BanStats(MySqlManager db) {
+        this.db = Objects.requireNonNull(db, "db");
+    }
+
+    /* ---------------- Schema ---------------- */
+
+    public void ensureSchema() throws SQLException {
+        db.schema().ensure("ban_stats", List.of(this::migrateV1));
+    }
+
+    /**
+     * Version 1: legt die Tabelle an; nur der Server, der sie tatsächlich anlegt, rechnet den Bestand einmalig ein.
+     * Alles nach dem Anlegen zählen die Schreibpfade selbst.
+     * Der Einrechnungs-Stand steht in sentinel_ban_stats_backfill; die Version wird erst gespeichert, wenn er
+     * vollständig ist – ein Abbruch mittendrin setzt beim nächsten Start am Cursor fort.
+     */
+    private void migrateV1() throws SQLException {
+        db.update(TAG_SCHEMA, """
+            CREATE TABLE IF NOT EXISTS sentinel_ban_stats_backfill (
+              id               TINYINT      NOT NULL PRIMARY KEY,
+              phase            TINYINT      NOT NULL DEFAULT 0,
+              last_id          BIGINT       NOT NULL DEFAULT 0,
+              max_live_id      BIGINT       NOT NULL,
+              archived_before  TIMESTAMP    NOT NULL
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+        """);
+
+        boolean exists = !db.query(TAG_SCHEMA, """
+            SELECT 1 FROM information_schema.TABLES
+             WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'sentinel_ban_stats'
+        """).isEmpty();
+        if (!exists) {
+            // Stand vor dem Anlegen festhalten: spätere Bans zählen die Schreibpfade selbst
+            db.update(TAG_SCHEMA, """
+                INSERT IGNORE INTO sentinel_ban_stats_backfill (id, phase, last_id, max_live_id, archived_before)
+                SELECT 1, 0, 0, COALESCE(MAX(id), 0), CURRENT_TIMESTAMP FROM sentinel_bans
+            """);
+            db.update(TAG_SCHEMA, """
+            CREATE TABLE IF NOT EXISTS sentinel_ban_stats (
+              dim           CHAR(1)      NOT NULL,
+              day           DATE         NOT NULL,
+              name          VARCHAR(64)  NOT NULL,
+              bans          INT          NOT NULL DEFAULT 0,
+              temp_bans     INT          NOT NULL DEFAULT 0,
+              temp_seconds  BIGINT       NOT NULL DEFAULT 0,
+              unbans        INT          NOT NULL DEFAULT 0,
+              expired       INT          NOT NULL DEFAULT 0,
+              PRIMARY KEY (dim, day, name)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+        """);
+        }
+        // ohne Cursor-Zeile gab es nichts einzurechnen (Tabelle stammt aus einer Version vor dem Cursor)
+        backfill();
+    }
+
+    /**
+     * Rechnet Live- und Archiv-Tabelle seitenweise ein (Stand beim Anlegen der Tabelle).
+     * Archivierte Bans zählen am Archivierungstag als abgelaufen (archived_at >= expires_at) oder aufgehoben.
+     * Jede Seite läuft in einer Transaktion, die den Cursor per FOR UPDATE sperrt, einrechnet und den Cursor
+     * weitersetzt; parallel startende Server rechnen so keine Seite doppelt ein.
+     */
+    private void backfill() throws SQLException {
+        while (true) {
+            boolean more = db.inTransaction(TAG_BACKFILL, con -> {
+                try {
+                    return backfillPage(con);
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            if (!more) return;
+        }
+    }
+
+    /** @return false, wenn der Cursor fertig ist (oder nie angelegt wurde) */
+    private boolean backfillPage(Connection con) throws SQLException {
+        List<Map<String, Object>> cursor = db.query(con,
+                "SELECT phase, last_id, max_live_id, archived_before FROM sentinel_ban_stats_backfill WHERE id = 1 FOR UPDATE");
+        if (cursor.isEmpty()) return false;
+        Map<String, Object> c = cursor.get(0);
+        int phase = ((Number) c.get("phase")).intValue();
+        if (phase >= BACKFILL_DONE) return false;
+        long lastId = ((Number) c.get("last_id")).longValue();
+
+        boolean archive = phase == BACKFILL_ARCHIVE;
+        String table = archive ? "sentinel_bans_archive" : "sentinel_bans";
+        String bound = archive ? "archived_at < ?" : "id <= ?";
+        Object boundValue = archive ? c.get("archived_before") : c.get("max_live_id");
+        List<Map<String, Object>> rows = db.query(con,
+                "SELECT id, operator, type, reasons, remaining_seconds, created_at, expires_at"
+                        + (archive ? ", archived_at" : "")
+                        + " FROM " + table + " WHERE id > ? AND " + bound
+                        + " ORDER BY id LIMIT " + BACKFILL_PAGE, lastId, boundValue);
+        if (rows.isEmpty()) {
+            db.update(con, "UPDATE sentinel_ban_stats_backfill SET phase = ?, last_id = 0 WHERE id = 1", phase + 1);
+            return phase + 1 < BACKFILL_DONE;
+        }
+
+        Delta delta = new Delta();
+        for (Map<String, Object> r : rows) {
+            lastId = ((Number) r.get("id")).longValue();
+            BanType type = parseType(r.get("type"));
+            long seconds = r.get("remaining_seconds") == null ? 0 : ((Number) r.get("remaining_seconds")).longValue();
+            delta.ban(day(r.get("created_at")), Objects.toString(r.get("operator"), null),
+                    parseReasons(r.get("reasons")), type, seconds);
+            if (archive) {
+                Timestamp expiresAt = (Timestamp) r.get("expires_at");
+                Timestamp archivedAt = (Timestamp) r.get("archived_at");
+                LocalDate archivedDay = day(archivedAt);
+                if (expiresAt != null && archivedAt != null && !archivedAt.before(expiresAt)) {
+                    delta.expired(archivedDay, 1);
+                } else {
+                    delta.unbans(archivedDay, 1);
+                }
+            }
+        }
+        apply(con, delta);
+        db.update(con, "UPDATE sentinel_ban_stats_backfill SET last_id = ? WHERE id = 1", lastId);
+        return true;
+    }
+
+    /* ---------------- Schreiben ---------------- */
+
+    /** Schreibt ein Delta als Upsert in der Transaktion des Aufrufers. */
+    public void apply(Connection con, Delta delta) throws SQLException {
+        if (delta.isEmpty()) return;
+        List<Map.Entry<Key, long[]>> entries = new ArrayList<>(delta.rows.entrySet());
+        for (int from = 0; from < entries.size(); from += UPSERT_ROWS) {
+            List<Map.Entry<Key, long[]>> chunk = entries.subList(from, Math.min(entries.size(), from + UPSERT_ROWS));
+            List<Object> params = new ArrayList<>(chunk.size() * 8);
+            for (Map.Entry<Key, long[]> e : chunk) {
+                params.add(e.getKey().dim().code());
+                params.add(e.getKey().day().toString());
+                params.add(e.getKey().name());
+                for (long v : e.getValue()) params.add(v);
+            }
+            db.update(con, "INSERT INTO sentinel_ban_stats (dim, day, name, bans, temp_bans, temp_seconds, unbans, expired) VALUES "
+                    + String.join(",", Collections.nCopies(chunk.size(), "(?, ?, ?, ?, ?, ?, ?, ?)")) + """
+                 ON DUPLICATE KEY UPDATE
+                  bans         = bans + VALUES(bans),
+                  temp_bans    = temp_bans + VALUES(temp_bans),
+                  temp_seconds = temp_seconds + VALUES(temp_seconds),
+                  unbans       = unbans + VALUES(unbans),
+                  expired      = expired + VALUES(expired)
+            """, params.toArray());
+        }
+    }
+
+    /** Heutiger UTC-Tag (Bucket für neue Änderungen). */
+    public static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+
+    /* ---------------- Auswertungen ---------------- */
+
+    /** Top-Namen einer Dimension im Zeitraum [from, to], sortiert nach Bans. */
+    public List<Row> top(Dimension dim, LocalDate from, LocalDate to, int limit) throws SQLException {
+        return rows(db.query(TAG_READ, """
+            SELECT name, SUM(bans) AS bans, SUM(temp_bans) AS temp_bans, SUM(temp_seconds) AS temp_seconds,
+                   SUM(unbans) AS unbans, SUM(expired) AS expired
+              FROM sentinel_ban_stats
+             WHERE dim = ? AND day BETWEEN ? AND ?
+             GROUP BY name
+             ORDER BY bans DESC, name
+             LIMIT ?
+        """, dim.code(), from.toString(), to.toString(), Math.max(1, limit)));
+    }
+
+    /** Gesamtzähler je Tag im Zeitraum; name ist das Datum. */
+    public List<Row> daily(LocalDate from, LocalDate to) throws SQLException {
+        return rows(db.query(TAG_READ, """
+            SELECT CAST(day AS CHAR) AS name, bans, temp_bans, temp_seconds, unbans, expired
+              FROM sentinel_ban_stats
+             WHERE dim = 'T' AND day BETWEEN ? AND ?
+             ORDER BY day
+        """, from.toString(), to.toString()));
+    }
+
+    /** Summe über den Zeitraum. */
+    public Row totals(LocalDate from, LocalDate to) throws SQLException {
+        List<Row> rows = top(Dimension.TOTAL, from, to, 1);
+        return rows.isEmpty() ? new Row("", 0, 0, 0, 0, 0) : rows.get(0);
+    }
+
+    private static List<Row> rows(List<Map<String, Object>> rows) {
+        List<Row> out = new ArrayList<>(rows.size());
+        for (Map<String, Object> r : rows) {
+            out.add(new Row(Objects.toString(r.get("name"), ""), num(r.get("bans")), num(r.get("temp_bans")),
+                    num(r.get("temp_seconds")), num(r.get("unbans")), num(r.get("expired"))));
+        }
+        return out;
+    }
+
+    private static long num(Object o) {
+        return o == null ? 0 : ((Number) o).longValue();
+    }
+
+    /* ---------------- Delta ---------------- */
+
+    private record Key(Dimension dim, LocalDate day, String name) {}
+
+    /** Gesammelte Zähleränderungen; Werte: bans, temp_bans, temp_seconds, unbans, expired. */
+    public static final class Delta {
+
+        private final Map<Key, long[]> rows = new HashMap<>();
+
+        /** Neuer Ban: zählt für Gesamt, jeden Grund und den Operator. */
+        public Delta ban(LocalDate day, String operator, List<String> reasons, BanType type, long seconds) {
+            boolean temp = type == BanType.TEMP && seconds > 0;
+            long[] add = {1, temp ? 1 : 0, temp ? seconds : 0, 0, 0};
+            add(new Key(Dimension.TOTAL, day, ""), add);
+            add(new Key(Dimension.OPERATOR, day, name(operator)), add);
+            if (reasons != null) {
+                Set<String> seen = new HashSet<>();
+                for (String r : reasons) {
+                    String n = name(r);
+                    if (seen.add(n)) add(new Key(Dimension.REASON, day, n), add);
+                }
+            }
+            return this;
+        }
+
+        public Delta unbans(LocalDate day, int count) {
+            if (count > 0) add(new Key(Dimension.TOTAL, day, ""), new long[]{0, 0, 0, count, 0});
+            return this;
+        }
+
+        public Delta expired(LocalDate day, int count) {
+            if (count > 0) add(new Key(Dimension.TOTAL, day, ""), new long[]{0, 0, 0, 0, count});
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return rows.isEmpty();
+        }
+
+        private void add(Key key, long[] values) {
+            long[] cur = rows.computeIfAbsent(key, k -> new long[5]);
+            for (int i = 0; i < cur.length; i++) cur[i] += values[i];
+        }
+
+        private static String name(String raw) {
+            if (raw == null || raw.isBlank()) return "-";
+            String n = raw.trim().toLowerCase(Locale.ROOT);
+            return n.length() > NAME_MAX ? n.substring(0, NAME_MAX) : n;
+        }
+    }
+
+    /* ---------------- Helpers ---------------- */
+
+    private static LocalDate day(Object ts) {
+        return ts instanceof Timestamp t ? t.toInstant().atZone(ZoneOffset.UTC).toLocalDate() : today();
+    }
+
+    private static BanType parseType(Object raw) {
+        try {
+            return BanType.valueOf(Objects.toString(raw, "PERMANENT"));
+        } catch (IllegalArgumentException e) {
+            return BanType.PERMANENT;
+        }
+    }
+
+    private static List<String> parseReasons(Object raw) {
+        if (raw == null) return List.of();
+        try {
+            return MAPPER.readValue(raw.toString(), new TypeReference<List<String>>() {});
+        } catch (Exception e) {
+            return List.of();
+        }
+    }
+}
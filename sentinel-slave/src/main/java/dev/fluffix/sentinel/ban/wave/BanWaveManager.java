@@ -0,0 +1,312 @@
+package dev.fluffix.sentinel.ban.wave;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.fluffix.sentinel.ban.BanManager;
+import dev.fluffix.sentinel.ban.BulkResult;
+import dev.fluffix.sentinel.configuration.SentinelConfig;
+import dev.fluffix.sentinel.database.mysql.MySqlManager;
+import dev.fluffix.sentinel.database.mysql.QueryTag;
+import dev.fluffix.sentinel.database.mysql.QueryTag.Workload;
+import dev.fluffix.sentinel.player.SentinelPlayer;
+import dev.fluffix.sentinel.player.SentinelPlayerManager;
+import dev.fluffix.sentinel.reasons.Reason;
+import dev.fluffix.sentinel.reasons.ReasonManager;
+import dev.fluffix.sentinel.reasons.ReasonType;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ban-Wellen: Bans werden vorgemerkt und zu einem zufälligen späteren Zeitpunkt gemeinsam ausgeführt,
+ * damit sich Erkennung und Ban zeitlich nicht zuordnen lassen.
+ * - Vormerkungen liegen in sentinel_banwave_pending (eine Zeile je Spieler).
+ * - Neue Vormerkungen schließen sich der offenen Welle an; ist keine offen, wird ein Zeitpunkt
+ *   zufällig zwischen banWaveMinMinutes und banWaveMaxMinutes gewählt.
+ * - runDue() markiert fällige Zeilen als beansprucht (claimed_by/claimed_at, nur ein Server bekommt sie),
+ *   bannt sie je Grund-Kombination über {@link BanManager#banMany} und löscht sie erst danach.
+ *   Schlägt der Ban fehl, wird der Anspruch freigegeben; stürzt der Server dazwischen ab, verfällt er nach
+ *   CLAIM_TIMEOUT_SECONDS und ein anderer Lauf übernimmt (bereits gebannte Spieler meldet banMany als ALREADY).
+ */
+public class BanWaveManager {
+
+    private static final QueryTag TAG_SCHEMA = QueryTag.of("banwave.schema");
+    private static final QueryTag TAG_ENQUEUE = QueryTag.of("banwave.enqueue");
+    private static final QueryTag TAG_LIST = QueryTag.of("banwave.list");
+    private static final QueryTag TAG_REMOVE = QueryTag.of("banwave.remove");
+    private static final QueryTag TAG_CLAIM = QueryTag.of("banwave.claim", Workload.MAINTENANCE);
+    private static final QueryTag TAG_RELEASE = QueryTag.of("banwave.release", Workload.MAINTENANCE);
+    private static final QueryTag TAG_DONE = QueryTag.of("banwave.done", Workload.MAINTENANCE);
+    private static final QueryTag TAG_SCHEDULE = QueryTag.of("banwave.schedule");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String COLUMNS = "id, uuid, name, operator, reasons, notice, created_at, execute_after";
+    private static final long CLAIM_TIMEOUT_SECONDS = 15 * 60L;
+
+    private final MySqlManager db;
+    private final BanManager bans;
+    private final SentinelPlayerManager players;
+    private final ReasonManager reasons;
+    private final long minDelaySeconds;
+    private final long maxDelaySeconds;
+    private final String claimToken = UUID.randomUUID().toString(); // kennzeichnet Ansprüche dieses Servers
+
+    public BanWaveManager(MySqlManager db, BanManager bans, SentinelPlayerManager players,
+                          ReasonManager reasons, SentinelConfig config) throws SQLException {
+        this.db = Objects.requireNonNull(db, "db");
+        this.bans = Objects.requireNonNull(bans, "bans");
+        this.players = Objects.requireNonNull(players, "players");
+        this.reasons = Objects.requireNonNull(reasons, "reasons");
+        this.minDelaySeconds = config.banWaveMinMinutes() * 60L;
+        this.maxDelaySeconds = Math.max(minDelaySeconds, config.banWaveMaxMinutes() * 60L);
+        ensureSchema();
+    }
+
+    /* ---------------- Schema ---------------- */
+
+    private void ensureSchema() throws SQLException {
+        db.schema().ensure("ban_waves", List.of(this::migrateV1, this::migrateV2));
+    }
+
+    /** Version 1: Ausgangsschema (idempotent, damit Bestandsinstallationen ohne Versionszeile sauber übernommen werden). */
+    private void migrateV1() throws SQLException {
+        db.update(TAG_SCHEMA, """
+            CREATE TABLE IF NOT EXISTS sentinel_banwave_pending (
+              id             BIGINT        NOT NULL AUTO_INCREMENT,
+              uuid           CHAR(36)      NOT NULL,
+              name           VARCHAR(64)   NOT NULL,
+              operator       VARCHAR(64)   NULL,
+              reasons        JSON          NOT NULL,
+              notice         TEXT          NULL,
+              created_at     TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+              execute_after  TIMESTAMP     NOT NULL,
+              PRIMARY KEY (id),
+              UNIQUE KEY uq_uuid (uuid),
+              INDEX idx_execute_after (execute_after)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+        """);
+    }
+
+    /** Version 2: Anspruchs-Spalten, damit runDue() Zeilen erst nach dem Ban löscht (idempotent). */
+    private void migrateV2() throws SQLException {
+        List<Map<String, Object>> cols = db.query(TAG_SCHEMA, """
+            SELECT 1 FROM information_schema.COLUMNS
+             WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'sentinel_banwave_pending' AND COLUMN_NAME = 'claimed_by'
+        """);
+        if (!cols.isEmpty()) return;
+        try {
+            db.update(TAG_SCHEMA, """
+                ALTER TABLE sentinel_banwave_pending
+                  ADD COLUMN claimed_by  CHAR(36)   NULL AFTER execute_after,
+                  ADD COLUMN claimed_at  TIMESTAMP  NULL AFTER claimed_by,
+                  ADD INDEX idx_claimed_by (claimed_by)
+            """);
+        } catch (SQLException e) {
+            if (e.getErrorCode() != 1060) throw e; // 1060 = Spalte existiert: parallel von einem anderen Server ergänzt
+        }
+    }
+
+    /* ---------------- Vormerken ---------------- */
+
+    /**
+     * Merkt einen Spieler für die nächste Welle vor; erneutes Vormerken ersetzt Gründe/Notiz.
+     * Gründe werden sofort geprüft, damit die Welle später nicht an einem Tippfehler scheitert.
+     */
+    public PendingBan enqueue(String nameOrUuid, String operator, List<String> reasonsList, String notice)
+            throws SQLException {
+        validateReasons(reasonsList);
+        SentinelPlayer sp = players.resolveAll(List.of(nameOrUuid)).get(nameOrUuid);
+        if (sp == null) throw new IllegalStateException("Spieler nicht in der Datenbank gefunden: " + nameOrUuid);
+
+        String reasonsJson;
+        try {
+            reasonsJson = MAPPER.writeValueAsString(reasonsList);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Failed to serialize reasons", e);
+        }
+
+        db.inTransaction(TAG_ENQUEUE, con -> {
+            try {
+                // einer noch ausstehenden Welle beitreten, sonst neuer Zufallszeitpunkt. Laufende (claimed) oder
+                // nach einem Fehler freigegebene Zeilen liegen in der Vergangenheit: wer ihnen beitritt, würde
+                // beim nächsten runDue() sofort gebannt und die zufällige Verzögerung wäre wirkungslos
+                List<Map<String, Object>> rows = db.query(con, """
+                    SELECT MIN(execute_after) AS at FROM sentinel_banwave_pending
+                     WHERE claimed_by IS NULL AND execute_after > CURRENT_TIMESTAMP
+                       FOR UPDATE
+                """);
+                Object at = rows.isEmpty() ? null : rows.get(0).get("at");
+                Timestamp executeAfter = at instanceof Timestamp t ? t : Timestamp.from(randomWaveTime());
+
+                db.update(con, """
+                    INSERT INTO sentinel_banwave_pending (uuid, name, operator, reasons, notice, execute_after)
+                    VALUES (?, ?, ?, ?, ?, ?)
+                    ON DUPLICATE KEY UPDATE
+                      name = VALUES(name), operator = VALUES(operator),
+                      reasons = VALUES(reasons), notice = VALUES(notice)
+                """, sp.getUniqueId().toString(), sp.getName(), operator, reasonsJson, notice, executeAfter);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+            return null;
+        });
+        return find(sp.getUniqueId());
+    }
+
+    public boolean remove(String nameOrUuid) throws SQLException {
+        SentinelPlayer sp = players.resolveAll(List.of(nameOrUuid)).get(nameOrUuid);
+        if (sp == null) return false;
+        return db.update(TAG_REMOVE, "DELETE FROM sentinel_banwave_pending WHERE uuid = ?",
+                sp.getUniqueId().toString()) > 0;
+    }
+
+    public List<PendingBan> listPending() throws SQLException {
+        List<PendingBan> out = new ArrayList<>();
+        for (Map<String, Object> r : db.query(TAG_LIST,
+                "SELECT " + COLUMNS + " FROM sentinel_banwave_pending ORDER BY created_at")) {
+            out.add(mapRow(r));
+        }
+        return out;
+    }
+
+    /** Zeitpunkt der offenen Welle oder null, wenn nichts vorgemerkt ist. */
+    public Instant nextWaveAt() throws SQLException {
+        List<Map<String, Object>> rows = db.query(TAG_LIST, "SELECT MIN(execute_after) AS at FROM sentinel_banwave_pending");
+        Object at = rows.isEmpty() ? null : rows.get(0).get("at");
+        return at instanceof Timestamp t ? t.toInstant() : null;
+    }
+
+    /** Zieht die offene Welle auf jetzt vor (runDue() führt sie beim nächsten Lauf aus). */
+    public int scheduleNow() throws SQLException {
+        return db.update(TAG_SCHEDULE, "UPDATE sentinel_banwave_pending SET execute_after = CURRENT_TIMESTAMP");
+    }
+
+    private PendingBan find(UUID uuid) throws SQLException {
+        List<Map<String, Object>> rows = db.query(TAG_LIST,
+                "SELECT " + COLUMNS + " FROM sentinel_banwave_pending WHERE uuid = ?", uuid.toString());
+        return rows.isEmpty() ? null : mapRow(rows.get(0));
+    }
+
+    /* ---------------- Ausführen ---------------- */
+
+    /** Führt alle fälligen Vormerkungen aus; leere Liste, wenn nichts fällig ist. */
+    public List<BulkResult> runDue() throws SQLException {
+        // beanspruchen statt löschen: fällige, freie oder verwaiste (abgelaufener Anspruch) Zeilen
+        int marked = db.update(TAG_CLAIM, """
+            UPDATE sentinel_banwave_pending
+               SET claimed_by = ?, claimed_at = CURRENT_TIMESTAMP
+             WHERE execute_after <= CURRENT_TIMESTAMP
+               AND (claimed_by IS NULL OR claimed_at < CURRENT_TIMESTAMP - INTERVAL ? SECOND)
+        """, claimToken, CLAIM_TIMEOUT_SECONDS);
+        if (marked == 0) return List.of();
+
+        List<PendingBan> claimed = new ArrayList<>();
+        for (Map<String, Object> r : db.query(TAG_CLAIM,
+                "SELECT " + COLUMNS + " FROM sentinel_banwave_pending WHERE claimed_by = ?", claimToken)) {
+            claimed.add(mapRow(r));
+        }
+        if (claimed.isEmpty()) return List.of();
+
+        // banMany nimmt eine Grund-Kombination – gruppieren (meist eine Gruppe je Welle)
+        Map<List<Object>, List<PendingBan>> groups = new LinkedHashMap<>();
+        for (PendingBan p : claimed) {
+            groups.computeIfAbsent(Arrays.asList(p.operator(), p.reasons(), p.notice()), k -> new ArrayList<>()).add(p);
+        }
+
+        List<BulkResult> results = new ArrayList<>(claimed.size());
+        List<PendingBan> remaining = new ArrayList<>(claimed);
+        try {
+            for (List<PendingBan> group : groups.values()) {
+                PendingBan first = group.get(0);
+                List<String> targets = group.stream().map(p -> p.uuid().toString()).toList();
+                results.addAll(bans.banMany(targets, first.operator(), first.reasons(), first.notice()));
+                remaining.removeAll(group);
+                // erst nach dem Commit der Bans löschen; ein Absturz davor lässt den Anspruch nur verfallen
+                finish(group);
+            }
+        } catch (SQLException | RuntimeException e) {
+            release(remaining);
+            throw e;
+        }
+        return results;
+    }
+
+    /** Ausgeführte Vormerkungen löschen; scheitert das, verfällt der Anspruch und der nächste Lauf räumt auf. */
+    private void finish(List<PendingBan> done) {
+        Object[] params = new Object[done.size() + 1];
+        params[0] = claimToken;
+        for (int i = 0; i < done.size(); i++) params[i + 1] = done.get(i).id();
+        try {
+            db.update(TAG_DONE, "DELETE FROM sentinel_banwave_pending WHERE claimed_by = ? AND id IN ("
+                    + String.join(",", Collections.nCopies(done.size(), "?")) + ")", params);
+        } catch (SQLException ignored) {
+            // Bans sind committet; ein erneuter Lauf meldet sie als bereits gebannt und löscht die Zeilen dann
+        }
+    }
+
+    /** Nicht ausgeführte Vormerkungen freigeben (ursprünglicher Zeitpunkt, damit der nächste Lauf sie nimmt). */
+    private void release(List<PendingBan> pending) {
+        if (pending.isEmpty()) return;
+        Object[] params = new Object[pending.size() + 1];
+        params[0] = claimToken;
+        for (int i = 0; i < pending.size(); i++) params[i + 1] = pending.get(i).id();
+        try {
+            db.update(TAG_RELEASE, "UPDATE sentinel_banwave_pending SET claimed_by = NULL, claimed_at = NULL"
+                    + " WHERE claimed_by = ? AND id IN (" + String.join(",", Collections.nCopies(pending.size(), "?")) + ")",
+                    params);
+        } catch (SQLException ignored) {
+            // Anspruch verfällt nach CLAIM_TIMEOUT_SECONDS; die Zeilen gehen nicht verloren
+        }
+    }
+
+    /* ---------------- Helpers ---------------- */
+
+    private Instant randomWaveTime() {
+        long delay = minDelaySeconds == maxDelaySeconds
+                ? minDelaySeconds
+                : ThreadLocalRandom.current().nextLong(minDelaySeconds, maxDelaySeconds + 1);
+        return Instant.now().plusSeconds(delay);
+    }
+
+    private void validateReasons(List<String> provided) throws SQLException {
+        if (provided == null || provided.isEmpty())
+            throw new IllegalArgumentException("Es muss mindestens ein gültiger BAN-Grund angegeben werden.");
+        Set<String> valid = new HashSet<>();
+        try (MySqlManager.Scope ignored = db.scope(TAG_ENQUEUE)) {
+            for (Reason r : reasons.loadAll(ReasonType.BAN)) valid.add(r.getName().toLowerCase(Locale.ROOT));
+        }
+        List<String> unknown = new ArrayList<>();
+        for (String p : provided) {
+            if (p == null || p.isBlank() || !valid.contains(p.toLowerCase(Locale.ROOT))) {
+                unknown.add(p == null ? "<null>" : p);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Ungültige BAN-Gründe: " + String.join(", ", unknown));
+        }
+    }
+
+    private static PendingBan mapRow(Map<String, Object> r) {
+        List<String> reasons;
+        try {
+            Object json = r.get("reasons");
+            reasons = json instanceof String s
+                    ? MAPPER.readValue(s, new TypeReference<List<String>>() {})
+                    : MAPPER.convertValue(json, new TypeReference<List<String>>() {});
+        } catch (Exception e) {
+            reasons = new ArrayList<>();
+        }
+        return new PendingBan(
+                ((Number) r.get("id")).longValue(),
+                UUID.fromString(Objects.toString(r.get("uuid"))),
+                Objects.toString(r.get("name"), "Unknown"),
+                Objects.toString(r.get("operator"), null),
+                reasons,
+                Objects.toString(r.get("notice"), null),
+                r.get("created_at") instanceof Timestamp t ? t.toInstant() : Instant.now(),
+                r.get("execute_after") instanceof Timestamp t ? t.toInstant() : Instant.now());
+    }
+}
@@ -0,0 +1,9 @@
+package dev.fluffix.sentinel.ban.wave;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/** Vorgemerkter Ban der nächsten Ban-Welle. */
+public record PendingBan(long id, UUID uuid, String name, String operator, List<String> reasons,
+                         String notice, Instant createdAt, Instant executeAfter) {}
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.core.json.JsonReadFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import java.io.File;
@@ -38,8 +39,10 @@ public class JsonFileBuilder {
 
     public JsonFileBuilder add(String key, String value) { rootNode.put(key, value); return this; }
     public JsonFileBuilder add(String key, int value)     { rootNode.put(key, value); return this; }
+    public JsonFileBuilder add(String key, long value)    { rootNode.put(key, value); return this; }
     public JsonFileBuilder add(String key, boolean value) { rootNode.put(key, value); return this; }
     public JsonFileBuilder addObject(String key, ObjectNode objectNode) { rootNode.set(key, objectNode); return this; }
+    public JsonFileBuilder addArray(String key, ArrayNode arrayNode)    { rootNode.set(key, arrayNode); return this; }
 
     public void build(String filePath) throws IOException {
         File file = new File(filePath);
@@ -79,8 +82,27 @@ public class JsonFileBuilder {
 
     public String getString(String key) { JsonNode n = rootNode.get(key); return n != null ? n.asText() : null; }
     public int getInt(String key)       { JsonNode n = rootNode.get(key); return n != null ? n.asInt() : 0; }
+    public long getLong(String key)     { JsonNode n = rootNode.get(key); return n != null ? n.asLong() : 0L; }
     public boolean getBoolean(String key){ JsonNode n = rootNode.get(key); return n != null && n.asBoolean(); }
+    public ArrayNode getArray(String key) { JsonNode n = rootNode.get(key); return n instanceof ArrayNode a ? a : mapper.createArrayNode(); }
     public boolean contains(String key) { return rootNode.has(key); }
     public ObjectNode getRootNode()     { return rootNode; }
     public Iterator<Map.Entry<String, JsonNode>> entries() { return rootNode.fields(); }
+
+    /**
+     * Übernimmt alle Keys aus defaults, die hier noch fehlen (vorhandene Werte bleiben unverändert).
+     * @return true, wenn mindestens ein Key ergänzt wurde
+     */
+    public boolean mergeMissing(JsonFileBuilder defaults) {
+        boolean changed = false;
+        Iterator<Map.Entry<String, JsonNode>> it = defaults.entries();
+        while (it.hasNext()) {
+            Map.Entry<String, JsonNode> e = it.next();
+            if (!rootNode.has(e.getKey())) {
+                rootNode.set(e.getKey(), e.getValue().deepCopy());
+                changed = true;
+            }
+        }
+        return changed;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,339 @@
+package dev.fluffix.sentinel.configuration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Allgemeine Plugin-Einstellungen aus 'sentinel.json'.
+ * Fehlende Keys werden beim Laden mit Defaults ergänzt und zurückgeschrieben.
+ */
+public class SentinelConfig {
+
+    private final JsonFileBuilder json;
+    private final Set<String> muteBlockedCommands;
+    private final Map<String, Integer> escalationReasonPoints;
+    private final NavigableMap<Integer, String> escalationThresholds;
+
+    private SentinelConfig(JsonFileBuilder json) {
+        this.json = json;
+        this.muteBlockedCommands = parseCommands(json.getString("muteBlockedCommands"));
+        this.escalationReasonPoints = Collections.unmodifiableMap(parsePairs(json.getString("escalationReasonPoints"), false));
+        NavigableMap<Integer, String> thresholds = new TreeMap<>();
+        parsePairs(json.getString("escalationThresholds"), true).forEach((k, v) -> {
+            try {
+                thresholds.put(Integer.parseInt(k), String.valueOf(v));
+            } catch (NumberFormatException ignored) {
+                // ungültige Schwelle überspringen
+            }
+        });
+        this.escalationThresholds = Collections.unmodifiableNavigableMap(thresholds);
+    }
+
+    public static SentinelConfig load(File file) throws IOException {
+        JsonFileBuilder defaults = new JsonFileBuilder()
+                // Login-Prüfung
+                .add("loginDeadlineMillis", 750)
+                .add("loginFailureThreshold", 3)
+                .add("loginProbeSeconds", 5)
+                .add("loginFailPolicy", "FAIL_OPEN")
+                .add("loginThreads", 8)
+                // Admission: adaptives Limit gleichzeitiger Login-Abfragen zwischen MinLimit und loginThreads,
+                // wartende Logins darüber hinaus entscheiden aus dem Snapshot
+                .add("loginAdmissionMinLimit", 2)
+                .add("loginQueueCapacity", 64)
+                // Registrierung beim Join: entkoppelt vom Server-Thread, höchstens so viele parallele Schreiber
+                .add("joinRegisterThreads", 4)
+                .add("joinQueueCapacity", 5000)
+                // Nur hinter einem Velocity-Proxy mit sentinel-velocity und Modern Forwarding aktivieren:
+                // der Proxy hat den Ban bereits geprüft, der Server nutzt nur noch den lokalen Snapshot
+                .add("loginTrustProxy", false)
+                // Proxy/Daemon: Abstand des Delta-Abgleichs neuer Bans
+                .add("indexSyncSeconds", 5)
+                // Daemon: TCP-Adresse oder Unix-Socket (daemonSocket = Pfad, hat Vorrang), Worker-Threads;
+                // loginUseDaemon: Login-Prüfung der Plugins über den Daemon statt über MySQL; Befehle und
+                // Hintergrundjobs nutzen weiter MySQL, aber nur mit daemonPoolSize (mysql.json) Connections
+                .add("daemonBind", "127.0.0.1")
+                .add("daemonPort", 25590)
+                .add("daemonSocket", "")
+                .add("daemonThreads", 8)
+                // Obergrenzen: gleichzeitige Verbindungen und wartende Anfragen; darüber wird abgelehnt
+                .add("daemonMaxConnections", 64)
+                .add("daemonQueueCapacity", 1024)
+                // gemeinsames Secret für den Handshake (HMAC); Pflicht, sobald daemonBind nicht Loopback ist
+                .add("daemonSecret", "")
+                .add("loginUseDaemon", false)
+                // Metriken (Port 0 = HTTP-Endpunkt aus)
+                .add("metricsPort", 0)
+                .add("metricsBind", "127.0.0.1")
+                // Mutes: diese Befehle sind für gemutete Spieler gesperrt (kommagetrennt, ohne '/')
+                .add("muteBlockedCommands", "msg,tell,w,whisper,r,reply,me,mail,say")
+                // Reports: Warteschlange, Dedup-Fenster und Batch-Schreiben
+                .add("reportQueueCapacity", 10000)
+                .add("reportDedupSeconds", 300)
+                .add("reportFlushMillis", 2000)
+                .add("reportBatchSize", 500)
+                // Audit-Log: Warteschlange und Batch-Schreiben nach sentinel_audit
+                .add("auditQueueCapacity", 10000)
+                .add("auditFlushMillis", 1000)
+                .add("auditBatchSize", 500)
+                // Eskalation: Punkte je Grund ("name=punkte", "*" = Default), Halbwertszeit,
+                // Schwellen "punkte=BAN-Grund" (leer = keine Auto-Bans)
+                .add("escalationReasonPoints", "*=10")
+                .add("escalationHalfLifeHours", 168)
+                .add("escalationThresholds", "")
+                .add("escalationFlushMillis", 2000)
+                // Alt-Accounts: OFF | NOTIFY | DENY; IPs mit mehr Accounts (NAT, VPN) verknüpfen nicht
+                .add("altPolicy", "NOTIFY")
+                .add("altMaxAccountsPerIp", 8)
+                // Ban-Import: Einträge pro Transaktion und BAN-Grund für importierte Bans
+                .add("importBatchSize", 1000)
+                .add("importReason", "import")
+                // Ban-Wellen: zufälliger Zeitpunkt, Kick-Budget pro Tick
+                .add("banWaveMinMinutes", 30)
+                .add("banWaveMaxMinutes", 180)
+                .add("banWaveKickBudgetMillis", 2);
+
+        if (!file.exists()) {
+            defaults.build(file.getAbsolutePath());
+            return new SentinelConfig(defaults);
+        }
+
+        JsonFileBuilder current = new JsonFileBuilder();
+        current.loadFromFile(file);
+        if (current.mergeMissing(defaults)) {
+            current.build(file.getAbsolutePath());
+        }
+        return new SentinelConfig(current);
+    }
+
+    public JsonFileBuilder raw() {
+        return json;
+    }
+
+    /* ---------------- Login ---------------- */
+
+    public long loginDeadlineMillis() {
+        return Math.max(50, json.getLong("loginDeadlineMillis"));
+    }
+
+    public int loginFailureThreshold() {
+        return Math.max(1, json.getInt("loginFailureThreshold"));
+    }
+
+    public long loginProbeSeconds() {
+        return Math.max(1, json.getLong("loginProbeSeconds"));
+    }
+
+    public String loginFailPolicy() {
+        String p = json.getString("loginFailPolicy");
+        return p == null ? "FAIL_OPEN" : p.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public int loginThreads() {
+        return Math.max(1, json.getInt("loginThreads"));
+    }
+
+    public int loginAdmissionMinLimit() {
+        return Math.max(1, json.getInt("loginAdmissionMinLimit"));
+    }
+
+    public int loginQueueCapacity() {
+        return Math.max(0, json.getInt("loginQueueCapacity"));
+    }
+
+    public int joinRegisterThreads() {
+        return Math.max(1, json.getInt("joinRegisterThreads"));
+    }
+
+    public int joinQueueCapacity() {
+        return Math.max(100, json.getInt("joinQueueCapacity"));
+    }
+
+    public boolean loginTrustProxy() {
+        return json.getBoolean("loginTrustProxy");
+    }
+
+    public long indexSyncSeconds() {
+        return Math.max(1, json.getLong("indexSyncSeconds"));
+    }
+
+    /* ---------------- Daemon ---------------- */
+
+    public String daemonBind() {
+        String b = json.getString("daemonBind");
+        return (b == null || b.isBlank()) ? "127.0.0.1" : b.trim();
+    }
+
+    public int daemonPort() {
+        return json.getInt("daemonPort");
+    }
+
+    /** Pfad des Unix-Sockets; null = TCP. */
+    public String daemonSocket() {
+        String s = json.getString("daemonSocket");
+        return (s == null || s.isBlank()) ? null : s.trim();
+    }
+
+    public int daemonThreads() {
+        return Math.max(1, json.getInt("daemonThreads"));
+    }
+
+    public int daemonMaxConnections() {
+        return Math.max(1, json.getInt("daemonMaxConnections"));
+    }
+
+    public int daemonQueueCapacity() {
+        return Math.max(1, json.getInt("daemonQueueCapacity"));
+    }
+
+    /** Secret für den Daemon-Handshake; null = ohne Authentifizierung (nur Loopback/Unix-Socket). */
+    public String daemonSecret() {
+        String s = json.getString("daemonSecret");
+        return (s == null || s.isBlank()) ? null : s;
+    }
+
+    public boolean loginUseDaemon() {
+        return json.getBoolean("loginUseDaemon");
+    }
+
+    /* ---------------- Metriken ---------------- */
+
+    public int metricsPort() {
+        return Math.max(0, json.getInt("metricsPort"));
+    }
+
+    public String metricsBind() {
+        String b = json.getString("metricsBind");
+        return (b == null || b.isBlank()) ? "127.0.0.1" : b.trim();
+    }
+
+    /* ---------------- Mutes ---------------- */
+
+    /** Gesperrte Befehls-Labels in Kleinbuchstaben (vorberechnet, da pro Befehl abgefragt). */
+    public Set<String> muteBlockedCommands() {
+        return muteBlockedCommands;
+    }
+
+    /* ---------------- Reports ---------------- */
+
+    public int reportQueueCapacity() {
+        return Math.max(100, json.getInt("reportQueueCapacity"));
+    }
+
+    public long reportDedupSeconds() {
+        return Math.max(0, json.getLong("reportDedupSeconds"));
+    }
+
+    public long reportFlushMillis() {
+        return Math.max(100, json.getLong("reportFlushMillis"));
+    }
+
+    public int reportBatchSize() {
+        return Math.max(1, json.getInt("reportBatchSize"));
+    }
+
+    /* ---------------- Audit ---------------- */
+
+    public int auditQueueCapacity() {
+        return Math.max(100, json.getInt("auditQueueCapacity"));
+    }
+
+    public long auditFlushMillis() {
+        return Math.max(100, json.getLong("auditFlushMillis"));
+    }
+
+    public int auditBatchSize() {
+        return Math.max(1, json.getInt("auditBatchSize"));
+    }
+
+    /* ---------------- Eskalation ---------------- */
+
+    /** Punkte je Grund (Kleinbuchstaben); "*" ist der Default für nicht gelistete Gründe. */
+    public Map<String, Integer> escalationReasonPoints() {
+        return escalationReasonPoints;
+    }
+
+    public long escalationHalfLifeSeconds() {
+        return Math.max(1, json.getLong("escalationHalfLifeHours")) * 3600L;
+    }
+
+    /** Schwelle (Punkte) -> BAN-Grund, aufsteigend sortiert. */
+    public NavigableMap<Integer, String> escalationThresholds() {
+        return escalationThresholds;
+    }
+
+    public long escalationFlushMillis() {
+        return Math.max(100, json.getLong("escalationFlushMillis"));
+    }
+
+    /* ---------------- Alt-Accounts ---------------- */
+
+    public String altPolicy() {
+        String p = json.getString("altPolicy");
+        return p == null ? "NOTIFY" : p.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public int altMaxAccountsPerIp() {
+        return Math.max(2, json.getInt("altMaxAccountsPerIp"));
+    }
+
+    /* ---------------- Import ---------------- */
+
+    public int importBatchSize() {
+        return Math.max(1, Math.min(10_000, json.getInt("importBatchSize")));
+    }
+
+    public String importReason() {
+        String r = json.getString("importReason");
+        return (r == null || r.isBlank()) ? "import" : r.trim();
+    }
+
+    /* ---------------- Ban-Wellen ---------------- */
+
+    public long banWaveMinMinutes() {
+        return Math.max(0, json.getLong("banWaveMinMinutes"));
+    }
+
+    public long banWaveMaxMinutes() {
+        return Math.max(0, json.getLong("banWaveMaxMinutes"));
+    }
+
+    /** Main-Thread-Zeit pro Tick für Kicks (mindestens ein Kick pro Tick). */
+    public long banWaveKickBudgetMillis() {
+        return Math.max(1, json.getLong("banWaveKickBudgetMillis"));
+    }
+
+    /** "a=1,b=2" -> Map; keepValue=false parst die Werte als Zahl. */
+    @SuppressWarnings("unchecked")
+    private static <V> Map<String, V> parsePairs(String raw, boolean keepValue) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        if (raw == null || raw.isBlank()) return (Map<String, V>) out;
+        for (String part : raw.split(",")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) continue;
+            String key = part.substring(0, eq).trim().toLowerCase(Locale.ROOT);
+            String value = part.substring(eq + 1).trim();
+            if (keepValue) {
+                out.put(key, value);
+            } else {
+                try {
+                    out.put(key, Integer.parseInt(value));
+                } catch (NumberFormatException ignored) {
+                    // ungültigen Eintrag überspringen
+                }
+            }
+        }
+        return (Map<String, V>) out;
+    }
+
+    private static Set<String> parseCommands(String raw) {
+        if (raw == null || raw.isBlank()) return Set.of();
+        return Arrays.stream(raw.split(","))
+                .map(s -> s.trim().toLowerCase(Locale.ROOT))
+                .map(s -> s.startsWith("/") ? s.substring(1) : s)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
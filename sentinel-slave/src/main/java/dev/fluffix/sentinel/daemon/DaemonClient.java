@@ -0,0 +1,211 @@
+package dev.fluffix.sentinel.daemon;
+
+import dev.fluffix.sentinel.ban.snapshot.SnapshotCodec;
+import dev.fluffix.sentinel.ban.snapshot.SnapshotEntry;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Schlanker Client für den Daemon: eine Verbindung pro Plugin, beliebig viele Anfragen gleichzeitig.
+ * Nur Lesezugriffe (Ping, Ban-Lookup beim Login); Bans und Unbans schreibt das Plugin selbst über
+ * seinen MySQL-Pool, der Daemon übernimmt sie per Delta-Abgleich in seinen Index.
+ * Antworten werden über die requestId ihren Futures zugeordnet; ein Lese-Thread pro Verbindung.
+ * Bricht die Verbindung ab, schlagen offene Anfragen fehl und die nächste Anfrage verbindet neu.
+ * Jede neue Verbindung durchläuft zuerst den Handshake (siehe DaemonProtocol); Verbindungsaufbau und
+ * Handshake zusammen werden nach connectTimeoutMillis abgebrochen.
+ */
+public class DaemonClient implements AutoCloseable {
+
+    /** Fehlerantwort des Daemons. */
+    public static class DaemonException extends IOException {
+        public DaemonException(String message) {
+            super(message);
+        }
+    }
+
+    private record Pending(CompletableFuture<Object> future, Function<ByteBuffer, Object> decoder) {}
+
+    private final SocketAddress address;
+    private final String secret;  // null = Daemon ohne Authentifizierung
+    private final long connectTimeoutMillis;
+    private final AtomicInteger requestIds = new AtomicInteger();
+    private final Map<Integer, Pending> pending = new ConcurrentHashMap<>();
+
+    private volatile SocketChannel channel;
+    private volatile boolean closed;
+
+    public DaemonClient(SocketAddress address, String secret, long connectTimeoutMillis) {
+        this.address = Objects.requireNonNull(address, "address");
+        this.secret = secret;
+        this.connectTimeoutMillis = Math.max(1, connectTimeoutMillis);
+    }
+
+    /* ---------------- Operationen ---------------- */
+
+    public CompletableFuture<Void> ping() {
+        return send(DaemonProtocol.OP_PING, 0, buf -> {}, in -> null);
+    }
+
+    /** Aktiver Ban für UUID bzw. IP aus dem Index des Daemons; null, wenn keiner. */
+    public CompletableFuture<SnapshotEntry> lookup(UUID uuid, String ip) {
+        return send(DaemonProtocol.OP_LOOKUP, 16 + SnapshotCodec.sizeOf(ip), buf -> {
+            DaemonProtocol.putUuid(buf, uuid);
+            SnapshotCodec.writeString(buf, ip);
+        }, in -> in.get() == 0 ? null : SnapshotCodec.read(in));
+    }
+
+    /* ---------------- Transport ---------------- */
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> send(byte op, int payloadBytes,
+                                          Consumer<ByteBuffer> encoder,
+                                          Function<ByteBuffer, T> decoder) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        int requestId = requestIds.incrementAndGet();
+        ByteBuffer frame = DaemonProtocol.frame(requestId, op, payloadBytes);
+        encoder.accept(frame);
+        frame.flip();
+
+        pending.put(requestId, new Pending(future, (Function<ByteBuffer, Object>) decoder));
+        SocketChannel ch = null;
+        try {
+            ch = connection();
+            synchronized (ch) {
+                while (frame.hasRemaining()) ch.write(frame);
+            }
+        } catch (IOException e) {
+            pending.remove(requestId);
+            future.completeExceptionally(e);
+            if (ch != null) disconnect(ch, e);
+        }
+        return (CompletableFuture<T>) future;
+    }
+
+    private SocketChannel connection() throws IOException {
+        SocketChannel ch = channel;
+        if (ch != null && ch.isOpen()) return ch;
+        synchronized (this) {
+            if (closed) throw new IOException("Daemon-Client ist geschlossen");
+            if (channel != null && channel.isOpen()) return channel;
+            SocketChannel fresh = SocketChannel.open(DaemonProtocol.family(address));
+            // blockierendes connect()/read() kennt keinen Timeout: Kanal nach Ablauf von außen schließen
+            AtomicBoolean settled = new AtomicBoolean(); // wer zuerst kommt: fertiger Handshake oder Timeout
+            CompletableFuture.delayedExecutor(connectTimeoutMillis, TimeUnit.MILLISECONDS).execute(() -> {
+                if (!settled.compareAndSet(false, true)) return;
+                try {
+                    fresh.close();
+                } catch (IOException ignored) {
+                    // bereits zu
+                }
+            });
+            DataInputStream in;
+            try {
+                fresh.connect(address);
+                in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(fresh), 64 * 1024));
+                authenticate(fresh, in);
+                if (!settled.compareAndSet(false, true)) throw new IOException("Kanal durch Timeout geschlossen");
+            } catch (IOException e) {
+                boolean timedOut = !settled.compareAndSet(false, true);
+                fresh.close();
+                if (timedOut) {
+                    throw new IOException("Daemon antwortet nicht innerhalb von " + connectTimeoutMillis + " ms", e);
+                }
+                throw e;
+            }
+            Thread reader = new Thread(() -> readLoop(fresh, in), "Sentinel-DaemonClient");
+            reader.setDaemon(true);
+            reader.start();
+            channel = fresh;
+            return fresh;
+        }
+    }
+
+    /** Liest die Begrüßung; verlangt der Daemon ein Secret, HMAC über die Nonce schicken und Bestätigung abwarten. */
+    private void authenticate(SocketChannel ch, DataInputStream in) throws IOException {
+        ByteBuffer hello = DaemonProtocol.readFrame(in);
+        if (hello == null) throw new IOException("Daemon hat die Verbindung beendet");
+        hello.getInt();
+        hello.get();
+        if (!hello.hasRemaining()) return; // Daemon ohne Secret
+        if (secret == null) throw new IOException("Daemon verlangt Authentifizierung, daemonSecret ist nicht gesetzt");
+
+        byte[] nonce = new byte[hello.remaining()];
+        hello.get(nonce);
+        byte[] mac = DaemonProtocol.authMac(secret, nonce);
+        ByteBuffer auth = DaemonProtocol.frame(0, DaemonProtocol.OP_AUTH, mac.length).put(mac).flip();
+        while (auth.hasRemaining()) ch.write(auth);
+
+        ByteBuffer ack = DaemonProtocol.readFrame(in);
+        if (ack == null) throw new IOException("Daemon hat die Verbindung beendet");
+        ack.getInt();
+        if (ack.get() != DaemonProtocol.STATUS_OK) {
+            throw new DaemonException(SnapshotCodec.readString(ack));
+        }
+    }
+
+    private void readLoop(SocketChannel ch, DataInputStream in) {
+        IOException failure = null;
+        try {
+            ByteBuffer frame;
+            while ((frame = DaemonProtocol.readFrame(in)) != null) {
+                Pending p = pending.remove(frame.getInt());
+                if (p == null) continue; // Anfrage bereits abgebrochen
+                byte status = frame.get();
+                try {
+                    if (status == DaemonProtocol.STATUS_OK) {
+                        p.future().complete(p.decoder().apply(frame));
+                    } else {
+                        p.future().completeExceptionally(new DaemonException(SnapshotCodec.readString(frame)));
+                    }
+                } catch (RuntimeException e) {
+                    p.future().completeExceptionally(new IOException("Ungültige Antwort des Daemons", e));
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+        disconnect(ch, failure);
+    }
+
+    /** Schließt ch und lässt alle offenen Anfragen fehlschlagen, sofern ch noch die aktuelle Verbindung ist. */
+    private synchronized void disconnect(SocketChannel ch, IOException cause) {
+        try {
+            ch.close();
+        } catch (IOException ignored) {
+            // bereits zu
+        }
+        if (channel != ch) return;
+        channel = null;
+        IOException error = cause != null ? cause : new IOException("Verbindung zum Daemon beendet");
+        for (Integer id : pending.keySet()) {
+            Pending p = pending.remove(id);
+            if (p != null) p.future().completeExceptionally(error);
+        }
+    }
+
+    @Override
+    public void close() {
+        SocketChannel ch;
+        synchronized (this) {
+            closed = true;
+            ch = channel;
+        }
+        if (ch != null) disconnect(ch, null);
+    }
+}
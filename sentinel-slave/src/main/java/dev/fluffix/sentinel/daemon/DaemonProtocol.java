@@ -0,0 +1,138 @@
+package dev.fluffix.sentinel.daemon;
+
+import dev.fluffix.sentinel.configuration.SentinelConfig;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.util.UUID;
+
+/**
+ * Binärprotokoll zwischen Daemon und Plugins.
+ *
+ * Frame (beide Richtungen):
+ *   length int (Bytes ab requestId) | requestId int | code byte | payload
+ * code ist in Anfragen die Operation, in Antworten der Status.
+ *
+ * Anfragen dürfen gepipelined werden: der Client schickt weiter, ohne auf Antworten zu warten;
+ * Antworten tragen die requestId der Anfrage und können in anderer Reihenfolge kommen.
+ * Strings und Ban-Einträge wie im Snapshot-Format (SnapshotCodec).
+ *
+ * Handshake: nach dem Verbinden schickt der Daemon eine Begrüßung (requestId 0, STATUS_OK) mit
+ * einer zufälligen Nonce; leer, wenn kein daemonSecret gesetzt ist. Sonst muss die erste Anfrage
+ * OP_AUTH mit HMAC-SHA256(secret, nonce) sein, alles andere beendet die Verbindung. Das Secret
+ * verlässt den Rechner nie, die Verbindung selbst ist aber unverschlüsselt.
+ */
+public final class DaemonProtocol {
+
+    public static final int MAX_FRAME_BYTES = 1 << 20;
+    public static final int NONCE_BYTES = 32;
+
+    /* ---------------- Operationen ---------------- */
+
+    /** - → - */
+    public static final byte OP_PING = 1;
+    /** uuid, ip str → found byte [, entry] */
+    public static final byte OP_LOOKUP = 2;
+    // 3–5 waren Ban/Unban/UnbanAll: Schreibzugriffe laufen nicht über den Daemon, Codes nicht neu vergeben
+    /** mac (HMAC-SHA256 über die Nonce der Begrüßung) → - */
+    public static final byte OP_AUTH = 6;
+
+    /* ---------------- Status ---------------- */
+
+    public static final byte STATUS_OK = 0;
+    /** message str */
+    public static final byte STATUS_ERROR = 1;
+    // 2 war Conflict (nur von Ban/Unban genutzt), nicht neu vergeben
+
+    private DaemonProtocol() {
+    }
+
+    /** Name für Metriken und Logs. */
+    public static String opName(byte op) {
+        return switch (op) {
+            case OP_PING -> "ping";
+            case OP_LOOKUP -> "lookup";
+            case OP_AUTH -> "auth";
+            default -> "unknown";
+        };
+    }
+
+    public static String statusName(byte status) {
+        return switch (status) {
+            case STATUS_OK -> "ok";
+            default -> "error";
+        };
+    }
+
+    /** Unix-Socket, wenn daemonSocket gesetzt ist, sonst TCP. */
+    public static SocketAddress address(SentinelConfig config) {
+        String socket = config.daemonSocket();
+        if (socket != null) return UnixDomainSocketAddress.of(Path.of(socket));
+        return new InetSocketAddress(config.daemonBind(), config.daemonPort());
+    }
+
+    public static StandardProtocolFamily family(SocketAddress address) {
+        return address instanceof UnixDomainSocketAddress ? StandardProtocolFamily.UNIX : StandardProtocolFamily.INET;
+    }
+
+    /** Liest einen Frame ab requestId; null bei sauberem Verbindungsende. */
+    static ByteBuffer readFrame(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException eof) {
+            return null;
+        }
+        if (length < 5 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Ungültige Frame-Länge: " + length);
+        }
+        byte[] body = new byte[length];
+        in.readFully(body);
+        return ByteBuffer.wrap(body);
+    }
+
+    /** Frame mit Platz für payloadBytes; Position steht hinter dem Code. */
+    static ByteBuffer frame(int requestId, byte code, int payloadBytes) {
+        ByteBuffer buf = ByteBuffer.allocate(4 + 4 + 1 + payloadBytes);
+        buf.putInt(4 + 1 + payloadBytes);
+        buf.putInt(requestId);
+        buf.put(code);
+        return buf;
+    }
+
+    /** Status einer fertig gebauten Antwort (Byte hinter length und requestId). */
+    static byte status(ByteBuffer frame) {
+        return frame.get(8);
+    }
+
+    /** Antwort des Clients auf die Nonce der Begrüßung. */
+    static byte[] authMac(String secret, byte[] nonce) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal(nonce);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 nicht verfügbar", e);
+        }
+    }
+
+    static void putUuid(ByteBuffer buf, UUID uuid) {
+        buf.putLong(uuid.getMostSignificantBits());
+        buf.putLong(uuid.getLeastSignificantBits());
+    }
+
+    static UUID getUuid(ByteBuffer buf) {
+        return new UUID(buf.getLong(), buf.getLong());
+    }
+}
@@ -0,0 +1,284 @@
+package dev.fluffix.sentinel.daemon;
+
+import dev.fluffix.sentinel.ban.snapshot.SnapshotCodec;
+import dev.fluffix.sentinel.ban.snapshot.SnapshotEntry;
+import dev.fluffix.sentinel.configuration.SentinelConfig;
+import dev.fluffix.sentinel.login.IndexedBanGate;
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Socket-Server des Daemons (TCP oder Unix-Socket). Bedient nur Lesezugriffe (Ping, Ban-Lookup
+ * aus dem Index); Bans und Unbans schreiben die Plugins weiterhin selbst in die DB.
+ * - Ein Lese-Thread je Verbindung zerlegt Frames und reicht sie an den Worker-Pool weiter,
+ *   liest also schon die nächste Anfrage, während die vorige noch läuft (Pipelining).
+ * - Verbindungen sind auf daemonMaxConnections begrenzt (Lese-Threads aus einem gedeckelten Pool),
+ *   wartende Anfragen auf daemonQueueCapacity; was darüber hinausgeht, wird sofort abgelehnt –
+ *   überzählige Verbindungen werden geschlossen, überzählige Anfragen bekommen eine Fehlerantwort.
+ * - Antworten werden je Verbindung serialisiert geschrieben, in Fertigstellungsreihenfolge.
+ * - Mit daemonSecret wird erst nach erfolgreichem Handshake (siehe DaemonProtocol) eine Operation
+ *   ausgeführt; ohne Secret bindet der Server nur an Loopback oder einen Unix-Socket.
+ */
+public class DaemonServer implements AutoCloseable {
+
+    private static final long HANDSHAKE_TIMEOUT_SECONDS = 5;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final IndexedBanGate gate;
+    private final ServerSocketChannel server;
+    private final SocketAddress address;
+    private final String secret;  // null = ohne Authentifizierung
+    private final ExecutorService readers;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService handshakeTimeouts;
+    private final Thread acceptor;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+
+    private final SentinelMetrics metrics;
+    private final LongAdder rejectedConnections;
+
+    public DaemonServer(IndexedBanGate gate, SentinelConfig config, SentinelMetrics metrics) throws IOException {
+        this.gate = Objects.requireNonNull(gate, "gate");
+        this.address = DaemonProtocol.address(config);
+        this.secret = config.daemonSecret();
+        this.metrics = metrics;
+        if (secret == null && address instanceof InetSocketAddress inet && !isLoopback(inet.getAddress())) {
+            // ohne Authentifizierung darf der Daemon nicht aus dem Netz erreichbar sein
+            throw new IllegalStateException("daemonBind " + inet.getHostString()
+                    + " ist nicht lokal: daemonSecret setzen oder an 127.0.0.1 bzw. einen Unix-Socket binden");
+        }
+        metrics.describe("sentinel_daemon_requests_total", "Anfragen an den Daemon nach Operation und Status");
+        metrics.describe("sentinel_daemon_rejected_connections_total", "Wegen daemonMaxConnections geschlossene Verbindungen");
+        metrics.gauge("sentinel_daemon_connections", connections::size);
+        this.rejectedConnections = metrics.counter("sentinel_daemon_rejected_connections_total");
+
+        if (address instanceof UnixDomainSocketAddress unix) {
+            // verwaister Socket nach einem Absturz
+            Files.deleteIfExists(unix.getPath());
+        }
+        this.server = ServerSocketChannel.open(DaemonProtocol.family(address));
+        this.server.bind(address);
+
+        AtomicInteger connectionIds = new AtomicInteger();
+        this.readers = new ThreadPoolExecutor(0, config.daemonMaxConnections(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), r -> {
+            Thread t = new Thread(r, "Sentinel-Daemon-Conn-" + connectionIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger workerIds = new AtomicInteger();
+        int threads = config.daemonThreads();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.daemonQueueCapacity()), r -> {
+            Thread t = new Thread(r, "Sentinel-Daemon-Worker-" + workerIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.handshakeTimeouts = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Sentinel-Daemon-Handshake");
+            t.setDaemon(true);
+            return t;
+        });
+        this.acceptor = new Thread(this::acceptLoop, "Sentinel-Daemon-Accept");
+        this.acceptor.start();
+    }
+
+    public SocketAddress getAddress() {
+        return address;
+    }
+
+    private static boolean isLoopback(InetAddress address) {
+        return address != null && address.isLoopbackAddress();
+    }
+
+    /* ---------------- Verbindungen ---------------- */
+
+    private void acceptLoop() {
+        while (server.isOpen()) {
+            try {
+                SocketChannel ch = server.accept();
+                connections.add(ch);
+                try {
+                    readers.execute(() -> serve(ch));
+                } catch (RejectedExecutionException full) {
+                    connections.remove(ch);
+                    closeQuietly(ch);
+                    if (!readers.isShutdown()) rejectedConnections.increment();
+                }
+            } catch (IOException e) {
+                if (!server.isOpen()) return;
+            }
+        }
+    }
+
+    private void serve(SocketChannel ch) {
+        try (ch) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(ch), 64 * 1024));
+            if (!handshake(ch, in)) return;
+            ByteBuffer req;
+            while ((req = DaemonProtocol.readFrame(in)) != null) {
+                ByteBuffer request = req;
+                int requestId = request.getInt();
+                byte op = request.get();
+                try {
+                    workers.execute(() -> reply(ch, handle(requestId, op, request)));
+                } catch (RejectedExecutionException full) {
+                    if (workers.isShutdown()) return;
+                    // Warteschlange voll: sofort ablehnen statt unbegrenzt zu puffern
+                    ByteBuffer out = error(requestId, DaemonProtocol.STATUS_ERROR, "Daemon überlastet");
+                    metrics.counter("sentinel_daemon_requests_total", "op", DaemonProtocol.opName(op),
+                            "status", "rejected").increment();
+                    reply(ch, out);
+                }
+            }
+        } catch (IOException ignored) {
+            // Verbindung abgerissen oder ungültiger Frame – Client verbindet neu
+        } finally {
+            connections.remove(ch);
+        }
+    }
+
+    /**
+     * Schickt die Begrüßung und prüft bei gesetztem Secret die Antwort auf die Nonce.
+     * Wer nicht innerhalb von HANDSHAKE_TIMEOUT_SECONDS antwortet, wird getrennt.
+     * @return false = Verbindung beenden
+     */
+    private boolean handshake(SocketChannel ch, DataInputStream in) throws IOException {
+        if (secret == null) {
+            reply(ch, DaemonProtocol.frame(0, DaemonProtocol.STATUS_OK, 0));
+            return true;
+        }
+        byte[] nonce = new byte[DaemonProtocol.NONCE_BYTES];
+        RANDOM.nextBytes(nonce);
+        reply(ch, DaemonProtocol.frame(0, DaemonProtocol.STATUS_OK, nonce.length).put(nonce));
+
+        ScheduledFuture<?> timeout = handshakeTimeouts.schedule(() -> closeQuietly(ch),
+                HANDSHAKE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        try {
+            ByteBuffer req = DaemonProtocol.readFrame(in);
+            if (req == null) return false;
+            int requestId = req.getInt();
+            byte op = req.get();
+            byte[] mac = new byte[req.remaining()];
+            req.get(mac);
+            // konstante Laufzeit, damit die Antwortzeit nichts über das erwartete HMAC verrät
+            boolean ok = op == DaemonProtocol.OP_AUTH
+                    && MessageDigest.isEqual(mac, DaemonProtocol.authMac(secret, nonce));
+            ByteBuffer out = ok
+                    ? DaemonProtocol.frame(requestId, DaemonProtocol.STATUS_OK, 0)
+                    : error(requestId, DaemonProtocol.STATUS_ERROR, "Authentifizierung fehlgeschlagen");
+            metrics.counter("sentinel_daemon_requests_total", "op", DaemonProtocol.opName(DaemonProtocol.OP_AUTH),
+                    "status", DaemonProtocol.statusName(DaemonProtocol.status(out))).increment();
+            reply(ch, out);
+            return ok;
+        } finally {
+            timeout.cancel(false);
+        }
+    }
+
+    private static void closeQuietly(SocketChannel ch) {
+        try {
+            ch.close();
+        } catch (IOException ignored) {
+            // bereits zu
+        }
+    }
+
+    private void reply(SocketChannel ch, ByteBuffer response) {
+        response.flip();
+        synchronized (ch) {
+            try {
+                while (response.hasRemaining()) ch.write(response);
+            } catch (IOException e) {
+                closeQuietly(ch);
+            }
+        }
+    }
+
+    /* ---------------- Operationen ---------------- */
+
+    private ByteBuffer handle(int requestId, byte op, ByteBuffer in) {
+        ByteBuffer out;
+        try {
+            out = switch (op) {
+                case DaemonProtocol.OP_PING -> DaemonProtocol.frame(requestId, DaemonProtocol.STATUS_OK, 0);
+                case DaemonProtocol.OP_LOOKUP -> lookup(requestId, in);
+                default -> error(requestId, DaemonProtocol.STATUS_ERROR, "Unbekannte Operation " + op);
+            };
+        } catch (Exception e) {
+            out = error(requestId, DaemonProtocol.STATUS_ERROR,
+                    e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        }
+        metrics.counter("sentinel_daemon_requests_total", "op", DaemonProtocol.opName(op),
+                "status", DaemonProtocol.statusName(DaemonProtocol.status(out))).increment();
+        return out;
+    }
+
+    private ByteBuffer lookup(int requestId, ByteBuffer in) {
+        UUID uuid = DaemonProtocol.getUuid(in);
+        String ip = SnapshotCodec.readString(in);
+        SnapshotEntry hit = gate.check(uuid, ip);
+        if (hit == null) {
+            return DaemonProtocol.frame(requestId, DaemonProtocol.STATUS_OK, 1).put((byte) 0);
+        }
+        ByteBuffer out = DaemonProtocol.frame(requestId, DaemonProtocol.STATUS_OK, 1 + SnapshotCodec.sizeOf(hit));
+        out.put((byte) 1);
+        SnapshotCodec.write(out, hit);
+        return out;
+    }
+
+    private static ByteBuffer error(int requestId, byte status, String message) {
+        return DaemonProtocol.frame(requestId, status, SnapshotCodec.sizeOf(message)).put(encode(message));
+    }
+
+    private static ByteBuffer encode(String s) {
+        ByteBuffer buf = ByteBuffer.allocate(SnapshotCodec.sizeOf(s));
+        SnapshotCodec.writeString(buf, s);
+        return buf.flip();
+    }
+
+    @Override
+    public void close() {
+        try {
+            server.close();
+        } catch (IOException ignored) {
+            // Accept-Thread endet ohnehin
+        }
+        for (SocketChannel ch : connections) closeQuietly(ch);
+        handshakeTimeouts.shutdownNow();
+        readers.shutdownNow();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (address instanceof UnixDomainSocketAddress unix) {
+            try {
+                Files.deleteIfExists(unix.getPath());
+            } catch (IOException ignored) {
+                // wird beim nächsten Start entfernt
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package dev.fluffix.sentinel.daemon;
+
+import dev.fluffix.sentinel.audit.AuditTrail;
+import dev.fluffix.sentinel.ban.BanManager;
+import dev.fluffix.sentinel.ban.snapshot.BanSnapshot;
+import dev.fluffix.sentinel.configuration.SentinelConfig;
+import dev.fluffix.sentinel.database.mysql.MySqlManager;
+import dev.fluffix.sentinel.logger.AsyncLogger;
+import dev.fluffix.sentinel.login.IndexedBanGate;
+import dev.fluffix.sentinel.metrics.MetricsHttpServer;
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+import dev.fluffix.sentinel.player.SentinelPlayerManager;
+import dev.fluffix.sentinel.reasons.ReasonManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eigenständiger Ban-Dienst für Login-Prüfungen: hält den Ban-Index im Speicher und beantwortet
+ * Lookups der Plugins über das Binärprotokoll (siehe DaemonProtocol). Bans und Unbans schreiben
+ * die Plugins weiterhin über ihren eigenen MySQL-Pool; der Daemon gleicht sie per Delta-Sync ab.
+ * Der Daemon ersetzt die Plugin-Pools also nicht, er verkleinert sie: mit loginUseDaemon öffnet
+ * ein Plugin nur daemonPoolSize Connections ohne Login-Reserve (siehe MySqlManager.fromConfig).
+ *
+ * Start: java -jar sentinel-slave-all.jar [Datenordner]
+ * Liest mysql.json und sentinel.json aus dem Datenordner (Standard: Arbeitsverzeichnis).
+ */
+public final class SentinelDaemon {
+
+    private SentinelDaemon() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        File dataFolder = new File(args.length > 0 ? args[0] : ".").getAbsoluteFile();
+        if (!dataFolder.exists() && !dataFolder.mkdirs()) {
+            throw new IOException("Datenordner kann nicht angelegt werden: " + dataFolder);
+        }
+
+        SentinelMetrics metrics = new SentinelMetrics();
+        SentinelConfig config = SentinelConfig.load(new File(dataFolder, "sentinel.json"));
+        MySqlManager db = MySqlManager.fromConfig(new File(dataFolder, "mysql.json"), metrics);
+
+        SentinelPlayerManager players = new SentinelPlayerManager(db);
+        BanManager bans = new BanManager(db, players, new ReasonManager(db));
+        AuditTrail audit = new AuditTrail(db, config);
+        bans.addListener(audit);
+
+        BanSnapshot index = new BanSnapshot(dataFolder);
+        index.bindMetrics(metrics);
+        index.setPlayerManager(players);
+        try {
+            index.load();
+        } catch (IOException e) {
+            log("Ban-Index konnte nicht gelesen werden: " + e.getMessage());
+        }
+        // eigene Änderungen (Ablauf fälliger Bans) landen sofort im Index
+        bans.addListener(index);
+
+        IndexedBanGate gate = new IndexedBanGate(bans, index, metrics);
+        log("Ban-Index abgeglichen: " + gate.syncFull() + " aktive Ban(s)");
+
+        ScheduledExecutorService sync = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Sentinel-Daemon-Sync");
+            t.setDaemon(true);
+            return t;
+        });
+        long delta = config.indexSyncSeconds();
+        // Bans, die die Plugins in die DB schreiben
+        sync.scheduleWithFixedDelay(() -> {
+            try {
+                gate.syncDelta();
+            } catch (SQLException e) {
+                log("Neue Bans konnten nicht abgeglichen werden: " + e.getMessage());
+            }
+        }, delta, delta, TimeUnit.SECONDS);
+        sync.scheduleWithFixedDelay(() -> {
+            try {
+                gate.syncFull();
+                bans.expireDueBans();
+            } catch (SQLException | IOException e) {
+                log("Ban-Index konnte nicht abgeglichen werden: " + e.getMessage());
+            }
+        }, 5, 5, TimeUnit.MINUTES);
+
+        DaemonServer server = new DaemonServer(gate, config, metrics);
+        MetricsHttpServer metricsServer = config.metricsPort() > 0
+                ? new MetricsHttpServer(metrics, config.metricsBind(), config.metricsPort())
+                : null;
+        log("Daemon lauscht auf " + server.getAddress());
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            sync.shutdownNow();
+            server.close();
+            if (metricsServer != null) metricsServer.close();
+            audit.close();
+            db.close();
+            try {
+                index.close();
+            } catch (IOException e) {
+                log("Ban-Index konnte nicht geschlossen werden: " + e.getMessage());
+            }
+            log("Daemon beendet");
+            AsyncLogger.global().shutdown(2000);
+            stopped.countDown();
+        }, "Sentinel-Daemon-Shutdown"));
+        stopped.await();
+    }
+
+    private static void log(String message) {
+        AsyncLogger.global().info("SENTINEL", message, null);
+    }
+}
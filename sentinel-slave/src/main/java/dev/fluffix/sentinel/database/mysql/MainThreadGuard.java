@@ -0,0 +1,135 @@
+package dev.fluffix.sentinel.database.mysql;
+
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Erkennt DB-Zugriffe auf dem Server-Thread (Connection holen bzw. Statement ausführen).
+ * - LOG: Aufrufstelle + Dauer melden, je Aufrufstelle gedrosselt (1., 2., 4., 8., ... Treffer).
+ * - SAMPLE: wie LOG, zusätzlich ein Stacktrace bei jedem n-ten Treffer einer Aufrufstelle.
+ * - THROW: Zugriff vor dem Holen der Connection mit SQLException abweisen (Entwicklung).
+ * Inaktiv, solange kein Prädikat gesetzt ist (Daemon, Velocity, Plugin-Start).
+ */
+public class MainThreadGuard {
+
+    public enum Mode {
+        OFF, LOG, SAMPLE, THROW;
+
+        public static Mode parse(String raw) {
+            if (raw == null || raw.isBlank()) return LOG;
+            try {
+                return valueOf(raw.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return LOG;
+            }
+        }
+    }
+
+    static final String METRIC_CALLS = "sentinel_db_main_thread_calls_total";
+    static final String METRIC_SECONDS = "sentinel_db_main_thread_seconds";
+
+    private static final String OWN_PACKAGE = MainThreadGuard.class.getPackageName() + ".";
+    private static final int STACK_DEPTH = 24;
+
+    private final Mode mode;
+    private final int sampleEvery;
+    private final SentinelMetrics metrics;
+    private final Map<String, AtomicLong> hits = new ConcurrentHashMap<>();
+
+    private volatile BooleanSupplier primaryThread;
+    private volatile Consumer<String> reporter = line -> {};
+
+    MainThreadGuard(Mode mode, int sampleEvery, SentinelMetrics metrics) {
+        this.mode = mode;
+        this.sampleEvery = Math.max(1, sampleEvery);
+        this.metrics = metrics;
+        metrics.describe(METRIC_CALLS, "DB-Aufrufe auf dem Server-Thread je Tag")
+                .describe(METRIC_SECONDS, "Dauer von DB-Aufrufen auf dem Server-Thread inkl. Pool-Wartezeit");
+    }
+
+    /** Prädikat für den Server-Thread, z. B. Bukkit::isPrimaryThread; null schaltet den Guard ab. */
+    public void setPrimaryThread(BooleanSupplier primaryThread) {
+        this.primaryThread = primaryThread;
+    }
+
+    /** Ziel der Meldungen (Standard: Slow-Query-Log, sofern aktiv). */
+    public void setReporter(Consumer<String> reporter) {
+        this.reporter = reporter == null ? line -> {} : reporter;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /* ---------------- Hooks aus dem MySqlManager ---------------- */
+
+    /**
+     * Vor dem Holen einer Connection. true = Aufruf läuft auf dem Server-Thread.
+     * Im Modus THROW wird der Zugriff hier abgewiesen.
+     */
+    boolean onAcquire(QueryTag tag) throws SQLException {
+        BooleanSupplier p = primaryThread;
+        if (mode == Mode.OFF || p == null || !p.getAsBoolean()) return false;
+        metrics.counter(METRIC_CALLS, "tag", tag.name()).increment();
+        if (mode == Mode.THROW) {
+            String msg = "DB-Zugriff auf dem Server-Thread abgewiesen: tag=" + tag + " an " + callSite();
+            reporter.accept(msg);
+            throw new SQLException(msg);
+        }
+        return true;
+    }
+
+    /** Nach dem Aufruf (Scope-Ende) mit der Gesamtdauer inkl. Pool-Wartezeit. */
+    void onComplete(QueryTag tag, long elapsedNanos) {
+        metrics.histogram(METRIC_SECONDS, "tag", tag.name()).record(elapsedNanos);
+
+        String site = callSite();
+        long n = hits.computeIfAbsent(site, k -> new AtomicLong()).incrementAndGet();
+        boolean sample = mode == Mode.SAMPLE && (n - 1) % sampleEvery == 0;
+        if (!sample && Long.bitCount(n) != 1) return;
+
+        String line = "DB-Zugriff auf dem Server-Thread: tag=" + tag + " an " + site
+                + String.format(Locale.ROOT, " (%.2f ms, %d. Mal)", elapsedNanos / 1_000_000.0, n);
+        reporter.accept(sample ? line + stackTrace() : line);
+    }
+
+    /* ---------------- Aufrufstelle ---------------- */
+
+    /** Erste zwei Klassen außerhalb des DB-Pakets, z. B. "BanManager.listFor:812 <- BanCommand.handleList:181". */
+    private static String callSite() {
+        return StackWalker.getInstance().walk(frames -> {
+            StringJoiner sj = new StringJoiner(" <- ");
+            String[] lastClass = {null};
+            frames.filter(f -> !f.getClassName().startsWith(OWN_PACKAGE))
+                    .filter(f -> {
+                        if (f.getClassName().equals(lastClass[0])) return false;
+                        lastClass[0] = f.getClassName();
+                        return true;
+                    })
+                    .limit(2)
+                    .forEach(f -> sj.add(simpleName(f.getClassName()) + "." + f.getMethodName() + ":" + f.getLineNumber()));
+            return sj.length() == 0 ? "?" : sj.toString();
+        });
+    }
+
+    private static String stackTrace() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> !f.getClassName().startsWith(OWN_PACKAGE))
+                .limit(STACK_DEPTH)
+                .map(f -> "\n    at " + f.toStackTraceElement())
+                .collect(Collectors.joining()));
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
@@ -1,37 +1,145 @@
 package dev.fluffix.sentinel.database.mysql;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 
 import java.io.File;
 import java.io.IOException;
 import java.sql.*;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 import dev.fluffix.sentinel.configuration.JsonFileBuilder;
+import dev.fluffix.sentinel.metrics.LatencyHistogram;
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
 
 public class MySqlManager implements AutoCloseable {
 
+    static final String METRIC_STATEMENT = "sentinel_db_statement_seconds";
+    static final String METRIC_CALL = "sentinel_db_call_seconds";
+    static final String METRIC_CONNECTION_WAIT = "sentinel_db_connection_wait_seconds";
+    static final String METRIC_TRANSACTION = "sentinel_db_transaction_seconds";
+    static final String METRIC_ERRORS = "sentinel_db_errors_total";
+    static final String METRIC_REPLICA_READS = "sentinel_db_replica_reads_total";
+    static final String METRIC_REPLICA_FALLBACKS = "sentinel_db_replica_fallbacks_total";
+
+    private static final String PRIMARY = "primary";
+    private static final QueryTag TAG_PROBE = QueryTag.of("db.probe", QueryTag.Workload.LOGIN);
+    /** So lange wird ein Replica nach einem Verbindungsfehler übersprungen. */
+    private static final long REPLICA_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    /** Aufrufkontext pro Thread: Tag, letzte Pool-Wartezeit und Zähler der laufenden Transaktion. */
+    private static final class CallContext {
+        QueryTag tag;
+        long poolWaitNanos;
+        String pool = PRIMARY;
+        int statements;
+        long rows;
+        boolean mainThread;
+    }
+
+    private static final ThreadLocal<CallContext> CONTEXT = ThreadLocal.withInitial(CallContext::new);
+
+    /** Read-Replica mit eigenem Pool; nach Fehlern für eine Weile gesperrt. */
+    private static final class Replica {
+        final String name;
+        final HikariDataSource dataSource;
+        volatile long downUntilNanos;
+
+        Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        boolean isUp(long now) {
+            return downUntilNanos == 0 || now - downUntilNanos >= 0;
+        }
+    }
+
     private final HikariDataSource dataSource;
+    private final List<Replica> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final SentinelMetrics metrics;
+    private final LatencyHistogram connectionWait;
+    private final LatencyHistogram transactions;
+    private final SlowQueryLog slowLog;      // null = deaktiviert
+    private final SchemaVersions schema = new SchemaVersions(this);
+    private final long slowThresholdNanos;
+    private final MainThreadGuard mainThreadGuard;
+    private final WorkloadPermits permits;
 
-    private MySqlManager(HikariDataSource ds) {
+    private MySqlManager(HikariDataSource ds, List<Replica> replicas, SentinelMetrics metrics,
+                         SlowQueryLog slowLog, long slowThresholdMillis,
+                         MainThreadGuard.Mode guardMode, int guardSampleEvery,
+                         int loginReserve, int maintenanceConnections) {
         this.dataSource = ds;
+        this.replicas = List.copyOf(replicas);
+        this.metrics = metrics;
+        this.connectionWait = metrics.histogram(METRIC_CONNECTION_WAIT);
+        this.transactions = metrics.histogram(METRIC_TRANSACTION);
+        this.slowLog = slowLog;
+        this.slowThresholdNanos = Math.max(0, slowThresholdMillis) * 1_000_000L;
+        this.mainThreadGuard = new MainThreadGuard(guardMode, guardSampleEvery, metrics);
+        if (slowLog != null) mainThreadGuard.setReporter(slowLog::offer);
+        this.permits = new WorkloadPermits(ds.getMaximumPoolSize(), loginReserve, maintenanceConnections,
+                ds.getConnectionTimeout(), metrics);
+        registerMetrics();
     }
 
     public static MySqlManager fromConfig(File file) throws IOException {
+        return fromConfig(file, new SentinelMetrics());
+    }
+
+    public static MySqlManager fromConfig(File file, SentinelMetrics metrics) throws IOException {
+        return fromConfig(file, metrics, false);
+    }
+
+    /**
+     * @param loginViaDaemon true, wenn die Login-Prüfung über den Daemon läuft (loginUseDaemon): der Pool
+     *                       bedient dann nur Befehle und Hintergrundjobs, hat daemonPoolSize Connections
+     *                       und keine Login-Reserve
+     */
+    public static MySqlManager fromConfig(File file, SentinelMetrics metrics, boolean loginViaDaemon) throws IOException {
+        JsonFileBuilder defaults = new JsonFileBuilder()
+                .add("host", "localhost")
+                .add("port", 3306)
+                .add("database", "sentinel")
+                .add("username", "root")
+                .add("password", "root")
+                .add("poolSize", 10)
+                // Aufteilung des Pools: nur für Login reserviert / höchstens gleichzeitig für Hintergrundjobs
+                .add("loginReserveConnections", 3)
+                .add("maintenanceConnections", 2)
+                // Pool-Größe, wenn Logins über den Daemon geprüft werden (loginUseDaemon in sentinel.json)
+                .add("daemonPoolSize", 3)
+                // optionale Read-Replicas: [{"host": "...", "port": 3306, "poolSize": 4}]
+                // fehlende Felder (database/username/password) werden vom Primary übernommen
+                .addArray("replicas", JsonNodeFactory.instance.arrayNode())
+                // Slow-Query-Log (plugins/<Sentinel>/logs/slow-queries.log)
+                .add("slowQueryLog", true)
+                .add("slowQueryMillis", 250)
+                .add("slowQueryLogMaxMb", 10)
+                .add("slowQueryLogFiles", 5)
+                // DB-Zugriffe auf dem Server-Thread: OFF | LOG | SAMPLE (Stacktrace jeden n-ten Treffer) | THROW
+                .add("mainThreadGuard", "LOG")
+                .add("mainThreadSampleEvery", 20);
+
         JsonFileBuilder json = new JsonFileBuilder();
         if (!file.exists()) {
-            json.add("host", "localhost")
-                    .add("port", 3306)
-                    .add("database", "sentinel")
-                    .add("username", "root")
-                    .add("password", "root")
-                    .add("poolSize", 10)
-                    .build(file.getAbsolutePath());
+            defaults.build(file.getAbsolutePath());
+            json = defaults;
         } else {
             json.loadFromFile(file);
+            if (json.mergeMissing(defaults)) {
+                json.build(file.getAbsolutePath());
+            }
         }
 
         String host = json.getString("host");
@@ -39,48 +147,300 @@ public class MySqlManager implements AutoCloseable {
         String db = json.getString("database");
         String user = json.getString("username");
         String pass = json.getString("password");
-        int poolSize = json.getInt("poolSize");
+        int poolSize = loginViaDaemon ? Math.max(2, json.getInt("daemonPoolSize")) : json.getInt("poolSize");
+        int loginReserve = loginViaDaemon ? 0 : json.getInt("loginReserveConnections");
+
+        HikariConfig cfg = poolConfig(host, port, db, user, pass, poolSize, "SentinelPool");
 
+        List<Replica> replicas = new ArrayList<>();
+        int index = 0;
+        for (JsonNode node : json.getArray("replicas")) {
+            index++;
+            if (!node.path("enabled").asBoolean(true)) continue;
+            String rHost = node.path("host").asText("");
+            if (rHost.isBlank()) continue;
+            String name = "replica-" + index;
+            HikariConfig rCfg = poolConfig(rHost,
+                    node.path("port").asInt(port),
+                    node.path("database").asText(db),
+                    node.path("username").asText(user),
+                    node.path("password").asText(pass),
+                    node.path("poolSize").asInt(Math.max(2, poolSize / 2)),
+                    "SentinelPool-" + name);
+            rCfg.setReadOnly(true);
+            // ein nicht erreichbares Replica darf den Start nicht blockieren
+            rCfg.setInitializationFailTimeout(-1);
+            replicas.add(new Replica(name, new HikariDataSource(rCfg)));
+        }
+
+        SlowQueryLog slowLog = null;
+        if (json.getBoolean("slowQueryLog")) {
+            File logDir = new File(file.getAbsoluteFile().getParentFile(), "logs");
+            slowLog = new SlowQueryLog(logDir, json.getLong("slowQueryLogMaxMb") * 1024L * 1024L, json.getInt("slowQueryLogFiles"));
+        }
+
+        return new MySqlManager(new HikariDataSource(cfg), replicas, metrics, slowLog, json.getLong("slowQueryMillis"),
+                MainThreadGuard.Mode.parse(json.getString("mainThreadGuard")), json.getInt("mainThreadSampleEvery"),
+                loginReserve, json.getInt("maintenanceConnections"));
+    }
+
+    private static HikariConfig poolConfig(String host, int port, String db, String user, String pass,
+                                           int poolSize, String poolName) {
         HikariConfig cfg = new HikariConfig();
-        cfg.setJdbcUrl("jdbc:mysql://" + host + ":" + port + "/" + db + "?useSSL=false&autoReconnect=true&serverTimezone=UTC");
+        cfg.setJdbcUrl("jdbc:mysql://" + host + ":" + port + "/" + db + "?useSSL=false&autoReconnect=true&serverTimezone=UTC&rewriteBatchedStatements=true");
         cfg.setUsername(user);
         cfg.setPassword(pass);
         cfg.setMaximumPoolSize(poolSize);
         cfg.setMinimumIdle(1);
-        cfg.setPoolName("SentinelPool");
+        cfg.setPoolName(poolName);
         cfg.setConnectionTimeout(10000);
+        return cfg;
+    }
+
+    private void registerMetrics() {
+        metrics.describe(METRIC_STATEMENT, "Ausführungszeit einzelner SQL-Statements")
+                .describe(METRIC_CALL, "Dauer eines DB-Aufrufs je Aufrufstelle inkl. Pool-Wartezeit")
+                .describe(METRIC_CONNECTION_WAIT, "Wartezeit auf eine Connection aus dem Pool")
+                .describe(METRIC_TRANSACTION, "Dauer von inTransaction-Blöcken inkl. Commit")
+                .describe(METRIC_ERRORS, "Fehlgeschlagene SQL-Statements")
+                .describe(METRIC_REPLICA_READS, "Lesezugriffe, die auf ein Replica geroutet wurden")
+                .describe(METRIC_REPLICA_FALLBACKS, "Replica-Lesezugriffe, die auf den Primary ausweichen mussten");
+        metrics.gauge("sentinel_db_pool_active", () -> pool(HikariPoolMXBean::getActiveConnections));
+        metrics.gauge("sentinel_db_pool_idle", () -> pool(HikariPoolMXBean::getIdleConnections));
+        metrics.gauge("sentinel_db_pool_total", () -> pool(HikariPoolMXBean::getTotalConnections));
+        metrics.gauge("sentinel_db_pool_waiting", () -> pool(HikariPoolMXBean::getThreadsAwaitingConnection));
+        for (Replica r : replicas) {
+            metrics.gauge("sentinel_db_replica_pool_active", () -> pool(r.dataSource, HikariPoolMXBean::getActiveConnections), "replica", r.name);
+            metrics.gauge("sentinel_db_replica_pool_waiting", () -> pool(r.dataSource, HikariPoolMXBean::getThreadsAwaitingConnection), "replica", r.name);
+            metrics.gauge("sentinel_db_replica_up", () -> r.isUp(System.nanoTime()) ? 1 : 0, "replica", r.name);
+        }
+        if (slowLog != null) {
+            metrics.gauge("sentinel_db_slow_log_dropped", slowLog::getDropped);
+        }
+    }
+
+    private Integer pool(ToIntFunction<HikariPoolMXBean> fn) {
+        return pool(dataSource, fn);
+    }
+
+    private static Integer pool(HikariDataSource ds, ToIntFunction<HikariPoolMXBean> fn) {
+        HikariPoolMXBean bean = ds.getHikariPoolMXBean();
+        return bean == null ? null : fn.applyAsInt(bean);
+    }
+
+    /** Versionsstand der Tabellen; Manager migrieren darüber statt bei jedem Start DDL abzusetzen. */
+    public SchemaVersions schema() {
+        return schema;
+    }
+
+    /** Erkennung von DB-Zugriffen auf dem Server-Thread; Paper setzt dort das Prädikat. */
+    public MainThreadGuard getMainThreadGuard() {
+        return mainThreadGuard;
+    }
 
-        return new MySqlManager(new HikariDataSource(cfg));
+    public SentinelMetrics getMetrics() {
+        return metrics;
     }
 
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    /**
+     * Connection vom Primary – für Schreibzugriffe, Transaktionen und konsistente Reads.
+     * Wartet vorher auf ein Permit der Workload des aktuellen Tags (siehe WorkloadPermits).
+     */
     public Connection getConnection() throws SQLException {
-        return dataSource.getConnection();
+        QueryTag tag = CONTEXT.get().tag;
+        Runnable release = permits.acquire(tag == null ? QueryTag.Workload.INTERACTIVE : tag.workload());
+        if (release == null) return acquire(dataSource, PRIMARY);
+        try {
+            return WorkloadPermits.bind(acquire(dataSource, PRIMARY), release);
+        } catch (SQLException | RuntimeException e) {
+            release.run();
+            throw e;
+        }
+    }
+
+    /**
+     * Connection für einen Lesezugriff: Replica (Round-Robin), wenn der aktuelle Tag
+     * {@link QueryTag#isReplicaRead()} ist und ein Replica erreichbar ist, sonst Primary.
+     */
+    private Connection readConnection() throws SQLException {
+        QueryTag tag = CONTEXT.get().tag;
+        if (replicas.isEmpty() || tag == null || !tag.isReplicaRead()) {
+            return getConnection();
+        }
+
+        int n = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), n);
+        for (int i = 0; i < n; i++) {
+            Replica r = replicas.get((start + i) % n);
+            long now = System.nanoTime();
+            if (!r.isUp(now)) continue;
+            try {
+                Connection con = acquire(r.dataSource, r.name);
+                metrics.counter(METRIC_REPLICA_READS, "replica", r.name).increment();
+                return con;
+            } catch (SQLException ex) {
+                r.downUntilNanos = now + REPLICA_BACKOFF_NANOS;
+            }
+        }
+        metrics.counter(METRIC_REPLICA_FALLBACKS).increment();
+        return getConnection();
+    }
+
+    private Connection acquire(HikariDataSource ds, String poolName) throws SQLException {
+        CallContext ctx = CONTEXT.get();
+        boolean mainThread = mainThreadGuard.onAcquire(ctx.tag == null ? QueryTag.UNTAGGED : ctx.tag);
+        long start = System.nanoTime();
+        try {
+            return ds.getConnection();
+        } finally {
+            long waited = System.nanoTime() - start;
+            connectionWait.record(waited);
+            ctx.poolWaitNanos = waited;
+            ctx.pool = poolName;
+            if (mainThread) {
+                // ohne Scope (direktes getConnection) gibt es kein Aufrufende – Pool-Wartezeit melden
+                if (ctx.tag == null) mainThreadGuard.onComplete(QueryTag.UNTAGGED, waited);
+                else ctx.mainThread = true;
+            }
+        }
+    }
+
+    /** Leichter Verbindungstest (Connection holen + isValid), z. B. für Recovery-Probes. */
+    public boolean isReachable(int timeoutSeconds) {
+        try (Scope ignored = scope(TAG_PROBE); Connection con = getConnection()) {
+            return con.isValid(timeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /* -------------------- Aufrufstellen -------------------- */
+
+    /**
+     * Setzt den Tag für alle DB-Aufrufe dieses Threads bis zum close().
+     * Ein äußerer Scope hat Vorrang: innere Tags werden dann ignoriert.
+     */
+    public Scope scope(QueryTag tag) {
+        CallContext ctx = CONTEXT.get();
+        if (ctx.tag != null) return Scope.NESTED;
+        ctx.tag = tag == null ? QueryTag.UNTAGGED : tag;
+        ctx.poolWaitNanos = 0;
+        ctx.statements = 0;
+        ctx.rows = 0;
+        ctx.mainThread = false;
+        return new Scope(this, ctx.tag, System.nanoTime());
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private static final Scope NESTED = new Scope(null, null, 0L);
+
+        private final MySqlManager owner;
+        private final QueryTag tag;
+        private final long startNanos;
+
+        private Scope(MySqlManager owner, QueryTag tag, long startNanos) {
+            this.owner = owner;
+            this.tag = tag;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void close() {
+            if (owner == null) return;
+            long elapsed = System.nanoTime() - startNanos;
+            owner.metrics.histogram(METRIC_CALL, "tag", tag.name()).record(elapsed);
+            CallContext ctx = CONTEXT.get();
+            if (ctx.mainThread) owner.mainThreadGuard.onComplete(tag, elapsed);
+            ctx.mainThread = false;
+            ctx.tag = null;
+            ctx.pool = PRIMARY;
+            ctx.poolWaitNanos = 0;
+            ctx.statements = 0;
+            ctx.rows = 0;
+        }
     }
 
     /* -------------------- Update -------------------- */
 
     public int update(String sql, Object... params) throws SQLException {
-        try (Connection con = getConnection()) {
+        return update(QueryTag.UNTAGGED, sql, params);
+    }
+
+    public int update(QueryTag tag, String sql, Object... params) throws SQLException {
+        try (Scope ignored = scope(tag); Connection con = getConnection()) {
             return update(con, sql, params);
         }
     }
 
     public int update(Connection con, String sql, Object... params) throws SQLException {
+        long start = System.nanoTime();
+        int rows = -1;
         try (PreparedStatement ps = con.prepareStatement(sql)) {
             bindParams(ps, params);
-            return ps.executeUpdate();
+            rows = ps.executeUpdate();
+            return rows;
+        } catch (SQLException ex) {
+            metrics.counter(METRIC_ERRORS).increment();
+            throw ex;
+        } finally {
+            observe("update", sql, params, rows, System.nanoTime() - start);
         }
     }
 
+    /* -------------------- Insert -------------------- */
+
+    /** INSERT in eine Tabelle mit AUTO_INCREMENT; liefert den generierten Schlüssel im selben Round-Trip (0 = keiner). */
+    public long insert(QueryTag tag, String sql, Object... params) throws SQLException {
+        try (Scope ignored = scope(tag); Connection con = getConnection()) {
+            return insert(con, sql, params);
+        }
+    }
+
+    public long insert(Connection con, String sql, Object... params) throws SQLException {
+        long start = System.nanoTime();
+        int rows = -1;
+        try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            bindParams(ps, params);
+            rows = ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                return keys.next() ? keys.getLong(1) : 0L;
+            }
+        } catch (SQLException ex) {
+            if (!isDuplicateKey(ex)) metrics.counter(METRIC_ERRORS).increment();
+            throw ex;
+        } finally {
+            observe("insert", sql, params, rows, System.nanoTime() - start);
+        }
+    }
+
+    /** Verletzung eines UNIQUE/PRIMARY KEY (MySQL-Fehler 1062) – erwartetes Ergebnis, kein Fehler. */
+    public static boolean isDuplicateKey(SQLException ex) {
+        return ex.getErrorCode() == 1062;
+    }
+
     /* -------------------- Query --------------------- */
 
     public List<Map<String, Object>> query(String sql, Object... params) throws SQLException {
-        try (Connection con = getConnection()) {
+        return query(QueryTag.UNTAGGED, sql, params);
+    }
+
+    /**
+     * Tags mit {@link QueryTag#isReplicaRead()} laufen auf einem Replica – außer ein äußerer
+     * {@link #scope(QueryTag) Scope} ohne Replica-Freigabe ist aktiv, dann bleibt alles auf dem Primary.
+     */
+    public List<Map<String, Object>> query(QueryTag tag, String sql, Object... params) throws SQLException {
+        try (Scope ignored = scope(tag); Connection con = readConnection()) {
             return query(con, sql, params);
         }
     }
 
     public List<Map<String, Object>> query(Connection con, String sql, Object... params) throws SQLException {
+        long start = System.nanoTime();
+        int rows = -1;
         try (PreparedStatement ps = con.prepareStatement(sql)) {
             bindParams(ps, params);
             try (ResultSet rs = ps.executeQuery()) {
@@ -94,15 +454,68 @@ public class MySqlManager implements AutoCloseable {
                     }
                     out.add(row);
                 }
+                rows = out.size();
                 return out;
             }
+        } catch (SQLException ex) {
+            metrics.counter(METRIC_ERRORS).increment();
+            throw ex;
+        } finally {
+            observe("query", sql, params, rows, System.nanoTime() - start);
+        }
+    }
+
+    /* -------------------- Batch -------------------- */
+
+    /**
+     * Führt dasselbe Statement für alle Parameter-Zeilen als JDBC-Batch aus
+     * (der Treiber fasst INSERTs dank rewriteBatchedStatements zu Multi-Row-Inserts zusammen).
+     */
+    public int[] batch(QueryTag tag, String sql, List<Object[]> rows) throws SQLException {
+        if (rows.isEmpty()) return new int[0];
+        try (Scope ignored = scope(tag); Connection con = getConnection()) {
+            return batch(con, sql, rows);
+        }
+    }
+
+    public int[] batch(Connection con, String sql, List<Object[]> rows) throws SQLException {
+        if (rows.isEmpty()) return new int[0];
+        long start = System.nanoTime();
+        int affected = -1;
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            bindParams(ps, rows.get(0));
+            ps.addBatch();
+            for (int i = 1; i < rows.size(); i++) {
+                bindValues(ps, rows.get(i));
+                ps.addBatch();
+            }
+            int[] result = ps.executeBatch();
+            affected = 0;
+            for (int n : result) {
+                if (n > 0) affected += n;
+                else if (n == Statement.SUCCESS_NO_INFO) affected++;
+            }
+            return result;
+        } catch (SQLException ex) {
+            metrics.counter(METRIC_ERRORS).increment();
+            throw ex;
+        } finally {
+            observe("batch(" + rows.size() + ")", sql, rows.get(0), affected, System.nanoTime() - start);
         }
     }
 
     /* -------------------- Transactions ---------------- */
 
     public <T> T inTransaction(Function<Connection, T> fn) throws SQLException {
-        try (Connection con = getConnection()) {
+        return inTransaction(QueryTag.UNTAGGED, fn);
+    }
+
+    public <T> T inTransaction(QueryTag tag, Function<Connection, T> fn) throws SQLException {
+        long start = System.nanoTime();
+        try (Scope ignored = scope(tag); Connection con = getConnection()) {
+            CallContext ctx = CONTEXT.get();
+            ctx.statements = 0;
+            ctx.rows = 0;
             try {
                 con.setAutoCommit(false);
                 T result = fn.apply(con);
@@ -113,12 +526,55 @@ public class MySqlManager implements AutoCloseable {
                 throw ex instanceof SQLException ? (SQLException) ex : new SQLException(ex);
             } finally {
                 con.setAutoCommit(true);
+                long elapsed = System.nanoTime() - start;
+                transactions.record(elapsed);
+                if (slowLog != null && elapsed >= slowThresholdNanos) {
+                    slowLog.offer("tag=" + ctx.tag + " kind=transaction total_ms=" + millis(elapsed)
+                            + " pool_wait_ms=" + millis(ctx.poolWaitNanos)
+                            + " statements=" + ctx.statements + " rows=" + ctx.rows);
+                }
             }
         }
     }
 
     /* -------------------- Helpers -------------------- */
 
+    private void observe(String kind, String sql, Object[] params, int rows, long execNanos) {
+        String fingerprint = SqlFingerprint.of(sql);
+        metrics.histogram(METRIC_STATEMENT, "statement", fingerprint).record(execNanos);
+
+        CallContext ctx = CONTEXT.get();
+        ctx.statements++;
+        if (rows > 0) ctx.rows += rows;
+
+        if (slowLog != null && execNanos >= slowThresholdNanos) {
+            QueryTag tag = ctx.tag == null ? QueryTag.UNTAGGED : ctx.tag;
+            slowLog.offer("tag=" + tag + " kind=" + kind + " pool=" + ctx.pool + " exec_ms=" + millis(execNanos)
+                    + " pool_wait_ms=" + millis(ctx.poolWaitNanos)
+                    + " rows=" + (rows < 0 ? "error" : rows)
+                    + " fp=\"" + fingerprint + "\" params=" + redact(params));
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+
+    /** Parameter nur als Typ/Länge ausgeben – keine Namen, UUIDs oder IPs im Log. */
+    private static String redact(Object[] params) {
+        if (params == null || params.length == 0) return "[]";
+        StringJoiner sj = new StringJoiner(", ", "[", "]");
+        for (Object p : params) {
+            if (p == null) sj.add("null");
+            else if (p instanceof CharSequence cs) sj.add("str(" + cs.length() + ")");
+            else if (p instanceof byte[] b) sj.add("bytes(" + b.length + ")");
+            else if (p instanceof Number || p instanceof Boolean) sj.add(p.getClass().getSimpleName().toLowerCase(Locale.ROOT));
+            else if (p instanceof java.util.Date || p instanceof java.time.temporal.Temporal) sj.add("ts");
+            else sj.add(p.getClass().getSimpleName());
+        }
+        return sj.toString();
+    }
+
     private static void bindParams(PreparedStatement ps, Object... params) throws SQLException {
         if (params == null || params.length == 0) return;
 
@@ -137,6 +593,11 @@ public class MySqlManager implements AutoCloseable {
             throw new SQLException("Parameter count mismatch: expected " + expected + " but got " + params.length);
         }
 
+        bindValues(ps, params);
+    }
+
+    /** Bindet ohne erneute Metadaten-Prüfung (Folgezeilen eines Batches). */
+    private static void bindValues(PreparedStatement ps, Object... params) throws SQLException {
         for (int i = 0; i < params.length; i++) {
             Object p = params[i];
             int idx = i + 1;
@@ -171,8 +632,14 @@ public class MySqlManager implements AutoCloseable {
 
     @Override
     public void close() {
+        for (Replica r : replicas) {
+            r.dataSource.close();
+        }
         if (dataSource != null) {
             dataSource.close();
         }
+        if (slowLog != null) {
+            slowLog.close();
+        }
     }
 }
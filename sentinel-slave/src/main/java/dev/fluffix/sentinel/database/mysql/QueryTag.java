@@ -0,0 +1,79 @@
+package dev.fluffix.sentinel.database.mysql;
+
+import java.util.Objects;
+
+/**
+ * Benennt die Aufrufstelle eines DB-Zugriffs (z. B. "ban.getActive").
+ * Taucht in Slow-Query-Log und Metriken auf; Instanzen als Konstanten anlegen.
+ *
+ * Tags aus {@link #replicaRead(String)} markieren Lesezugriffe, die leicht veraltete
+ * Daten vertragen (Listen, Historie, Tab-Completion) und auf Replicas laufen dürfen.
+ * Alles andere – insbesondere der Login-Check – bleibt auf dem Primary.
+ *
+ * Die {@link Workload} bestimmt, aus welchem Kontingent des Primary-Pools der Aufruf bedient wird.
+ */
+public final class QueryTag {
+
+    /** Lastklasse eines Aufrufs; siehe WorkloadPermits. */
+    public enum Workload {
+        /** Login-Check und Join-Registrierung: nie hinter Admin- oder Wartungsarbeit. */
+        LOGIN,
+        /** Befehle und Ansichten von Teammitgliedern (Standard). */
+        INTERACTIVE,
+        /** Hintergrundjobs: Ablauf, Abgleich, Flushes, Import. */
+        MAINTENANCE
+    }
+
+    public static final QueryTag UNTAGGED = new QueryTag("untagged", false, Workload.INTERACTIVE);
+
+    private final String name;
+    private final boolean replicaRead;
+    private final Workload workload;
+
+    private QueryTag(String name, boolean replicaRead, Workload workload) {
+        this.name = name;
+        this.replicaRead = replicaRead;
+        this.workload = workload;
+    }
+
+    public static QueryTag of(String name) {
+        return create(name, false, Workload.INTERACTIVE);
+    }
+
+    public static QueryTag of(String name, Workload workload) {
+        return create(name, false, workload);
+    }
+
+    /** Lesezugriff, der auf ein Read-Replica geroutet werden darf. */
+    public static QueryTag replicaRead(String name) {
+        return create(name, true, Workload.INTERACTIVE);
+    }
+
+    public static QueryTag replicaRead(String name, Workload workload) {
+        return create(name, true, workload);
+    }
+
+    private static QueryTag create(String name, boolean replicaRead, Workload workload) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(workload, "workload");
+        if (name.isBlank()) throw new IllegalArgumentException("QueryTag darf nicht leer sein");
+        return new QueryTag(name, replicaRead, workload);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public boolean isReplicaRead() {
+        return replicaRead;
+    }
+
+    public Workload workload() {
+        return workload;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
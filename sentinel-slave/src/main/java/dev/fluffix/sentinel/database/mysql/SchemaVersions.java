@@ -0,0 +1,86 @@
+package dev.fluffix.sentinel.database.mysql;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versionsstand der Sentinel-Tabellen in sentinel_schema (eine Zeile je Komponente).
+ * - Der Stand aller Komponenten wird beim ersten Zugriff mit einer einzigen Abfrage gelesen.
+ * - ensure() führt nur die Migrationen aus, die der Komponente noch fehlen; ein Warmstart macht kein DDL.
+ * - Migrationen müssen idempotent sein: zwei Server können dieselbe Version gleichzeitig nachziehen.
+ */
+public class SchemaVersions {
+
+    /** Ein Migrationsschritt; Schritt i hebt eine Komponente von Version i auf i + 1. */
+    @FunctionalInterface
+    public interface Migration {
+        void apply() throws SQLException;
+    }
+
+    private static final QueryTag TAG_SCHEMA = QueryTag.of("schema.version");
+
+    private final MySqlManager db;
+    private volatile Map<String, Integer> versions; // null = noch nicht gelesen
+
+    SchemaVersions(MySqlManager db) {
+        this.db = Objects.requireNonNull(db, "db");
+    }
+
+    /**
+     * Bringt component auf Version steps.size(). Bereits erreichte Schritte werden übersprungen,
+     * nach jedem Schritt wird die neue Version gespeichert.
+     * @return Anzahl ausgeführter Schritte (0 = Schema war aktuell)
+     */
+    public int ensure(String component, List<Migration> steps) throws SQLException {
+        int current = version(component);
+        int applied = 0;
+        for (int v = current; v < steps.size(); v++) {
+            steps.get(v).apply();
+            record(component, v + 1);
+            applied++;
+        }
+        return applied;
+    }
+
+    /** Gespeicherte Version einer Komponente; 0, wenn sie noch nie migriert wurde. */
+    public int version(String component) throws SQLException {
+        return load().getOrDefault(component, 0);
+    }
+
+    private Map<String, Integer> load() throws SQLException {
+        Map<String, Integer> loaded = versions;
+        if (loaded != null) return loaded;
+        synchronized (this) {
+            if (versions != null) return versions;
+            Map<String, Integer> fresh = new ConcurrentHashMap<>();
+            try {
+                for (Map<String, Object> r : db.query(TAG_SCHEMA, "SELECT component, version FROM sentinel_schema")) {
+                    fresh.put(Objects.toString(r.get("component")), ((Number) r.get("version")).intValue());
+                }
+            } catch (SQLException e) {
+                if (e.getErrorCode() != 1146) throw e; // 1146 = Tabelle fehlt: Erstinstallation oder Version vor Migrationen
+                db.update(TAG_SCHEMA, """
+                    CREATE TABLE IF NOT EXISTS sentinel_schema (
+                      component   VARCHAR(64)  NOT NULL,
+                      version     INT          NOT NULL,
+                      updated_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                      PRIMARY KEY (component)
+                    ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+                """);
+            }
+            versions = fresh;
+            return fresh;
+        }
+    }
+
+    private void record(String component, int version) throws SQLException {
+        db.update(TAG_SCHEMA, """
+            INSERT INTO sentinel_schema (component, version) VALUES (?, ?)
+            ON DUPLICATE KEY UPDATE version = GREATEST(version, VALUES(version))
+        """, component, version);
+        load().merge(component, version, Math::max);
+    }
+}
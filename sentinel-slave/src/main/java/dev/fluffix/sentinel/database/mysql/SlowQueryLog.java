@@ -0,0 +1,124 @@
+package dev.fluffix.sentinel.database.mysql;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchrones, rollierendes Log für langsame Statements/Transaktionen.
+ * Aufrufer legen nur eine fertige Zeile in eine begrenzte Queue (bei Überlauf wird verworfen);
+ * ein einzelner Daemon-Thread schreibt und rotiert (slow-queries.log, .1, .2, ...).
+ */
+public class SlowQueryLog implements AutoCloseable {
+
+    private static final String POISON = "\u0000";
+
+    private final File file;
+    private final long maxBytes;
+    private final int maxFiles;
+    private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(4096);
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+
+    private volatile boolean closed;
+
+    public SlowQueryLog(File directory, long maxBytes, int maxFiles) {
+        if (!directory.exists()) directory.mkdirs();
+        this.file = new File(directory, "slow-queries.log");
+        this.maxBytes = Math.max(64 * 1024, maxBytes);
+        this.maxFiles = Math.max(1, maxFiles);
+        this.writer = new Thread(this::run, "Sentinel-SlowQueryLog");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /** Nicht-blockierend; liefert false, wenn die Zeile verworfen wurde. */
+    public boolean offer(String line) {
+        if (closed || !queue.offer(line)) {
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private void run() {
+        OutputStream out = null;
+        long size = file.length();
+        try {
+            out = open();
+            while (true) {
+                String line = queue.poll(1, TimeUnit.SECONDS);
+                if (line == null) {
+                    out.flush();
+                    continue;
+                }
+                if (POISON.equals(line)) break;
+
+                byte[] bytes = (Instant.now() + " " + line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+                if (size + bytes.length > maxBytes) {
+                    out.close();
+                    rotate();
+                    out = open();
+                    size = 0;
+                }
+                out.write(bytes);
+                size += bytes.length;
+                if (queue.isEmpty()) out.flush();
+            }
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ignored) {
+            // Log ist optional; bei I/O-Fehlern wird still beendet
+        } finally {
+            if (out != null) {
+                try { out.close(); } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    private OutputStream open() throws IOException {
+        return new BufferedOutputStream(new FileOutputStream(file, true));
+    }
+
+    private void rotate() throws IOException {
+        File dir = file.getParentFile();
+        File oldest = new File(dir, file.getName() + "." + maxFiles);
+        Files.deleteIfExists(oldest.toPath());
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            File src = new File(dir, file.getName() + "." + i);
+            if (src.exists()) {
+                Files.move(src.toPath(), new File(dir, file.getName() + "." + (i + 1)).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (file.exists()) {
+            Files.move(file.toPath(), new File(dir, file.getName() + ".1").toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        try {
+            // Queue voll und Schreiber hängt (z. B. blockierendes I/O): nicht ewig warten, sondern unterbrechen
+            if (!queue.offer(POISON, 1, TimeUnit.SECONDS)) {
+                writer.interrupt();
+            }
+            writer.join(2000);
+            if (writer.isAlive()) writer.interrupt();
+        } catch (InterruptedException e) {
+            writer.interrupt();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
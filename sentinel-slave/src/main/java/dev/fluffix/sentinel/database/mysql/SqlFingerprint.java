@@ -0,0 +1,45 @@
+package dev.fluffix.sentinel.database.mysql;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Normalisiert SQL zu einem stabilen "Fingerprint" (Whitespace zusammengefasst,
+ * Literale und IN-/VALUES-Listen durch Platzhalter ersetzt), z. B. als Metrik-Label.
+ */
+public final class SqlFingerprint {
+
+    private static final int MAX_CACHED = 1024;
+    private static final int MAX_LENGTH = 120;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.)*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN \\((?:\\?\\s*,\\s*)*\\?\\)");
+    private static final Pattern VALUES_LIST = Pattern.compile("(?i)\\bVALUES ?(\\([^()]*\\))(?:\\s*,\\s*\\([^()]*\\))+");
+
+    private static final Map<String, String> CACHE = new ConcurrentHashMap<>();
+
+    private SqlFingerprint() {
+    }
+
+    public static String of(String sql) {
+        if (sql == null) return "";
+        String cached = CACHE.get(sql);
+        if (cached != null) return cached;
+
+        String fp = normalize(sql);
+        if (CACHE.size() < MAX_CACHED) CACHE.put(sql, fp);
+        return fp;
+    }
+
+    private static String normalize(String sql) {
+        String s = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        s = STRING_LITERAL.matcher(s).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        s = IN_LIST.matcher(s).replaceAll("IN (?+)");
+        s = VALUES_LIST.matcher(s).replaceAll("VALUES $1+");
+        return s.length() <= MAX_LENGTH ? s : s.substring(0, MAX_LENGTH - 3) + "...";
+    }
+}
@@ -0,0 +1,126 @@
+package dev.fluffix.sentinel.database.mysql;
+
+import dev.fluffix.sentinel.database.mysql.QueryTag.Workload;
+import dev.fluffix.sentinel.metrics.LatencyHistogram;
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Teilt den Primary-Pool nach Workload auf, ohne zusätzliche Pools zu öffnen.
+ * - LOGIN braucht kein Permit; loginReserve Connections kann nur LOGIN belegen.
+ * - INTERACTIVE und MAINTENANCE teilen sich poolSize - loginReserve Permits (fair, FIFO).
+ * - MAINTENANCE braucht vorher eines von maintenanceMax eigenen Permits, steht also mit höchstens
+ *   so vielen Threads in der gemeinsamen Warteschlange und kann Admin-Zugriffe nicht verdrängen.
+ * Das Permit hängt an der Connection und wird mit deren close() zurückgegeben.
+ * Ein Thread, der schon ein Permit hält (verschachtelter Aufruf), bekommt ohne weiteres Permit Zugang.
+ * Gezählt wird je Connection beim Thread, der sie geholt hat: close() gibt genau diesen Zähler frei,
+ * auch wenn die Connection auf einem anderen Thread geschlossen wird.
+ */
+final class WorkloadPermits {
+
+    static final String METRIC_WAIT = "sentinel_db_permit_wait_seconds";
+    static final String METRIC_REJECTED = "sentinel_db_permit_rejected_total";
+
+    /** Offene Permit-Connections je holendem Thread; wird nur über die Freigabe der Connection verringert. */
+    private static final ThreadLocal<AtomicInteger> HELD = ThreadLocal.withInitial(AtomicInteger::new);
+
+    private final Semaphore shared;
+    private final Semaphore maintenance;
+    private final int sharedPermits;
+    private final int maintenancePermits;
+    private final long timeoutMillis;
+    private final SentinelMetrics metrics;
+    private final Map<Workload, LatencyHistogram> waits = new EnumMap<>(Workload.class);
+
+    WorkloadPermits(int poolSize, int loginReserve, int maintenanceMax, long timeoutMillis, SentinelMetrics metrics) {
+        int reserve = Math.max(0, Math.min(loginReserve, poolSize - 1));
+        this.sharedPermits = Math.max(1, poolSize - reserve);
+        this.maintenancePermits = Math.max(1, Math.min(maintenanceMax, sharedPermits));
+        this.shared = new Semaphore(sharedPermits, true);
+        this.maintenance = new Semaphore(maintenancePermits, true);
+        this.timeoutMillis = timeoutMillis;
+        this.metrics = metrics;
+
+        metrics.describe(METRIC_WAIT, "Wartezeit auf ein Workload-Permit vor dem Pool")
+                .describe(METRIC_REJECTED, "Aufrufe ohne Permit innerhalb des Timeouts");
+        for (Workload w : Workload.values()) {
+            waits.put(w, metrics.histogram(METRIC_WAIT, "workload", w.name().toLowerCase(Locale.ROOT)));
+        }
+        metrics.gauge("sentinel_db_permits_in_use", () -> sharedPermits - shared.availablePermits(), "workload", "shared");
+        metrics.gauge("sentinel_db_permits_in_use", () -> maintenancePermits - maintenance.availablePermits(), "workload", "maintenance");
+    }
+
+    /**
+     * Holt das Permit für workload (blockiert bis zum Timeout).
+     * @return Freigabe, oder null, wenn kein Permit nötig ist
+     */
+    Runnable acquire(Workload workload) throws SQLException {
+        AtomicInteger held = HELD.get();
+        if (workload == Workload.LOGIN || held.get() > 0) return null;
+
+        long start = System.nanoTime();
+        boolean maint = workload == Workload.MAINTENANCE;
+        try {
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            if (maint && !maintenance.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw rejected(workload);
+            }
+            if (!shared.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                if (maint) maintenance.release();
+                throw rejected(workload);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Warten auf Workload-Permit unterbrochen", e);
+        } finally {
+            waits.get(workload).recordSince(start);
+        }
+
+        held.incrementAndGet();
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (!released.compareAndSet(false, true)) return;
+            held.decrementAndGet(); // Zähler des holenden Threads, nicht des schließenden
+            shared.release();
+            if (maint) maintenance.release();
+        };
+    }
+
+    private SQLException rejected(Workload workload) {
+        metrics.counter(METRIC_REJECTED, "workload", workload.name().toLowerCase(Locale.ROOT)).increment();
+        return new SQLTransientConnectionException("Keine Connection frei für Workload " + workload
+                + " innerhalb von " + timeoutMillis + " ms");
+    }
+
+    /** Connection, deren close() zusätzlich das Permit zurückgibt. */
+    static Connection bind(Connection con, Runnable release) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        try {
+                            con.close();
+                        } finally {
+                            release.run();
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(con, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,328 @@
+package dev.fluffix.sentinel.escalation;
+
+import dev.fluffix.sentinel.ban.Ban;
+import dev.fluffix.sentinel.ban.BanListener;
+import dev.fluffix.sentinel.ban.BanManager;
+import dev.fluffix.sentinel.configuration.SentinelConfig;
+import dev.fluffix.sentinel.database.mysql.MySqlManager;
+import dev.fluffix.sentinel.database.mysql.QueryTag;
+import dev.fluffix.sentinel.database.mysql.QueryTag.Workload;
+import dev.fluffix.sentinel.logger.AsyncLogger;
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Punkte-Eskalation auf sentinel_players.points.
+ * - Verfall wird nicht periodisch geschrieben, sondern beim Lesen aus (points, points_updated_at)
+ *   über die Halbwertszeit berechnet – in Java für den Cache, in SQL beim Upsert.
+ * - Punkte-Änderungen sammeln sich je Spieler im Speicher und werden pro Flush als ein Upsert geschrieben.
+ * - Schwellen werden im Speicher geprüft; beim Überschreiten wird ein Auto-Ban mit dem
+ *   konfigurierten BAN-Grund angelegt (auf dem Flush-Thread, nicht im Aufrufer).
+ * - Punkte aus neuen Bans (BanListener) werden nur vorgemerkt und erst auf dem Flush-Thread
+ *   verbucht; ein fehlender Cache-Eintrag kostet dort die Abfrage, nicht im /ban-Aufrufer.
+ */
+public class EscalationEngine implements BanListener, AutoCloseable {
+
+    /** Operator der Eskalations-Bans; diese Bans geben selbst keine Punkte. */
+    public static final String OPERATOR = "Sentinel";
+
+    private static final QueryTag TAG_LOAD = QueryTag.of("escalation.load");
+    private static final QueryTag TAG_FLUSH = QueryTag.of("escalation.flush", Workload.MAINTENANCE);
+
+    private static final long IDLE_EVICT_MILLIS = 10 * 60_000L;
+
+    /** Cache-Zustand eines Spielers; alle Zugriffe unter synchronized(state). */
+    private static final class State {
+        String name;
+        double base;          // Punkte zum Zeitpunkt baseAt (ohne Verfall danach)
+        long baseAt;
+        int pending;          // noch nicht geschriebene Änderung
+        long touchedAt;
+        boolean stale;        // DB-Stand wurde direkt geändert; nach dem nächsten Flush neu laden
+    }
+
+    private record Escalation(UUID uuid, String name, int points, String reason) {}
+
+    private record BanPoints(UUID uuid, String name, List<String> reasons) {}
+
+    private final MySqlManager db;
+    private final BanManager bans;
+    private final Map<String, Integer> reasonPoints;
+    private final NavigableMap<Integer, String> thresholds;
+    private final double halfLifeMillis;
+    private final Map<UUID, State> states = new ConcurrentHashMap<>();
+    private final Queue<Escalation> escalations = new ConcurrentLinkedQueue<>();
+    private final Queue<BanPoints> banPoints = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService flusher;
+    private final List<Consumer<Ban>> escalationListeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder pointsAdded;
+    private final LongAdder upserts;
+    private final LongAdder escalated;
+    private final LongAdder escalationFailures;
+
+    public EscalationEngine(MySqlManager db, BanManager bans, SentinelConfig config) {
+        this.db = Objects.requireNonNull(db, "db");
+        this.bans = Objects.requireNonNull(bans, "bans");
+        this.reasonPoints = config.escalationReasonPoints();
+        this.thresholds = config.escalationThresholds();
+        this.halfLifeMillis = config.escalationHalfLifeSeconds() * 1000.0;
+
+        SentinelMetrics metrics = db.getMetrics();
+        metrics.describe("sentinel_escalation_points_total", "Vergebene Eskalationspunkte");
+        metrics.describe("sentinel_escalation_upserts_total", "Geschriebene Punkte-Upserts (zusammengefasst)");
+        metrics.describe("sentinel_escalations_total", "Ausgelöste Eskalations-Bans nach Ergebnis");
+        this.pointsAdded = metrics.counter("sentinel_escalation_points_total");
+        this.upserts = metrics.counter("sentinel_escalation_upserts_total");
+        this.escalated = metrics.counter("sentinel_escalations_total", "result", "banned");
+        this.escalationFailures = metrics.counter("sentinel_escalations_total", "result", "failed");
+        metrics.gauge("sentinel_cache_entries", states::size, "cache", "escalation");
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Sentinel-Escalation");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = config.escalationFlushMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Wird nach jedem Eskalations-Ban aufgerufen (Flush-Thread), z. B. zum Kicken. */
+    public void onEscalation(Consumer<Ban> listener) {
+        escalationListeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    /* ---------------- Punkte ---------------- */
+
+    /** Punkte für einen Grund laut Konfiguration ("*" als Default). */
+    public int pointsFor(String reason) {
+        if (reason == null) return 0;
+        Integer p = reasonPoints.get(reason.trim().toLowerCase(Locale.ROOT));
+        if (p == null) p = reasonPoints.getOrDefault("*", 0);
+        return Math.max(0, p);
+    }
+
+    /** Vergibt Punkte für alle Gründe einer Sanktion; gibt den neuen (verfallenen) Stand zurück. */
+    public int record(UUID uuid, String name, List<String> reasons) throws SQLException {
+        return add(uuid, name, pointsFor(reasons));
+    }
+
+    /**
+     * Addiert delta (auch negativ) auf den aktuellen Stand; schreibt erst beim nächsten Flush.
+     * Die Änderung läuft in states.compute(), damit ein paralleler Flush den Eintrag nicht
+     * zwischen Laden und Ändern entfernen kann (sonst ginge das Delta an einem verwaisten State verloren).
+     */
+    public int add(UUID uuid, String name, int delta) throws SQLException {
+        Objects.requireNonNull(uuid, "uuid");
+        State loaded = state(uuid, name);
+        long now = System.currentTimeMillis();
+        int[] result = new int[2]; // before, after
+        String[] stateName = new String[1];
+        states.compute(uuid, (k, cached) -> {
+            State state = cached != null ? cached : loaded;
+            synchronized (state) {
+                double current = decayed(state, now);
+                result[0] = (int) current;
+                result[1] = result[0];
+                if (delta != 0) {
+                    double next = Math.max(0, current + delta);
+                    // nach unten begrenzt: pending nur um den tatsächlich angewendeten Anteil ändern
+                    state.pending += (int) Math.round(next - current);
+                    state.base = next;
+                    state.baseAt = now;
+                    state.touchedAt = now;
+                    if (name != null) state.name = name;
+                    result[1] = (int) next;
+                }
+                stateName[0] = state.name;
+            }
+            return state;
+        });
+        int before = result[0];
+        int after = result[1];
+        if (delta == 0) return before;
+        if (delta > 0) pointsAdded.add(delta);
+
+        Map.Entry<Integer, String> crossed = thresholds.subMap(before, false, after, true).lastEntry();
+        if (crossed != null) {
+            escalations.add(new Escalation(uuid, stateName[0], after, crossed.getValue()));
+        }
+        return after;
+    }
+
+    /**
+     * Verwirft den Cache-Eintrag nach einer direkten DB-Änderung (SentinelPlayerManager.setPoints/addPoints/...).
+     * Mit offenem Delta bleibt der Eintrag bis zum nächsten Flush und wird danach neu geladen.
+     */
+    public void invalidate(UUID uuid) {
+        states.computeIfPresent(uuid, (k, s) -> {
+            synchronized (s) {
+                if (s.pending == 0) return null;
+                s.stale = true;
+                return s;
+            }
+        });
+    }
+
+    /** Aktueller Stand inkl. Verfall (lädt den Spieler bei Bedarf). */
+    public int points(UUID uuid) throws SQLException {
+        State state = state(uuid, null);
+        synchronized (state) {
+            return (int) decayed(state, System.currentTimeMillis());
+        }
+    }
+
+    private double decayed(State state, long now) {
+        if (state.base <= 0) return 0;
+        long elapsed = Math.max(0, now - state.baseAt);
+        return state.base * Math.pow(0.5, elapsed / halfLifeMillis);
+    }
+
+    private State state(UUID uuid, String name) throws SQLException {
+        State cached = states.get(uuid);
+        if (cached != null) return cached;
+
+        List<Map<String, Object>> rows = db.query(TAG_LOAD,
+                "SELECT name, points, points_updated_at, updated_at FROM sentinel_players WHERE uuid = ?",
+                uuid.toString());
+        State loaded = new State();
+        loaded.name = name;
+        loaded.touchedAt = System.currentTimeMillis();
+        loaded.baseAt = loaded.touchedAt;
+        if (!rows.isEmpty()) {
+            Map<String, Object> r = rows.get(0);
+            if (loaded.name == null) loaded.name = Objects.toString(r.get("name"), null);
+            loaded.base = r.get("points") == null ? 0 : ((Number) r.get("points")).doubleValue();
+            Object at = r.get("points_updated_at") != null ? r.get("points_updated_at") : r.get("updated_at");
+            if (at instanceof Timestamp t) loaded.baseAt = t.getTime();
+        }
+        State raced = states.putIfAbsent(uuid, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    /* ---------------- BanListener ---------------- */
+
+    /** Nur vormerken: Listener dürfen nicht blockieren, record() kann den Spieler erst laden müssen. */
+    @Override
+    public void onBanCreated(Ban ban) {
+        if (OPERATOR.equals(ban.getOperator())) return;
+        if (pointsFor(ban.getReasons()) == 0) return;
+        banPoints.add(new BanPoints(ban.getUniqueId(), ban.getName(), ban.getReasons()));
+    }
+
+    private int pointsFor(List<String> reasons) {
+        int delta = 0;
+        if (reasons != null) {
+            for (String r : reasons) delta += pointsFor(r);
+        }
+        return delta;
+    }
+
+    /** Verbucht vorgemerkte Ban-Punkte; bei DB-Fehler bleibt der Rest für den nächsten Lauf liegen. */
+    private synchronized void applyBanPoints() throws SQLException {
+        BanPoints p;
+        while ((p = banPoints.peek()) != null) {
+            record(p.uuid(), p.name(), p.reasons());
+            banPoints.poll();
+        }
+    }
+
+    /* ---------------- Flush ---------------- */
+
+    private void flushQuietly() {
+        try {
+            applyBanPoints();
+            flush();
+        } catch (Exception e) {
+            // Deltas bleiben pending; nächster Versuch im nächsten Intervall
+            AsyncLogger.global().warn("ESCALATION", "Punkte-Flush fehlgeschlagen: " + e.getMessage(),
+                    "queued", banPoints.size());
+        }
+        runEscalations();
+    }
+
+    /** Schreibt alle offenen Änderungen als ein Upsert je Spieler (ein Batch). */
+    public synchronized int flush() throws SQLException {
+        long now = System.currentTimeMillis();
+        List<Object[]> rows = new ArrayList<>();
+        Map<State, Integer> taken = new IdentityHashMap<>();
+        for (Map.Entry<UUID, State> e : states.entrySet()) {
+            State s = e.getValue();
+            synchronized (s) {
+                if (s.pending == 0) continue;
+                if (s.name == null) continue; // ohne Namen kein Insert möglich; bleibt pending
+                rows.add(new Object[]{e.getKey().toString(), s.name, Math.max(0, s.pending),
+                        halfLifeMillis / 1000.0, s.pending});
+                taken.put(s, s.pending);
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            // Verfall des gespeicherten Stands bis jetzt anwenden, dann das gesammelte Delta addieren
+            db.batch(TAG_FLUSH, """
+                INSERT INTO sentinel_players (uuid, name, points, points_updated_at)
+                VALUES (?, ?, ?, CURRENT_TIMESTAMP)
+                ON DUPLICATE KEY UPDATE
+                  points = GREATEST(0, ROUND(points * POW(0.5,
+                             TIMESTAMPDIFF(SECOND, COALESCE(points_updated_at, updated_at), CURRENT_TIMESTAMP) / ?)) + ?),
+                  points_updated_at = CURRENT_TIMESTAMP
+            """, rows);
+            upserts.add(rows.size());
+            for (Map.Entry<State, Integer> e : taken.entrySet()) {
+                synchronized (e.getKey()) {
+                    e.getKey().pending -= e.getValue();
+                }
+            }
+        }
+
+        // je Schlüssel atomar entfernen: ein paralleles add() (compute) sieht danach einen frischen State
+        for (UUID key : states.keySet()) {
+            states.computeIfPresent(key, (k, s) -> {
+                synchronized (s) {
+                    return s.pending == 0 && (s.stale || now - s.touchedAt > IDLE_EVICT_MILLIS) ? null : s;
+                }
+            });
+        }
+        return rows.size();
+    }
+
+    private void runEscalations() {
+        Escalation esc;
+        while ((esc = escalations.poll()) != null) {
+            try {
+                Ban ban = bans.createAuto(esc.uuid(), esc.name(), OPERATOR, List.of(esc.reason()),
+                        "Automatische Eskalation (" + esc.points() + " Punkte)");
+                escalated.increment();
+                for (Consumer<Ban> l : escalationListeners) l.accept(ban);
+            } catch (IllegalStateException alreadyBanned) {
+                // bereits aktiv gebannt – nichts zu tun
+            } catch (Exception e) {
+                escalationFailures.increment();
+                AsyncLogger.global().error("ESCALATION", "Eskalations-Ban fehlgeschlagen", e,
+                        "uuid", esc.uuid(), "points", esc.points());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+            applyBanPoints();
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (SQLException e) {
+            // offene Punkte gehen verloren – Verfall macht sie ohnehin zeitlich begrenzt
+            AsyncLogger.global().warn("ESCALATION", "Offene Punkte beim Stopp verworfen: " + e.getMessage(),
+                    "queued", banPoints.size());
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package dev.fluffix.sentinel.logger;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchroner Logger mit vorallokiertem Ringpuffer und einem einzigen Schreib-Thread.
+ * - log() belegt nur einen Slot (CAS) und setzt Referenzen; Formatieren, Stacktraces und
+ *   System.out laufen auf dem Schreib-Thread. Ist der Puffer voll, wird verworfen statt blockiert.
+ * - WARN/ERROR werden je Label + Exception-Klasse + Meldungsvorlage und Fenster gedrosselt. Vorlage ist
+ *   der Text bis zum ersten ':', '(' oder zur ersten Ziffer; variable Teile (IDs, Namen, Fehlertexte)
+ *   gehören dahinter oder in die Zusatzfelder, sonst hebeln sie die Drosselung aus. Die Zahl der
+ *   unterdrückten Meldungen hängt an der nächsten durchgelassenen.
+ * - Zusatzfelder (Schlüssel/Wert-Paare) werden als key=value an die Zeile gehängt.
+ */
+public final class AsyncLogger {
+
+    public enum Level { INFO, WARN, ERROR }
+
+    private static final int CAPACITY = 4096; // Zweierpotenz
+    private static final int RATE_BURST = 5;
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final int RATE_MAX_KEYS = 1024;
+    private static final int TEMPLATE_MAX = 64;
+    private static final String RESET = "\u001B[0m";
+    private static final Map<String, String> COLORS = new HashMap<>();
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS", Locale.ROOT)
+            .withZone(ZoneId.systemDefault());
+
+    static {
+        COLORS.put("BLACK", "\u001B[30m");
+        COLORS.put("RED", "\u001B[31m");
+        COLORS.put("GREEN", "\u001B[32m");
+        COLORS.put("YELLOW", "\u001B[33m");
+        COLORS.put("BLUE", "\u001B[34m");
+        COLORS.put("PURPLE", "\u001B[35m");
+        COLORS.put("CYAN", "\u001B[36m");
+        COLORS.put("WHITE", "\u001B[37m");
+        COLORS.put("GRAY", "\u001B[90m");
+    }
+
+    private static final AsyncLogger GLOBAL = new AsyncLogger(System.out);
+
+    /** Ein Slot im Ring; published == Sequenznummer, sobald der Produzent fertig geschrieben hat. */
+    private static final class Slot {
+        volatile long published = -1;
+        long epochMillis;
+        Level level;
+        String label;
+        String message;
+        String color;
+        String thread;
+        Throwable error;
+        Object[] fields;
+        int suppressed;
+    }
+
+    /** Drosselfenster je Label + Meldungsvorlage. */
+    private static final class Window {
+        long start;
+        int count;
+        int suppressed;
+    }
+
+    private final Slot[] ring = new Slot[CAPACITY];
+    private final AtomicLong head = new AtomicLong(); // nächste zu vergebende Sequenz
+    private volatile long tail;                       // nächste zu schreibende Sequenz
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private final PrintStream out;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    AsyncLogger(PrintStream out) {
+        this.out = out;
+        for (int i = 0; i < CAPACITY; i++) ring[i] = new Slot();
+        this.writer = new Thread(this::drainLoop, "Sentinel-Log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static AsyncLogger global() {
+        return GLOBAL;
+    }
+
+    /* ---------------- Produzenten ---------------- */
+
+    /** color = Name wie "GREEN"; null schreibt ohne ANSI-Codes (z. B. Daemon mit Log-Datei). */
+    public void info(String label, String message, String color, Object... fields) {
+        log(Level.INFO, label, message, color, null, fields);
+    }
+
+    public void warn(String label, String message, Object... fields) {
+        log(Level.WARN, label, message, "YELLOW", null, fields);
+    }
+
+    public void error(String label, String message, Throwable error, Object... fields) {
+        log(Level.ERROR, label, message, "RED", error, fields);
+    }
+
+    /**
+     * Legt eine Meldung in den Ring. Blockiert nie: bei vollem Puffer oder Drosselung wird verworfen.
+     * @param fields Schlüssel/Wert-Paare (k1, v1, k2, v2, ...), Werte werden erst beim Schreiben formatiert
+     */
+    public void log(Level level, String label, String message, String color, Throwable error, Object... fields) {
+        int suppressed = 0;
+        if (level != Level.INFO) {
+            suppressed = admit(throttleKey(label, message, error));
+            if (suppressed < 0) return;
+        }
+        if (!running) {
+            // nach shutdown(): synchron schreiben, damit späte Meldungen beim Stopp nicht verloren gehen
+            Slot s = new Slot();
+            fill(s, level, label, message, color, error, fields, suppressed);
+            synchronized (out) {
+                write(s);
+            }
+            return;
+        }
+
+        long seq;
+        do {
+            seq = head.get();
+            if (seq - tail >= CAPACITY) {
+                dropped.increment();
+                return;
+            }
+        } while (!head.compareAndSet(seq, seq + 1));
+
+        Slot s = ring[(int) (seq & (CAPACITY - 1))];
+        fill(s, level, label, message, color, error, fields, suppressed);
+        s.published = seq;
+
+        // shutdown() kann zwischen der Prüfung oben und dem Veröffentlichen gelaufen sein; dann ist der
+        // Schreib-Thread womöglich schon beendet und der Slot würde nie geschrieben
+        if (!running) {
+            synchronized (out) {
+                drainAvailable();
+            }
+        }
+    }
+
+    private static void fill(Slot s, Level level, String label, String message, String color,
+                             Throwable error, Object[] fields, int suppressed) {
+        s.epochMillis = System.currentTimeMillis();
+        s.level = level;
+        s.label = label;
+        s.message = message;
+        s.color = color;
+        s.thread = Thread.currentThread().getName();
+        s.error = error;
+        s.fields = fields;
+        s.suppressed = suppressed;
+    }
+
+    /** Anzahl verworfener Meldungen (Puffer voll), z. B. für Metriken. */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /** Label + Exception-Klasse + konstanter Anfang der Meldung; nur ein Zeichen-Scan, kein Stack-Walk. */
+    private static String throttleKey(String label, String message, Throwable error) {
+        String template = "";
+        if (message != null) {
+            int end = 0;
+            int max = Math.min(message.length(), TEMPLATE_MAX);
+            while (end < max) {
+                char c = message.charAt(end);
+                if (c == ':' || c == '(' || Character.isDigit(c)) break;
+                end++;
+            }
+            template = message.substring(0, end);
+        }
+        return label + '|' + (error == null ? "" : error.getClass().getName()) + '|' + template;
+    }
+
+    /**
+     * Drosselung je Schlüssel.
+     * @return -1 = unterdrücken, sonst Zahl der seit der letzten Ausgabe unterdrückten Meldungen
+     */
+    private int admit(String key) {
+        long now = System.nanoTime();
+        if (windows.size() > RATE_MAX_KEYS) evict(now);
+        Window w = windows.computeIfAbsent(key, k -> new Window());
+        synchronized (w) {
+            if (now - w.start >= RATE_WINDOW_NANOS) {
+                w.start = now;
+                w.count = 0;
+            }
+            if (++w.count > RATE_BURST) {
+                w.suppressed++;
+                return -1;
+            }
+            int s = w.suppressed;
+            w.suppressed = 0;
+            return s;
+        }
+    }
+
+    /** Entfernt abgelaufene Fenster; reicht das nicht (Flut verschiedener Meldungsvorlagen), beliebige weitere. */
+    private void evict(long now) {
+        windows.values().removeIf(w -> {
+            synchronized (w) {
+                return now - w.start >= RATE_WINDOW_NANOS;
+            }
+        });
+        Iterator<Map.Entry<String, Window>> it = windows.entrySet().iterator();
+        while (windows.size() > RATE_MAX_KEYS && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /* ---------------- Schreib-Thread ---------------- */
+
+    private void drainLoop() {
+        int idle = 0;
+        while (running || tail < head.get()) {
+            int n;
+            synchronized (out) {
+                n = drainAvailable();
+            }
+            if (n > 0) {
+                idle = 0;
+                continue;
+            }
+            // kurz drehen, dann mit wachsender Pause schlafen (Produzenten wecken nie)
+            if (++idle < 64) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(Math.min(10_000_000L, 100_000L * (idle - 63)));
+            }
+        }
+        out.flush();
+    }
+
+    /** Nur unter synchronized(out): nach shutdown() können Produzenten selbst nachschreiben. */
+    private int drainAvailable() {
+        int n = 0;
+        long seq = tail;
+        while (true) {
+            Slot s = ring[(int) (seq & (CAPACITY - 1))];
+            if (s.published != seq) break;
+            write(s);
+            s.message = null;
+            s.error = null;
+            s.fields = null;
+            tail = ++seq;
+            n++;
+        }
+        return n;
+    }
+
+    private void write(Slot s) {
+        StringBuilder sb = new StringBuilder(128);
+        if (s.color != null) sb.append(COLORS.getOrDefault(s.color.toUpperCase(Locale.ROOT), RESET));
+        sb
+                .append(TIME.format(Instant.ofEpochMilli(s.epochMillis)))
+                .append(" [").append(s.label == null ? "SENTINEL" : s.label.toUpperCase(Locale.ROOT)).append("] ");
+        if (s.level != Level.INFO) sb.append(s.level).append(' ');
+        sb.append(s.message);
+        Object[] f = s.fields;
+        if (f != null) {
+            for (int i = 0; i + 1 < f.length; i += 2) {
+                sb.append(' ').append(f[i]).append('=').append(f[i + 1]);
+            }
+        }
+        if (s.level != Level.INFO) sb.append(" thread=").append(s.thread);
+        if (s.suppressed > 0) sb.append(" (").append(s.suppressed).append("x unterdrückt)");
+        if (s.color != null) sb.append(RESET);
+        if (s.error != null) {
+            StringWriter trace = new StringWriter();
+            s.error.printStackTrace(new PrintWriter(trace));
+            sb.append(System.lineSeparator()).append(trace.toString().stripTrailing());
+        }
+        out.println(sb);
+    }
+
+    /** Schreibt ausstehende Meldungen und beendet den Schreib-Thread (Plugin-Stopp); danach wird synchron geloggt. */
+    public void shutdown(long timeoutMillis) {
+        running = false;
+        try {
+            writer.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package dev.fluffix.sentinel.login;
+
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Begrenzt gleichzeitige DB-Aufrufe eines Pfads mit einem adaptiven Limit (AIMD).
+ * - Das Limit wächst je schneller Antwort um 1/limit und schrumpft um 10 %, sobald die geglättete
+ *   Kurzzeit-Latenz über das Doppelte der Basis-Latenz steigt oder ein Aufruf scheitert – höchstens
+ *   einmal je Latenz-Fenster, damit ein Schub gleichzeitig langsamer Antworten nur einmal zählt.
+ * - Basis-Latenz = langsam geglätteter Mittelwert (EWMA) statt Minimum; ein einzelner Ausreißer nach
+ *   unten macht die Basis nicht unerreichbar, und eine dauerhaft langsamere DB wird zur neuen Basis.
+ * - Wer kein Slot bekommt, wartet in einer begrenzten Warteschlange; ist sie voll oder läuft
+ *   die Wartezeit ab, entscheidet der Aufrufer ohne DB (Überlauf).
+ */
+public class AdmissionController {
+
+    private static final double SHORT_ALPHA = 0.2;   // ~5 Aufrufe
+    private static final double LONG_ALPHA = 0.01;   // ~100 Aufrufe
+    private static final int WARMUP_SAMPLES = 20;
+    private static final long MIN_BACKOFF_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double RTT_TOLERANCE = 2.0;
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueCapacity;
+
+    private double limit;
+    private int inFlight;
+    private int queued;
+
+    private double shortRttNanos;  // schnell geglättet: aktuelle Latenz
+    private double longRttNanos;   // langsam geglättet: Basis-Latenz
+    private long samples;
+    private long lastBackoffAt;
+
+    private final LongAdder admitted;
+    private final LongAdder overflowQueue;
+    private final LongAdder overflowTimeout;
+
+    public AdmissionController(String name, int minLimit, int maxLimit, int queueCapacity, SentinelMetrics metrics) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.queueCapacity = Math.max(0, queueCapacity);
+        this.limit = this.maxLimit;
+        this.lastBackoffAt = System.nanoTime() - TimeUnit.MINUTES.toNanos(1); // nanoTime hat keinen festen Nullpunkt
+
+        metrics.describe("sentinel_admission_limit", "Aktuelles adaptives Limit gleichzeitiger DB-Aufrufe")
+                .describe("sentinel_admission_in_flight", "Laufende DB-Aufrufe je Pfad")
+                .describe("sentinel_admission_queued", "Auf einen Slot wartende Aufrufe je Pfad")
+                .describe("sentinel_admission_total", "Zulassungsentscheidungen je Pfad und Ergebnis");
+        metrics.gauge("sentinel_admission_limit", this::limit, "path", name);
+        metrics.gauge("sentinel_admission_in_flight", this::inFlight, "path", name);
+        metrics.gauge("sentinel_admission_queued", this::queued, "path", name);
+        this.admitted = metrics.counter("sentinel_admission_total", "path", name, "result", "admitted");
+        this.overflowQueue = metrics.counter("sentinel_admission_total", "path", name, "result", "queue_full");
+        this.overflowTimeout = metrics.counter("sentinel_admission_total", "path", name, "result", "timeout");
+    }
+
+    /* ---------------- Slots ---------------- */
+
+    /**
+     * Holt einen Slot und wartet höchstens maxWaitMillis.
+     * @return false = Warteschlange voll oder Wartezeit abgelaufen; dann kein release() aufrufen
+     */
+    public synchronized boolean tryAcquire(long maxWaitMillis) throws InterruptedException {
+        if (inFlight < (int) limit) {
+            inFlight++;
+            admitted.increment();
+            return true;
+        }
+        if (queued >= queueCapacity || maxWaitMillis <= 0) {
+            overflowQueue.increment();
+            return false;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        queued++;
+        try {
+            while (inFlight >= (int) limit) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    overflowTimeout.increment();
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, left);
+            }
+            inFlight++;
+            admitted.increment();
+            return true;
+        } finally {
+            queued--;
+        }
+    }
+
+    /**
+     * Gibt einen Slot zurück und passt das Limit an.
+     * @param rttNanos Dauer des Aufrufs
+     * @param ok       false bei Fehler/Timeout (zählt immer als Überlast)
+     */
+    public synchronized void release(long rttNanos, boolean ok) {
+        inFlight = Math.max(0, inFlight - 1);
+
+        if (ok) {
+            if (samples++ == 0) {
+                shortRttNanos = rttNanos;
+                longRttNanos = rttNanos;
+            } else {
+                shortRttNanos += SHORT_ALPHA * (rttNanos - shortRttNanos);
+                longRttNanos += LONG_ALPHA * (rttNanos - longRttNanos);
+            }
+        }
+        boolean congested = !ok
+                || (samples >= WARMUP_SAMPLES && shortRttNanos > longRttNanos * RTT_TOLERANCE);
+
+        if (congested) {
+            // alle Antworten eines Fensters spiegeln dieselbe Überlast – nur einmal zurücknehmen
+            long now = System.nanoTime();
+            long window = Math.max(MIN_BACKOFF_INTERVAL_NANOS, (long) shortRttNanos);
+            if (now - lastBackoffAt >= window) {
+                limit = Math.max(minLimit, limit * BACKOFF);
+                lastBackoffAt = now;
+            }
+        } else {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+        notifyAll();
+    }
+
+    /** Gibt einen Slot ohne Messwert zurück (Aufruf ist nie gestartet). */
+    public synchronized void cancel() {
+        inFlight = Math.max(0, inFlight - 1);
+        notifyAll();
+    }
+
+    /* ---------------- Zustand ---------------- */
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int queued() {
+        return queued;
+    }
+
+    public int maxLimit() {
+        return maxLimit;
+    }
+}
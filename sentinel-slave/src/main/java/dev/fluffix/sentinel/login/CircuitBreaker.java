@@ -0,0 +1,78 @@
+package dev.fluffix.sentinel.login;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Einfacher Circuit Breaker.
+ * CLOSED:    Anfragen laufen durch, aufeinanderfolgende Fehler werden gezählt.
+ * OPEN:      Nach failureThreshold Fehlern; Anfragen werden sofort abgewiesen.
+ * HALF_OPEN: Eine Hintergrund-Probe läuft; Anfragen werden weiterhin abgewiesen.
+ * Nur eine erfolgreiche Probe schließt den Breaker wieder.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile BiConsumer<State, State> transitionListener = (from, to) -> {};
+    private volatile long openedAtMillis;
+
+    public CircuitBreaker(int failureThreshold) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+    }
+
+    public void onTransition(BiConsumer<State, State> listener) {
+        this.transitionListener = Objects.requireNonNull(listener, "listener");
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public long getOpenedAtMillis() {
+        return openedAtMillis;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    /** true, wenn eine echte Anfrage gegen die Datenbank laufen darf. */
+    public boolean allowRequest() {
+        return state.get() == State.CLOSED;
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    public void recordFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            if (state.compareAndSet(State.CLOSED, State.OPEN)) {
+                openedAtMillis = System.currentTimeMillis();
+                transitionListener.accept(State.CLOSED, State.OPEN);
+            }
+        }
+    }
+
+    /** OPEN → HALF_OPEN; true, wenn der Aufrufer die Probe ausführen soll. */
+    public boolean tryStartProbe() {
+        return state.compareAndSet(State.OPEN, State.HALF_OPEN);
+    }
+
+    public void probeSucceeded() {
+        consecutiveFailures.set(0);
+        if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            transitionListener.accept(State.HALF_OPEN, State.CLOSED);
+        }
+    }
+
+    public void probeFailed() {
+        state.compareAndSet(State.HALF_OPEN, State.OPEN);
+    }
+}
@@ -0,0 +1,20 @@
+package dev.fluffix.sentinel.login;
+
+import java.util.Locale;
+
+/** Verhalten, wenn weder Datenbank noch Snapshot einen Ban liefern können. */
+public enum FailPolicy {
+    /** Login erlauben (Standard). */
+    FAIL_OPEN,
+    /** Login ablehnen, bis die Datenbank wieder antwortet. */
+    FAIL_CLOSED;
+
+    public static FailPolicy parse(String s) {
+        if (s == null) return FAIL_OPEN;
+        try {
+            return valueOf(s.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return FAIL_OPEN;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package dev.fluffix.sentinel.login;
+
+import dev.fluffix.sentinel.ban.Ban;
+import dev.fluffix.sentinel.ban.BanManager;
+import dev.fluffix.sentinel.ban.snapshot.BanSnapshot;
+import dev.fluffix.sentinel.ban.snapshot.SnapshotEntry;
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ban-Prüfung über einen eigenen In-Memory-Index (BanSnapshot im Datenordner),
+ * genutzt vom Velocity-Proxy und vom Standalone-Daemon.
+ *
+ * - Logins ohne Treffer kosten nur Hash-Lookups, keine DB-Abfrage.
+ * - Nur bei einem UUID-Treffer wird in der DB bestätigt (Unban auf einem Backend seit dem letzten Abgleich).
+ * - Neue Bans kommen per Delta-Abgleich (id > letzte bekannte id) im Sekundenabstand,
+ *   der volle Abgleich alle paar Minuten räumt Unbans und Änderungen auf.
+ * - AUTO_INCREMENT-IDs werden in Vergabe-, nicht in Commit-Reihenfolge sichtbar: eine Lücke unterhalb
+ *   der höchsten gesehenen ID kann ein noch nicht committeter Ban sein. Lücken werden GAP_WINDOW_MILLIS
+ *   lang gemerkt und bei jedem Delta mit abgefragt (danach gelten sie als gelöscht/zurückgerollt).
+ */
+public class IndexedBanGate {
+
+    private static final long GAP_WINDOW_MILLIS = 60_000L;
+    private static final int MAX_GAPS = 10_000;
+
+    private final BanManager bans;
+    private final BanSnapshot index;
+
+    private final LongAdder denied;
+    private final LongAdder unconfirmed;
+    private final LongAdder stale;
+
+    private long lastBanId;
+    private final TreeMap<Long, Long> gaps = new TreeMap<>(); // fehlende id -> bemerkt um (ms); guarded by this
+
+    public IndexedBanGate(BanManager bans, BanSnapshot index, SentinelMetrics metrics) {
+        this.bans = Objects.requireNonNull(bans, "bans");
+        this.index = Objects.requireNonNull(index, "index");
+        metrics.describe("sentinel_index_checks_total", "Ban-Prüfungen über den Index nach Ergebnis");
+        this.denied = metrics.counter("sentinel_index_checks_total", "result", "denied");
+        this.unconfirmed = metrics.counter("sentinel_index_checks_total", "result", "unconfirmed");
+        this.stale = metrics.counter("sentinel_index_checks_total", "result", "stale");
+    }
+
+    /**
+     * Aktiver Ban für den Login oder null.
+     * Bei DB-Fehlern während der Bestätigung gilt der Index-Treffer.
+     */
+    public SnapshotEntry check(UUID uuid, String ip) {
+        SnapshotEntry hit = index.lookup(uuid, ip);
+        if (hit == null) return null;
+
+        if (hit.uuid() != null && hit.uuid().equals(uuid)) {
+            try {
+                Ban current = bans.getActive(uuid);
+                if (current == null) {
+                    // auf einem Backend aufgehoben oder abgelaufen
+                    index.remove(hit.banId());
+                    stale.increment();
+                    return null;
+                }
+            } catch (SQLException e) {
+                unconfirmed.increment();
+            }
+        }
+        denied.increment();
+        return hit;
+    }
+
+    /** Neue Bans seit dem letzten Abgleich übernehmen; gibt sie für Kicks zurück. */
+    public synchronized List<Ban> syncDelta() throws SQLException {
+        long now = System.currentTimeMillis();
+        gaps.values().removeIf(since -> now - since > GAP_WINDOW_MILLIS);
+        long from = gaps.isEmpty() ? lastBanId : Math.min(lastBanId, gaps.firstKey() - 1);
+
+        List<Ban> fresh = new ArrayList<>();
+        long expected = lastBanId + 1;
+        for (Ban b : bans.listActiveSince(from)) {
+            if (b.getId() == null) continue;
+            long id = b.getId();
+            if (id <= lastBanId) {
+                // nur verspätet committete Lücken übernehmen, bekannte IDs nicht erneut melden
+                if (gaps.remove(id) == null) continue;
+            } else {
+                // vor dem ersten Abgleich (lastBanId = 0) gibt es keine Lücken, nur Unbekanntes
+                for (long missing = expected; lastBanId > 0 && missing < id && gaps.size() < MAX_GAPS; missing++) {
+                    gaps.put(missing, now);
+                }
+                expected = id + 1;
+                lastBanId = id;
+            }
+            index.onBanCreated(b);
+            fresh.add(b);
+        }
+        return fresh;
+    }
+
+    /** Index komplett aus der DB neu aufbauen. */
+    public synchronized int syncFull() throws SQLException, IOException {
+        index.syncFrom(bans);
+        lastBanId = Math.max(lastBanId, index.maxBanId());
+        return index.size();
+    }
+
+    public BanSnapshot getIndex() {
+        return index;
+    }
+
+    public int size() {
+        return index.size();
+    }
+}
@@ -0,0 +1,263 @@
+package dev.fluffix.sentinel.login;
+
+import dev.fluffix.sentinel.ban.Ban;
+import dev.fluffix.sentinel.ban.BanManager;
+import dev.fluffix.sentinel.ban.snapshot.BanSnapshot;
+import dev.fluffix.sentinel.ban.snapshot.SnapshotEntry;
+import dev.fluffix.sentinel.configuration.SentinelConfig;
+import dev.fluffix.sentinel.daemon.DaemonClient;
+import dev.fluffix.sentinel.daemon.DaemonProtocol;
+import dev.fluffix.sentinel.database.mysql.MySqlManager;
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ban-Prüfung beim Login mit Deadline und Circuit Breaker.
+ *
+ * - Die DB-Abfrage läuft auf einem eigenen, begrenzten Pool und wird nach
+ *   loginDeadlineMillis abgebrochen, statt den Login-Thread bis zum Hikari-Timeout zu blockieren.
+ * - Fehler/Timeouts zählen für den Breaker; ist er offen, wird ohne DB-Zugriff
+ *   aus dem Snapshot bzw. nach FailPolicy entschieden.
+ * - Im Hintergrund prüft eine Probe regelmäßig, ob die DB wieder erreichbar ist.
+ * - Vor der DB-Abfrage steht ein AdmissionController (adaptives Limit nach gemessener Latenz,
+ *   begrenzte Warteschlange). Bei Überlauf (Join-Welle) entscheidet der Snapshot, ohne den Breaker
+ *   zu belasten: die DB ist nur ausgelastet, nicht gestört.
+ * - Mit loginUseDaemon fragt der Guard den Standalone-Daemon statt MySQL (gleicher Pool, gleiche
+ *   Admission-, Deadline- und Breaker-Logik; Verbindungsaufbau ist auf die Deadline begrenzt).
+ * - Mit loginTrustProxy hat der Proxy (sentinel-velocity) bereits entschieden; geprüft wird
+ *   dann nur noch der lokale Snapshot, ohne DB-Abfrage. Das gilt nur, wenn der Aufrufer bestätigt,
+ *   dass der Server ausschließlich über den Proxy erreichbar ist (Velocity-Forwarding mit Secret);
+ *   sonst läuft die normale DB-Prüfung.
+ */
+public class LoginGuard implements AutoCloseable {
+
+    private final BanManager bans;      // null im Snapshot-Modus
+    private final MySqlManager db;      // null im Snapshot-Modus
+    private final BanSnapshot snapshot; // optional
+    private final DaemonClient daemon;  // optional
+    private final CircuitBreaker breaker;
+    private final FailPolicy policy;
+    private final long deadlineMillis;
+    private final boolean trustProxy;
+
+    private final ThreadPoolExecutor executor;
+    private final AdmissionController admission;
+    private final ScheduledExecutorService prober;
+    private final SentinelMetrics metrics;
+
+    private volatile String lastError;
+
+    /**
+     * @param proxyForwarding true, wenn der Server nur über einen Proxy mit Forwarding-Secret erreichbar ist;
+     *                        Voraussetzung dafür, dass loginTrustProxy wirkt
+     */
+    public LoginGuard(BanManager bans, MySqlManager db, BanSnapshot snapshot, SentinelConfig config,
+                      SentinelMetrics metrics, boolean proxyForwarding) {
+        this.bans = bans;
+        this.db = db;
+        this.snapshot = snapshot;
+        this.breaker = new CircuitBreaker(config.loginFailureThreshold());
+        this.policy = FailPolicy.parse(config.loginFailPolicy());
+        this.deadlineMillis = config.loginDeadlineMillis();
+        this.trustProxy = config.loginTrustProxy() && proxyForwarding;
+        this.daemon = config.loginUseDaemon() ? new DaemonClient(DaemonProtocol.address(config), config.daemonSecret(), config.loginDeadlineMillis())
+                : null;
+        this.metrics = metrics;
+        metrics.describe("sentinel_login_check_seconds", "Dauer der Ban-Prüfung beim Login nach Ergebnis")
+                .describe("sentinel_login_breaker_open", "1 = Circuit Breaker offen, 0 = geschlossen")
+                .describe("sentinel_login_overflow_total", "Logins ohne DB-Slot, aus dem Snapshot entschieden");
+        metrics.gauge("sentinel_login_breaker_open",
+                () -> breaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1);
+
+        int threads = config.loginThreads();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 8), daemonFactory("Sentinel-Login"));
+        this.executor.allowCoreThreadTimeOut(true);
+        this.admission = new AdmissionController("login", config.loginAdmissionMinLimit(), threads,
+                config.loginQueueCapacity(), metrics);
+
+        this.prober = Executors.newSingleThreadScheduledExecutor(daemonFactory("Sentinel-LoginProbe"));
+        long probe = config.loginProbeSeconds();
+        this.prober.scheduleWithFixedDelay(this::probe, probe, probe, TimeUnit.SECONDS);
+    }
+
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    /** true, wenn loginTrustProxy tatsächlich aktiv ist (Forwarding bestätigt). */
+    public boolean isTrustingProxy() {
+        return trustProxy;
+    }
+
+    public FailPolicy getPolicy() {
+        return policy;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public AdmissionController getAdmission() {
+        return admission;
+    }
+
+    /* ---------------- Prüfung ---------------- */
+
+    public LoginVerdict check(UUID uuid, String ip) {
+        long start = System.nanoTime();
+        LoginVerdict verdict = evaluate(uuid, ip);
+        metrics.histogram("sentinel_login_check_seconds", "outcome", verdict.outcome().name().toLowerCase(Locale.ROOT))
+                .recordSince(start);
+        return verdict;
+    }
+
+    private LoginVerdict evaluate(UUID uuid, String ip) {
+        if (trustProxy) {
+            SnapshotEntry hit = snapshot == null ? null : snapshot.lookup(uuid, ip);
+            return hit != null ? LoginVerdict.cached(hit) : LoginVerdict.allowed();
+        }
+        if ((bans == null && daemon == null) || !breaker.allowRequest()) {
+            return fallback(uuid, ip);
+        }
+
+        long start = System.nanoTime();
+        Future<LoginVerdict> future;
+        // true, sobald Task oder Aufrufer den Slot übernommen hat; ein nie gestarteter Task gibt ihn nicht zurück
+        AtomicBoolean claimed = new AtomicBoolean();
+        // höchstens die halbe Deadline auf einen Slot warten, der Rest bleibt der Abfrage
+        try {
+            if (!admission.tryAcquire(deadlineMillis / 2)) {
+                return overflow(uuid, ip);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return fallback(uuid, ip);
+        }
+        try {
+            // auch der Daemon-Aufruf läuft im Pool: connect() und Handshake blockieren, nie der Login-Thread
+            future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) return null;
+                long t0 = System.nanoTime();
+                boolean ok = false;
+                try {
+                    LoginVerdict v = daemon != null ? fromDaemon(uuid, ip) : fromDatabase(uuid, ip);
+                    ok = true;
+                    return v;
+                } finally {
+                    admission.release(System.nanoTime() - t0, ok);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            admission.cancel();
+            metrics.counter("sentinel_login_check_failures_total", "cause", "rejected").increment();
+            failed("Login-Pool ausgelastet");
+            return fallback(uuid, ip);
+        }
+
+        LoginVerdict verdict;
+        try {
+            long left = deadlineMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            verdict = future.get(Math.max(1, left), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            if (claimed.compareAndSet(false, true)) {
+                admission.release(TimeUnit.MILLISECONDS.toNanos(deadlineMillis), false);
+            }
+            metrics.counter("sentinel_login_check_failures_total", "cause", "timeout").increment();
+            failed("Deadline von " + deadlineMillis + " ms überschritten");
+            return fallback(uuid, ip);
+        } catch (ExecutionException ex) {
+            metrics.counter("sentinel_login_check_failures_total", "cause", "error").increment();
+            Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+            failed(cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage());
+            return fallback(uuid, ip);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            if (claimed.compareAndSet(false, true)) admission.cancel();
+            return fallback(uuid, ip);
+        }
+
+        breaker.recordSuccess();
+        return verdict;
+    }
+
+    private LoginVerdict fromDaemon(UUID uuid, String ip) throws Exception {
+        SnapshotEntry hit = daemon.lookup(uuid, ip).get(deadlineMillis, TimeUnit.MILLISECONDS);
+        return hit != null ? LoginVerdict.cached(hit) : LoginVerdict.allowed();
+    }
+
+    private LoginVerdict fromDatabase(UUID uuid, String ip) throws Exception {
+        Ban ban = bans.getActive(uuid);
+        if (ban != null) return LoginVerdict.banned(ban);
+
+        // IP-Bans kennt nur der Snapshot (UUID-Status kam frisch aus der DB)
+        SnapshotEntry ipHit = snapshot == null ? null : snapshot.lookup(null, ip);
+        return ipHit != null ? LoginVerdict.cached(ipHit) : LoginVerdict.allowed();
+    }
+
+    /**
+     * Überlauf der Admission: Entscheidung aus dem Snapshot (wird über BanListener und Delta-Abgleich
+     * aktuell gehalten). Die FailPolicy greift nur ohne Snapshot, da die DB nicht gestört ist.
+     */
+    private LoginVerdict overflow(UUID uuid, String ip) {
+        metrics.counter("sentinel_login_overflow_total").increment();
+        if (snapshot == null) return fallback(uuid, ip);
+        SnapshotEntry hit = snapshot.lookup(uuid, ip);
+        return hit != null ? LoginVerdict.cached(hit) : LoginVerdict.allowed();
+    }
+
+    private LoginVerdict fallback(UUID uuid, String ip) {
+        SnapshotEntry hit = snapshot == null ? null : snapshot.lookup(uuid, ip);
+        if (hit != null) return LoginVerdict.cached(hit);
+        return policy == FailPolicy.FAIL_CLOSED ? LoginVerdict.unavailable() : LoginVerdict.allowed();
+    }
+
+    private void failed(String reason) {
+        lastError = reason;
+        breaker.recordFailure();
+    }
+
+    /* ---------------- Recovery ---------------- */
+
+    private void probe() {
+        if ((db == null && daemon == null) || !breaker.tryStartProbe()) return;
+        if (daemon != null ? daemonReachable() : db.isReachable(2)) {
+            breaker.probeSucceeded();
+        } else {
+            breaker.probeFailed();
+        }
+    }
+
+    private boolean daemonReachable() {
+        try {
+            daemon.ping().get(2, TimeUnit.SECONDS);
+            return true;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static ThreadFactory daemonFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    @Override
+    public void close() {
+        prober.shutdownNow();
+        executor.shutdownNow();
+        if (daemon != null) daemon.close();
+    }
+}
@@ -0,0 +1,41 @@
+package dev.fluffix.sentinel.login;
+
+import dev.fluffix.sentinel.ban.Ban;
+import dev.fluffix.sentinel.ban.snapshot.SnapshotEntry;
+
+/**
+ * Ergebnis einer Login-Prüfung.
+ * ban ist nur bei BANNED gesetzt, cached nur bei BANNED_CACHED.
+ */
+public record LoginVerdict(Outcome outcome, Ban ban, SnapshotEntry cached) {
+
+    public enum Outcome {
+        /** Kein aktiver Ban gefunden. */
+        ALLOWED,
+        /** Aktiver Ban aus der Datenbank. */
+        BANNED,
+        /** Aktiver Ban aus dem lokalen Snapshot (DB nicht verfügbar oder IP-Ban). */
+        BANNED_CACHED,
+        /** DB nicht verfügbar, kein lokaler Treffer und Policy FAIL_CLOSED. */
+        UNAVAILABLE
+    }
+
+    private static final LoginVerdict ALLOWED_VERDICT = new LoginVerdict(Outcome.ALLOWED, null, null);
+    private static final LoginVerdict UNAVAILABLE_VERDICT = new LoginVerdict(Outcome.UNAVAILABLE, null, null);
+
+    public static LoginVerdict allowed() {
+        return ALLOWED_VERDICT;
+    }
+
+    public static LoginVerdict unavailable() {
+        return UNAVAILABLE_VERDICT;
+    }
+
+    public static LoginVerdict banned(Ban ban) {
+        return new LoginVerdict(Outcome.BANNED, ban, null);
+    }
+
+    public static LoginVerdict cached(SnapshotEntry entry) {
+        return new LoginVerdict(Outcome.BANNED_CACHED, null, entry);
+    }
+}
@@ -0,0 +1,74 @@
+package dev.fluffix.sentinel.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-freies Latenz-Histogramm mit festen Buckets (Obergrenzen in Millisekunden).
+ * record() kostet einen linearen Bucket-Scan + zwei LongAdder-Inkremente.
+ */
+public class LatencyHistogram {
+
+    /** Bucket-Obergrenzen in ms; der letzte Bucket (+Inf) ist implizit. */
+    static final double[] BOUNDS_MS = {0.25, 0.5, 1, 2.5, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        double ms = nanos / 1_000_000.0;
+        int i = 0;
+        while (i < BOUNDS_MS.length && ms > BOUNDS_MS[i]) i++;
+        buckets[i].increment();
+        count.increment();
+        sumNanos.add(nanos);
+    }
+
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public double sumSeconds() {
+        return sumNanos.sum() / 1_000_000_000.0;
+    }
+
+    public double meanMillis() {
+        long c = count.sum();
+        return c == 0 ? 0.0 : TimeUnit.NANOSECONDS.toMicros(sumNanos.sum() / c) / 1000.0;
+    }
+
+    /** Nicht-kumulative Bucket-Stände (Länge BOUNDS_MS.length + 1). */
+    long[] bucketCounts() {
+        long[] out = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) out[i] = buckets[i].sum();
+        return out;
+    }
+
+    /** Perzentil (0..1) als Bucket-Obergrenze in ms; +Inf-Bucket liefert die größte Grenze. */
+    public double percentileMillis(double q) {
+        long[] counts = bucketCounts();
+        long total = 0;
+        for (long c : counts) total += c;
+        if (total == 0) return 0.0;
+
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i < BOUNDS_MS.length ? BOUNDS_MS[i] : BOUNDS_MS[BOUNDS_MS.length - 1];
+            }
+        }
+        return BOUNDS_MS[BOUNDS_MS.length - 1];
+    }
+}
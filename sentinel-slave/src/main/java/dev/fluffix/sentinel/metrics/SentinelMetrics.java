@@ -0,0 +1,162 @@
+package dev.fluffix.sentinel.metrics;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Zentrale Sammelstelle für Laufzeit-Metriken (Histogramme, Zähler, Gauges).
+ * Labels werden als Key/Value-Paare übergeben: histogram("x", "statement", "select ...").
+ * Export im Prometheus-Textformat über writeExposition().
+ */
+public class SentinelMetrics {
+
+    private final Map<MetricKey, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<MetricKey, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<MetricKey, Supplier<? extends Number>> gauges = new ConcurrentHashMap<>();
+    private final Map<String, String> help = new ConcurrentHashMap<>();
+
+    /** Metrik-Name + sortierte Labels. */
+    public record MetricKey(String name, List<String> labels) {
+
+        static MetricKey of(String name, String... kv) {
+            if (kv == null || kv.length == 0) return new MetricKey(name, List.of());
+            if (kv.length % 2 != 0) throw new IllegalArgumentException("Labels müssen als Key/Value-Paare angegeben werden");
+            return new MetricKey(name, List.of(kv));
+        }
+
+        public String label(String key) {
+            for (int i = 0; i + 1 < labels.size(); i += 2) {
+                if (labels.get(i).equals(key)) return labels.get(i + 1);
+            }
+            return null;
+        }
+    }
+
+    /* ---------------- Registrierung ---------------- */
+
+    public SentinelMetrics describe(String name, String description) {
+        help.put(name, description);
+        return this;
+    }
+
+    public LatencyHistogram histogram(String name, String... labels) {
+        return histograms.computeIfAbsent(MetricKey.of(name, labels), k -> new LatencyHistogram());
+    }
+
+    public LongAdder counter(String name, String... labels) {
+        return counters.computeIfAbsent(MetricKey.of(name, labels), k -> new LongAdder());
+    }
+
+    public void gauge(String name, Supplier<? extends Number> supplier, String... labels) {
+        gauges.put(MetricKey.of(name, labels), Objects.requireNonNull(supplier, "supplier"));
+    }
+
+    public void removeGauges(String name) {
+        gauges.keySet().removeIf(k -> k.name().equals(name));
+    }
+
+    /* ---------------- Lesen ---------------- */
+
+    public Map<MetricKey, LatencyHistogram> histograms(String name) {
+        Map<MetricKey, LatencyHistogram> out = new TreeMap<>(KEY_ORDER);
+        histograms.forEach((k, v) -> { if (k.name().equals(name)) out.put(k, v); });
+        return out;
+    }
+
+    public long counterValue(String name, String... labels) {
+        LongAdder a = counters.get(MetricKey.of(name, labels));
+        return a == null ? 0L : a.sum();
+    }
+
+    public Number gaugeValue(String name, String... labels) {
+        Supplier<? extends Number> s = gauges.get(MetricKey.of(name, labels));
+        return s == null ? null : safeGet(s);
+    }
+
+    /* ---------------- Export ---------------- */
+
+    /** Prometheus Text Exposition Format 0.0.4. */
+    public String writeExposition() {
+        StringBuilder sb = new StringBuilder(4096);
+        Set<String> typed = new HashSet<>();
+
+        for (Map.Entry<MetricKey, Supplier<? extends Number>> e : sorted(gauges).entrySet()) {
+            header(sb, typed, e.getKey().name(), "gauge");
+            Number n = safeGet(e.getValue());
+            sb.append(e.getKey().name()).append(labels(e.getKey().labels(), null, null))
+                    .append(' ').append(n == null ? "NaN" : n).append('\n');
+        }
+
+        for (Map.Entry<MetricKey, LongAdder> e : sorted(counters).entrySet()) {
+            header(sb, typed, e.getKey().name(), "counter");
+            sb.append(e.getKey().name()).append(labels(e.getKey().labels(), null, null))
+                    .append(' ').append(e.getValue().sum()).append('\n');
+        }
+
+        for (Map.Entry<MetricKey, LatencyHistogram> e : sorted(histograms).entrySet()) {
+            String name = e.getKey().name();
+            List<String> l = e.getKey().labels();
+            LatencyHistogram h = e.getValue();
+            header(sb, typed, name, "histogram");
+
+            long[] counts = h.bucketCounts();
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                String le = i < LatencyHistogram.BOUNDS_MS.length
+                        ? Double.toString(LatencyHistogram.BOUNDS_MS[i] / 1000.0)
+                        : "+Inf";
+                sb.append(name).append("_bucket").append(labels(l, "le", le))
+                        .append(' ').append(cumulative).append('\n');
+            }
+            sb.append(name).append("_sum").append(labels(l, null, null)).append(' ').append(h.sumSeconds()).append('\n');
+            sb.append(name).append("_count").append(labels(l, null, null)).append(' ').append(cumulative).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private void header(StringBuilder sb, Set<String> typed, String name, String type) {
+        if (!typed.add(name)) return;
+        String h = help.get(name);
+        if (h != null) sb.append("# HELP ").append(name).append(' ').append(h).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String labels(List<String> kv, String extraKey, String extraValue) {
+        if (kv.isEmpty() && extraKey == null) return "";
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i + 1 < kv.size(); i += 2) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append(kv.get(i)).append("=\"").append(escape(kv.get(i + 1))).append('"');
+        }
+        if (extraKey != null) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append(extraKey).append("=\"").append(escape(extraValue)).append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String escape(String v) {
+        if (v == null) return "";
+        return v.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static Number safeGet(Supplier<? extends Number> s) {
+        try {
+            return s.get();
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private static final Comparator<MetricKey> KEY_ORDER =
+            Comparator.comparing(MetricKey::name).thenComparing(k -> String.join("\u0000", k.labels()));
+
+    private static <V> Map<MetricKey, V> sorted(Map<MetricKey, V> in) {
+        Map<MetricKey, V> out = new TreeMap<>(KEY_ORDER);
+        out.putAll(in);
+        return out;
+    }
+}
@@ -0,0 +1,78 @@
+package dev.fluffix.sentinel.mute;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+public class Mute {
+    private Long id;                     // DB-Primärschlüssel
+    private UUID uniqueId;               // Spieler UUID
+    private String name;                 // Spielername
+    private String operator;             // wer gemutet hat (Name/UUID/Freitext)
+    private MuteType type;               // TEMP | PERMANENT
+    private List<String> reasons;        // Gründe (Liste)
+    private long remainingSeconds;       // Restdauer in Sekunden (0 = permanent)
+    private String notice;               // Hinweis/Notiz
+
+    // abgeleitete/DB-Felder (nur lesen)
+    private Instant createdAt;
+    private Instant expiresAt;           // null, wenn permanent
+    private boolean active;              // true, wenn jetzt aktiv
+
+    public Mute() {
+        this.reasons = new ArrayList<>();
+    }
+
+    public Mute(UUID uniqueId, String name, String operator, MuteType type,
+                List<String> reasons, long remainingSeconds, String notice) {
+        this.uniqueId = Objects.requireNonNull(uniqueId, "uniqueId");
+        this.name = Objects.requireNonNull(name, "name");
+        this.operator = operator;
+        this.type = Objects.requireNonNull(type, "type");
+        this.reasons = (reasons == null) ? new ArrayList<>() : new ArrayList<>(reasons);
+        this.remainingSeconds = Math.max(0, remainingSeconds);
+        this.notice = notice;
+    }
+
+    // ---- Getter/Setter ----
+    public Long getId() { return id; }
+    public Mute setId(Long id) { this.id = id; return this; }
+
+    public UUID getUniqueId() { return uniqueId; }
+    public Mute setUniqueId(UUID uniqueId) { this.uniqueId = uniqueId; return this; }
+
+    public String getName() { return name; }
+    public Mute setName(String name) { this.name = name; return this; }
+
+    public String getOperator() { return operator; }
+    public Mute setOperator(String operator) { this.operator = operator; return this; }
+
+    public MuteType getType() { return type; }
+    public Mute setType(MuteType type) { this.type = type; return this; }
+
+    public List<String> getReasons() { return reasons; }
+    public Mute setReasons(List<String> reasons) {
+        this.reasons = (reasons == null) ? new ArrayList<>() : new ArrayList<>(reasons);
+        return this;
+    }
+
+    public long getRemainingSeconds() { return remainingSeconds; }
+    public Mute setRemainingSeconds(long remainingSeconds) {
+        this.remainingSeconds = Math.max(0, remainingSeconds);
+        return this;
+    }
+
+    public String getNotice() { return notice; }
+    public Mute setNotice(String notice) { this.notice = notice; return this; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public Mute setCreatedAt(Instant createdAt) { this.createdAt = createdAt; return this; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public Mute setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; return this; }
+
+    public boolean isActive() { return active; }
+    public Mute setActive(boolean active) { this.active = active; return this; }
+}
@@ -0,0 +1,106 @@
+package dev.fluffix.sentinel.mute;
+
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-Memory-Index der aktiven Mutes (UUID -> Eintrag).
+ * Wird vom Chat- und Command-Pfad abgefragt: ein Hash-Lookup, kein DB-Zugriff.
+ * Abgelaufene Einträge werden beim Lookup still entfernt.
+ */
+public class MuteIndex {
+
+    /** Schlanke Kopie der für Chat-Hinweise nötigen Felder. expiresAtMillis = 0 ⇒ permanent. */
+    public record Entry(long muteId, UUID uuid, long expiresAtMillis, String reasons, String operator) {
+
+        public static Entry of(Mute mute) {
+            long expires = mute.getExpiresAt() == null ? 0L : mute.getExpiresAt().toEpochMilli();
+            String reasons = mute.getReasons() == null || mute.getReasons().isEmpty()
+                    ? "-" : String.join(", ", mute.getReasons());
+            return new Entry(mute.getId() == null ? 0L : mute.getId(), mute.getUniqueId(), expires, reasons, mute.getOperator());
+        }
+
+        public boolean isPermanent() {
+            return expiresAtMillis == 0L;
+        }
+
+        public boolean isExpired(long nowMillis) {
+            return !isPermanent() && expiresAtMillis <= nowMillis;
+        }
+
+        public long remainingSeconds(long nowMillis) {
+            return isPermanent() ? 0L : Math.max(0L, (expiresAtMillis - nowMillis) / 1000L);
+        }
+    }
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    public void bindMetrics(SentinelMetrics metrics) {
+        metrics.gauge("sentinel_cache_entries", entries::size, "cache", "mutes");
+    }
+
+    /** Aktiver Mute oder null. */
+    public Entry get(UUID uuid) {
+        if (uuid == null) return null;
+        Entry e = entries.get(uuid);
+        if (e != null && e.isExpired(System.currentTimeMillis())) {
+            entries.remove(uuid, e);
+            return null;
+        }
+        return e;
+    }
+
+    public boolean isMuted(UUID uuid) {
+        return get(uuid) != null;
+    }
+
+    public void put(Entry entry) {
+        entries.put(entry.uuid(), entry);
+    }
+
+    public void remove(UUID uuid) {
+        entries.remove(uuid);
+    }
+
+    /** Entfernt den Eintrag nur, wenn er noch zu genau diesem Mute gehört. */
+    public void remove(UUID uuid, long muteId) {
+        entries.computeIfPresent(uuid, (k, e) -> e.muteId() == muteId ? null : e);
+    }
+
+    /** Kopie des aktuellen Inhalts, z. B. als Ausgangsstand für {@link #sync}. */
+    public Map<UUID, Entry> view() {
+        return Map.copyOf(entries);
+    }
+
+    /**
+     * Gleicht den Index mit dem DB-Stand ab. before ist der Stand vor dem Lesen:
+     * Einträge, die sich seitdem lokal geändert haben (neuer Mute/Unmute), bleiben unangetastet.
+     */
+    public void sync(Map<UUID, Entry> before, Map<UUID, Entry> fresh) {
+        Set<UUID> keys = new HashSet<>(before.keySet());
+        keys.addAll(fresh.keySet());
+        for (UUID uuid : keys) {
+            sync(uuid, before.get(uuid), fresh.get(uuid));
+        }
+    }
+
+    /** Einzelabgleich: setzt fresh (null = entfernen), sofern der Eintrag noch before entspricht. */
+    public void sync(UUID uuid, Entry before, Entry fresh) {
+        entries.compute(uuid, (k, cur) -> Objects.equals(cur, before) ? fresh : cur);
+    }
+
+    /** Roh-Lookup ohne Ablaufprüfung (Ausgangsstand für {@link #sync(UUID, Entry, Entry)}). */
+    public Entry peek(UUID uuid) {
+        return entries.get(uuid);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,435 @@
+package dev.fluffix.sentinel.mute;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.fluffix.sentinel.database.mysql.MySqlManager;
+import dev.fluffix.sentinel.database.mysql.QueryTag;
+import dev.fluffix.sentinel.database.mysql.QueryTag.Workload;
+import dev.fluffix.sentinel.player.SentinelPlayer;
+import dev.fluffix.sentinel.player.SentinelPlayerManager;
+import dev.fluffix.sentinel.reasons.Reason;
+import dev.fluffix.sentinel.reasons.ReasonManager;
+import dev.fluffix.sentinel.reasons.ReasonType;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Persistenter Mute-Manager (Gegenstück zum BanManager).
+ * - Nur Reasons erlaubt, die im ReasonManager mit Typ MUTE existieren.
+ * - Auto-Dauer aus Reasons (max Dauer; 0 => permanent).
+ * - Aufgehobene/abgelaufene Mutes werden in die Archiv-Tabelle verschoben.
+ * - Aktive Mutes liegen zusätzlich im {@link MuteIndex}; Chat/Commands fragen nur den Index.
+ */
+public class MuteManager {
+
+    private final MySqlManager db;
+    private final SentinelPlayerManager players; // optional, für Offline-Mutes
+    private final ReasonManager reasons;         // Pflicht: Validierung + Auto-Dauer
+    private final MuteIndex index = new MuteIndex();
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String COLUMNS =
+            "id, uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active";
+
+    private static final QueryTag TAG_SCHEMA = QueryTag.of("mute.schema");
+    private static final QueryTag TAG_CREATE = QueryTag.of("mute.create");
+    private static final QueryTag TAG_GET_ACTIVE = QueryTag.of("mute.getActive");
+    private static final QueryTag TAG_LOAD_ACTIVE = QueryTag.of("mute.loadActive", Workload.MAINTENANCE);
+    private static final QueryTag TAG_LIST_FOR = QueryTag.replicaRead("mute.listFor");
+    private static final QueryTag TAG_UNMUTE = QueryTag.of("mute.unmute");
+    private static final QueryTag TAG_UNMUTE_ALL = QueryTag.of("mute.unmuteAll");
+    private static final QueryTag TAG_EXPIRE = QueryTag.of("mute.expireDue", Workload.MAINTENANCE);
+
+    public MuteManager(MySqlManager db, SentinelPlayerManager players, ReasonManager reasons) throws SQLException {
+        this.db = Objects.requireNonNull(db, "db");
+        this.players = players;
+        this.reasons = Objects.requireNonNull(reasons, "reasons");
+        ensureSchema();
+    }
+
+    /* ---------------- Schema ---------------- */
+
+    private void ensureSchema() throws SQLException {
+        db.schema().ensure("mutes", List.of(this::migrateV1));
+    }
+
+    /** Version 1: Ausgangsschema (idempotent, damit Bestandsinstallationen ohne Versionszeile sauber übernommen werden). */
+    private void migrateV1() throws SQLException {
+        // Live-Tabelle
+        db.update(TAG_SCHEMA, """
+            CREATE TABLE IF NOT EXISTS sentinel_mutes (
+              id                BIGINT        NOT NULL AUTO_INCREMENT,
+              uuid              CHAR(36)      NOT NULL,
+              name              VARCHAR(64)   NOT NULL,
+              operator          VARCHAR(64)   NULL,
+              type              VARCHAR(16)   NOT NULL,
+              reasons           JSON          NOT NULL,
+              remaining_seconds BIGINT        NOT NULL DEFAULT 0,
+              notice            TEXT          NULL,
+              created_at        TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+              expires_at        TIMESTAMP     NULL,
+              active            TINYINT(1)    NOT NULL DEFAULT 1,
+              active_uuid       CHAR(36)      GENERATED ALWAYS AS (IF(active = 1, uuid, NULL)) STORED,
+              PRIMARY KEY (id),
+              UNIQUE KEY uq_active_uuid (active_uuid),
+              INDEX idx_uuid_active (uuid, active),
+              INDEX idx_expires_at (expires_at)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+        """);
+        ensureActiveUnique();
+
+        // Archiv-Tabelle (gleiche Spalten + archived_at)
+        db.update(TAG_SCHEMA, """
+            CREATE TABLE IF NOT EXISTS sentinel_mutes_archive (
+              id                BIGINT        NOT NULL,
+              uuid              CHAR(36)      NOT NULL,
+              name              VARCHAR(64)   NOT NULL,
+              operator          VARCHAR(64)   NULL,
+              type              VARCHAR(16)   NOT NULL,
+              reasons           JSON          NOT NULL,
+              remaining_seconds BIGINT        NOT NULL DEFAULT 0,
+              notice            TEXT          NULL,
+              created_at        TIMESTAMP     NOT NULL,
+              expires_at        TIMESTAMP     NULL,
+              active            TINYINT(1)    NOT NULL,
+              archived_at       TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+              PRIMARY KEY (id),
+              INDEX idx_arch_uuid (uuid),
+              INDEX idx_archived_at (archived_at)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+        """);
+    }
+
+    /**
+     * Bestandstabellen: höchstens ein aktiver Mute pro UUID per Unique-Index erzwingen.
+     * Vorhandene Mehrfach-Mutes werden vorher bis auf den neuesten archiviert, sonst scheitert der Index.
+     */
+    private void ensureActiveUnique() throws SQLException {
+        List<Map<String, Object>> cols = db.query(TAG_SCHEMA, """
+            SELECT 1 FROM information_schema.COLUMNS
+             WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'sentinel_mutes' AND COLUMN_NAME = 'active_uuid'
+        """);
+        if (!cols.isEmpty()) return;
+
+        db.inTransaction(TAG_SCHEMA, con -> {
+            try {
+                List<Object> ids = new ArrayList<>();
+                for (Map<String, Object> r : db.query(con, """
+                    SELECT m.id
+                      FROM sentinel_mutes m
+                      JOIN (SELECT uuid, MAX(id) AS keep_id
+                              FROM sentinel_mutes
+                             WHERE active = 1
+                             GROUP BY uuid
+                            HAVING COUNT(*) > 1) d ON d.uuid = m.uuid
+                     WHERE m.active = 1 AND m.id <> d.keep_id
+                       FOR UPDATE
+                """)) {
+                    ids.add(((Number) r.get("id")).longValue());
+                }
+                if (ids.isEmpty()) return null;
+
+                String in = String.join(",", Collections.nCopies(ids.size(), "?"));
+                archive(con, "id IN (" + in + ")", ids.toArray());
+                db.update(con, "DELETE FROM sentinel_mutes WHERE id IN (" + in + ")", ids.toArray());
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+            return null;
+        });
+
+        db.update(TAG_SCHEMA, """
+            ALTER TABLE sentinel_mutes
+              ADD COLUMN active_uuid CHAR(36) GENERATED ALWAYS AS (IF(active = 1, uuid, NULL)) STORED,
+              ADD UNIQUE KEY uq_active_uuid (active_uuid)
+        """);
+    }
+
+    /* ---------------- Index (Chat-Pfad) ---------------- */
+
+    public MuteIndex getIndex() {
+        return index;
+    }
+
+    /** Hash-Lookup im Index, nie ein DB-Zugriff. null = nicht gemutet. */
+    public MuteIndex.Entry check(UUID uuid) {
+        return index.get(uuid);
+    }
+
+    /** Lädt alle aktiven Mutes vom Primary und gleicht den Index ab. */
+    public int syncIndex() throws SQLException {
+        Map<UUID, MuteIndex.Entry> before = index.view();
+        List<Map<String, Object>> rows = db.query(TAG_LOAD_ACTIVE,
+                "SELECT " + COLUMNS + " FROM sentinel_mutes WHERE active = 1"
+                        + " AND (expires_at IS NULL OR expires_at > CURRENT_TIMESTAMP)");
+        Map<UUID, MuteIndex.Entry> fresh = new HashMap<>();
+        for (Map<String, Object> r : rows) {
+            MuteIndex.Entry e = MuteIndex.Entry.of(mapRow(r));
+            fresh.merge(e.uuid(), e, MuteManager::longer);
+        }
+        index.sync(before, fresh);
+        return fresh.size();
+    }
+
+    /** Lädt den Mute eines einzelnen Spielers neu (z. B. beim Login, Mutes anderer Server). */
+    public MuteIndex.Entry refresh(UUID uuid) throws SQLException {
+        MuteIndex.Entry before = index.peek(uuid);
+        Mute active = getActive(uuid);
+        MuteIndex.Entry fresh = active == null ? null : MuteIndex.Entry.of(active);
+        index.sync(uuid, before, fresh);
+        return fresh;
+    }
+
+    private static MuteIndex.Entry longer(MuteIndex.Entry a, MuteIndex.Entry b) {
+        if (a.isPermanent()) return a;
+        if (b.isPermanent()) return b;
+        return a.expiresAtMillis() >= b.expiresAtMillis() ? a : b;
+    }
+
+    /* ---------------- Helpers ---------------- */
+
+    private static String reasonsToJson(List<String> reasons) {
+        try { return MAPPER.writeValueAsString(reasons == null ? List.of() : reasons); }
+        catch (Exception e) { throw new IllegalArgumentException("Failed to serialize reasons", e); }
+    }
+
+    private static List<String> jsonToReasons(Object json) {
+        if (json == null) return new ArrayList<>();
+        try {
+            if (json instanceof String s) return MAPPER.readValue(s, new TypeReference<List<String>>() {});
+            return MAPPER.convertValue(json, new TypeReference<List<String>>() {});
+        } catch (Exception e) { return new ArrayList<>(); }
+    }
+
+    private static Instant toInstant(Object ts) {
+        if (ts == null) return null;
+        if (ts instanceof java.sql.Timestamp t) return t.toInstant();
+        if (ts instanceof java.util.Date d) return d.toInstant();
+        if (ts instanceof Long l) return Instant.ofEpochMilli(l);
+        return null;
+    }
+
+    private static boolean toBool(Object o) {
+        if (o instanceof Boolean b) return b;
+        if (o instanceof Number n) return n.intValue() != 0;
+        if (o instanceof String s) return "1".equals(s) || "true".equalsIgnoreCase(s);
+        return false;
+    }
+
+    private Mute mapRow(Map<String, Object> r) {
+        Mute m = new Mute();
+        m.setId(((Number) r.get("id")).longValue());
+        m.setUniqueId(UUID.fromString(Objects.toString(r.get("uuid"))));
+        m.setName(Objects.toString(r.get("name"), "Unknown"));
+        m.setOperator(Objects.toString(r.get("operator"), null));
+        m.setType(MuteType.valueOf(Objects.toString(r.get("type"))));
+        m.setReasons(jsonToReasons(r.get("reasons")));
+        m.setRemainingSeconds(((Number) r.get("remaining_seconds")).longValue());
+        m.setNotice(Objects.toString(r.get("notice"), null));
+        m.setCreatedAt(toInstant(r.get("created_at")));
+        m.setExpiresAt(toInstant(r.get("expires_at")));
+        m.setActive(toBool(r.get("active")));
+        return m;
+    }
+
+    /** prüft, dass alle übergebenen Gründe im ReasonManager (Typ MUTE) existieren. */
+    private void validateMuteReasons(List<String> provided) throws SQLException {
+        if (provided == null || provided.isEmpty())
+            throw new IllegalArgumentException("Es muss mindestens ein gültiger MUTE-Grund angegeben werden.");
+
+        Set<String> validNames = new HashSet<>();
+        for (Reason r : reasons.loadAll(ReasonType.MUTE)) validNames.add(r.getName().toLowerCase(Locale.ROOT));
+
+        List<String> unknown = new ArrayList<>();
+        for (String p : provided) {
+            if (p == null || p.isBlank() || !validNames.contains(p.toLowerCase(Locale.ROOT))) {
+                unknown.add(p == null ? "<null>" : p);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Ungültige MUTE-Gründe: " + String.join(", ", unknown));
+        }
+    }
+
+    /** berechnet Auto-Dauer aus MUTE-Reasons: max(duration); 0 irgendwo ⇒ permanent. */
+    private long computeDurationFromReasonsSeconds(List<String> provided) throws SQLException {
+        validateMuteReasons(provided);
+        long max = 0;
+        for (String name : provided) {
+            Reason r = reasons.load(name, ReasonType.MUTE);
+            if (r == null) continue;
+            long d = r.getDurationSeconds();
+            if (d == 0) return 0; // permanent
+            if (d > max) max = d;
+        }
+        return max;
+    }
+
+    /* ---------------- Create ---------------- */
+
+    /** Mute mit Auto-Dauer aus den Reasons; schlägt fehl, wenn bereits ein aktiver Mute existiert. */
+    public Mute createAuto(UUID uuid, String name, String operator,
+                           List<String> reasonsList, String notice) throws SQLException {
+        Objects.requireNonNull(uuid, "uuid");
+        Objects.requireNonNull(name, "name");
+
+        // Scope hält auch die Reason-Prüfung auf dem Primary (frisch angelegte Gründe)
+        try (MySqlManager.Scope ignored = db.scope(TAG_CREATE)) {
+            long auto = computeDurationFromReasonsSeconds(reasonsList);
+
+            MuteType type = (auto == 0) ? MuteType.PERMANENT : MuteType.TEMP;
+            Instant expiresAt = type == MuteType.PERMANENT ? null : Instant.now().plusSeconds(auto);
+            Mute mute = new Mute(uuid, name, operator, type, reasonsList, auto, notice);
+
+            // uq_active_uuid lehnt einen zweiten aktiven Mute atomar ab, die ID kommt im selben Round-Trip.
+            // Abgelaufene, vom Expire-Job noch nicht archivierte Mutes würden den Index sonst blockieren.
+            long id = db.inTransaction(TAG_CREATE, con -> {
+                try {
+                    String stale = "uuid = ? AND active = 1 AND expires_at IS NOT NULL AND expires_at <= CURRENT_TIMESTAMP";
+                    if (!db.query(con, "SELECT id FROM sentinel_mutes WHERE " + stale + " FOR UPDATE", uuid.toString()).isEmpty()) {
+                        archive(con, stale, uuid.toString());
+                        db.update(con, "DELETE FROM sentinel_mutes WHERE " + stale, uuid.toString());
+                    }
+                    return db.insert(con, """
+                        INSERT INTO sentinel_mutes
+                          (uuid, name, operator, type, reasons, remaining_seconds, notice, created_at, expires_at, active)
+                        VALUES
+                          (?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, ?, 1)
+                    """,
+                            uuid.toString(), name, operator, type.name(), reasonsToJson(reasonsList), auto, notice,
+                            (expiresAt == null ? null : java.sql.Timestamp.from(expiresAt)));
+                } catch (SQLException e) {
+                    if (MySqlManager.isDuplicateKey(e)) return -1L;
+                    throw new RuntimeException(e);
+                }
+            });
+            if (id < 0) throw new IllegalStateException("Spieler ist bereits gemutet: " + name);
+
+            mute.setId(id)
+                    .setCreatedAt(Instant.now())
+                    .setExpiresAt(expiresAt)
+                    .setActive(true);
+            index.put(MuteIndex.Entry.of(mute));
+            return mute;
+        }
+    }
+
+    /** Mute über Name oder UUID eines bekannten (ggf. offline) Spielers. */
+    public Mute muteOfflineAuto(String nameOrUuid, String operator,
+                                List<String> reasonsList, String notice) throws SQLException {
+        if (players == null) throw new IllegalStateException("Offline-Mute nicht möglich: SentinelPlayerManager wurde nicht gesetzt.");
+
+        UUID u = tryParseUuid(nameOrUuid);
+        SentinelPlayer sp = (u != null) ? players.loadByUuid(u) : players.loadByName(nameOrUuid);
+        if (sp == null) throw new IllegalStateException("Spieler nicht in der Datenbank gefunden: " + nameOrUuid);
+
+        return createAuto(sp.getUniqueId(), sp.getName(), operator, reasonsList, notice);
+    }
+
+    private static UUID tryParseUuid(String s) {
+        try { return UUID.fromString(s); } catch (Exception ignored) { return null; }
+    }
+
+    /* ---------------- Read / Unmute / Expire ---------------- */
+
+    /** Aktiver, nicht abgelaufener Mute aus der DB (oder null). */
+    public Mute getActive(UUID uuid) throws SQLException {
+        List<Map<String, Object>> rows = db.query(TAG_GET_ACTIVE,
+                "SELECT " + COLUMNS + " FROM sentinel_mutes WHERE uuid = ? AND active = 1"
+                        + " AND (expires_at IS NULL OR expires_at > CURRENT_TIMESTAMP)"
+                        + " ORDER BY id DESC LIMIT 1", uuid.toString());
+        return rows.isEmpty() ? null : mapRow(rows.get(0));
+    }
+
+    /** listFor(UUID) -> Einträge (Live + Archiv) für Spieler */
+    public List<Mute> listFor(UUID uuid) throws SQLException {
+        List<Map<String, Object>> rows = db.query(TAG_LIST_FOR,
+                "SELECT " + COLUMNS + " FROM sentinel_mutes WHERE uuid = ?"
+                        + " UNION ALL SELECT " + COLUMNS + " FROM sentinel_mutes_archive WHERE uuid = ?"
+                        + " ORDER BY created_at DESC", uuid.toString(), uuid.toString());
+        List<Mute> out = new ArrayList<>(rows.size());
+        for (Map<String, Object> r : rows) out.add(mapRow(r));
+        return out;
+    }
+
+    /** Unmute: alle aktiven Mutes eines Spielers ins Archiv verschieben. */
+    public int unmuteAll(UUID uuid) throws SQLException {
+        List<Long> ids = db.inTransaction(TAG_UNMUTE_ALL, con -> {
+            List<Long> locked = new ArrayList<>();
+            try {
+                for (Map<String, Object> r : db.query(con,
+                        "SELECT id FROM sentinel_mutes WHERE uuid = ? AND active = 1 FOR UPDATE", uuid.toString())) {
+                    locked.add(((Number) r.get("id")).longValue());
+                }
+                if (locked.isEmpty()) return locked;
+                archive(con, "uuid = ? AND active = 1", uuid.toString());
+                db.update(con, "DELETE FROM sentinel_mutes WHERE uuid = ? AND active = 1", uuid.toString());
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+            return locked;
+        });
+
+        index.remove(uuid);
+        return ids.size();
+    }
+
+    /** Unmute über die Mute-ID. */
+    public boolean unmute(long muteId) throws SQLException {
+        UUID uuid = db.inTransaction(TAG_UNMUTE, con -> {
+            try {
+                List<Map<String, Object>> rows = db.query(con,
+                        "SELECT uuid FROM sentinel_mutes WHERE id = ? AND active = 1 FOR UPDATE", muteId);
+                if (rows.isEmpty()) return null;
+                archive(con, "id = ? AND active = 1", muteId);
+                db.update(con, "DELETE FROM sentinel_mutes WHERE id = ? AND active = 1", muteId);
+                return UUID.fromString(Objects.toString(rows.get(0).get("uuid")));
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        if (uuid == null) return false;
+        index.remove(uuid, muteId);
+        return true;
+    }
+
+    /** Verschiebt abgelaufene aktive Mutes ins Archiv und entfernt sie aus der Live-Tabelle. */
+    public int expireDueMutes() throws SQLException {
+        Map<Long, UUID> expired = db.inTransaction(TAG_EXPIRE, con -> {
+            Map<Long, UUID> due = new LinkedHashMap<>();
+            try {
+                for (Map<String, Object> r : db.query(con, """
+                    SELECT id, uuid
+                      FROM sentinel_mutes
+                     WHERE active = 1
+                       AND expires_at IS NOT NULL
+                       AND expires_at <= CURRENT_TIMESTAMP
+                       FOR UPDATE
+                """)) {
+                    due.put(((Number) r.get("id")).longValue(), UUID.fromString(Objects.toString(r.get("uuid"))));
+                }
+                if (due.isEmpty()) return due;
+
+                String in = String.join(",", Collections.nCopies(due.size(), "?"));
+                Object[] ids = due.keySet().toArray();
+                archive(con, "id IN (" + in + ")", ids);
+                db.update(con, "DELETE FROM sentinel_mutes WHERE id IN (" + in + ")", ids);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+            return due;
+        });
+
+        expired.forEach((id, uuid) -> index.remove(uuid, id));
+        return expired.size();
+    }
+
+    private void archive(java.sql.Connection con, String where, Object... params) throws SQLException {
+        db.update(con, "INSERT INTO sentinel_mutes_archive (" + COLUMNS + ", archived_at)"
+                + " SELECT " + COLUMNS + ", CURRENT_TIMESTAMP FROM sentinel_mutes WHERE " + where, params);
+    }
+}
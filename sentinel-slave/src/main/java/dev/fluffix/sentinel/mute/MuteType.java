@@ -0,0 +1,6 @@
+package dev.fluffix.sentinel.mute;
+
+public enum MuteType {
+    TEMP,
+    PERMANENT
+}
@@ -0,0 +1,250 @@
+package dev.fluffix.sentinel.player;
+
+import dev.fluffix.sentinel.configuration.SentinelConfig;
+import dev.fluffix.sentinel.logger.AsyncLogger;
+import dev.fluffix.sentinel.login.AdmissionController;
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verzögerte Spieler-Registrierung beim Join.
+ * - submit() legt nur in eine begrenzte Warteschlange (je UUID zusammengefasst, der letzte Join gewinnt).
+ * - Ein Hintergrund-Thread schreibt die Einträge über registerOrUpdate(); wie viele gleichzeitig laufen,
+ *   regelt ein AdmissionController nach der gemessenen Latenz.
+ * - Fehlgeschlagene Einträge werden mit wachsendem Abstand erneut versucht, nach MAX_ATTEMPTS verworfen
+ *   (der nächste Join registriert den Spieler erneut). Auch Wiederholungen zählen gegen die Kapazität.
+ * - Fällige Einträge liegen in einer Prioritätswarteschlange nach (dueAt, Reihenfolge); Entnehmen kostet
+ *   O(log n), auch wenn tausende Wiederholungen warten. Überholte Einträge (neuerer Join für dieselbe
+ *   UUID) werden beim Entnehmen übersprungen.
+ */
+public class PlayerRegistrationQueue implements AutoCloseable {
+
+    public enum Result { QUEUED, MERGED, QUEUE_FULL }
+
+    /** seq = Einreihungsreihenfolge; nur der Eintrag mit der seq aus pending ist gültig. */
+    private record Registration(UUID uuid, String name, String ip, int attempts, long dueAt, long seq) {}
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long RETRY_BASE_MILLIS = 1_000L;
+    private static final long DRAIN_MILLIS = 100L;
+    private static final long CLOSE_BUDGET_MILLIS = 2_000L;
+
+    private final SentinelPlayerManager players;
+    private final int capacity;
+    private final Map<UUID, Registration> pending = new HashMap<>(); // guarded by this
+    private final PriorityQueue<Registration> due = new PriorityQueue<>(  // guarded by this
+            Comparator.comparingLong(Registration::dueAt).thenComparingLong(Registration::seq));
+    private long nextSeq;                                                  // guarded by this
+    private final AdmissionController admission;
+    private final ScheduledExecutorService drainer;
+    private final ExecutorService writers;
+
+    private final LongAdder written;
+    private final LongAdder retried;
+    private final LongAdder dropped;
+    private final LongAdder rejected;
+
+    public PlayerRegistrationQueue(SentinelPlayerManager players, SentinelConfig config, SentinelMetrics metrics) {
+        this.players = Objects.requireNonNull(players, "players");
+        this.capacity = config.joinQueueCapacity();
+        int threads = config.joinRegisterThreads();
+        // nur der Drain-Thread wartet auf Slots, daher Warteschlange 1
+        this.admission = new AdmissionController("join", 1, threads, 1, metrics);
+
+        metrics.describe("sentinel_join_registrations_total", "Spieler-Registrierungen beim Join nach Ergebnis");
+        this.written = metrics.counter("sentinel_join_registrations_total", "result", "written");
+        this.retried = metrics.counter("sentinel_join_registrations_total", "result", "retry");
+        this.dropped = metrics.counter("sentinel_join_registrations_total", "result", "dropped");
+        this.rejected = metrics.counter("sentinel_join_registrations_total", "result", "queue_full");
+        metrics.gauge("sentinel_join_registrations_queued", this::size);
+
+        this.writers = Executors.newFixedThreadPool(threads, daemonFactory("Sentinel-JoinWriter"));
+        this.drainer = Executors.newSingleThreadScheduledExecutor(daemonFactory("Sentinel-JoinQueue"));
+        drainer.scheduleWithFixedDelay(this::drain, DRAIN_MILLIS, DRAIN_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /* ---------------- Annahme ---------------- */
+
+    /** Merkt die Registrierung vor, ohne die Datenbank zu berühren (sicher auf dem Server-Thread). */
+    public Result submit(UUID uuid, String name, String ip) {
+        Objects.requireNonNull(uuid, "uuid");
+        Objects.requireNonNull(name, "name");
+        synchronized (this) {
+            Registration existing = pending.get(uuid);
+            if (existing != null) {
+                if (existing.dueAt() == 0L) {
+                    // wartet noch auf den ersten Versuch: Platz in der Warteschlange behalten
+                    pending.put(uuid, new Registration(uuid, name, ip, 0, 0L, existing.seq()));
+                } else {
+                    enqueue(uuid, name, ip, 0, 0L);
+                }
+                return Result.MERGED;
+            }
+            if (pending.size() >= capacity) {
+                rejected.increment();
+                return Result.QUEUE_FULL;
+            }
+            enqueue(uuid, name, ip, 0, 0L);
+            return Result.QUEUED;
+        }
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    public AdmissionController getAdmission() {
+        return admission;
+    }
+
+    /* ---------------- Schreiben ---------------- */
+
+    private void drain() {
+        try {
+            Registration next;
+            while ((next = nextDue()) != null) {
+                if (!admission.tryAcquire(DRAIN_MILLIS * 10)) {
+                    requeue(next, next.attempts(), next.dueAt());
+                    return;
+                }
+                Registration r = next;
+                try {
+                    writers.execute(() -> write(r));
+                } catch (RejectedExecutionException e) {
+                    // Writer-Pool beendet (close); den Rest schreibt close() selbst
+                    admission.cancel();
+                    requeue(r, r.attempts(), r.dueAt());
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Nur unter synchronized(this). */
+    private void enqueue(UUID uuid, String name, String ip, int attempts, long dueAt) {
+        Registration r = new Registration(uuid, name, ip, attempts, dueAt, nextSeq++);
+        pending.put(uuid, r);
+        due.add(r);
+    }
+
+    /** Entnimmt den ältesten fälligen Eintrag. */
+    private synchronized Registration nextDue() {
+        long now = System.currentTimeMillis();
+        Registration head;
+        while ((head = due.peek()) != null && head.dueAt() <= now) {
+            due.poll();
+            Registration current = pending.get(head.uuid());
+            if (current != null && current.seq() == head.seq()) {
+                pending.remove(head.uuid());
+                return current;
+            }
+            // überholt: für die UUID wurde inzwischen neu eingereiht
+        }
+        return null;
+    }
+
+    /**
+     * Legt einen Eintrag zurück, sofern inzwischen kein neuerer Join für die UUID vorgemerkt wurde.
+     * Ist die Warteschlange inzwischen voll, wird er verworfen.
+     */
+    private synchronized void requeue(Registration r, int attempts, long dueAt) {
+        if (pending.containsKey(r.uuid())) return;
+        if (pending.size() >= capacity) {
+            dropped.increment();
+            return;
+        }
+        enqueue(r.uuid(), r.name(), r.ip(), attempts, dueAt);
+    }
+
+    private void write(Registration r) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            players.registerOrUpdate(r.uuid(), r.name(), r.ip());
+            ok = true;
+            written.increment();
+        } catch (SQLException | RuntimeException e) {
+            int attempts = r.attempts() + 1;
+            if (attempts >= MAX_ATTEMPTS) {
+                dropped.increment();
+            } else {
+                retried.increment();
+                requeue(r, attempts, System.currentTimeMillis() + (RETRY_BASE_MILLIS << attempts));
+            }
+        } finally {
+            admission.release(System.nanoTime() - start, ok);
+        }
+    }
+
+    private static ThreadFactory daemonFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /**
+     * Beendet die Threads und schreibt offene Registrierungen noch direkt (ohne Wiederholung), aber
+     * höchstens CLOSE_BUDGET_MILLIS lang: close() läuft beim Plugin-Stopp auf dem Server-Thread.
+     * Der Rest wird verworfen; der nächste Join registriert diese Spieler erneut.
+     */
+    @Override
+    public void close() {
+        drainer.shutdown();
+        writers.shutdown();
+        try {
+            drainer.awaitTermination(5, TimeUnit.SECONDS);
+            writers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        List<Registration> rest;
+        synchronized (this) {
+            rest = new ArrayList<>(pending.values());
+            pending.clear();
+            due.clear();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CLOSE_BUDGET_MILLIS);
+        int skipped = 0;
+        for (Registration r : rest) {
+            if (System.nanoTime() - deadline >= 0) {
+                skipped++;
+                continue;
+            }
+            try {
+                players.registerOrUpdate(r.uuid(), r.name(), r.ip());
+                written.increment();
+            } catch (SQLException | RuntimeException e) {
+                dropped.increment();
+            }
+        }
+        if (skipped > 0) {
+            dropped.add(skipped);
+            AsyncLogger.global().warn("SENTINEL", "Registrierungen beim Stopp verworfen (Zeitbudget erschöpft)",
+                    "count", skipped);
+        }
+    }
+}
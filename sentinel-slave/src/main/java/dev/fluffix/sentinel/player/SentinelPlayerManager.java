@@ -1,9 +1,12 @@
 package dev.fluffix.sentinel.player;
 
 import dev.fluffix.sentinel.database.mysql.MySqlManager;
+import dev.fluffix.sentinel.database.mysql.QueryTag;
 
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Persistenter Manager für SentinelPlayer.
@@ -16,6 +19,21 @@ import java.util.*;
 public class SentinelPlayerManager {
 
     private final MySqlManager db;
+    private final List<Consumer<UUID>> pointsListeners = new CopyOnWriteArrayList<>();
+
+    private static final QueryTag TAG_SCHEMA = QueryTag.of("player.schema");
+    private static final QueryTag TAG_EXISTS = QueryTag.of("player.exists");
+    private static final QueryTag TAG_EXISTS_IP = QueryTag.of("player.existsIp");
+    private static final QueryTag TAG_REGISTER = QueryTag.of("player.registerOrUpdate");
+    private static final QueryTag TAG_LOAD = QueryTag.of("player.load");
+    private static final QueryTag TAG_LOAD_BY_NAME = QueryTag.of("player.loadByName");
+    private static final QueryTag TAG_RESOLVE_ALL = QueryTag.of("player.resolveAll");
+    private static final QueryTag TAG_IPS_ALL = QueryTag.of("player.ipsAll", QueryTag.Workload.MAINTENANCE);
+    private static final QueryTag TAG_SAVE = QueryTag.of("player.save");
+    private static final QueryTag TAG_ADD_IP = QueryTag.of("player.addIp");
+    private static final QueryTag TAG_POINTS = QueryTag.of("player.points");
+    private static final QueryTag TAG_DELETE = QueryTag.of("player.delete");
+    private static final QueryTag TAG_LOAD_ALL = QueryTag.replicaRead("player.loadAll");
 
     public SentinelPlayerManager(MySqlManager db) throws SQLException {
         this.db = Objects.requireNonNull(db, "db");
@@ -25,20 +43,35 @@ public class SentinelPlayerManager {
     /* -------------------------- Schema -------------------------- */
 
     private void ensureSchema() throws SQLException {
+        db.schema().ensure("players", List.of(this::migrateV1));
+    }
+
+    /** Version 1: Ausgangsschema (idempotent, damit Bestandsinstallationen ohne Versionszeile sauber übernommen werden). */
+    private void migrateV1() throws SQLException {
         // Haupttabelle
-        db.update("""
+        db.update(TAG_SCHEMA, """
             CREATE TABLE IF NOT EXISTS sentinel_players (
               uuid       CHAR(36)      NOT NULL PRIMARY KEY,
               name       VARCHAR(64)   NOT NULL,
               points     INT           NOT NULL DEFAULT 0,
+              points_updated_at TIMESTAMP NULL,
               created_at TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
               updated_at TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
               INDEX idx_name (name)
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
         """);
 
+        // Bestandstabellen: Zeitstempel für den lazy Punkte-Verfall nachrüsten
+        List<Map<String, Object>> cols = db.query(TAG_SCHEMA, """
+            SELECT 1 FROM information_schema.COLUMNS
+             WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'sentinel_players' AND COLUMN_NAME = 'points_updated_at'
+        """);
+        if (cols.isEmpty()) {
+            db.update(TAG_SCHEMA, "ALTER TABLE sentinel_players ADD COLUMN points_updated_at TIMESTAMP NULL AFTER points");
+        }
+
         // IPs (eine Zeile pro (uuid, ip)), FK auf Spieler
-        db.update("""
+        db.update(TAG_SCHEMA, """
             CREATE TABLE IF NOT EXISTS sentinel_player_ips (
               uuid       CHAR(36)     NOT NULL,
               ip         VARCHAR(45)  NOT NULL,
@@ -56,7 +89,7 @@ public class SentinelPlayerManager {
     /* -------------------------- Exists -------------------------- */
 
     public boolean existsPlayer(UUID uuid) throws SQLException {
-        List<Map<String, Object>> rows = db.query(
+        List<Map<String, Object>> rows = db.query(TAG_EXISTS,
                 "SELECT 1 FROM sentinel_players WHERE uuid = ? LIMIT 1",
                 uuid.toString()
         );
@@ -64,7 +97,7 @@ public class SentinelPlayerManager {
     }
 
     public boolean existsIp(UUID uuid, String ip) throws SQLException {
-        List<Map<String, Object>> rows = db.query(
+        List<Map<String, Object>> rows = db.query(TAG_EXISTS_IP,
                 "SELECT 1 FROM sentinel_player_ips WHERE uuid = ? AND ip = ? LIMIT 1",
                 uuid.toString(), ip
         );
@@ -82,26 +115,29 @@ public class SentinelPlayerManager {
         Objects.requireNonNull(uuid, "uuid");
         Objects.requireNonNull(name, "name");
 
-        if (existsPlayer(uuid)) {
-            db.update("UPDATE sentinel_players SET name = ? WHERE uuid = ?", name, uuid.toString());
-        } else {
-            db.update("INSERT INTO sentinel_players(uuid, name, points) VALUES(?, ?, ?)",
-                    uuid.toString(), name, 0);
-        }
+        // alle Teilabfragen (exists/load) laufen unter dem Tag dieser Aufrufstelle
+        try (MySqlManager.Scope ignored = db.scope(TAG_REGISTER)) {
+            if (existsPlayer(uuid)) {
+                db.update(TAG_REGISTER, "UPDATE sentinel_players SET name = ? WHERE uuid = ?", name, uuid.toString());
+            } else {
+                db.update(TAG_REGISTER, "INSERT INTO sentinel_players(uuid, name, points) VALUES(?, ?, ?)",
+                        uuid.toString(), name, 0);
+            }
 
-        if (ipOpt != null && !ipOpt.isBlank() && !existsIp(uuid, ipOpt)) {
-            db.update("INSERT INTO sentinel_player_ips(uuid, ip) VALUES(?, ?)",
-                    uuid.toString(), ipOpt.trim());
-        }
+            if (ipOpt != null && !ipOpt.isBlank() && !existsIp(uuid, ipOpt)) {
+                db.update(TAG_REGISTER, "INSERT INTO sentinel_player_ips(uuid, ip) VALUES(?, ?)",
+                        uuid.toString(), ipOpt.trim());
+            }
 
-        return loadByUuid(uuid);
+            return loadByUuid(uuid);
+        }
     }
 
     /**
      * Lädt einen Spieler inkl. IPs.
      */
     public SentinelPlayer loadByUuid(UUID uuid) throws SQLException {
-        List<Map<String, Object>> rows = db.query(
+        List<Map<String, Object>> rows = db.query(TAG_LOAD,
                 "SELECT uuid, name, points FROM sentinel_players WHERE uuid = ?",
                 uuid.toString()
         );
@@ -115,7 +151,7 @@ public class SentinelPlayerManager {
         p.setPoints(((Number) r.get("points")).intValue());
 
         // IPs laden
-        List<Map<String, Object>> ipRows = db.query(
+        List<Map<String, Object>> ipRows = db.query(TAG_LOAD,
                 "SELECT ip FROM sentinel_player_ips WHERE uuid = ?",
                 uuid.toString()
         );
@@ -132,7 +168,7 @@ public class SentinelPlayerManager {
      * Lädt einen Spieler anhand des Namens (falls mehrere, erster Treffer).
      */
     public SentinelPlayer loadByName(String name) throws SQLException {
-        List<Map<String, Object>> rows = db.query(
+        List<Map<String, Object>> rows = db.query(TAG_LOAD_BY_NAME,
                 "SELECT uuid FROM sentinel_players WHERE name = ? LIMIT 1",
                 name
         );
@@ -141,6 +177,93 @@ public class SentinelPlayerManager {
         return uuid == null ? null : loadByUuid(UUID.fromString(uuid));
     }
 
+    /**
+     * Löst viele Namen/UUIDs auf einmal auf (ohne IPs): ein Query für alle UUIDs, einer für alle Namen.
+     * Schlüssel ist die Eingabe wie übergeben; nicht gefundene fehlen in der Map.
+     */
+    public Map<String, SentinelPlayer> resolveAll(Collection<String> namesOrUuids) throws SQLException {
+        Map<String, SentinelPlayer> out = new LinkedHashMap<>();
+        Map<String, String> byUuid = new HashMap<>();   // uuid -> Eingabe
+        Map<String, List<String>> byName = new HashMap<>(); // name (klein) -> Eingaben
+        for (String in : namesOrUuids) {
+            if (in == null || in.isBlank()) continue;
+            String s = in.trim();
+            try {
+                byUuid.put(UUID.fromString(s).toString(), in);
+            } catch (IllegalArgumentException notUuid) {
+                byName.computeIfAbsent(s.toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(in);
+            }
+        }
+
+        for (List<String> chunk : chunks(byUuid.keySet())) {
+            for (Map<String, Object> r : db.query(TAG_RESOLVE_ALL,
+                    "SELECT uuid, name, points FROM sentinel_players WHERE uuid IN (" + placeholders(chunk.size()) + ")",
+                    chunk.toArray())) {
+                String uuid = Objects.toString(r.get("uuid"));
+                out.put(byUuid.get(uuid), toPlayer(r));
+            }
+        }
+        for (List<String> chunk : chunks(byName.keySet())) {
+            for (Map<String, Object> r : db.query(TAG_RESOLVE_ALL,
+                    "SELECT uuid, name, points FROM sentinel_players WHERE name IN (" + placeholders(chunk.size()) + ")",
+                    chunk.toArray())) {
+                List<String> inputs = byName.get(Objects.toString(r.get("name")).toLowerCase(Locale.ROOT));
+                if (inputs == null) continue;
+                SentinelPlayer p = toPlayer(r);
+                for (String in : inputs) out.putIfAbsent(in, p); // bei Namensdubletten erster Treffer
+            }
+        }
+        return out;
+    }
+
+    /**
+     * IPs vieler Spieler auf einmal (ein IN-Query je 1000 UUIDs statt einer Abfrage pro Spieler).
+     * Spieler ohne bekannte IP fehlen in der Map.
+     */
+    public Map<UUID, Set<String>> ipsFor(Collection<UUID> uuids) throws SQLException {
+        Set<String> keys = new HashSet<>();
+        for (UUID u : uuids) keys.add(u.toString());
+        Map<UUID, Set<String>> out = new HashMap<>();
+        for (List<String> chunk : chunks(keys)) {
+            for (Map<String, Object> r : db.query(TAG_IPS_ALL,
+                    "SELECT uuid, ip FROM sentinel_player_ips WHERE uuid IN (" + placeholders(chunk.size()) + ")",
+                    chunk.toArray())) {
+                String ip = Objects.toString(r.get("ip"), null);
+                if (ip == null) continue;
+                out.computeIfAbsent(UUID.fromString(Objects.toString(r.get("uuid"))), k -> new HashSet<>()).add(ip);
+            }
+        }
+        return out;
+    }
+
+    private static SentinelPlayer toPlayer(Map<String, Object> r) {
+        SentinelPlayer p = new SentinelPlayer(
+                UUID.fromString(Objects.toString(r.get("uuid"))),
+                Objects.toString(r.get("name"), "Unknown"));
+        p.setPoints(((Number) r.get("points")).intValue());
+        return p;
+    }
+
+    private static final int IN_CHUNK = 1000;
+
+    private static List<List<String>> chunks(Collection<String> values) {
+        List<List<String>> out = new ArrayList<>();
+        List<String> cur = new ArrayList<>();
+        for (String v : values) {
+            cur.add(v);
+            if (cur.size() == IN_CHUNK) {
+                out.add(cur);
+                cur = new ArrayList<>();
+            }
+        }
+        if (!cur.isEmpty()) out.add(cur);
+        return out;
+    }
+
+    private static String placeholders(int n) {
+        return String.join(",", Collections.nCopies(n, "?"));
+    }
+
     /**
      * Speichert/aktualisiert einen Spieler (upsert) und fügt fehlende IPs hinzu.
      */
@@ -149,16 +272,16 @@ public class SentinelPlayerManager {
         UUID uuid = p.getUniqueId();
 
         if (existsPlayer(uuid)) {
-            db.update("UPDATE sentinel_players SET name = ?, points = ? WHERE uuid = ?",
+            db.update(TAG_SAVE, "UPDATE sentinel_players SET name = ?, points = ? WHERE uuid = ?",
                     p.getName(), p.getPoints(), uuid.toString());
         } else {
-            db.update("INSERT INTO sentinel_players(uuid, name, points) VALUES(?, ?, ?)",
+            db.update(TAG_SAVE, "INSERT INTO sentinel_players(uuid, name, points) VALUES(?, ?, ?)",
                     uuid.toString(), p.getName(), p.getPoints());
         }
 
         for (String ip : p.getIpAddresses()) {
             if (ip != null && !ip.isBlank() && !existsIp(uuid, ip)) {
-                db.update("INSERT INTO sentinel_player_ips(uuid, ip) VALUES(?, ?)",
+                db.update(TAG_SAVE, "INSERT INTO sentinel_player_ips(uuid, ip) VALUES(?, ?)",
                         uuid.toString(), ip.trim());
             }
         }
@@ -170,45 +293,64 @@ public class SentinelPlayerManager {
             throw new IllegalStateException("Spieler existiert nicht: " + uuid);
         }
         if (!existsIp(uuid, ip)) {
-            db.update("INSERT INTO sentinel_player_ips(uuid, ip) VALUES(?, ?)",
+            db.update(TAG_ADD_IP, "INSERT INTO sentinel_player_ips(uuid, ip) VALUES(?, ?)",
                     uuid.toString(), ip.trim());
         } else {
-            db.update("UPDATE sentinel_player_ips SET last_seen = CURRENT_TIMESTAMP WHERE uuid = ? AND ip = ?",
+            db.update(TAG_ADD_IP, "UPDATE sentinel_player_ips SET last_seen = CURRENT_TIMESTAMP WHERE uuid = ? AND ip = ?",
                     uuid.toString(), ip.trim());
         }
     }
 
+    // Punkte-Änderungen: ein einzelnes UPDATE, 0 betroffene Zeilen = Spieler unbekannt.
+    // Rohwerte ohne Verfall; die automatische Eskalation läuft über EscalationEngine.
+    // Jede Änderung setzt points_updated_at neu und meldet die UUID an die Punkte-Listener (Cache-Invalidierung).
+
+    /** Wird nach jeder direkten Punkte-Änderung mit der UUID aufgerufen (z. B. EscalationEngine::invalidate). */
+    public void onPointsChanged(Consumer<UUID> listener) {
+        pointsListeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
     public void setPoints(UUID uuid, int points) throws SQLException {
-        if (!existsPlayer(uuid)) {
-            throw new IllegalStateException("Spieler existiert nicht: " + uuid);
-        }
-        db.update("UPDATE sentinel_players SET points = ? WHERE uuid = ?",
+        int updated = db.update(TAG_POINTS,
+                "UPDATE sentinel_players SET points = ?, points_updated_at = CURRENT_TIMESTAMP WHERE uuid = ?",
                 Math.max(0, points), uuid.toString());
+        if (updated == 0) throw new IllegalStateException("Spieler existiert nicht: " + uuid);
+        firePointsChanged(uuid);
     }
 
     public void addPoints(UUID uuid, int delta) throws SQLException {
         if (delta <= 0) return;
-        if (!existsPlayer(uuid)) {
-            throw new IllegalStateException("Spieler existiert nicht: " + uuid);
-        }
-        db.update("UPDATE sentinel_players SET points = points + ? WHERE uuid = ?",
+        int updated = db.update(TAG_POINTS,
+                "UPDATE sentinel_players SET points = points + ?, points_updated_at = CURRENT_TIMESTAMP WHERE uuid = ?",
                 delta, uuid.toString());
+        if (updated == 0) throw new IllegalStateException("Spieler existiert nicht: " + uuid);
+        firePointsChanged(uuid);
     }
 
     public void removePoints(UUID uuid, int delta) throws SQLException {
         if (delta <= 0) return;
-        if (!existsPlayer(uuid)) {
-            throw new IllegalStateException("Spieler existiert nicht: " + uuid);
-        }
-        db.update("""
+        int updated = db.update(TAG_POINTS, """
             UPDATE sentinel_players
-               SET points = GREATEST(0, points - ?)
+               SET points = GREATEST(0, points - ?),
+                   points_updated_at = CURRENT_TIMESTAMP
              WHERE uuid = ?
         """, delta, uuid.toString());
+        if (updated == 0) throw new IllegalStateException("Spieler existiert nicht: " + uuid);
+        firePointsChanged(uuid);
+    }
+
+    private void firePointsChanged(UUID uuid) {
+        for (Consumer<UUID> l : pointsListeners) {
+            try {
+                l.accept(uuid);
+            } catch (RuntimeException ignored) {
+                // Listener dürfen die Änderung nicht rückgängig machen – sie ist bereits gespeichert
+            }
+        }
     }
 
     public boolean delete(UUID uuid) throws SQLException {
-        int affected = db.update("DELETE FROM sentinel_players WHERE uuid = ?", uuid.toString());
+        int affected = db.update(TAG_DELETE, "DELETE FROM sentinel_players WHERE uuid = ?", uuid.toString());
         return affected > 0;
     }
 
@@ -216,7 +358,7 @@ public class SentinelPlayerManager {
      * Lädt alle Spieler (N+1 IP-Abfragen – für große Datenmengen ggf. optimieren).
      */
     public List<SentinelPlayer> loadAll() throws SQLException {
-        List<Map<String, Object>> rows = db.query(
+        List<Map<String, Object>> rows = db.query(TAG_LOAD_ALL,
                 "SELECT uuid, name, points FROM sentinel_players ORDER BY created_at ASC"
         );
         List<SentinelPlayer> out = new ArrayList<>(rows.size());
@@ -228,7 +370,7 @@ public class SentinelPlayerManager {
             );
             p.setPoints(((Number) r.get("points")).intValue());
 
-            List<Map<String, Object>> ipRows = db.query(
+            List<Map<String, Object>> ipRows = db.query(TAG_LOAD_ALL,
                     "SELECT ip FROM sentinel_player_ips WHERE uuid = ?",
                     uuid.toString()
             );
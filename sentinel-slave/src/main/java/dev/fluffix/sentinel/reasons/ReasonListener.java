@@ -0,0 +1,14 @@
+package dev.fluffix.sentinel.reasons;
+
+/**
+ * Wird vom ReasonManager nach erfolgreichem Schreiben informiert.
+ * Implementierungen dürfen nicht blockieren und keine Exceptions werfen.
+ */
+public interface ReasonListener {
+
+    /** Grund wurde angelegt oder seine Dauer geändert. */
+    default void onReasonSaved(String name, ReasonType type, long durationSeconds) {}
+
+    /** Grund wurde gelöscht (deleted = false, wenn es ihn nicht gab). */
+    default void onReasonDeleted(String name, ReasonType type, boolean deleted) {}
+}
@@ -1,9 +1,11 @@
 package dev.fluffix.sentinel.reasons;
 
 import dev.fluffix.sentinel.database.mysql.MySqlManager;
+import dev.fluffix.sentinel.database.mysql.QueryTag;
 
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Verwaltet Reasons (name, type, duration[seconds]) in Tabelle 'sentinel_reasons'.
@@ -19,6 +21,14 @@ import java.util.*;
 public class ReasonManager {
 
     private final MySqlManager db;
+    private final List<ReasonListener> listeners = new CopyOnWriteArrayList<>();
+
+    private static final QueryTag TAG_SCHEMA = QueryTag.of("reason.schema");
+    private static final QueryTag TAG_EXISTS = QueryTag.of("reason.exists");
+    private static final QueryTag TAG_SAVE = QueryTag.of("reason.save");
+    private static final QueryTag TAG_DELETE = QueryTag.of("reason.delete");
+    private static final QueryTag TAG_LOAD = QueryTag.of("reason.load");
+    private static final QueryTag TAG_LOAD_ALL = QueryTag.replicaRead("reason.loadAll");
 
     public ReasonManager(MySqlManager db) throws SQLException {
         this.db = Objects.requireNonNull(db, "db");
@@ -26,7 +36,12 @@ public class ReasonManager {
     }
 
     private void ensureSchema() throws SQLException {
-        db.update("""
+        db.schema().ensure("reasons", List.of(this::migrateV1));
+    }
+
+    /** Version 1: Ausgangsschema (idempotent, damit Bestandsinstallationen ohne Versionszeile sauber übernommen werden). */
+    private void migrateV1() throws SQLException {
+        db.update(TAG_SCHEMA, """
             CREATE TABLE IF NOT EXISTS sentinel_reasons (
                 id         BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
                 name       VARCHAR(128) NOT NULL,
@@ -38,10 +53,18 @@ public class ReasonManager {
         """);
     }
 
+    public void addListener(ReasonListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    public void removeListener(ReasonListener listener) {
+        listeners.remove(listener);
+    }
+
     /* ----------------- CRUD ----------------- */
 
     public boolean exists(String name, ReasonType type) throws SQLException {
-        List<Map<String, Object>> rows = db.query(
+        List<Map<String, Object>> rows = db.query(TAG_EXISTS,
                 "SELECT 1 FROM sentinel_reasons WHERE name=? AND type=? LIMIT 1",
                 name, type.name()
         );
@@ -50,19 +73,21 @@ public class ReasonManager {
 
     public void save(String name, ReasonType type, long durationSeconds) throws SQLException {
         // upsert-artig: erst versuchen zu insert'en, bei DUPLICATE KEY -> update duration
-        db.update("""
+        db.update(TAG_SAVE, """
             INSERT INTO sentinel_reasons(name, type, duration)
             VALUES(?, ?, ?)
             ON DUPLICATE KEY UPDATE duration = VALUES(duration)
         """, name, type.name(), durationSeconds);
+        for (ReasonListener l : listeners) l.onReasonSaved(name, type, durationSeconds);
     }
 
     public void delete(String name, ReasonType type) throws SQLException {
-        db.update("DELETE FROM sentinel_reasons WHERE name=? AND type=?", name, type.name());
+        int deleted = db.update(TAG_DELETE, "DELETE FROM sentinel_reasons WHERE name=? AND type=?", name, type.name());
+        for (ReasonListener l : listeners) l.onReasonDeleted(name, type, deleted > 0);
     }
 
     public Reason load(String name, ReasonType type) throws SQLException {
-        List<Map<String, Object>> rows = db.query("""
+        List<Map<String, Object>> rows = db.query(TAG_LOAD, """
             SELECT id, name, type, duration, created_at
               FROM sentinel_reasons
              WHERE name=? AND type=?
@@ -80,13 +105,13 @@ public class ReasonManager {
     public List<Reason> loadAll(ReasonType filter) throws SQLException {
         final List<Map<String, Object>> rows;
         if (filter == null) {
-            rows = db.query("""
+            rows = db.query(TAG_LOAD_ALL, """
                 SELECT id, name, type, duration, created_at
                   FROM sentinel_reasons
                  ORDER BY name ASC
             """);
         } else {
-            rows = db.query("""
+            rows = db.query(TAG_LOAD_ALL, """
                 SELECT id, name, type, duration, created_at
                   FROM sentinel_reasons
                  WHERE type=?
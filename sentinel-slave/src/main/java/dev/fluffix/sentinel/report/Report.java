@@ -0,0 +1,18 @@
+package dev.fluffix.sentinel.report;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Eingegangener Report (noch nicht persistiert).
+ */
+public record Report(UUID reporter, String reporterName,
+                     UUID target, String targetName,
+                     String reason, long createdAtMillis) {
+
+    public Report {
+        Objects.requireNonNull(reporter, "reporter");
+        Objects.requireNonNull(target, "target");
+        Objects.requireNonNull(reason, "reason");
+    }
+}
@@ -0,0 +1,335 @@
+package dev.fluffix.sentinel.report;
+
+import dev.fluffix.sentinel.configuration.SentinelConfig;
+import dev.fluffix.sentinel.database.mysql.MySqlManager;
+import dev.fluffix.sentinel.database.mysql.QueryTag;
+import dev.fluffix.sentinel.database.mysql.QueryTag.Workload;
+import dev.fluffix.sentinel.logger.AsyncLogger;
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+import dev.fluffix.sentinel.reasons.Reason;
+import dev.fluffix.sentinel.reasons.ReasonManager;
+import dev.fluffix.sentinel.reasons.ReasonType;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Report-Annahme mit entkoppelter Persistenz.
+ * - submit() prüft nur In-Memory-Zustand (Reason-Cache, Dedup-Fenster) und legt in eine begrenzte Queue.
+ * - Ein Hintergrund-Thread schreibt die Queue periodisch als JDBC-Batch (Reports + aggregierte Zähler je Ziel).
+ * - Gleicher Reporter/Ziel/Grund innerhalb des Dedup-Fensters wird verworfen.
+ */
+public class ReportManager implements AutoCloseable {
+
+    public enum Result { ACCEPTED, DUPLICATE, QUEUE_FULL, UNKNOWN_REASON }
+
+    /** Ergebnis einer Annahme; recentForTarget = angenommene Reports für das Ziel seit dem letzten Bearbeiten. */
+    public record Submission(Result result, int recentForTarget) {}
+
+    private static final QueryTag TAG_SCHEMA = QueryTag.of("report.schema");
+    private static final QueryTag TAG_FLUSH = QueryTag.of("report.flush", Workload.MAINTENANCE);
+    private static final QueryTag TAG_TOP = QueryTag.replicaRead("report.top");
+    private static final QueryTag TAG_FIND = QueryTag.of("report.findTarget");
+    private static final QueryTag TAG_CLEAR = QueryTag.of("report.clear");
+
+    private static final long REASON_REFRESH_MILLIS = 30_000L;
+
+    private final MySqlManager db;
+    private final ReasonManager reasons;
+    private final BlockingQueue<Report> queue;
+    private final Map<String, Long> dedup = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicInteger> recent = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private final int batchSize;
+    private final long dedupMillis;
+
+    private volatile Set<String> reasonNames = Set.of();
+    private volatile long reasonsLoadedAt;
+
+    private final LongAdder accepted;
+    private final LongAdder duplicates;
+    private final LongAdder rejected;
+    private final LongAdder dropped;
+
+    public ReportManager(MySqlManager db, ReasonManager reasons, SentinelConfig config) throws SQLException {
+        this.db = Objects.requireNonNull(db, "db");
+        this.reasons = Objects.requireNonNull(reasons, "reasons");
+        this.queue = new ArrayBlockingQueue<>(config.reportQueueCapacity());
+        this.batchSize = config.reportBatchSize();
+        this.dedupMillis = config.reportDedupSeconds() * 1000L;
+
+        SentinelMetrics metrics = db.getMetrics();
+        metrics.describe("sentinel_reports_total", "Report-Annahme nach Ergebnis");
+        this.accepted = metrics.counter("sentinel_reports_total", "result", "accepted");
+        this.duplicates = metrics.counter("sentinel_reports_total", "result", "duplicate");
+        this.rejected = metrics.counter("sentinel_reports_total", "result", "queue_full");
+        this.dropped = metrics.counter("sentinel_reports_total", "result", "dropped");
+        metrics.gauge("sentinel_reports_queued", queue::size);
+
+        ensureSchema();
+        refreshReasons();
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Sentinel-Reports");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = config.reportFlushMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /* ---------------- Schema ---------------- */
+
+    private void ensureSchema() throws SQLException {
+        db.schema().ensure("reports", List.of(this::migrateV1));
+    }
+
+    /** Version 1: Ausgangsschema (idempotent, damit Bestandsinstallationen ohne Versionszeile sauber übernommen werden). */
+    private void migrateV1() throws SQLException {
+        db.update(TAG_SCHEMA, """
+            CREATE TABLE IF NOT EXISTS sentinel_reports (
+              id             BIGINT        NOT NULL AUTO_INCREMENT,
+              reporter_uuid  CHAR(36)      NOT NULL,
+              reporter_name  VARCHAR(64)   NULL,
+              target_uuid    CHAR(36)      NOT NULL,
+              target_name    VARCHAR(64)   NULL,
+              reason         VARCHAR(64)   NOT NULL,
+              created_at     TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+              PRIMARY KEY (id),
+              INDEX idx_target_created (target_uuid, created_at)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+        """);
+
+        // eine Zeile je Ziel – wird pro Flush per Upsert hochgezählt
+        db.update(TAG_SCHEMA, """
+            CREATE TABLE IF NOT EXISTS sentinel_report_counts (
+              target_uuid    CHAR(36)      NOT NULL,
+              target_name    VARCHAR(64)   NULL,
+              total_reports  BIGINT        NOT NULL DEFAULT 0,
+              open_reports   BIGINT        NOT NULL DEFAULT 0,
+              last_reason    VARCHAR(64)   NULL,
+              last_report_at TIMESTAMP     NULL,
+              PRIMARY KEY (target_uuid),
+              INDEX idx_open (open_reports)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+        """);
+    }
+
+    /* ---------------- Annahme ---------------- */
+
+    /** Nimmt einen Report an, ohne die Datenbank zu berühren. */
+    public Submission submit(Report report) {
+        String reason = report.reason().trim().toLowerCase(Locale.ROOT);
+        if (!reasonNames.contains(reason)) {
+            return new Submission(Result.UNKNOWN_REASON, 0);
+        }
+
+        long now = System.currentTimeMillis();
+        String key = report.reporter() + "|" + report.target() + "|" + reason;
+        if (dedupMillis > 0) {
+            long until = now + dedupMillis;
+            boolean[] duplicate = {false};
+            dedup.compute(key, (k, old) -> {
+                if (old != null && old > now) {
+                    duplicate[0] = true;
+                    return old;
+                }
+                return until;
+            });
+            if (duplicate[0]) {
+                duplicates.increment();
+                return new Submission(Result.DUPLICATE, recentFor(report.target()));
+            }
+            if (!queue.offer(report)) {
+                dedup.remove(key, until);
+                rejected.increment();
+                return new Submission(Result.QUEUE_FULL, recentFor(report.target()));
+            }
+        } else if (!queue.offer(report)) {
+            rejected.increment();
+            return new Submission(Result.QUEUE_FULL, recentFor(report.target()));
+        }
+
+        accepted.increment();
+        int count = recent.computeIfAbsent(report.target(), k -> new AtomicInteger()).incrementAndGet();
+        return new Submission(Result.ACCEPTED, count);
+    }
+
+    /** Gültige REPORT-Gründe aus dem Cache (für Tab-Completion). */
+    public Set<String> reasonNames() {
+        return reasonNames;
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    private int recentFor(UUID target) {
+        AtomicInteger c = recent.get(target);
+        return c == null ? 0 : c.get();
+    }
+
+    /* ---------------- Persistenz ---------------- */
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            // Reports bleiben in der Queue; nächster Versuch im nächsten Intervall
+            AsyncLogger.global().warn("REPORT", "Report-Flush fehlgeschlagen: " + e.getMessage(),
+                    "queued", queue.size());
+        }
+        long now = System.currentTimeMillis();
+        if (now - reasonsLoadedAt >= REASON_REFRESH_MILLIS) {
+            try {
+                refreshReasons();
+            } catch (SQLException e) {
+                // alter Cache bleibt gültig
+                AsyncLogger.global().warn("REPORT", "Report-Gründe konnten nicht neu geladen werden: " + e.getMessage());
+            }
+            dedup.values().removeIf(until -> until <= now);
+        }
+    }
+
+    /** Schreibt alle wartenden Reports in Batches von reportBatchSize. */
+    public synchronized int flush() throws SQLException {
+        int written = 0;
+        List<Report> chunk = new ArrayList<>(batchSize);
+        while (queue.drainTo(chunk, batchSize) > 0) {
+            try {
+                write(chunk);
+            } catch (SQLException e) {
+                requeue(chunk);
+                throw e;
+            }
+            written += chunk.size();
+            chunk.clear();
+        }
+        return written;
+    }
+
+    private void write(List<Report> chunk) throws SQLException {
+        List<Object[]> rows = new ArrayList<>(chunk.size());
+        Map<UUID, Object[]> counts = new LinkedHashMap<>();
+        for (Report r : chunk) {
+            Timestamp at = new Timestamp(r.createdAtMillis());
+            rows.add(new Object[]{
+                    r.reporter().toString(), r.reporterName(),
+                    r.target().toString(), r.targetName(),
+                    r.reason(), at});
+
+            Object[] agg = counts.computeIfAbsent(r.target(),
+                    k -> new Object[]{k.toString(), r.targetName(), 0L, 0L, r.reason(), at});
+            agg[2] = (Long) agg[2] + 1;
+            agg[3] = (Long) agg[3] + 1;
+            agg[4] = r.reason();
+            agg[5] = at;
+        }
+
+        db.inTransaction(TAG_FLUSH, con -> {
+            try {
+                db.batch(con, """
+                    INSERT INTO sentinel_reports
+                      (reporter_uuid, reporter_name, target_uuid, target_name, reason, created_at)
+                    VALUES (?, ?, ?, ?, ?, ?)
+                """, rows);
+                db.batch(con, """
+                    INSERT INTO sentinel_report_counts
+                      (target_uuid, target_name, total_reports, open_reports, last_reason, last_report_at)
+                    VALUES (?, ?, ?, ?, ?, ?)
+                    ON DUPLICATE KEY UPDATE
+                      target_name    = VALUES(target_name),
+                      total_reports  = total_reports + VALUES(total_reports),
+                      open_reports   = open_reports + VALUES(open_reports),
+                      last_reason    = VALUES(last_reason),
+                      last_report_at = VALUES(last_report_at)
+                """, new ArrayList<>(counts.values()));
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+            return null;
+        });
+    }
+
+    /** Fehlgeschlagenen Batch zurücklegen; was nicht mehr passt, wird gezählt und verworfen. */
+    private void requeue(List<Report> chunk) {
+        int lost = 0;
+        for (Report r : chunk) {
+            if (!queue.offer(r)) lost++;
+        }
+        if (lost > 0) {
+            dropped.add(lost);
+            AsyncLogger.global().error("REPORT", "Reports verworfen: Queue nach fehlgeschlagenem Flush voll", null,
+                    "count", lost);
+        }
+    }
+
+    private void refreshReasons() throws SQLException {
+        Set<String> names = new HashSet<>();
+        for (Reason r : reasons.loadAll(ReasonType.REPORT)) names.add(r.getName().toLowerCase(Locale.ROOT));
+        this.reasonNames = Set.copyOf(names);
+        this.reasonsLoadedAt = System.currentTimeMillis();
+    }
+
+    /* ---------------- Staff ---------------- */
+
+    /** Ziele mit offenen Reports, meiste zuerst. */
+    public List<ReportSummary> topTargets(int limit) throws SQLException {
+        List<Map<String, Object>> rows = db.query(TAG_TOP, """
+            SELECT target_uuid, target_name, total_reports, open_reports, last_reason, last_report_at
+              FROM sentinel_report_counts
+             WHERE open_reports > 0
+             ORDER BY open_reports DESC, last_report_at DESC
+             LIMIT ?
+        """, Math.max(1, limit));
+        List<ReportSummary> out = new ArrayList<>(rows.size());
+        for (Map<String, Object> r : rows) {
+            Object at = r.get("last_report_at");
+            out.add(new ReportSummary(
+                    UUID.fromString(Objects.toString(r.get("target_uuid"))),
+                    Objects.toString(r.get("target_name"), "-"),
+                    ((Number) r.get("total_reports")).longValue(),
+                    ((Number) r.get("open_reports")).longValue(),
+                    Objects.toString(r.get("last_reason"), "-"),
+                    at instanceof Timestamp t ? t.toInstant() : null));
+        }
+        return out;
+    }
+
+    /** UUID eines gemeldeten Spielers anhand des zuletzt gemeldeten Namens (oder null). */
+    public UUID findTarget(String targetName) throws SQLException {
+        List<Map<String, Object>> rows = db.query(TAG_FIND,
+                "SELECT target_uuid FROM sentinel_report_counts WHERE target_name = ? ORDER BY last_report_at DESC LIMIT 1",
+                targetName);
+        return rows.isEmpty() ? null : UUID.fromString(Objects.toString(rows.get(0).get("target_uuid")));
+    }
+
+    /** Markiert alle offenen Reports eines Ziels als bearbeitet. */
+    public boolean clear(UUID target) throws SQLException {
+        flush(); // noch wartende Reports gehören zum bearbeiteten Stand
+        recent.remove(target);
+        return db.update(TAG_CLEAR,
+                "UPDATE sentinel_report_counts SET open_reports = 0 WHERE target_uuid = ? AND open_reports > 0",
+                target.toString()) > 0;
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (SQLException e) {
+            int lost = queue.size();
+            dropped.add(lost);
+            AsyncLogger.global().error("REPORT", "Reports beim Stopp verworfen", e, "count", lost);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package dev.fluffix.sentinel.report;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Aggregierte Report-Zähler je Ziel (eine Zeile pro Spieler statt pro Report).
+ */
+public record ReportSummary(UUID target, String targetName, long totalReports, long openReports,
+                            String lastReason, Instant lastReportAt) {
+}
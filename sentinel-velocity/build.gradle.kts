@@ -0,0 +1,32 @@
+plugins {
+    id("java")
+    id("com.gradleup.shadow") version "9.1.0"
+}
+
+group = "dev.fluffix.sentinel"
+version = "1.0.0"
+
+repositories {
+    mavenCentral()
+    maven("https://repo.papermc.io/repository/maven-public/")
+}
+
+dependencies {
+    // Velocity nur bereitstellen; der Annotation-Processor erzeugt velocity-plugin.json
+    compileOnly("com.velocitypowered:velocity-api:3.4.0-SNAPSHOT")
+    annotationProcessor("com.velocitypowered:velocity-api:3.4.0-SNAPSHOT")
+
+    // --- RUNTIME libs, die INS JAR SOLLEN ---
+    implementation(project(":sentinel-slave"))
+
+    implementation("com.zaxxer:HikariCP:5.1.0")
+    implementation("com.mysql:mysql-connector-j:8.4.0")
+
+    implementation("com.fasterxml.jackson.core:jackson-databind:2.15.2")
+    implementation("com.fasterxml.jackson.core:jackson-core:2.15.2")
+    implementation("com.fasterxml.jackson.core:jackson-annotations:2.15.2")
+}
+
+java {
+    toolchain.languageVersion.set(JavaLanguageVersion.of(21))
+}
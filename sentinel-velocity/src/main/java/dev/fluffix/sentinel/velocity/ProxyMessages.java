@@ -0,0 +1,60 @@
+package dev.fluffix.sentinel.velocity;
+
+import dev.fluffix.sentinel.ban.snapshot.SnapshotEntry;
+import dev.fluffix.sentinel.configuration.JsonFileBuilder;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Texte des Proxys (messages.json im Plugin-Ordner); Platzhalter wie auf den Backends.
+ */
+public class ProxyMessages {
+
+    private static final String BAN_KICK = "ban_kick";
+
+    private final MiniMessage mm = MiniMessage.miniMessage();
+    private final JsonFileBuilder json;
+
+    public ProxyMessages(File dataFolder) throws IOException {
+        File file = new File(dataFolder, "messages.json");
+        JsonFileBuilder defaults = new JsonFileBuilder()
+                .add(BAN_KICK, "<red>Du bist vom Netzwerk gebannt.</red><newline><gray>Gründe:</gray> <gold><reasons></gold><newline><gray>Verbleibend:</gray> <white><duration></white><newline><gray>Von:</gray> <white><operator></white><newline><gray><notice></gray>");
+
+        if (!file.exists()) {
+            defaults.build(file.getAbsolutePath());
+            this.json = defaults;
+            return;
+        }
+        JsonFileBuilder current = new JsonFileBuilder();
+        current.loadFromFile(file);
+        if (current.mergeMissing(defaults)) {
+            current.build(file.getAbsolutePath());
+        }
+        this.json = current;
+    }
+
+    public Component banKick(String player, SnapshotEntry entry) {
+        long remaining = entry.remainingSeconds(System.currentTimeMillis());
+        return mm.deserialize(json.getString(BAN_KICK),
+                Placeholder.unparsed("player", player),
+                Placeholder.unparsed("reasons", entry.reasons() == null ? "-" : entry.reasons()),
+                Placeholder.unparsed("duration", remaining == 0 ? "permanent" : formatDuration(remaining)),
+                Placeholder.unparsed("operator", entry.operator() == null ? "-" : entry.operator()),
+                Placeholder.unparsed("notice", entry.notice() == null ? "" : entry.notice()));
+    }
+
+    static String formatDuration(long seconds) {
+        long days = seconds / 86400; seconds %= 86400;
+        long hours = seconds / 3600; seconds %= 3600;
+        long minutes = seconds / 60;
+        StringBuilder sb = new StringBuilder();
+        if (days > 0) sb.append(days).append("d ");
+        if (hours > 0) sb.append(hours).append("h ");
+        if (minutes > 0 || sb.length() == 0) sb.append(minutes).append("m");
+        return sb.toString().trim();
+    }
+}
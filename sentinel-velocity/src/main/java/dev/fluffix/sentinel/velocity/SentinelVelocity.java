@@ -0,0 +1,210 @@
+package dev.fluffix.sentinel.velocity;
+
+import com.google.inject.Inject;
+import com.velocitypowered.api.event.EventTask;
+import com.velocitypowered.api.event.ResultedEvent;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.LoginEvent;
+import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
+import com.velocitypowered.api.plugin.Plugin;
+import com.velocitypowered.api.plugin.annotation.DataDirectory;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import dev.fluffix.sentinel.audit.AuditTrail;
+import dev.fluffix.sentinel.ban.Ban;
+import dev.fluffix.sentinel.ban.BanManager;
+import dev.fluffix.sentinel.ban.snapshot.BanSnapshot;
+import dev.fluffix.sentinel.ban.snapshot.SnapshotEntry;
+import dev.fluffix.sentinel.configuration.SentinelConfig;
+import dev.fluffix.sentinel.database.mysql.MySqlManager;
+import dev.fluffix.sentinel.login.IndexedBanGate;
+import dev.fluffix.sentinel.metrics.MetricsHttpServer;
+import dev.fluffix.sentinel.metrics.SentinelMetrics;
+import dev.fluffix.sentinel.player.SentinelPlayerManager;
+import dev.fluffix.sentinel.reasons.ReasonManager;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sentinel auf dem Velocity-Proxy: Bans werden einmal beim Login ins Netzwerk geprüft,
+ * Serverwechsel kosten keine weitere Prüfung. Backends mit loginTrustProxy=true verlassen sich darauf.
+ *
+ * Nutzt dieselben Tabellen und dieselbe mysql.json/sentinel.json wie die Paper-Server.
+ */
+@Plugin(id = "sentinel", name = "Sentinel", version = "1.0.0", authors = {"FluffixYT"})
+public class SentinelVelocity {
+
+    private final ProxyServer server;
+    private final Logger logger;
+    private final File dataFolder;
+    private final SentinelMetrics metrics = new SentinelMetrics();
+
+    private MySqlManager mySqlManager;
+    private BanManager banManager;
+    private AuditTrail auditTrail;
+    private BanSnapshot banSnapshot;
+    private IndexedBanGate gate;
+    private ProxyMessages messages;
+    private MetricsHttpServer metricsServer;
+
+    @Inject
+    public SentinelVelocity(ProxyServer server, Logger logger, @DataDirectory Path dataDirectory) {
+        this.server = server;
+        this.logger = logger;
+        this.dataFolder = dataDirectory.toFile();
+    }
+
+    @Subscribe
+    public void onInitialize(ProxyInitializeEvent event) {
+        if (!dataFolder.exists() && !dataFolder.mkdirs()) {
+            logger.error("[Sentinel] Fehler beim Erstellen des Plugin-Ordners");
+            return;
+        }
+
+        SentinelConfig config;
+        try {
+            config = SentinelConfig.load(new File(dataFolder, "sentinel.json"));
+            this.messages = new ProxyMessages(dataFolder);
+        } catch (IOException e) {
+            logger.error("[Sentinel] Fehler beim Laden der Konfiguration: " + e.getMessage());
+            return;
+        }
+
+        this.banSnapshot = new BanSnapshot(dataFolder);
+        banSnapshot.bindMetrics(metrics);
+        try {
+            int loaded = banSnapshot.load();
+            logger.info("[Sentinel] Ban-Index geladen: " + loaded + " aktive Ban(s)");
+        } catch (IOException e) {
+            logger.warn("[Sentinel] Ban-Index konnte nicht gelesen werden: " + e.getMessage());
+        }
+
+        try {
+            mySqlManager = MySqlManager.fromConfig(new File(dataFolder, "mysql.json"), metrics);
+            try (Connection con = mySqlManager.getConnection()) {
+                if (!con.isValid(2)) {
+                    throw new IllegalStateException("MySQL-Connection ist nicht gültig (isValid=false).");
+                }
+            }
+            SentinelPlayerManager players = new SentinelPlayerManager(mySqlManager);
+            this.banManager = new BanManager(mySqlManager, players, new ReasonManager(mySqlManager));
+            this.auditTrail = new AuditTrail(mySqlManager, config);
+            banManager.addListener(auditTrail);
+            banSnapshot.setPlayerManager(players);
+            this.gate = new IndexedBanGate(banManager, banSnapshot, metrics);
+            int synced = gate.syncFull();
+            logger.info("[Sentinel] Verbindung zum MySQL-Server erfolgreich, " + synced + " aktive Ban(s) im Index");
+        } catch (Exception e) {
+            // ohne DB setzt der Proxy nur den geladenen Index durch (Backends prüfen weiter selbst,
+            // solange loginTrustProxy dort nicht gesetzt ist)
+            logger.error("[Sentinel] Verbindung zum MySQL-Server fehlgeschlagen: " + e.getMessage());
+            if (auditTrail != null) {
+                auditTrail.close();
+                auditTrail = null;
+            }
+            if (mySqlManager != null) {
+                mySqlManager.close();
+                mySqlManager = null;
+            }
+        }
+
+        startMetricsServer(config);
+        if (gate == null) return;
+
+        server.getScheduler().buildTask(this, this::syncDelta)
+                .delay(config.indexSyncSeconds(), TimeUnit.SECONDS)
+                .repeat(config.indexSyncSeconds(), TimeUnit.SECONDS)
+                .schedule();
+        server.getScheduler().buildTask(this, this::syncFull)
+                .delay(5, TimeUnit.MINUTES)
+                .repeat(5, TimeUnit.MINUTES)
+                .schedule();
+    }
+
+    /* ---------------- Login ---------------- */
+
+    @Subscribe
+    public EventTask onLogin(LoginEvent event) {
+        return EventTask.async(() -> {
+            if (banSnapshot == null) return; // Start fehlgeschlagen
+            Player player = event.getPlayer();
+            String ip = player.getRemoteAddress() == null ? null : player.getRemoteAddress().getAddress().getHostAddress();
+            SnapshotEntry ban = gate != null
+                    ? gate.check(player.getUniqueId(), ip)
+                    : banSnapshot.lookup(player.getUniqueId(), ip);
+            if (ban != null) {
+                event.setResult(ResultedEvent.ComponentResult.denied(messages.banKick(player.getUsername(), ban)));
+            }
+        });
+    }
+
+    /* ---------------- Abgleich ---------------- */
+
+    private void syncDelta() {
+        List<Ban> fresh;
+        try {
+            fresh = gate.syncDelta();
+        } catch (SQLException e) {
+            logger.warn("[Sentinel] Neue Bans konnten nicht abgeglichen werden: " + e.getMessage());
+            return;
+        }
+        // auf einem Backend gebannt: nicht auf einen anderen Server ausweichen lassen
+        for (Ban ban : fresh) {
+            server.getPlayer(ban.getUniqueId()).ifPresent(p -> {
+                SnapshotEntry entry = banSnapshot.lookup(ban.getUniqueId(), null);
+                if (entry != null) p.disconnect(messages.banKick(p.getUsername(), entry));
+            });
+        }
+    }
+
+    private void syncFull() {
+        try {
+            gate.syncFull();
+        } catch (SQLException | IOException e) {
+            logger.warn("[Sentinel] Ban-Index konnte nicht abgeglichen werden: " + e.getMessage());
+        }
+    }
+
+    private void startMetricsServer(SentinelConfig config) {
+        int port = config.metricsPort();
+        if (port <= 0) return;
+        try {
+            metricsServer = new MetricsHttpServer(metrics, config.metricsBind(), port);
+            logger.info("[Sentinel] Metriken unter http://" + config.metricsBind() + ":" + port + "/metrics");
+        } catch (IOException e) {
+            logger.error("[Sentinel] Metrik-Endpunkt konnte nicht gestartet werden: " + e.getMessage());
+        }
+    }
+
+    @Subscribe
+    public void onShutdown(ProxyShutdownEvent event) {
+        if (metricsServer != null) {
+            metricsServer.close();
+            metricsServer = null;
+        }
+        if (auditTrail != null) {
+            // wartende Audit-Einträge noch schreiben, bevor der Pool schließt
+            auditTrail.close();
+            auditTrail = null;
+        }
+        if (mySqlManager != null) {
+            mySqlManager.close();
+            mySqlManager = null;
+        }
+        if (banSnapshot != null) {
+            try {
+                banSnapshot.close();
+            } catch (IOException e) {
+                logger.warn("[Sentinel] Ban-Index konnte nicht geschlossen werden: " + e.getMessage());
+            }
+        }
+    }
+}
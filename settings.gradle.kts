@@ -1,3 +1,4 @@
 rootProject.name = "sentinel"
 include("sentinel-slave")
-include("sentinel-paper")
\ No newline at end of file
+include("sentinel-paper")
+include("sentinel-velocity")
\ No newline at end of file